@@ -0,0 +1,124 @@
+package com.community.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 백엔드 REST 호출 (부하 테스트 계정 등록/로그인, actuator 서버 지표 조회)
+ * actuator 지표는 인증이 필요하므로 실행마다 부하 테스트 계정을 하나 만들어 JWT를 받는다.
+ */
+@Slf4j
+public class BackendClient {
+
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String token;
+    private String userId;
+
+    public BackendClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * 서버 지표 (조회 실패한 값은 NaN)
+     * @param processCpu 백엔드 프로세스 CPU 사용률 (0~1, 전체 코어 기준)
+     * @param systemCpu  호스트 CPU 사용률 (0~1)
+     * @param heapUsed   힙 사용량 (bytes)
+     * @param heapMax    힙 최대 크기 (bytes)
+     * @param liveThreads 살아 있는 스레드 수
+     */
+    public record ServerStats(double processCpu, double systemCpu, double heapUsed, double heapMax,
+                              double liveThreads) {
+
+        public String format() {
+            return String.format("server cpu=%.1f%% (host %.1f%%) heap=%.0f/%.0fMB threads=%.0f",
+                    processCpu * 100, systemCpu * 100, heapUsed / (1024 * 1024), heapMax / (1024 * 1024),
+                    liveThreads);
+        }
+    }
+
+    /**
+     * 부하 테스트 계정을 만들고 로그인
+     * 채팅은 DB에 저장되므로 실제 사용자 ID가 필요하다 (아바타들은 이 계정 ID로 채팅을 보낸다).
+     */
+    public void signUp() throws IOException, InterruptedException {
+        // 사용자명은 20자 이하
+        String name = "loadtest" + Long.toString(System.currentTimeMillis(), 36);
+        String email = name + "@loadtest.local";
+        String password = "loadtest-" + System.nanoTime();
+
+        HttpResponse<String> register = post("/api/auth/register",
+                Map.of("username", name, "email", email, "password", password));
+        if (register.statusCode() != 200) {
+            throw new IOException("Register failed: HTTP " + register.statusCode());
+        }
+        HttpResponse<String> login = post("/api/auth/login", Map.of("email", email, "password", password));
+        if (login.statusCode() != 200) {
+            throw new IOException("Login failed: HTTP " + login.statusCode());
+        }
+        JsonNode body = objectMapper.readTree(login.body());
+        token = body.path("token").asText();
+        userId = body.path("user").path("id").asText();
+        log.info("Load test account: {} (id={})", email, userId);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public ServerStats fetchServerStats() {
+        return new ServerStats(
+                metric("process.cpu.usage", null),
+                metric("system.cpu.usage", null),
+                metric("jvm.memory.used", "area:heap"),
+                metric("jvm.memory.max", "area:heap"),
+                metric("jvm.threads.live", null));
+    }
+
+    private double metric(String name, String tag) {
+        String path = "/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : "");
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return Double.NaN;
+            }
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                if ("VALUE".equals(measurement.path("statistic").asText())) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Failed to fetch {}: {}", name, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Double.NaN;
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,145 @@
+package com.community.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 테스트 측정값
+ * 지연 시간은 보낸 시점(System.nanoTime)부터 다른 아바타가 받은 시점까지 (같은 JVM이라 시계가 같다).
+ * 구간 보고는 {@link #snapshot()} 사이의 값, 최종 보고는 전체 누적 값.
+ */
+public class LoadTestMetrics {
+
+    public enum Latency {
+        POSITION("position"),   // 위치 전송 -> 다른 아바타의 /topic/snapshots 수신
+        CHAT("chat"),           // 채팅 전송 -> 다른 아바타의 /topic/chat 수신
+        ROOM_JOIN("room.join"); // 방 입장 요청 -> /topic/minigame/joinResult 수신
+
+        private final String label;
+
+        Latency(String label) {
+            this.label = label;
+        }
+    }
+
+    // 최대 60초까지 마이크로초 단위, 유효 숫자 3자리
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<Latency, Recorder> recorders = new EnumMap<>(Latency.class);
+    private final Map<Latency, Histogram> totals = new EnumMap<>(Latency.class);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final LongAdder disconnects = new LongAdder();
+
+    private long totalSent;
+    private long totalReceived;
+    // reset() 시점의 값 (누적 값은 이후부터)
+    private long sentBase;
+    private long receivedBase;
+
+    public LoadTestMetrics() {
+        for (Latency latency : Latency.values()) {
+            recorders.put(latency, new Recorder(MAX_LATENCY_MICROS, 3));
+            totals.put(latency, new Histogram(MAX_LATENCY_MICROS, 3));
+        }
+    }
+
+    public void recordLatency(Latency latency, long sentNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos);
+        recorders.get(latency).recordValue(Math.max(0, Math.min(micros, MAX_LATENCY_MICROS)));
+    }
+
+    public void sent() {
+        sent.increment();
+    }
+
+    public void received() {
+        received.increment();
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public void connected() {
+        connected.incrementAndGet();
+    }
+
+    public void disconnected() {
+        connected.decrementAndGet();
+        disconnects.increment();
+    }
+
+    /**
+     * 구간 측정값 (지난 호출 이후), 호출할 때마다 누적 값에도 더한다
+     * 보고 스레드 하나에서만 호출한다.
+     */
+    public Snapshot snapshot() {
+        Map<Latency, Histogram> interval = new EnumMap<>(Latency.class);
+        for (Latency latency : Latency.values()) {
+            Histogram histogram = recorders.get(latency).getIntervalHistogram();
+            totals.get(latency).add(histogram);
+            interval.put(latency, histogram);
+        }
+        long sentNow = sent.sum();
+        long receivedNow = received.sum();
+        Snapshot snapshot = new Snapshot(interval, sentNow - totalSent, receivedNow - totalReceived,
+                errors.sum(), connected.get(), disconnects.sum());
+        totalSent = sentNow;
+        totalReceived = receivedNow;
+        return snapshot;
+    }
+
+    /**
+     * 누적 값을 비운다 (ramp-up 구간을 최종 결과에서 빼기 위해)
+     */
+    public void reset() {
+        snapshot();
+        totals.values().forEach(Histogram::reset);
+        sentBase = totalSent;
+        receivedBase = totalReceived;
+    }
+
+    /**
+     * {@link #reset()} 이후 누적 측정값 ({@link #snapshot()}으로 모은 값)
+     */
+    public Snapshot total() {
+        return new Snapshot(totals, totalSent - sentBase, totalReceived - receivedBase,
+                errors.sum(), connected.get(), disconnects.sum());
+    }
+
+    public record Snapshot(Map<Latency, Histogram> latencies, long sent, long received,
+                           long errors, int connected, long disconnects) {
+
+        public String format(double seconds) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("clients=%d disconnects=%d errors=%d | sent=%.0f msg/s received=%.0f msg/s",
+                    connected, disconnects, errors, sent / seconds, received / seconds));
+            for (Map.Entry<Latency, Histogram> entry : latencies.entrySet()) {
+                Histogram h = entry.getValue();
+                if (h.getTotalCount() == 0) {
+                    continue;
+                }
+                sb.append(String.format("%n  %-10s n=%-9d p50=%7.1fms p90=%7.1fms p99=%7.1fms p99.9=%7.1fms max=%7.1fms",
+                        entry.getKey().label, h.getTotalCount(),
+                        millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                        millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                        millis(h.getMaxValue())));
+            }
+            return sb.toString();
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.community.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 부하 테스트 실행 옵션 (--name=value 형식)
+ *
+ * @param url              백엔드 주소 (SockJS 엔드포인트는 {url}/ws)
+ * @param clients          동시 접속 아바타 수
+ * @param rampUpSeconds    전체 아바타가 접속을 마칠 때까지의 시간
+ * @param durationSeconds  모든 아바타가 접속한 뒤 측정하는 시간
+ * @param positionHz       아바타당 위치 전송 횟수 (실제 클라이언트는 100ms마다 = 10)
+ * @param speed            걷는 속도 (월드 좌표 단위/초)
+ * @param area             이동 영역 반지름 (-area ~ area 정사각형)
+ * @param chatSeconds      아바타당 평균 채팅 간격
+ * @param roomSeconds      아바타당 평균 미니게임 방 입장 간격
+ * @param roomStaySeconds  방에 머무는 평균 시간
+ * @param reportSeconds    중간 보고 주기
+ */
+public record LoadTestOptions(String url,
+                              int clients,
+                              int rampUpSeconds,
+                              int durationSeconds,
+                              int positionHz,
+                              double speed,
+                              double area,
+                              int chatSeconds,
+                              int roomSeconds,
+                              int roomStaySeconds,
+                              int reportSeconds) {
+
+    private static final Set<String> NAMES = Set.of("url", "clients", "ramp-up", "duration", "position-hz", "speed",
+            "area", "chat-interval", "room-interval", "room-stay", "report-interval");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0 || !NAMES.contains(arg.substring(2, eq))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + " (expected --name=value, one of " + NAMES + ")");
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.getOrDefault("url", "http://localhost:8080"),
+                intOf(values, "clients", 100),
+                intOf(values, "ramp-up", 30),
+                intOf(values, "duration", 60),
+                intOf(values, "position-hz", 10),
+                doubleOf(values, "speed", 4.0),
+                doubleOf(values, "area", 100.0),
+                intOf(values, "chat-interval", 30),
+                intOf(values, "room-interval", 60),
+                intOf(values, "room-stay", 20),
+                intOf(values, "report-interval", 5));
+        if (options.clients() <= 0 || options.positionHz() <= 0 || options.reportSeconds() <= 0) {
+            throw new IllegalArgumentException("clients, position-hz and report-interval must be positive");
+        }
+        return options;
+    }
+
+    public String webSocketUrl() {
+        return url + "/ws";
+    }
+
+    private static int intOf(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static double doubleOf(Map<String, String> values, String name, double defaultValue) {
+        String value = values.get(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
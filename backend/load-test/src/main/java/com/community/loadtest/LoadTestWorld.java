@@ -0,0 +1,57 @@
+package com.community.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 아바타들이 함께 쓰는 상태
+ * - 아바타 목록: 스냅샷으로 받은 위치가 어느 전송이었는지 찾기 위해 (지연 시간 측정)
+ * - 열린 미니게임 방: /topic/minigame/rooms 브로드캐스트로 모은 방 목록 (입장할 방 고르기)
+ */
+public class LoadTestWorld {
+
+    // userId -> 아바타
+    private final Map<String, SimulatedAvatar> avatars = new ConcurrentHashMap<>();
+
+    // roomId -> 빈자리가 있는지
+    private final Map<String, Boolean> rooms = new ConcurrentHashMap<>();
+
+    public void add(SimulatedAvatar avatar) {
+        avatars.put(avatar.getUserId(), avatar);
+    }
+
+    public SimulatedAvatar avatar(String userId) {
+        return avatars.get(userId);
+    }
+
+    /**
+     * /topic/minigame/rooms 브로드캐스트 반영
+     */
+    public void roomChanged(String roomId, String action, int currentPlayers, int maxPlayers, boolean playing) {
+        if (roomId == null) {
+            return;
+        }
+        if ("delete".equals(action)) {
+            rooms.remove(roomId);
+        } else {
+            rooms.put(roomId, !playing && currentPlayers < maxPlayers);
+        }
+    }
+
+    /**
+     * 빈자리가 있는 방 하나를 무작위로 고른다
+     * @return 없으면 null
+     */
+    public String pickOpenRoom() {
+        List<String> open = new ArrayList<>();
+        rooms.forEach((roomId, hasSeat) -> {
+            if (hasSeat) {
+                open.add(roomId);
+            }
+        });
+        return open.isEmpty() ? null : open.get(ThreadLocalRandom.current().nextInt(open.size()));
+    }
+}
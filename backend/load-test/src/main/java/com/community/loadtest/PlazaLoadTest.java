@@ -0,0 +1,116 @@
+package com.community.loadtest;
+
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 광장 부하 테스트
+ * 아바타 N명을 SockJS/STOMP(/ws)로 접속시켜 이동/채팅/미니게임 방 입장을 흉내 내고,
+ * 메시지 지연 시간 분포, 초당 메시지 수, 서버 CPU/힙 사용량을 보고한다.
+ *
+ * 로컬 H2 백엔드에 대해 실행:
+ *   SPRING_PROFILES_ACTIVE=h2 ./gradlew bootRun
+ *   ./gradlew :load-test:run --args="--clients=1000 --ramp-up=60 --duration=120"
+ */
+@Slf4j
+public class PlazaLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        log.info("Load test: {}", options);
+
+        BackendClient backend = new BackendClient(options.url());
+        backend.signUp();
+
+        LoadTestMetrics metrics = new LoadTestMetrics();
+        LoadTestWorld world = new LoadTestWorld();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors()));
+        WebSocketStompClient stompClient = createStompClient();
+
+        // 접속: ramp-up 동안 고르게 나눠서
+        String runId = UUID.randomUUID().toString().substring(0, 6);
+        List<SimulatedAvatar> avatars = new ArrayList<>(options.clients());
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(options.rampUpSeconds());
+        long started = System.nanoTime();
+        long lastReport = started;
+        for (int i = 0; i < options.clients(); i++) {
+            SimulatedAvatar avatar = new SimulatedAvatar(i, runId, backend.getUserId(), options, metrics, world,
+                    scheduler);
+            world.add(avatar);
+            avatars.add(avatar);
+            CompletableFuture<?> connecting = avatar.connect(stompClient);
+            connecting.exceptionally(e -> {
+                metrics.error();
+                log.warn("Connect failed: {}", e.getMessage());
+                return null;
+            });
+
+            long due = started + rampUpNanos * (i + 1) / options.clients();
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            if (System.nanoTime() - lastReport >= TimeUnit.SECONDS.toNanos(options.reportSeconds())) {
+                lastReport = report("ramp-up " + (i + 1) + "/" + options.clients(), metrics, backend, lastReport);
+            }
+        }
+
+        // 측정: 전원 접속 후 duration 동안 (ramp-up 구간 값은 버린다)
+        log.info("All {} clients started, measuring for {}s", options.clients(), options.durationSeconds());
+        metrics.reset();
+        long measureStart = System.nanoTime();
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        lastReport = measureStart;
+        while (System.nanoTime() < measureEnd) {
+            long next = Math.min(measureEnd, lastReport + TimeUnit.SECONDS.toNanos(options.reportSeconds()));
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, next - System.nanoTime()));
+            lastReport = report("steady", metrics, backend, lastReport);
+        }
+
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+        log.info("=== Result ({} clients, {}s) ===\n{}\n{}", options.clients(), Math.round(measuredSeconds),
+                metrics.total().format(measuredSeconds), backend.fetchServerStats().format());
+
+        avatars.forEach(SimulatedAvatar::stop);
+        scheduler.shutdownNow();
+        stompClient.stop();
+        System.exit(0);
+    }
+
+    private static long report(String phase, LoadTestMetrics metrics, BackendClient backend, long since) {
+        long now = System.nanoTime();
+        double seconds = (now - since) / 1e9;
+        log.info("[{}] {}\n  {}", phase, metrics.snapshot().format(seconds), backend.fetchServerStats().format());
+        return now;
+    }
+
+    private static WebSocketStompClient createStompClient() {
+        // 스냅샷이 커질 수 있으므로 기본 8KB 버퍼보다 크게
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(1024 * 1024);
+        SockJsClient sockJsClient = new SockJsClient(
+                List.of(new WebSocketTransport(new StandardWebSocketClient(container))));
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(sockJsClient);
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setInboundMessageSizeLimit(1024 * 1024);
+        // heartbeat는 다른 스레드에서 세션에 쓰므로 끈다 (아바타가 계속 메시지를 보내 연결이 유지됨)
+        stompClient.setDefaultHeartbeat(new long[]{0, 0});
+        return stompClient;
+    }
+}
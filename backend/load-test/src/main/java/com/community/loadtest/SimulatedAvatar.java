@@ -0,0 +1,473 @@
+package com.community.loadtest;
+
+import com.community.loadtest.LoadTestMetrics.Latency;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.ConnectionLostException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.stomp.StompSession.Subscription;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 광장 아바타 한 명 (STOMP 세션 하나)
+ * 실제 클라이언트(multiplayerService.js, minigameService.js)와 같은 구독/전송을 한다.
+ * - 입장: /app/player.join (json 스냅샷 포맷, 받은 위치로 지연 시간을 재기 위해)
+ * - 이동: position-hz 마다 /app/player.position (무작위 걷기)
+ * - 채팅: 평균 chat-interval 초마다 /app/chat.message
+ * - 미니게임: 평균 room-interval 초마다 방을 만들거나 들어가서 room-stay 초쯤 머물다 나간다
+ */
+@Slf4j
+public class SimulatedAvatar extends StompSessionHandlerAdapter {
+
+    static final String CHAT_PREFIX = "[load-test] ";
+
+    // 스냅샷으로 받은 위치를 찾을 때 볼 최근 전송 수 (틱 주기 동안 보내는 수보다 넉넉하게)
+    private static final int SENT_HISTORY = 32;
+
+    private final int index;
+    private final String userId;
+    private final String username;
+    private final String chatUserId;
+    private final LoadTestOptions options;
+    private final LoadTestMetrics metrics;
+    private final LoadTestWorld world;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile StompSession session;
+    // 위치/채팅/방 작업과 수신 스레드가 함께 보내지만 WebSocket 세션은 동시에 쓸 수 없다 (구독/해제 포함)
+    private final Object sendLock = new Object();
+    private volatile boolean connected;
+    private volatile boolean stopped;
+    private volatile ScheduledFuture<?> positionTask;
+    private volatile ScheduledFuture<?> chatTask;
+    private volatile ScheduledFuture<?> roomTask;
+
+    // 무작위 걷기 상태 (위치 전송 작업에서만 바꿈)
+    private double x;
+    private double z;
+    private double heading;
+
+    // 최근에 보낸 위치 (다른 아바타의 수신 스레드가 읽으므로 synchronized)
+    private final double[] sentX = new double[SENT_HISTORY];
+    private final double[] sentZ = new double[SENT_HISTORY];
+    private final long[] sentNanos = new long[SENT_HISTORY];
+    private long sentCount;
+
+    // 다른 아바타별로 마지막으로 측정한 전송 번호 (같은 위치를 두 번 세지 않도록)
+    private final Map<String, Long> lastMeasured = new HashMap<>();
+
+    // 미니게임 방 상태 (방 작업과 수신 스레드가 함께 씀)
+    private final Object roomLock = new Object();
+    private String currentRoom;
+    private Subscription roomSubscription;
+    private boolean creatingRoom;
+    private String joiningRoom;
+    private long joinSentNanos;
+
+    /**
+     * 전송한 위치 하나
+     * @param sequence 아바타 안에서의 전송 번호
+     * @param nanos    보낸 시각 (System.nanoTime)
+     */
+    record SentPosition(long sequence, long nanos) {
+    }
+
+    public SimulatedAvatar(int index, String runId, String chatUserId, LoadTestOptions options,
+                           LoadTestMetrics metrics, LoadTestWorld world, ScheduledExecutorService scheduler) {
+        this.index = index;
+        this.userId = "lt-" + runId + "-" + index;
+        this.username = "LoadTest" + index;
+        this.chatUserId = chatUserId;
+        this.options = options;
+        this.metrics = metrics;
+        this.world = world;
+        this.scheduler = scheduler;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.x = random.nextDouble(-options.area(), options.area());
+        this.z = random.nextDouble(-options.area(), options.area());
+        this.heading = random.nextDouble(Math.PI * 2);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public CompletableFuture<StompSession> connect(WebSocketStompClient stompClient) {
+        return stompClient.connectAsync(options.webSocketUrl(), this);
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        this.connected = true;
+        metrics.connected();
+
+        subscribe("/topic/players.batch", payload -> { });
+        subscribe("/topic/online-count", payload -> { });
+        subscribe("/topic/snapshots/" + userId, this::onSnapshot);
+        subscribe("/topic/interest/" + userId, payload -> { });
+        // 서버가 입장 시 같은 ID("chat-plaza")로 광장 채팅을 구독해 주므로 같은 ID로 핸들러만 등록 (중복 수신 없음)
+        subscribe("/topic/chat", "chat-plaza", this::onChat);
+        subscribe("/topic/minigame/rooms", this::onRoomChanged);
+        subscribe("/topic/minigame/joinResult/" + userId, this::onJoinResult);
+
+        Map<String, Object> join = new LinkedHashMap<>();
+        join.put("userId", userId);
+        join.put("username", username);
+        join.put("snapshotFormat", "json");
+        join.put("x", x);
+        join.put("z", z);
+        send("/app/player.join", join);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / options.positionHz();
+        positionTask = scheduler.scheduleAtFixedRate(this::sendPosition,
+                random.nextLong(periodMicros), periodMicros, TimeUnit.MICROSECONDS);
+        scheduleChat();
+        scheduleRoom(options.roomSeconds());
+    }
+
+    /**
+     * 접속 종료 (방에 있으면 먼저 나간다)
+     */
+    public void stop() {
+        stopped = true;
+        cancel(positionTask);
+        cancel(chatTask);
+        cancel(roomTask);
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return;
+        }
+        synchronized (roomLock) {
+            if (currentRoom != null) {
+                send("/app/minigame.room.leave", Map.of("roomId", currentRoom, "userId", userId));
+                currentRoom = null;
+            }
+        }
+        current.disconnect();
+        if (connected) {
+            connected = false;
+            metrics.disconnected();
+        }
+    }
+
+    // ===== 이동 =====
+
+    private void sendPosition() {
+        if (stopped) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double step = options.speed() / options.positionHz();
+        if (random.nextDouble() < 0.05) {
+            heading += random.nextDouble(-Math.PI / 2, Math.PI / 2);
+        }
+        x += Math.sin(heading) * step;
+        z += Math.cos(heading) * step;
+        // 영역을 벗어나면 벽에 튕기듯 방향을 바꾼다
+        if (Math.abs(x) > options.area()) {
+            x = Math.copySign(options.area(), x);
+            heading = -heading;
+        }
+        if (Math.abs(z) > options.area()) {
+            z = Math.copySign(options.area(), z);
+            heading = Math.PI - heading;
+        }
+
+        Map<String, Object> position = new LinkedHashMap<>();
+        position.put("userId", userId);
+        position.put("username", username);
+        position.put("x", x);
+        position.put("y", 0.0);
+        position.put("z", z);
+        position.put("rotationY", heading);
+        position.put("animation", "walk");
+        position.put("isChangingAvatar", false);
+
+        synchronized (this) {
+            int slot = (int) (sentCount % SENT_HISTORY);
+            sentX[slot] = x;
+            sentZ[slot] = z;
+            sentNanos[slot] = System.nanoTime();
+            sentCount++;
+        }
+        send("/app/player.position", position);
+    }
+
+    /**
+     * 이 아바타가 최근에 보낸 위치 중 좌표가 같은 것
+     * @return 없으면 (이미 기록이 밀려났으면) null
+     */
+    synchronized SentPosition findSent(double x, double z) {
+        long oldest = Math.max(0, sentCount - SENT_HISTORY);
+        for (long sequence = sentCount - 1; sequence >= oldest; sequence--) {
+            int slot = (int) (sequence % SENT_HISTORY);
+            if (sentX[slot] == x && sentZ[slot] == z) {
+                return new SentPosition(sequence, sentNanos[slot]);
+            }
+        }
+        return null;
+    }
+
+    private void onSnapshot(JsonNode snapshot) {
+        // tick 0은 입장 스냅샷 (이미 있던 위치라 지연 시간에 넣지 않음)
+        if (snapshot.path("tick").asLong() == 0) {
+            return;
+        }
+        for (JsonNode player : snapshot.path("players")) {
+            SimulatedAvatar sender = world.avatar(player.path("userId").asText());
+            if (sender == null) {
+                continue;
+            }
+            SentPosition sent = sender.findSent(player.path("x").asDouble(), player.path("z").asDouble());
+            if (sent == null) {
+                continue;
+            }
+            synchronized (lastMeasured) {
+                Long last = lastMeasured.get(sender.userId);
+                if (last != null && last >= sent.sequence()) {
+                    continue;
+                }
+                lastMeasured.put(sender.userId, sent.sequence());
+            }
+            metrics.recordLatency(Latency.POSITION, sent.nanos());
+        }
+    }
+
+    // ===== 채팅 =====
+
+    private void scheduleChat() {
+        if (!stopped && options.chatSeconds() > 0) {
+            chatTask = scheduler.schedule(this::sendChat, randomDelayMillis(options.chatSeconds()),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void sendChat() {
+        if (stopped) {
+            return;
+        }
+        // 메시지 저장에 실제 사용자 ID가 필요하므로 부하 테스트 계정 ID로 보낸다
+        Map<String, Object> chat = new LinkedHashMap<>();
+        chat.put("userId", chatUserId);
+        chat.put("username", username);
+        chat.put("message", CHAT_PREFIX + System.nanoTime());
+        send("/app/chat.message", chat);
+        scheduleChat();
+    }
+
+    private void onChat(JsonNode chat) {
+        String message = chat.path("message").asText();
+        if (message.startsWith(CHAT_PREFIX)) {
+            try {
+                metrics.recordLatency(Latency.CHAT, Long.parseLong(message.substring(CHAT_PREFIX.length())));
+            } catch (NumberFormatException ignored) {
+                // 다른 실행의 메시지가 아니면 일어나지 않음
+            }
+        }
+    }
+
+    // ===== 미니게임 방 =====
+
+    private void scheduleRoom(int meanSeconds) {
+        if (!stopped && meanSeconds > 0) {
+            roomTask = scheduler.schedule(this::roomAction, randomDelayMillis(meanSeconds), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void roomAction() {
+        if (stopped) {
+            return;
+        }
+        synchronized (roomLock) {
+            if (currentRoom != null) {
+                send("/app/minigame.room.leave", Map.of("roomId", currentRoom, "userId", userId));
+                unsubscribeRoom();
+                currentRoom = null;
+                scheduleRoom(options.roomSeconds());
+                return;
+            }
+
+            // 이전 요청의 응답을 못 받았으면 포기하고 새로 시작
+            creatingRoom = false;
+            joiningRoom = null;
+            // 응답이 오면 enterRoom에서 머무는 시간으로 바꾸고, 안 오면 다음 주기에 다시 시도
+            scheduleRoom(options.roomSeconds());
+
+            String roomId = world.pickOpenRoom();
+            if (roomId == null || ThreadLocalRandom.current().nextDouble() < 0.2) {
+                Map<String, Object> create = new LinkedHashMap<>();
+                create.put("roomName", "Load test " + index);
+                create.put("gameName", "omok");
+                create.put("hostId", userId);
+                create.put("hostName", username);
+                create.put("maxPlayers", 4);
+                create.put("hostLevel", 1);
+                creatingRoom = true;
+                send("/app/minigame.room.create", create);
+            } else {
+                Map<String, Object> join = new LinkedHashMap<>();
+                join.put("roomId", roomId);
+                join.put("userId", userId);
+                join.put("username", username);
+                join.put("level", 1);
+                joiningRoom = roomId;
+                joinSentNanos = System.nanoTime();
+                send("/app/minigame.room.join", join);
+            }
+        }
+    }
+
+    private void onRoomChanged(JsonNode room) {
+        String roomId = room.path("roomId").asText(null);
+        String action = room.path("action").asText();
+        world.roomChanged(roomId, action, room.path("currentPlayers").asInt(),
+                room.path("maxPlayers").asInt(), room.path("playing").asBoolean());
+
+        if ("create".equals(action) && userId.equals(room.path("hostId").asText())) {
+            synchronized (roomLock) {
+                if (creatingRoom) {
+                    creatingRoom = false;
+                    enterRoom(roomId);
+                }
+            }
+        }
+    }
+
+    private void onJoinResult(JsonNode result) {
+        synchronized (roomLock) {
+            String roomId = result.path("roomId").asText();
+            if (!roomId.equals(joiningRoom)) {
+                return;
+            }
+            joiningRoom = null;
+            if ("ok".equals(result.path("payload").asText())) {
+                metrics.recordLatency(Latency.ROOM_JOIN, joinSentNanos);
+                enterRoom(roomId);
+            }
+        }
+    }
+
+    // roomLock 안에서 호출
+    private void enterRoom(String roomId) {
+        currentRoom = roomId;
+        roomSubscription = subscribe("/topic/minigame/room/" + roomId, payload -> { });
+        cancel(roomTask);
+        scheduleRoom(options.roomStaySeconds());
+    }
+
+    private void unsubscribeRoom() {
+        if (roomSubscription != null) {
+            synchronized (sendLock) {
+                try {
+                    roomSubscription.unsubscribe();
+                } catch (RuntimeException ignored) {
+                    // 이미 끊긴 세션
+                }
+            }
+            roomSubscription = null;
+        }
+    }
+
+    // ===== STOMP =====
+
+    private Subscription subscribe(String destination, Consumer<JsonNode> handler) {
+        return subscribe(destination, null, handler);
+    }
+
+    private Subscription subscribe(String destination, String subscriptionId, Consumer<JsonNode> handler) {
+        StompFrameHandler frameHandler = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                metrics.received();
+                if (payload != null) {
+                    handler.accept((JsonNode) payload);
+                }
+            }
+        };
+        synchronized (sendLock) {
+            StompHeaders headers = new StompHeaders();
+            headers.setDestination(destination);
+            if (subscriptionId != null) {
+                headers.setId(subscriptionId);
+            }
+            return session.subscribe(headers, frameHandler);
+        }
+    }
+
+    private void send(String destination, Object payload) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return;
+        }
+        synchronized (sendLock) {
+            try {
+                current.send(destination, payload);
+                metrics.sent();
+            } catch (RuntimeException e) {
+                metrics.error();
+                log.debug("Send failed for {}: {}", userId, e.getCause() != null ? e.getCause().toString() : e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        metrics.error();
+        log.debug("STOMP error for {}: {}", userId, exception.toString());
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        if (exception instanceof ConnectionLostException && !stopped) {
+            log.warn("Connection lost: {}", userId);
+        } else if (!stopped) {
+            log.warn("Transport error for {}: {}", userId, exception.getMessage());
+        }
+        if (connected) {
+            connected = false;
+            metrics.disconnected();
+        }
+        if (!stopped) {
+            metrics.error();
+        }
+        cancel(positionTask);
+        cancel(chatTask);
+        cancel(roomTask);
+    }
+
+    // 평균 meanSeconds인 지수 분포 (사람의 행동 간격처럼 불규칙하게)
+    private static long randomDelayMillis(int meanSeconds) {
+        double u = ThreadLocalRandom.current().nextDouble();
+        return (long) (-Math.log(1 - u) * meanSeconds * 1000);
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
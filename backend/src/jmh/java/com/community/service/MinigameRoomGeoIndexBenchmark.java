@@ -0,0 +1,86 @@
+package com.community.service;
+
+import com.community.dto.MinigameRoomSummaryDto;
+import com.community.dto.NearbyRoomDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 근처 방 검색 비용 (서울 근처에 몰린 방 rooms개, 반경 500m)
+ * - indexRadius: MinigameRoomGeoIndex 반경 검색
+ * - indexNearest: MinigameRoomGeoIndex 가까운 순 20개
+ * - linearScan: 기존 방식 (전체 방을 복사한 뒤 모두 거리 계산)
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+public class MinigameRoomGeoIndexBenchmark {
+
+    private static final double RADIUS_METERS = 500;
+
+    @Param({"10000", "50000"})
+    int rooms;
+
+    private MinigameRoomGeoIndex index;
+    private List<MinigameRoomSummaryDto> all;
+    private double[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new MinigameRoomGeoIndex();
+        all = new ArrayList<>(rooms);
+        for (int i = 0; i < rooms; i++) {
+            MinigameRoomSummaryDto room = new MinigameRoomSummaryDto();
+            room.setRoomId("room-" + i);
+            room.setGpsLat(37.5 + random.nextGaussian() * 0.1);
+            room.setGpsLng(127.0 + random.nextGaussian() * 0.1);
+            index.put(room);
+            all.add(room);
+        }
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[]{37.5 + random.nextGaussian() * 0.1, 127.0 + random.nextGaussian() * 0.1};
+        }
+    }
+
+    private double[] nextQuery() {
+        return queries[next++ & (queries.length - 1)];
+    }
+
+    @Benchmark
+    public int indexRadius() {
+        double[] query = nextQuery();
+        return index.withinRadius(query[0], query[1], RADIUS_METERS).size();
+    }
+
+    @Benchmark
+    public int indexNearest() {
+        double[] query = nextQuery();
+        return index.nearest(query[0], query[1], 20, 1000).size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        double[] query = nextQuery();
+        List<NearbyRoomDto> found = new ArrayList<>();
+        for (MinigameRoomSummaryDto room : new ArrayList<>(all)) {
+            double distance = MinigameRoomGeoIndex.distanceMeters(query[0], query[1], room.getGpsLat(), room.getGpsLng());
+            if (distance <= RADIUS_METERS) {
+                found.add(new NearbyRoomDto(room, distance));
+            }
+        }
+        found.sort(Comparator.comparingDouble(NearbyRoomDto::getDistanceMeters));
+        return found.size();
+    }
+}
@@ -0,0 +1,116 @@
+package com.community.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * 오목 수 검사 + 승리 판정 비용
+ * - engine: OmokEngine (줄 비트마스크)
+ * - directionScan: 기존 클라이언트 방식 (둔 자리에서 4방향으로 최대 4칸씩 확인)
+ * - rejectOccupied: 이미 둔 칸에 두려는 잘못된 수를 거부하는 비용
+ *
+ * 같은 시드의 무작위 수를 승부가 날 때까지(최대 moves수) 둔다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+public class OmokEngineBenchmark {
+
+    private static final String BLACK = "black";
+    private static final String WHITE = "white";
+
+    @Param({"30", "120"})
+    int moves;
+
+    private int[] sequence;
+    private OmokEngine midGame;
+    private int occupied;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 겹치지 않는 무작위 위치 순서
+        Random random = new Random(42);
+        int[] cells = new int[OmokEngine.CELLS];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = i;
+        }
+        for (int i = cells.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = cells[i];
+            cells[i] = cells[j];
+            cells[j] = tmp;
+        }
+        sequence = new int[moves];
+        System.arraycopy(cells, 0, sequence, 0, moves);
+
+        midGame = new OmokEngine(BLACK, WHITE);
+        for (int position : sequence) {
+            if (midGame.play(midGame.currentPlayerId(), position) != OmokEngine.MoveResult.OK) {
+                break;
+            }
+            occupied = position;
+        }
+    }
+
+    @Benchmark
+    public int engine() {
+        OmokEngine engine = new OmokEngine(BLACK, WHITE);
+        for (int position : sequence) {
+            if (engine.play(engine.currentPlayerId(), position) != OmokEngine.MoveResult.OK) {
+                break;
+            }
+        }
+        return engine.getMoveCount();
+    }
+
+    @Benchmark
+    public int directionScan() {
+        int[] board = new int[OmokEngine.CELLS];
+        int count = 0;
+        for (int position : sequence) {
+            if (board[position] != 0) {
+                break;
+            }
+            int player = count % 2 + 1;
+            board[position] = player;
+            count++;
+            if (scanFive(board, position / OmokEngine.SIZE, position % OmokEngine.SIZE, player)) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public OmokEngine.MoveResult rejectOccupied() {
+        return midGame.play(midGame.currentPlayerId(), occupied);
+    }
+
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private static boolean scanFive(int[] board, int row, int column, int player) {
+        for (int[] direction : DIRECTIONS) {
+            int count = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                for (int i = 1; i < 5; i++) {
+                    int r = row + direction[0] * i * sign;
+                    int c = column + direction[1] * i * sign;
+                    if (r < 0 || r >= OmokEngine.SIZE || c < 0 || c >= OmokEngine.SIZE
+                            || board[r * OmokEngine.SIZE + c] != player) {
+                        break;
+                    }
+                    count++;
+                }
+            }
+            if (count >= 5) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import com.community.service.PlazaSnapshotCodec.EntityState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 관심 영역 하나(players명)의 위치 전송 비용 비교
+ * - perUpdateJson: 기존 방식 (업데이트마다 PlayerPositionDto JSON 직렬화)
+ * - compactDelta: 이전 틱 대비 delta 인코딩 + Base64
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+public class PlazaSnapshotBenchmark {
+
+    @Param({"10", "50"})
+    int players;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PlazaSnapshotScenario scenario;
+    private List<PlayerPositionDto> positions;
+    private List<EntityState> current;
+    private Map<Integer, EntityState> baseline;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scenario = new PlazaSnapshotScenario(players);
+        baseline = PlazaSnapshotScenario.byHandle(scenario.states());
+        scenario.step(1.0 / 15);
+        positions = scenario.positions();
+        current = scenario.states();
+    }
+
+    @Benchmark
+    public void perUpdateJson(Blackhole blackhole) throws Exception {
+        for (PlayerPositionDto position : positions) {
+            blackhole.consume(objectMapper.writeValueAsBytes(position));
+        }
+    }
+
+    @Benchmark
+    public byte[] compactDelta() {
+        byte[] frame = PlazaSnapshotCodec.encode(2, 1, Map.of(), current, baseline);
+        return frame == null ? null : Base64.getEncoder().encode(frame);
+    }
+}
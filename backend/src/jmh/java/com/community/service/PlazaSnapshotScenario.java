@@ -0,0 +1,110 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import com.community.service.PlazaSnapshotCodec.EntityState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 벤치마크용 광장 시나리오
+ * 한 클라이언트의 관심 영역 안에서 players명이 랜덤 워크로 움직이고,
+ * 각 클라이언트는 실제 프론트엔드처럼 100ms마다 위치를 보낸다.
+ */
+class PlazaSnapshotScenario {
+
+    static final int CLIENT_SEND_HZ = 10;
+    static final String MODEL_PATH = "/resources/Ultimate Animated Character Pack - Nov 2019/glTF/BaseCharacter.gltf";
+
+    private final Random random = new Random(42);
+    private final List<Walker> walkers = new ArrayList<>();
+
+    private static final class Walker {
+        final String userId;
+        final String username;
+        final int handle;
+        double x;
+        double z;
+        double heading;
+        boolean moving;
+
+        Walker(String userId, String username, int handle) {
+            this.userId = userId;
+            this.username = username;
+            this.handle = handle;
+        }
+    }
+
+    PlazaSnapshotScenario(int players) {
+        for (int i = 0; i < players; i++) {
+            Walker walker = new Walker(String.valueOf(1000 + i), "플레이어" + i, i + 1);
+            walker.x = random.nextDouble() * 100 - 50;
+            walker.z = random.nextDouble() * 100 - 50;
+            walker.heading = random.nextDouble() * 2 * Math.PI;
+            walkers.add(walker);
+        }
+    }
+
+    /**
+     * dt초만큼 진행 (걷기 4 units/s, 가끔 방향 전환/정지)
+     */
+    void step(double dt) {
+        for (Walker walker : walkers) {
+            if (random.nextDouble() < 0.02) {
+                walker.moving = !walker.moving;
+            }
+            if (random.nextDouble() < 0.05) {
+                walker.heading += random.nextGaussian() * 0.8;
+            }
+            if (walker.moving) {
+                walker.x += Math.sin(walker.heading) * 4 * dt;
+                walker.z += Math.cos(walker.heading) * 4 * dt;
+            }
+        }
+    }
+
+    List<PlayerPositionDto> positions() {
+        List<PlayerPositionDto> result = new ArrayList<>(walkers.size());
+        for (Walker walker : walkers) {
+            PlayerPositionDto dto = new PlayerPositionDto();
+            dto.setUserId(walker.userId);
+            dto.setUsername(walker.username);
+            dto.setX(walker.x);
+            dto.setY(1.0);
+            dto.setZ(walker.z);
+            dto.setRotationY(walker.heading);
+            dto.setAnimation(walker.moving ? "walk" : "idle");
+            dto.setModelPath(MODEL_PATH);
+            dto.setIsChangingAvatar(false);
+            dto.setCurrentRoomId(null);
+            dto.setTimestamp(System.currentTimeMillis());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    List<EntityState> states() {
+        List<EntityState> result = new ArrayList<>(walkers.size());
+        for (Walker walker : walkers) {
+            result.add(new EntityState(walker.handle, 1, walker.userId, walker.username,
+                    PlazaSnapshotCodec.quantizePosition(walker.x),
+                    PlazaSnapshotCodec.quantizePosition(1.0),
+                    PlazaSnapshotCodec.quantizePosition(walker.z),
+                    PlazaSnapshotCodec.quantizeRotation(walker.heading),
+                    (walker.moving ? PlazaSnapshotCodec.Animation.WALK : PlazaSnapshotCodec.Animation.IDLE).ordinal(),
+                    1, false, ""));
+        }
+        return result;
+    }
+
+    static Map<Integer, EntityState> byHandle(List<EntityState> states) {
+        Map<Integer, EntityState> map = new HashMap<>(states.size() * 2);
+        for (EntityState state : states) {
+            map.put(state.handle(), state);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,92 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import com.community.dto.PositionSnapshotDto;
+import com.community.service.PlazaSnapshotCodec.EntityState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 플레이어 1명이 받는 초당 위치 데이터 크기 비교 (STOMP 프레임 헤더 제외)
+ * 관심 영역 안에 PLAYERS명, 클라이언트 10Hz 전송, 서버 15Hz 틱, ack는 1틱 지연으로 가정
+ *
+ * 실행: java -cp <jmh classpath> com.community.service.PlazaSnapshotSizeReport
+ */
+public class PlazaSnapshotSizeReport {
+
+    private static final int PLAYERS = 50;
+    private static final int TICK_HZ = 15;
+    private static final int SECONDS = 60;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        PlazaSnapshotScenario scenario = new PlazaSnapshotScenario(PLAYERS);
+
+        long perUpdateJson = 0;
+        long batchedJson = 0;
+        long compactRaw = 0;
+        long compactBase64 = 0;
+
+        // 기존 방식: 클라이언트 전송마다 한 메시지
+        for (int i = 0; i < SECONDS * PlazaSnapshotScenario.CLIENT_SEND_HZ; i++) {
+            scenario.step(1.0 / PlazaSnapshotScenario.CLIENT_SEND_HZ);
+            for (PlayerPositionDto position : scenario.positions()) {
+                perUpdateJson += objectMapper.writeValueAsBytes(position).length;
+            }
+        }
+
+        // 틱 스냅샷: JSON 배치 / compact delta
+        scenario = new PlazaSnapshotScenario(PLAYERS);
+        Map<Integer, String> models = Map.of(1, PlazaSnapshotScenario.MODEL_PATH);
+        Map<Integer, EntityState> baseline = Map.of();
+        long baselineTick = 0;
+        // 직전 틱에 보내 아직 ack되지 않은 프레임 (다음 틱이 끝나야 baseline이 됨 = t틱의 baseline은 t-2틱)
+        Map<Integer, EntityState> inFlight = null;
+        long inFlightTick = 0;
+        for (long tick = 1; tick <= (long) SECONDS * TICK_HZ; tick++) {
+            scenario.step(1.0 / TICK_HZ);
+            // 틱 사이에 위치를 보낸 플레이어만 스냅샷에 포함 (클라이언트마다 전송 시점이 다름)
+            List<PlayerPositionDto> positions = new ArrayList<>();
+            List<PlayerPositionDto> all = scenario.positions();
+            for (int i = 0; i < all.size(); i++) {
+                long phase = i % TICK_HZ;
+                if ((tick * PlazaSnapshotScenario.CLIENT_SEND_HZ + phase) / TICK_HZ
+                        != ((tick - 1) * PlazaSnapshotScenario.CLIENT_SEND_HZ + phase) / TICK_HZ) {
+                    positions.add(all.get(i));
+                }
+            }
+            batchedJson += objectMapper.writeValueAsBytes(
+                    new PositionSnapshotDto(tick, positions, System.currentTimeMillis())).length;
+
+            List<EntityState> current = scenario.states();
+            byte[] frame = PlazaSnapshotCodec.encode(tick, baselineTick,
+                    baselineTick == 0 ? models : Map.of(), current, baseline);
+            if (frame != null) {
+                compactRaw += frame.length;
+                compactBase64 += Base64.getEncoder().encode(frame).length;
+            }
+            if (inFlight != null) {
+                baseline = inFlight;
+                baselineTick = inFlightTick;
+            }
+            inFlight = frame != null ? PlazaSnapshotScenario.byHandle(current) : null;
+            inFlightTick = tick;
+        }
+
+        System.out.printf("players in view: %d, client %d Hz, tick %d Hz%n",
+                PLAYERS, PlazaSnapshotScenario.CLIENT_SEND_HZ, TICK_HZ);
+        print("per-update JSON", perUpdateJson);
+        print("batched JSON snapshot", batchedJson);
+        print("compact delta (raw)", compactRaw);
+        print("compact delta (Base64)", compactBase64);
+    }
+
+    private static void print(String label, long totalBytes) {
+        System.out.printf("%-24s %10.0f bytes/s  %8.1f bytes/player/s%n",
+                label, (double) totalBytes / SECONDS, (double) totalBytes / SECONDS / PLAYERS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.community.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 순위표 비용 (players명, 점수는 0..9999)
+ * - addScore: RankedScoreList 점수 1점 더하기 (뺐다가 다시 넣기)
+ * - rank / top20: RankedScoreList 한 사람 순위, 상위 20명
+ * - sortedRank: 정렬 구조 없이 점수 맵을 매번 정렬해서 순위를 구하는 방식
+ *
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+public class RankedScoreListBenchmark {
+
+    @Param({"10000", "100000"})
+    int players;
+
+    private RankedScoreList board;
+    private Map<String, Long> scores;
+    private String[] userIds;
+    private int next;
+    private long clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        board = new RankedScoreList();
+        scores = new HashMap<>();
+        userIds = new String[players];
+        for (int i = 0; i < players; i++) {
+            userIds[i] = "user-" + i;
+            long score = random.nextInt(10000);
+            board.set(userIds[i], userIds[i], score, i);
+            scores.put(userIds[i], score);
+        }
+        clock = players;
+    }
+
+    private String nextUser() {
+        next = (next + 7919) % players;
+        return userIds[next];
+    }
+
+    @Benchmark
+    public long addScore() {
+        return board.add(nextUser(), null, 1, clock++);
+    }
+
+    @Benchmark
+    public int rank() {
+        return board.rank(nextUser());
+    }
+
+    @Benchmark
+    public int top20() {
+        return board.range(0, 20).size();
+    }
+
+    @Benchmark
+    public int sortedRank() {
+        String userId = nextUser();
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(scores.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (sorted.get(i).getKey().equals(userId)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,222 @@
+package com.community.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 채널(clientInbound / clientOutbound / broker) 실행기 생성
+ * 채널마다 스레드 수와 대기열 크기를 설정하고, 다음 지표를 channel 태그로 남긴다.
+ * - websocket.executor.active / pool.size / queue.size : 현재 활성 스레드, 풀 크기, 대기 작업 수
+ * - websocket.executor.wait : 작업이 대기열에서 기다린 시간
+ * - websocket.executor.execution : 작업 실행 시간
+ *
+ * 설정하지 않은 값(0)은 Spring 기본값과 같다: core-pool-size는 CPU 코어 수 x 2, max-pool-size와 queue-capacity는 제한 없음.
+ * queue-capacity를 지정하면 대기열과 max-pool-size가 모두 찬 뒤 들어오는 메시지는 MessageDeliveryException으로 거부된다.
+ *
+ * websocket.executor.virtual-threads=true 이면 Java 21 이상에서 메시지마다 가상 스레드 하나로 실행한다
+ * (풀/대기열 설정은 쓰지 않음, active = 실행 중인 작업 수). Java 21 미만이면 일반 스레드 풀.
+ */
+@Component
+@Slf4j
+public class ChannelExecutorFactory {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+    public static final String BROKER = "broker";
+
+    private record PoolSize(int corePoolSize, int maxPoolSize, int queueCapacity) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+    private final PoolSize inbound;
+    private final PoolSize outbound;
+    private final PoolSize broker;
+
+    public ChannelExecutorFactory(MeterRegistry meterRegistry,
+                                  @Value("${websocket.executor.virtual-threads:false}") boolean virtualThreads,
+                                  @Value("${websocket.executor.inbound.core-pool-size:0}") int inboundCore,
+                                  @Value("${websocket.executor.inbound.max-pool-size:0}") int inboundMax,
+                                  @Value("${websocket.executor.inbound.queue-capacity:0}") int inboundQueue,
+                                  @Value("${websocket.executor.outbound.core-pool-size:0}") int outboundCore,
+                                  @Value("${websocket.executor.outbound.max-pool-size:0}") int outboundMax,
+                                  @Value("${websocket.executor.outbound.queue-capacity:0}") int outboundQueue,
+                                  @Value("${websocket.executor.broker.core-pool-size:0}") int brokerCore,
+                                  @Value("${websocket.executor.broker.max-pool-size:0}") int brokerMax,
+                                  @Value("${websocket.executor.broker.queue-capacity:0}") int brokerQueue) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads && supportsVirtualThreads();
+        if (virtualThreads && !this.virtualThreads) {
+            log.warn("Virtual threads require Java 21+ (running {}), using platform threads", Runtime.version());
+        }
+        // core 0이면 Spring 기본값과 같은 CPU 코어 수 x 2
+        int defaultSize = Runtime.getRuntime().availableProcessors() * 2;
+        this.inbound = poolSize(inboundCore, inboundMax, inboundQueue, defaultSize);
+        this.outbound = poolSize(outboundCore, outboundMax, outboundQueue, defaultSize);
+        // broker 채널은 기본적으로 실행기 없이 보내는 스레드에서 바로 처리 (core-pool-size를 지정하면 사용)
+        this.broker = brokerCore > 0 ? poolSize(brokerCore, brokerMax, brokerQueue, brokerCore) : null;
+        log.info("STOMP channel executors: inbound={}, outbound={}, broker={}, virtualThreads={}",
+                inbound, outbound, broker != null ? broker : "caller thread", this.virtualThreads);
+    }
+
+    /**
+     * broker 채널 실행기를 쓸지 여부
+     */
+    public boolean hasBrokerExecutor() {
+        return broker != null;
+    }
+
+    /**
+     * 채널 실행기 생성 (초기화는 Spring이 채널 실행기 빈으로 등록하면서 한다)
+     * @param channel INBOUND, OUTBOUND, BROKER 중 하나
+     */
+    public ThreadPoolTaskExecutor create(String channel) {
+        PoolSize size = switch (channel) {
+            case INBOUND -> inbound;
+            case OUTBOUND -> outbound;
+            case BROKER -> broker;
+            default -> throw new IllegalArgumentException("Unknown channel: " + channel);
+        };
+        if (size == null) {
+            throw new IllegalStateException("No executor configured for channel: " + channel);
+        }
+
+        ThreadPoolTaskExecutor executor = virtualThreads
+                ? new VirtualThreadChannelExecutor("ws-" + channel + "-")
+                : new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size.corePoolSize());
+        executor.setMaxPoolSize(size.maxPoolSize());
+        executor.setQueueCapacity(size.queueCapacity());
+        executor.setAllowCoreThreadTimeOut(true);
+
+        Tags tags = Tags.of("channel", channel);
+        Timer wait = Timer.builder("websocket.executor.wait")
+                .description("작업이 대기열에서 기다린 시간")
+                .tags(tags)
+                .register(meterRegistry);
+        Timer execution = Timer.builder("websocket.executor.execution")
+                .description("작업 실행 시간")
+                .tags(tags)
+                .register(meterRegistry);
+        executor.setTaskDecorator(task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                wait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+
+        Gauge.builder("websocket.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("실행 중인 스레드 수")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("websocket.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("현재 풀 크기")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("websocket.executor.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("대기 중인 작업 수")
+                .tags(tags)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // 0 이하면 Spring 기본값 (max, queue는 Integer.MAX_VALUE)
+    private static PoolSize poolSize(int core, int max, int queue, int defaultSize) {
+        int resolvedCore = core > 0 ? core : defaultSize;
+        return new PoolSize(resolvedCore, max > 0 ? Math.max(resolvedCore, max) : Integer.MAX_VALUE,
+                queue > 0 ? queue : Integer.MAX_VALUE);
+    }
+
+    /**
+     * 메시지마다 가상 스레드를 새로 만들어 실행하는 채널 실행기
+     * 채널 등록(ChannelRegistration.taskExecutor)이 ThreadPoolTaskExecutor만 받으므로 그 자리에 끼워 넣고,
+     * 실행은 풀 대신 {@link VirtualThreadTaskExecutor}에 넘긴다 (풀/대기열 설정과 상위 클래스의 스레드 풀은 쓰지 않음).
+     */
+    private static final class VirtualThreadChannelExecutor extends ThreadPoolTaskExecutor {
+
+        private final VirtualThreadTaskExecutor delegate;
+        private final AtomicInteger active = new AtomicInteger();
+        private TaskDecorator decorator;
+
+        VirtualThreadChannelExecutor(String threadNamePrefix) {
+            this.delegate = new VirtualThreadTaskExecutor(threadNamePrefix);
+        }
+
+        @Override
+        public void setTaskDecorator(TaskDecorator taskDecorator) {
+            this.decorator = taskDecorator;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            delegate.execute(track(task));
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(track(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(() -> {
+                active.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public int getActiveCount() {
+            return active.get();
+        }
+
+        @Override
+        public int getPoolSize() {
+            return active.get();
+        }
+
+        @Override
+        public int getQueueSize() {
+            return 0;
+        }
+
+        private Runnable track(Runnable task) {
+            Runnable decorated = decorator != null ? decorator.decorate(task) : task;
+            return () -> {
+                active.incrementAndGet();
+                try {
+                    decorated.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        }
+    }
+
+    private static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+}
@@ -0,0 +1,37 @@
+package com.community.config;
+
+import com.community.service.ChatChannelService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 공간별 채팅 채널 구독 제한
+ * room/local 채팅은 서버가 broker 채널로 구독을 넣고 빼므로, 클라이언트가 보낸 SUBSCRIBE는 null을 반환해 버린다
+ * (다른 방이나 다른 사람 주변 채팅을 엿들을 수 없게). 서버가 만든 구독은 clientInboundChannel을 거치지 않는다.
+ * simple broker는 구독 목적지를 패턴으로도 맞추므로 와일드카드(*, {})가 들어간 구독도 함께 막는다.
+ */
+@Component
+@Slf4j
+public class ChatSubscriptionGuardInterceptor implements ChannelInterceptor {
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.SUBSCRIBE) {
+            return message;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination != null && (destination.startsWith(ChatChannelService.ROOM_DESTINATION_PREFIX)
+                || destination.startsWith(ChatChannelService.LOCAL_DESTINATION_PREFIX)
+                || destination.indexOf('*') >= 0 || destination.indexOf('{') >= 0)) {
+            log.debug("Rejected client subscription: session={}, destination={}",
+                    SimpMessageHeaderAccessor.getSessionId(message.getHeaders()), destination);
+            return null;
+        }
+        return message;
+    }
+}
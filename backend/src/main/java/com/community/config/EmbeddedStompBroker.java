@@ -0,0 +1,50 @@
+package com.community.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 내장 STOMP 브로커 (websocket.broker.mode=embedded, 로컬/테스트용)
+ * ActiveMQ Artemis를 이 서버 안에서 STOMP 전용으로 띄우고, 외부 브로커와 같은 relay 경로로 연결한다.
+ * 메시지는 저장하지 않으며 127.0.0.1에서만 받는다.
+ *
+ * /topic/은 multicast(구독자 모두에게), /queue/는 anycast(하나에게)로 라우팅한다.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "embedded")
+@Slf4j
+public class EmbeddedStompBroker {
+
+    private final int port;
+    private final EmbeddedActiveMQ server = new EmbeddedActiveMQ();
+
+    public EmbeddedStompBroker(@Value("${websocket.broker.embedded.port:61613}") int port) {
+        this.port = port;
+    }
+
+    // relay 핸들러는 컨텍스트가 모두 만들어진 뒤(Lifecycle start) 연결하므로 그 전에 떠 있다
+    @PostConstruct
+    public void start() throws Exception {
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .setJMXManagementEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + port
+                        + "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/");
+        server.setConfiguration(configuration);
+        server.start();
+        log.info("Embedded STOMP broker started on 127.0.0.1:{}", port);
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        server.stop();
+    }
+}
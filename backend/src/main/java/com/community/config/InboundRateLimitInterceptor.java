@@ -0,0 +1,38 @@
+package com.community.config;
+
+import com.community.service.InboundRateLimitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * clientInboundChannel 속도 제한
+ * SEND 프레임만 검사하고, 제한을 넘은 메시지는 null을 반환해 컨트롤러까지 가지 않게 한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InboundRateLimitInterceptor implements ChannelInterceptor {
+
+    private final InboundRateLimitService inboundRateLimitService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        InboundRateLimitService.Category category = InboundRateLimitService.Category.of(destination);
+        if (inboundRateLimitService.tryAcquire(sessionId, category)) {
+            return message;
+        }
+        log.debug("Rate limited: session={}, destination={}", sessionId, destination);
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.community.config;
+
+import com.community.controller.MovementWebSocketHandler;
+import com.community.security.JwtHandshakeInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 광장 이동 전용 바이너리 WebSocket 엔드포인트
+ * STOMP(/ws)와 별도로 SockJS 없이 순수 WebSocket만 지원한다.
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class MovementWebSocketConfig implements WebSocketConfigurer {
+
+    private final MovementWebSocketHandler movementWebSocketHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(movementWebSocketHandler, "/ws-move")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOriginPatterns("*"); // Allow all origins for development
+    }
+}
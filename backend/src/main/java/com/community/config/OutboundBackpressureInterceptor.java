@@ -0,0 +1,83 @@
+package com.community.config;
+
+import com.community.service.WebSocketBackpressureService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * clientOutboundChannel 송신 대기열 정책
+ * - 위치 스냅샷(/topic/snapshots, /topic/snapshots/{userId}, compact/JSON 모두): 송신 직전에 최신 것이 아니면 건너뜀
+ * - 그 외 메시지: 세션 대기열이 한도를 넘으면 버리고 세션을 끊음
+ * - heartbeat: 세지 않음 (브로커/relay가 세션마다 보내며, 소켓에 쓸 때도 대기열을 줄이지 않음)
+ * 스냅샷 여부와 통과 여부는 메시지 헤더로 들고 다니며, 핸들러가 끝나면(afterMessageHandled) 그 헤더로 정리한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundBackpressureInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String SNAPSHOT_DESTINATION = "/topic/snapshots";
+    private static final String SNAPSHOT_SEQUENCE_HEADER = "snapshotSequence";
+    private static final String SNAPSHOT_ADMITTED_HEADER = "snapshotAdmitted";
+
+    private final WebSocketBackpressureService webSocketBackpressureService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.HEARTBEAT) {
+            return message;
+        }
+        if (isSnapshot(message)) {
+            long sequence = webSocketBackpressureService.offerSnapshot(sessionId);
+            if (sequence == 0) {
+                return message;
+            }
+            return MessageBuilder.fromMessage(message).setHeader(SNAPSHOT_SEQUENCE_HEADER, sequence).build();
+        }
+        return webSocketBackpressureService.offer(sessionId) ? message : null;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        Long sequence = message.getHeaders().get(SNAPSHOT_SEQUENCE_HEADER, Long.class);
+        if (sequence == null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (!webSocketBackpressureService.isLatestSnapshot(sessionId, sequence)) {
+            return null;
+        }
+        return MessageBuilder.fromMessage(message).setHeader(SNAPSHOT_ADMITTED_HEADER, Boolean.TRUE).build();
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.HEARTBEAT) {
+            return;
+        }
+        if (message.getHeaders().containsKey(SNAPSHOT_ADMITTED_HEADER)) {
+            // 세션에 넘겼거나(ex == null) 넘기지 못함 - 다음 스냅샷을 받을 수 있게 함
+            webSocketBackpressureService.snapshotHandled(sessionId, ex == null);
+        } else if (ex != null && !message.getHeaders().containsKey(SNAPSHOT_SEQUENCE_HEADER)) {
+            // 소켓 쓰기가 일어나지 않았으므로 접수할 때 늘린 대기열을 직접 줄임
+            webSocketBackpressureService.sendFailed(sessionId);
+        }
+    }
+
+    private static boolean isSnapshot(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && destination.startsWith(SNAPSHOT_DESTINATION)
+                && (destination.length() == SNAPSHOT_DESTINATION.length()
+                || destination.charAt(SNAPSHOT_DESTINATION.length()) == '/');
+    }
+}
@@ -44,6 +44,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/comments/**", "/api/likes/**").permitAll()
                         .requestMatchers("/resources/**").permitAll() // 이미지 리소스 허용 추가
                         .requestMatchers("/ws/**").permitAll() // WebSocket endpoints
+                        .requestMatchers("/ws-move").permitAll() // 바이너리 이동 WebSocket (핸드셰이크에서 JWT 검증)
                         .requestMatchers("/actuator/health/**").permitAll() // Health check endpoint
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session
@@ -0,0 +1,203 @@
+package com.community.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.stereotype.Component;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * STOMP 브로커 선택 (websocket.broker.mode)
+ * - simple (기본): JVM 안의 simple broker, 서버 한 대일 때
+ * - relay: 외부 STOMP 브로커(ActiveMQ Artemis, ActiveMQ Classic)로 /topic, /queue를 중계, 서버 여러 대일 때
+ *   목적지에 '/'로 나뉜 여러 단계(/topic/snapshots/{userId}, /topic/minigame/room/{roomId}/game 등)를 쓰므로
+ *   목적지 이름을 그대로 받는 브로커만 지원한다. RabbitMQ STOMP 플러그인은 /topic/ 뒤에 '/'가 또 오는 목적지를
+ *   받지 않으므로 쓸 수 없다.
+ * - embedded: 이 서버 안에 띄운 Artemis({@link EmbeddedStompBroker})로 중계, 로컬/테스트에서 relay 모드 확인용
+ *
+ * relay/embedded 연결:
+ * - 브로커 주소(websocket.broker.relay.addresses)를 여러 개 주면 연결할 때마다 돌아가며 사용
+ *   (브로커 하나가 죽으면 다음 재연결은 다른 주소로 간다)
+ * - 연결 수는 ConnectionProvider 풀로 제한 (클라이언트 세션마다 하나 + 시스템 세션 하나)
+ * - 시스템 세션이 끊기면 Spring이 5초마다 재연결하고, 그동안 클라이언트 세션에는 ERROR를 보내 끊는다
+ *   (클라이언트는 reconnectDelay로 다시 접속)
+ * - 브로커 상태는 websocket.broker.available(1/0), 끊긴 횟수는 websocket.broker.unavailable 지표로 남긴다
+ */
+@Component
+@Slf4j
+public class StompBrokerRelaySupport {
+
+    public static final String SIMPLE = "simple";
+    public static final String RELAY = "relay";
+    public static final String EMBEDDED = "embedded";
+
+    private final String mode;
+    private final List<InetSocketAddress> addresses;
+    private final String clientLogin;
+    private final String clientPasscode;
+    private final String systemLogin;
+    private final String systemPasscode;
+    private final String virtualHost;
+    private final long systemHeartbeatSendMs;
+    private final long systemHeartbeatReceiveMs;
+    private final int maxConnections;
+    private final long pendingAcquireTimeoutMs;
+
+    private final AtomicInteger nextAddress = new AtomicInteger();
+    private final AtomicBoolean available = new AtomicBoolean(false);
+    private final Counter unavailableCounter;
+
+    private ConnectionProvider connectionProvider;
+    private LoopResources loopResources;
+
+    public StompBrokerRelaySupport(MeterRegistry meterRegistry,
+                                   @Value("${websocket.broker.mode:simple}") String mode,
+                                   @Value("${websocket.broker.relay.addresses:localhost:61613}") String addresses,
+                                   @Value("${websocket.broker.relay.client-login:guest}") String clientLogin,
+                                   @Value("${websocket.broker.relay.client-passcode:guest}") String clientPasscode,
+                                   @Value("${websocket.broker.relay.system-login:guest}") String systemLogin,
+                                   @Value("${websocket.broker.relay.system-passcode:guest}") String systemPasscode,
+                                   @Value("${websocket.broker.relay.virtual-host:}") String virtualHost,
+                                   @Value("${websocket.broker.relay.system-heartbeat-send-ms:10000}") long systemHeartbeatSendMs,
+                                   @Value("${websocket.broker.relay.system-heartbeat-receive-ms:10000}") long systemHeartbeatReceiveMs,
+                                   @Value("${websocket.broker.relay.max-connections:10000}") int maxConnections,
+                                   @Value("${websocket.broker.relay.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+                                   @Value("${websocket.broker.embedded.port:61613}") int embeddedPort) {
+        if (!SIMPLE.equals(mode) && !RELAY.equals(mode) && !EMBEDDED.equals(mode)) {
+            throw new IllegalArgumentException("websocket.broker.mode must be simple, relay or embedded: " + mode);
+        }
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("websocket.broker.relay.max-connections must be positive: " + maxConnections);
+        }
+        this.mode = mode;
+        // embedded 모드는 이 서버 안의 브로커에만 연결
+        this.addresses = EMBEDDED.equals(mode)
+                ? List.of(InetSocketAddress.createUnresolved("127.0.0.1", embeddedPort))
+                : parseAddresses(addresses);
+        this.clientLogin = clientLogin;
+        this.clientPasscode = clientPasscode;
+        this.systemLogin = systemLogin;
+        this.systemPasscode = systemPasscode;
+        this.virtualHost = virtualHost;
+        this.systemHeartbeatSendMs = systemHeartbeatSendMs;
+        this.systemHeartbeatReceiveMs = systemHeartbeatReceiveMs;
+        this.maxConnections = maxConnections;
+        this.pendingAcquireTimeoutMs = pendingAcquireTimeoutMs;
+
+        Gauge.builder("websocket.broker.available", available, value -> value.get() ? 1 : 0)
+                .description("STOMP 브로커 사용 가능 여부 (relay는 시스템 세션 연결 상태)")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.unavailableCounter = Counter.builder("websocket.broker.unavailable")
+                .description("STOMP 브로커 연결이 끊긴 횟수")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 외부(또는 내장) 브로커로 중계하는지 여부
+     */
+    public boolean isRelay() {
+        return !SIMPLE.equals(mode);
+    }
+
+    /**
+     * /topic, /queue 브로커 등록
+     */
+    public void configure(MessageBrokerRegistry config, String... destinationPrefixes) {
+        if (!isRelay()) {
+            config.enableSimpleBroker(destinationPrefixes);
+            log.info("STOMP broker: simple (in-memory)");
+            return;
+        }
+
+        config.enableStompBrokerRelay(destinationPrefixes)
+                .setTcpClient(createTcpClient())
+                .setClientLogin(clientLogin)
+                .setClientPasscode(clientPasscode)
+                .setSystemLogin(systemLogin)
+                .setSystemPasscode(systemPasscode)
+                .setVirtualHost(virtualHost.isBlank() ? null : virtualHost)
+                .setSystemHeartbeatSendInterval(systemHeartbeatSendMs)
+                .setSystemHeartbeatReceiveInterval(systemHeartbeatReceiveMs)
+                // /user 목적지를 다른 서버의 세션에도 전달
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/simp-user-registry");
+        log.info("STOMP broker: {} relay to {} (max {} connections)", mode, addresses, maxConnections);
+    }
+
+    @EventListener
+    public void onBrokerAvailability(BrokerAvailabilityEvent event) {
+        boolean wasAvailable = available.getAndSet(event.isBrokerAvailable());
+        if (event.isBrokerAvailable()) {
+            log.info("STOMP broker available ({})", mode);
+        } else if (wasAvailable) {
+            unavailableCounter.increment();
+            log.warn("STOMP broker unavailable ({}), reconnecting", mode);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // TcpClient 연결은 relay 핸들러가 종료될 때 닫히고, 풀과 이벤트 루프는 여기서 정리
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+        }
+        if (loopResources != null) {
+            loopResources.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    private ReactorNettyTcpClient<byte[]> createTcpClient() {
+        connectionProvider = ConnectionProvider.builder("stomp-relay")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .build();
+        loopResources = LoopResources.create("stomp-relay-loop");
+        TcpClient tcpClient = TcpClient.create(connectionProvider)
+                .runOn(loopResources, false)
+                .remoteAddress(this::nextAddress);
+        return new ReactorNettyTcpClient<>(tcpClient, new StompReactorNettyCodec());
+    }
+
+    private InetSocketAddress nextAddress() {
+        return addresses.get(Math.floorMod(nextAddress.getAndIncrement(), addresses.size()));
+    }
+
+    private static List<InetSocketAddress> parseAddresses(String value) {
+        List<InetSocketAddress> result = new ArrayList<>();
+        for (String address : value.split(",")) {
+            String trimmed = address.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0 || colon == trimmed.length() - 1) {
+                throw new IllegalArgumentException("websocket.broker.relay.addresses entry must be host:port: " + trimmed);
+            }
+            result.add(InetSocketAddress.createUnresolved(trimmed.substring(0, colon),
+                    Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("websocket.broker.relay.addresses must not be empty");
+        }
+        return List.copyOf(result);
+    }
+}
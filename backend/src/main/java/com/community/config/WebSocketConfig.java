@@ -1,23 +1,88 @@
 package com.community.config;
 
+import com.community.service.WebSocketBackpressureService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final InboundRateLimitInterceptor inboundRateLimitInterceptor;
+    private final ChatSubscriptionGuardInterceptor chatSubscriptionGuardInterceptor;
+    private final OutboundBackpressureInterceptor outboundBackpressureInterceptor;
+    private final WebSocketBackpressureService webSocketBackpressureService;
+    private final ChannelExecutorFactory channelExecutorFactory;
+    private final StompBrokerRelaySupport stompBrokerRelaySupport;
+
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple memory-based message broker to send messages to clients
         // Prefix for messages FROM server TO client
-        config.enableSimpleBroker("/topic", "/queue");
+        // simple broker(기본) 또는 외부/내장 브로커 relay (websocket.broker.mode)
+        stompBrokerRelaySupport.configure(config, "/topic", "/queue");
 
         // Prefix for messages FROM client TO server
         config.setApplicationDestinationPrefixes("/app");
+
+        // broker 채널 실행기는 설정했을 때만 사용 (기본: 보내는 스레드에서 바로 처리)
+        if (channelExecutorFactory.hasBrokerExecutor()) {
+            config.configureBrokerChannel().taskExecutor(channelExecutorFactory.create(ChannelExecutorFactory.BROKER));
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // 클라이언트별 메시지 속도 제한 (초과분은 컨트롤러에 도달하기 전에 버림)
+        // 공간별 채팅 채널은 서버가 구독을 관리하므로 클라이언트의 직접 구독은 막음
+        registration.taskExecutor(channelExecutorFactory.create(ChannelExecutorFactory.INBOUND));
+        registration.interceptors(chatSubscriptionGuardInterceptor, inboundRateLimitInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // 세션별 송신 대기열 정책 (스냅샷은 최신 것만, 나머지는 한도 초과 시 연결 종료)
+        registration.taskExecutor(channelExecutorFactory.create(ChannelExecutorFactory.OUTBOUND));
+        registration.interceptors(outboundBackpressureInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 느린 클라이언트의 송신 버퍼가 무한정 커지지 않도록 제한 (넘으면 세션 종료)
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                        super.afterConnectionEstablished(webSocketBackpressureService.track(session));
+                    }
+
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                        webSocketBackpressureService.untrack(session.getId());
+                        super.afterConnectionClosed(session, closeStatus);
+                    }
+                });
     }
 
     @Override
@@ -2,10 +2,18 @@ package com.community.config;
 
 import com.community.dto.PlayerJoinDto;
 import com.community.service.ActiveUserService;
+import com.community.service.ChatChannelService;
+import com.community.service.InboundRateLimitService;
+import com.community.service.MinigameClockSyncService;
+import com.community.service.MinigameMatchmakingService;
+import com.community.service.MovementSessionRegistry;
+import com.community.service.OnlineCountPublisher;
+import com.community.service.PlazaTickService;
+import com.community.service.PresenceDeltaPublisher;
+import com.community.service.WorldStateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
@@ -16,8 +24,16 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 @Slf4j
 public class WebSocketEventListener {
 
-    private final SimpMessageSendingOperations messagingTemplate;
     private final ActiveUserService activeUserService;
+    private final PlazaTickService plazaTickService;
+    private final MovementSessionRegistry movementSessionRegistry;
+    private final WorldStateService worldStateService;
+    private final InboundRateLimitService inboundRateLimitService;
+    private final OnlineCountPublisher onlineCountPublisher;
+    private final PresenceDeltaPublisher presenceDeltaPublisher;
+    private final ChatChannelService chatChannelService;
+    private final MinigameMatchmakingService matchmakingService;
+    private final MinigameClockSyncService clockSyncService;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -27,6 +43,10 @@ public class WebSocketEventListener {
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        inboundRateLimitService.removeSession(event.getSessionId());
+        // 미니게임 연결이 끊기면 그 연결로 넣은 빠른 매칭 표도 취소
+        matchmakingService.cancelSession(event.getSessionId());
+        clockSyncService.removeSession(event.getSessionId());
 
         String username = (String) headerAccessor.getSessionAttributes().get("username");
         String userId = (String) headerAccessor.getSessionAttributes().get("userId");
@@ -38,10 +58,17 @@ public class WebSocketEventListener {
             String sessionId = headerAccessor.getSessionId();
             if (sessionId != null) {
                 activeUserService.removeUserBySession(sessionId);
-                log.info("Removed user {} from active users. Current count: {}",
-                        userId, activeUserService.getActiveUserCount());
+                log.info("Removed user {} from active users", userId);
             }
 
+            // 월드 상태, 관심 영역 그리드에서 제거
+            worldStateService.remove(userId);
+            plazaTickService.removePlayer(userId, sessionId);
+            chatChannelService.leave(userId);
+
+            // 바이너리 이동 연결도 함께 종료
+            movementSessionRegistry.close(userId);
+
             // 다른 플레이어들에게 퇴장 알림
             PlayerJoinDto leaveDto = new PlayerJoinDto();
             leaveDto.setUserId(userId);
@@ -49,11 +76,10 @@ public class WebSocketEventListener {
             leaveDto.setAction("leave");
             leaveDto.setTimestamp(System.currentTimeMillis());
 
-            messagingTemplate.convertAndSend("/topic/players", leaveDto);
+            presenceDeltaPublisher.publish(leaveDto);
 
-            // 온라인 인원 수 업데이트 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/online-count",
-                    activeUserService.getActiveUserCount());
+            // 온라인 인원 수 업데이트 브로드캐스트 (다음 주기에 바뀐 경우만)
+            onlineCountPublisher.markChanged();
         }
     }
 }
@@ -1,11 +1,17 @@
 package com.community.controller;
 
 import com.community.dto.*;
+import com.community.service.MinigameClockSyncService;
+import com.community.service.MinigameLeaderboardService;
+import com.community.service.MinigameMatchmakingService;
+import com.community.service.MinigameRoomDirectory;
+import com.community.service.MinigameRoomExecutor;
 import com.community.service.MinigameRoomService;
+import com.community.service.RecentChatService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 
@@ -17,16 +23,22 @@ import java.util.List;
 public class MinigameController {
 
     private final MinigameRoomService roomService;
+    private final MinigameRoomExecutor roomExecutor;
+    private final MinigameRoomDirectory roomDirectory;
+    private final MinigameMatchmakingService matchmakingService;
+    private final MinigameClockSyncService clockSyncService;
+    private final MinigameLeaderboardService leaderboardService;
+    private final RecentChatService recentChatService;
     private final SimpMessageSendingOperations messagingTemplate;
 
     /**
      * 방 생성
      * Client -> /app/minigame.room.create
-     * Server -> /topic/minigame/rooms (broadcast)
+     * Server -> /topic/minigame/my-room/{hostId} (만든 사람에게 전체 방 정보)
+     *           /topic/minigame/rooms.delta (로비에는 add 변경, 방 목록 서비스가 보냄)
      */
     @MessageMapping("/minigame.room.create")
-    @SendTo("/topic/minigame/rooms")
-    public MinigameRoomDto createRoom(CreateRoomRequest request) {
+    public void createRoom(CreateRoomRequest request) {
         log.info("방 생성 요청: {}", request);
 
         MinigameRoomDto room = roomService.createRoom(
@@ -44,78 +56,168 @@ public class MinigameController {
         room.setAction("create");
         room.setTimestamp(System.currentTimeMillis());
 
-        return room;
+        messagingTemplate.convertAndSend("/topic/minigame/my-room/" + request.getHostId(), room);
     }
 
     /**
-     * 방 목록 요청
-     * Client -> /app/minigame.rooms.list
-     * Server -> /topic/minigame/rooms-list (to sender)
+     * 방 목록 요청 (요약 스냅샷 한 페이지)
+     * Client -> /app/minigame.rooms.list {userId, afterCursor?, size}
+     * Server -> /topic/minigame/rooms-list/{userId} (to sender)
+     * 이후 변경은 /topic/minigame/rooms.delta로 받는다
      */
     @MessageMapping("/minigame.rooms.list")
-    public void getRoomsList() {
-        List<MinigameRoomDto> rooms = roomService.getAllRooms();
-        messagingTemplate.convertAndSend("/topic/minigame/rooms-list", rooms);
+    public void getRoomsList(RoomListRequest request) {
+        if (request == null || request.getUserId() == null)
+            return;
+        messagingTemplate.convertAndSend("/topic/minigame/rooms-list/" + request.getUserId(),
+                roomDirectory.snapshot(request.getAfterCursor(), request.getSize()));
+    }
+
+    /**
+     * 방 목록 다시 맞추기 (변경 번호가 건너뛰었을 때)
+     * Client -> /app/minigame.rooms.sync {userId, sinceSequence}
+     * Server -> /topic/minigame/rooms-sync/{userId} (빠진 변경)
+     *           /topic/minigame/rooms-list/{userId} (기록이 너무 오래됐으면 스냅샷 첫 페이지)
+     */
+    @MessageMapping("/minigame.rooms.sync")
+    public void syncRoomsList(RoomListRequest request) {
+        if (request == null || request.getUserId() == null)
+            return;
+        RoomDirectorySyncDto sync = request.getSinceSequence() == null ? null
+                : roomDirectory.since(request.getSinceSequence());
+        if (sync != null) {
+            messagingTemplate.convertAndSend("/topic/minigame/rooms-sync/" + request.getUserId(), sync);
+        } else {
+            messagingTemplate.convertAndSend("/topic/minigame/rooms-list/" + request.getUserId(),
+                    roomDirectory.snapshot(null, request.getSize()));
+        }
+    }
+
+    /**
+     * 근처 방 검색 (GPS 위치가 있는 방, 가까운 순)
+     * Client -> /app/minigame.rooms.nearby {userId, lng, lat, radiusMeters, page, size}
+     *           radiusMeters가 없으면 반경 없이 가까운 순으로 page/size만큼
+     * Server -> /topic/minigame/rooms-nearby/{userId} (to sender)
+     */
+    @MessageMapping("/minigame.rooms.nearby")
+    public void getNearbyRooms(NearbyRoomsRequest request) {
+        if (request == null || request.getUserId() == null || request.getLat() == null || request.getLng() == null)
+            return;
+        messagingTemplate.convertAndSend("/topic/minigame/rooms-nearby/" + request.getUserId(),
+                roomDirectory.nearby(request.getLat(), request.getLng(), request.getRadiusMeters(),
+                        request.getPage(), request.getSize()));
+    }
+
+    /**
+     * 빠른 매칭 대기열 등록
+     * Client -> /app/minigame.match.join {userId, gameName, level, levelBand?, gpsLng?, gpsLat?, maxDistanceMeters?}
+     * Server -> /topic/minigame/match/{userId} (queued, 이후 matched/timeout)
+     */
+    @MessageMapping("/minigame.match.join")
+    public void joinMatchmaking(MatchTicketRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        log.info("빠른 매칭 요청: userId={}, game={}", request.getUserId(), request.getGameName());
+        matchmakingService.enqueue(request, headerAccessor.getSessionId());
+    }
+
+    /**
+     * 빠른 매칭 취소
+     * Client -> /app/minigame.match.cancel {userId}
+     * Server -> /topic/minigame/match/{userId} (cancelled)
+     */
+    @MessageMapping("/minigame.match.cancel")
+    public void cancelMatchmaking(RoomActionRequest request) {
+        matchmakingService.cancel(request.getUserId());
+    }
+
+    /**
+     * 시계 맞추기 (지연 보정용 ping)
+     * Client -> /app/minigame.clock.sync {userId, clientSendTs, lastClientSendTs?, lastClientReceiveTs?}
+     * Server -> /topic/minigame/clock/{userId}
+     */
+    @MessageMapping("/minigame.clock.sync")
+    public void syncClock(ClockSyncDto ping, SimpMessageHeaderAccessor headerAccessor) {
+        clockSyncService.handlePing(ping, headerAccessor.getSessionId());
+    }
+
+    /**
+     * 순위표 조회 (게임별 전체 / 오늘 / 친구)
+     * Client -> /app/minigame.leaderboard {userId, gameName, scope?, offset?, limit?}
+     * Server -> /topic/minigame/leaderboard/{userId} (요청한 사람에게만)
+     */
+    @MessageMapping("/minigame.leaderboard")
+    public void getLeaderboard(LeaderboardRequest request) {
+        if (request == null || request.getUserId() == null || request.getGameName() == null)
+            return;
+        LeaderboardDto leaderboard = leaderboardService.leaderboard(request.getGameName(), request.getScope(),
+                request.getUserId(), request.getOffset(), request.getLimit());
+        messagingTemplate.convertAndSend("/topic/minigame/leaderboard/" + request.getUserId(), leaderboard);
     }
 
     /**
      * 방 입장
      * Client -> /app/minigame.room.join
      * Server -> /topic/minigame/room/{roomId} (to room)
+     *           /topic/minigame/chat-history/{userId} (최근 방 채팅, 입장한 사람에게 한 번)
      */
     @MessageMapping("/minigame.room.join")
     public void joinRoom(JoinRoomRequest request) {
-        log.info("방 입장 요청: {}", request);
-
-        MinigamePlayerDto player = new MinigamePlayerDto();
-        player.setUserId(request.getUserId());
-        player.setUsername(request.getUsername());
-        player.setLevel(request.getLevel());
-        player.setHost(false);
-        player.setReady(false);
-        player.setSelectedProfile(request.getSelectedProfile());
-        player.setSelectedOutline(request.getSelectedOutline());
-
-        MinigameRoomDto room = roomService.joinRoom(request.getRoomId(), player);
-        if (room != null) {
-            room.setAction("join");
-            room.setTimestamp(System.currentTimeMillis());
-
-            // 방에 있는 모든 사람에게 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
-
-            // 방 목록 업데이트 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/rooms", room);
-
-            // 개인에게도 성공 ACK 전송 (so joining client gets explicit confirmation)
-            GameEventDto ack = new GameEventDto();
-            ack.setRoomId(request.getRoomId());
-            ack.setType("joinResult");
-            ack.setPlayerId(request.getUserId());
-            ack.setPayload("ok");
-            ack.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/joinResult/" + request.getUserId(), ack);
-            log.info("joinResult(ok) sent to user {} for room {}", request.getUserId(), request.getRoomId());
-        } else {
-            // failure reason checking
-            MinigameRoomDto maybeRoom = roomService.getRoom(request.getRoomId());
-            String reason = "not found or full";
-            if (maybeRoom == null)
-                reason = "room not found";
-            else if (maybeRoom.getCurrentPlayers() >= maybeRoom.getMaxPlayers())
-                reason = "room full";
-
-            // 실패(방 없음 또는 가득 참)일 때 개인에게 오류 ACK 전송
-            GameEventDto ack = new GameEventDto();
-            ack.setRoomId(request.getRoomId());
-            ack.setType("joinResult");
-            ack.setPlayerId(request.getUserId());
-            ack.setPayload("error: " + reason);
-            ack.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/joinResult/" + request.getUserId(), ack);
-            log.warn("joinResult(error: {}) sent to user {} for room {}", reason, request.getUserId(),
-                    request.getRoomId());
-        }
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("방 입장 요청: {}", request);
+
+            MinigamePlayerDto player = new MinigamePlayerDto();
+            player.setUserId(request.getUserId());
+            player.setUsername(request.getUsername());
+            player.setLevel(request.getLevel());
+            player.setHost(false);
+            player.setReady(false);
+            player.setSelectedProfile(request.getSelectedProfile());
+            player.setSelectedOutline(request.getSelectedOutline());
+
+            MinigameRoomDto room = roomService.joinRoom(request.getRoomId(), player);
+            if (room != null) {
+                room.setAction("join");
+                room.setTimestamp(System.currentTimeMillis());
+
+                // 방에 있는 모든 사람에게 브로드캐스트
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+
+                // 개인에게도 성공 ACK 전송 (so joining client gets explicit confirmation)
+                GameEventDto ack = new GameEventDto();
+                ack.setRoomId(request.getRoomId());
+                ack.setType("joinResult");
+                ack.setPlayerId(request.getUserId());
+                ack.setPayload("ok");
+                ack.setTimestamp(System.currentTimeMillis());
+                messagingTemplate.convertAndSend("/topic/minigame/joinResult/" + request.getUserId(), ack);
+                log.info("joinResult(ok) sent to user {} for room {}", request.getUserId(), request.getRoomId());
+
+                // 최근 방 채팅을 한 번에 전송
+                List<MinigameChatDto> history = recentChatService.getRoomHistory(request.getRoomId());
+                if (!history.isEmpty()) {
+                    messagingTemplate.convertAndSend("/topic/minigame/chat-history/" + request.getUserId(),
+                            new ChatHistoryDto(request.getRoomId(), history, System.currentTimeMillis()));
+                }
+            } else {
+                // failure reason checking
+                MinigameRoomDto maybeRoom = roomService.getRoom(request.getRoomId());
+                String reason = "not found or full";
+                if (maybeRoom == null)
+                    reason = "room not found";
+                else if (maybeRoom.getCurrentPlayers() >= maybeRoom.getMaxPlayers())
+                    reason = "room full";
+
+                // 실패(방 없음 또는 가득 참)일 때 개인에게 오류 ACK 전송
+                GameEventDto ack = new GameEventDto();
+                ack.setRoomId(request.getRoomId());
+                ack.setType("joinResult");
+                ack.setPlayerId(request.getUserId());
+                ack.setPayload("error: " + reason);
+                ack.setTimestamp(System.currentTimeMillis());
+                messagingTemplate.convertAndSend("/topic/minigame/joinResult/" + request.getUserId(), ack);
+                log.warn("joinResult(error: {}) sent to user {} for room {}", reason, request.getUserId(),
+                        request.getRoomId());
+            }
+        });
     }
 
     /**
@@ -125,34 +227,28 @@ public class MinigameController {
      */
     @MessageMapping("/minigame.room.leave")
     public void leaveRoom(RoomActionRequest request) {
-        log.info("방 나가기 요청: {}", request);
-
-        MinigameRoomDto room = roomService.leaveRoom(request.getRoomId(), request.getUserId());
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("방 나가기 요청: {}", request);
 
-        if (room == null) {
-            // 방이 삭제됨
-            MinigameRoomDto deletedRoom = new MinigameRoomDto();
-            deletedRoom.setRoomId(request.getRoomId());
-            deletedRoom.setAction("delete");
-            deletedRoom.setTimestamp(System.currentTimeMillis());
-
-            messagingTemplate.convertAndSend("/topic/minigame/rooms", deletedRoom);
-        } else {
-            // 서비스에서 이미 gameEndByPlayerLeave 액션을 설정한 경우 덮어쓰지 않음
-            if (!"gameEndByPlayerLeave".equals(room.getAction())) {
-                room.setAction("leave");
-                room.setTimestamp(System.currentTimeMillis());
-
-                // 방에 있는 모든 사람에게 브로드캐스트
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            MinigameRoomDto room = roomService.leaveRoom(request.getRoomId(), request.getUserId());
 
-                // 방 목록 업데이트 브로드캐스트
-                messagingTemplate.convertAndSend("/topic/minigame/rooms", room);
-                log.info("일반 나가기 처리: roomId={}, action=leave", request.getRoomId());
+            if (room == null) {
+                // 방이 삭제됨 (로비에는 방 목록 서비스가 remove 변경을 보냄)
+                recentChatService.removeRoom(request.getRoomId());
             } else {
-                log.info("gameEndByPlayerLeave 액션 감지 - 중복 브로드캐스트 스킵: roomId={}", request.getRoomId());
+                // 서비스에서 이미 gameEndByPlayerLeave 액션을 설정한 경우 덮어쓰지 않음
+                if (!"gameEndByPlayerLeave".equals(room.getAction())) {
+                    room.setAction("leave");
+                    room.setTimestamp(System.currentTimeMillis());
+
+                    // 방에 있는 모든 사람에게 브로드캐스트
+                    messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+                    log.info("일반 나가기 처리: roomId={}, action=leave", request.getRoomId());
+                } else {
+                    log.info("gameEndByPlayerLeave 액션 감지 - 중복 브로드캐스트 스킵: roomId={}", request.getRoomId());
+                }
             }
-        }
+        });
     }
 
     /**
@@ -162,22 +258,21 @@ public class MinigameController {
      */
     @MessageMapping("/minigame.room.update")
     public void updateRoom(UpdateRoomRequest request) {
-        log.info("방 설정 변경 요청: {}", request);
-
-        MinigameRoomDto room = roomService.updateRoomSettings(
-                request.getRoomId(),
-                request.getGameName(),
-                request.getMaxPlayers());
-        if (room != null) {
-            room.setAction("update");
-            room.setTimestamp(System.currentTimeMillis());
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("방 설정 변경 요청: {}", request);
 
-            // 방에 있는 모든 사람에게 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            MinigameRoomDto room = roomService.updateRoomSettings(
+                    request.getRoomId(),
+                    request.getGameName(),
+                    request.getMaxPlayers());
+            if (room != null) {
+                room.setAction("update");
+                room.setTimestamp(System.currentTimeMillis());
 
-            // 방 목록 업데이트 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/rooms", room);
-        }
+                // 방에 있는 모든 사람에게 브로드캐스트
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            }
+        });
     }
 
     /**
@@ -187,15 +282,17 @@ public class MinigameController {
      */
     @MessageMapping("/minigame.room.ready")
     public void toggleReady(RoomActionRequest request) {
-        log.info("준비 상태 변경 요청: {}", request);
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("준비 상태 변경 요청: {}", request);
 
-        MinigameRoomDto room = roomService.toggleReady(request.getRoomId(), request.getUserId());
-        if (room != null) {
-            room.setAction("ready");
-            room.setTimestamp(System.currentTimeMillis());
+            MinigameRoomDto room = roomService.toggleReady(request.getRoomId(), request.getUserId());
+            if (room != null) {
+                room.setAction("ready");
+                room.setTimestamp(System.currentTimeMillis());
 
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
-        }
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            }
+        });
     }
 
     /**
@@ -205,21 +302,20 @@ public class MinigameController {
      */
     @MessageMapping("/minigame.room.switchRole")
     public void switchRole(RoomActionRequest request) {
-        log.info("역할 전환 요청: roomId={}, userId={}", request.getRoomId(), request.getUserId());
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("역할 전환 요청: roomId={}, userId={}", request.getRoomId(), request.getUserId());
 
-        MinigameRoomDto room = roomService.switchRole(request.getRoomId(), request.getUserId());
-        if (room != null) {
-            room.setAction("switchRole");
-            room.setTimestamp(System.currentTimeMillis());
-
-            // 방에 있는 모든 사람에게 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            MinigameRoomDto room = roomService.switchRole(request.getRoomId(), request.getUserId());
+            if (room != null) {
+                room.setAction("switchRole");
+                room.setTimestamp(System.currentTimeMillis());
 
-            // 방 목록 업데이트 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/rooms", room);
-        } else {
-            log.warn("역할 전환 실패: roomId={}, userId={}", request.getRoomId(), request.getUserId());
-        }
+                // 방에 있는 모든 사람에게 브로드캐스트
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            } else {
+                log.warn("역할 전환 실패: roomId={}, userId={}", request.getRoomId(), request.getUserId());
+            }
+        });
     }
 
     /**
@@ -229,19 +325,18 @@ public class MinigameController {
      */
     @MessageMapping("/minigame.room.start")
     public void startGame(RoomActionRequest request) {
-        log.info("게임 시작 요청: {}", request);
-
-        MinigameRoomDto room = roomService.startGame(request.getRoomId());
-        if (room != null) {
-            room.setAction("start");
-            room.setTimestamp(System.currentTimeMillis());
+        roomExecutor.execute(request.getRoomId(), () -> {
+            log.info("게임 시작 요청: {}", request);
 
-            // 방에 있는 모든 사람에게 브로드캐스트
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            MinigameRoomDto room = roomService.startGame(request.getRoomId());
+            if (room != null) {
+                room.setAction("start");
+                room.setTimestamp(System.currentTimeMillis());
 
-            // 로비에 있는 사람들에게도 방 상태 업데이트 브로드캐스트 (대기중 -> 게임중)
-            messagingTemplate.convertAndSend("/topic/minigame/rooms", room);
-        }
+                // 방에 있는 모든 사람에게 브로드캐스트
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + request.getRoomId(), room);
+            }
+        });
     }
 
     /**
@@ -250,146 +345,133 @@ public class MinigameController {
      * Server -> /topic/minigame/room/{roomId}/game (to room)
      */
     @MessageMapping("/minigame.room.game")
-    public void handleGameEvent(GameEventDto event) {
+    public void handleGameEvent(GameEventDto event, SimpMessageHeaderAccessor headerAccessor) {
+        // 지연 보정 기준 시각 (방 스레드 대기 시간은 빼기 위해 여기서 잼)
+        long receivedAt = System.currentTimeMillis();
+        String sessionId = headerAccessor.getSessionId();
         log.info("게임 이벤트 수신: {}", event);
         if (event == null || event.getRoomId() == null)
             return;
 
-        if ("hit".equals(event.getType())) {
-            // validate and update score
-            String roomId = event.getRoomId();
-            String playerId = event.getPlayerId();
-            String playerName = event.getPlayerName();
-            String targetId = event.getTarget() != null ? event.getTarget().getId() : event.getTargetId();
-
-            GameScoreDto result = roomService.handleHit(roomId, playerId, playerName, targetId,
-                    event.getTimestamp() == null ? System.currentTimeMillis() : event.getTimestamp());
-
-            // send back an acknowledgement (scoreUpdate already broadcast by service)
-            if (result != null) {
-                GameEventDto scoreEvt = new GameEventDto();
-                scoreEvt.setRoomId(roomId);
-                scoreEvt.setType("hitAck");
-                scoreEvt.setPlayerId(playerId);
-                scoreEvt.setPayload(String.valueOf(result.getScore()));
-                scoreEvt.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", scoreEvt);
+        // 같은 방의 이벤트는 방 스레드에서 순서대로 처리
+        roomExecutor.execute(event.getRoomId(), () -> {
+            if ("hit".equals(event.getType())) {
+                // validate and update score
+                String roomId = event.getRoomId();
+                String playerId = event.getPlayerId();
+                String playerName = event.getPlayerName();
+                String targetId = event.getTarget() != null ? event.getTarget().getId() : event.getTargetId();
+
+                // 판정 후 scoreUpdate/targetRemoved/hitAck은 서비스가 보냄
+                roomService.handleHit(roomId, playerId, playerName, targetId,
+                        event.getTimestamp() == null ? receivedAt : event.getTimestamp(), receivedAt, sessionId);
             }
-        }
 
-        if ("omokMove".equals(event.getType())) {
-            // 오목 움직임 처리
-            String roomId = event.getRoomId();
-            String playerId = event.getPlayerId();
-            Integer position = event.getPosition();
-
-            log.info("오목 움직임: roomId={}, playerId={}, position={}", roomId, playerId, position);
-
-            // 타이머 재시작 (다음 턴)
-            roomService.startOmokTimer(roomId);
-
-            // 모든 플레이어에게 브로드캐스트
-            GameEventDto omokEvt = new GameEventDto();
-            omokEvt.setRoomId(roomId);
-            omokEvt.setType("omokMove");
-            omokEvt.setPlayerId(playerId);
-            omokEvt.setPosition(position);
-            omokEvt.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", omokEvt);
-        }
+            if ("omokMove".equals(event.getType())) {
+                // 오목 움직임 처리 (서버가 검사/승리 판정 후 omokMove 또는 omokMoveRejected를 브로드캐스트하고 다음 턴 타이머 시작)
+                String roomId = event.getRoomId();
+                String playerId = event.getPlayerId();
+                Integer position = event.getPosition();
 
-        if ("omokStart".equals(event.getType())) {
-            // 오목 게임 시작 시 첫 타이머 시작
-            String roomId = event.getRoomId();
-            log.info("오목 게임 시작, 타이머 시작: roomId={}", roomId);
-            roomService.initOmokGame(roomId);
-            roomService.startOmokTimer(roomId);
-        }
+                log.info("오목 움직임: roomId={}, playerId={}, position={}", roomId, playerId, position);
+                roomService.handleOmokMove(roomId, playerId, position);
+            }
 
-        if ("omokRematchRequest".equals(event.getType())) {
-            // 다시하기 요청
-            String roomId = event.getRoomId();
-            String playerId = event.getPlayerId();
-            log.info("오목 다시하기 요청: roomId={}, playerId={}", roomId, playerId);
-
-            // 다시하기 요청 브로드캐스트
-            GameEventDto rematchReqEvt = new GameEventDto();
-            rematchReqEvt.setRoomId(roomId);
-            rematchReqEvt.setType("omokRematchRequest");
-            rematchReqEvt.setPlayerId(playerId);
-            rematchReqEvt.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", rematchReqEvt);
-
-            // 모든 플레이어가 동의했는지 확인
-            boolean allAgreed = roomService.addOmokRematchRequest(roomId, playerId);
-            if (allAgreed) {
-                log.info("모든 플레이어 동의 - 오목 게임 재시작: roomId={}", roomId);
-
-                // 게임 재시작
+            if ("omokStart".equals(event.getType())) {
+                // 오목 게임 시작 시 첫 타이머 시작
+                String roomId = event.getRoomId();
+                log.info("오목 게임 시작, 타이머 시작: roomId={}", roomId);
                 roomService.initOmokGame(roomId);
                 roomService.startOmokTimer(roomId);
+            }
 
-                // 재시작 이벤트 브로드캐스트
-                GameEventDto rematchStartEvt = new GameEventDto();
-                rematchStartEvt.setRoomId(roomId);
-                rematchStartEvt.setType("omokRematchStart");
-                rematchStartEvt.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", rematchStartEvt);
+            if ("omokRematchRequest".equals(event.getType())) {
+                // 다시하기 요청
+                String roomId = event.getRoomId();
+                String playerId = event.getPlayerId();
+                log.info("오목 다시하기 요청: roomId={}, playerId={}", roomId, playerId);
+
+                // 다시하기 요청 브로드캐스트
+                GameEventDto rematchReqEvt = new GameEventDto();
+                rematchReqEvt.setRoomId(roomId);
+                rematchReqEvt.setType("omokRematchRequest");
+                rematchReqEvt.setPlayerId(playerId);
+                rematchReqEvt.setTimestamp(System.currentTimeMillis());
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", rematchReqEvt);
+
+                // 모든 플레이어가 동의했는지 확인
+                boolean allAgreed = roomService.addOmokRematchRequest(roomId, playerId);
+                if (allAgreed) {
+                    log.info("모든 플레이어 동의 - 오목 게임 재시작: roomId={}", roomId);
+
+                    // 게임 재시작
+                    roomService.initOmokGame(roomId);
+                    roomService.startOmokTimer(roomId);
+
+                    // 재시작 이벤트 브로드캐스트
+                    GameEventDto rematchStartEvt = new GameEventDto();
+                    rematchStartEvt.setRoomId(roomId);
+                    rematchStartEvt.setType("omokRematchStart");
+                    rematchStartEvt.setTimestamp(System.currentTimeMillis());
+                    messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", rematchStartEvt);
+                }
             }
-        }
 
-        if ("countdownStart".equals(event.getType())) {
-            // 카운트다운 시작 이벤트 처리
-            String roomId = event.getRoomId();
-            String hostId = event.getPlayerId();
+            if ("countdownStart".equals(event.getType())) {
+                // 카운트다운 시작 이벤트 처리
+                String roomId = event.getRoomId();
+                String hostId = event.getPlayerId();
 
-            log.info("카운트다운 시작: roomId={}, hostId={}", roomId, hostId);
+                log.info("카운트다운 시작: roomId={}, hostId={}", roomId, hostId);
 
-            // 모든 플레이어에게 브로드캐스트
-            GameEventDto countdownEvt = new GameEventDto();
-            countdownEvt.setRoomId(roomId);
-            countdownEvt.setType("countdownStart");
-            countdownEvt.setPlayerId(hostId);
-            countdownEvt.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", countdownEvt);
-        }
+                // 모든 플레이어에게 브로드캐스트
+                GameEventDto countdownEvt = new GameEventDto();
+                countdownEvt.setRoomId(roomId);
+                countdownEvt.setType("countdownStart");
+                countdownEvt.setPlayerId(hostId);
+                countdownEvt.setTimestamp(System.currentTimeMillis());
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", countdownEvt);
+            }
 
-        if ("backToWaiting".equals(event.getType())) {
-            // 대기방으로 돌아가기 이벤트 처리
-            String roomId = event.getRoomId();
+            if ("backToWaiting".equals(event.getType())) {
+                // 대기방으로 돌아가기 이벤트 처리
+                String roomId = event.getRoomId();
 
-            log.info("대기방으로 돌아가기: roomId={}", roomId);
+                log.info("대기방으로 돌아가기: roomId={}", roomId);
 
-            // 방 상태 업데이트
-            MinigameRoomDto room = roomService.endGameAndResetReady(roomId);
-            if (room != null) {
-                room.setAction("backToWaiting");
-                room.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId, room);
+                // 방 상태 업데이트
+                MinigameRoomDto room = roomService.endGameAndResetReady(roomId);
+                if (room != null) {
+                    room.setAction("backToWaiting");
+                    room.setTimestamp(System.currentTimeMillis());
+                    messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId, room);
+                }
             }
-        }
 
-        if ("reactionStart".equals(event.getType())) {
-            String roomId = event.getRoomId();
-            boolean immediate = false;
-            if (event.getPayload() != null && event.getPayload().contains("immediate")) {
-                immediate = true;
+            if ("reactionStart".equals(event.getType())) {
+                String roomId = event.getRoomId();
+                boolean immediate = false;
+                if (event.getPayload() != null && event.getPayload().contains("immediate")) {
+                    immediate = true;
+                }
+                log.info("reactionStart received for room {} (immediate={})", roomId, immediate);
+                roomService.startReactionRound(roomId, immediate);
             }
-            log.info("reactionStart received for room {} (immediate={})", roomId, immediate);
-            roomService.startReactionRound(roomId, immediate);
-        }
 
-        if ("reactionHit".equals(event.getType())) {
-            String roomId = event.getRoomId();
-            String playerId = event.getPlayerId();
-            String playerName = event.getPlayerName();
-            roomService.handleReactionHit(roomId, playerId, playerName,
-                    event.getTimestamp() == null ? System.currentTimeMillis() : event.getTimestamp());
-        }
+            if ("reactionHit".equals(event.getType())) {
+                String roomId = event.getRoomId();
+                String playerId = event.getPlayerId();
+                String playerName = event.getPlayerName();
+                roomService.handleReactionHit(roomId, playerId, playerName,
+                        event.getTimestamp() == null ? receivedAt : event.getTimestamp(), receivedAt, sessionId);
+            }
+        });
     }
 
     /**
      * 게임 상태 요청 (재접속/새로고침 시 동기화)
+     * Client -> /app/minigame.room.state
+     * Server -> /topic/minigame/state/{userId} (요청한 사람에게만, 스냅샷 + 이후 이벤트)
      */
     @MessageMapping("/minigame.room.state")
     public void requestGameState(GameEventDto event) {
@@ -407,6 +489,10 @@ public class MinigameController {
     @MessageMapping("/minigame.room.chat")
     public void sendRoomChat(MinigameChatDto chatDto) {
         chatDto.setTimestamp(System.currentTimeMillis());
+        // 있는 방의 채팅만 기록 (없는 방 ID로 기록이 쌓이지 않도록)
+        if (chatDto.getRoomId() != null && roomService.getRoom(chatDto.getRoomId()) != null) {
+            recentChatService.addRoom(chatDto);
+        }
         messagingTemplate.convertAndSend("/topic/minigame/room/" + chatDto.getRoomId() + "/chat", chatDto);
     }
 
@@ -0,0 +1,141 @@
+package com.community.controller;
+
+import com.community.dto.PlayerPositionDto;
+import com.community.service.ActiveUserService;
+import com.community.service.ChatChannelService;
+import com.community.service.InboundRateLimitService;
+import com.community.service.MovementSessionRegistry;
+import com.community.service.PlazaSnapshotCodec;
+import com.community.service.PlazaSnapshotCodec.MoveFrame;
+import com.community.service.PlazaSnapshotService;
+import com.community.service.PlazaTickService;
+import com.community.service.WorldStateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 광장 이동 전용 바이너리 WebSocket
+ * Client -> /ws-move?token={jwt} (FRAME_MOVE 바이너리 프레임)
+ * Server -> 같은 연결로 compact 스냅샷 (FRAME_SNAPSHOT, Base64 없이 그대로)
+ *
+ * STOMP로 /app/player.join 을 먼저 해야 연결을 받는다. 채팅/방/미니게임은 계속 STOMP를 쓴다.
+ * 메시지는 컨테이너 I/O 스레드에서 바로 처리되므로 STOMP 브로커 스레드 풀과 Jackson을 거치지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MovementWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final String LAST_POSITION = "lastPosition";
+
+    private final ActiveUserService activeUserService;
+    private final MovementSessionRegistry movementSessionRegistry;
+    private final PlazaSnapshotService plazaSnapshotService;
+    private final PlazaTickService plazaTickService;
+    private final WorldStateService worldStateService;
+    private final ChatChannelService chatChannelService;
+    private final InboundRateLimitService inboundRateLimitService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String userId = (String) session.getAttributes().get("userId");
+        if (userId == null || !activeUserService.isConnectedHere(userId)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Join the plaza first"));
+            return;
+        }
+
+        // 바이너리 연결은 항상 compact 포맷 (이미 compact면 baseline을 유지)
+        if (!plazaSnapshotService.isCompact(userId)) {
+            plazaSnapshotService.register(userId, PlazaSnapshotService.FORMAT_COMPACT);
+        }
+        movementSessionRegistry.register(userId, session);
+        log.info("Binary movement session opened: userId={}", userId);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        String userId = (String) session.getAttributes().get("userId");
+        if (!activeUserService.isConnectedHere(userId)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Not in plaza"));
+            return;
+        }
+        // STOMP /app/player.position 과 같은 속도 제한
+        if (!inboundRateLimitService.tryAcquire(session.getId(), InboundRateLimitService.Category.POSITION)) {
+            return;
+        }
+
+        MoveFrame frame;
+        try {
+            frame = PlazaSnapshotCodec.decodeMove(toBytes(message.getPayload()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid move frame from {}: {}", userId, e.getMessage());
+            session.close(CloseStatus.BAD_DATA);
+            return;
+        }
+
+        if (frame.ackTick() > 0) {
+            plazaSnapshotService.acknowledge(userId, frame.ackTick());
+        }
+
+        // 틱 스레드가 읽는 중일 수 있으므로 이전 DTO를 고치지 않고 새로 만든다
+        PlayerPositionDto previous = (PlayerPositionDto) session.getAttributes().get(LAST_POSITION);
+        PlayerPositionDto position = new PlayerPositionDto();
+        position.setUserId(userId);
+        position.setUsername((String) session.getAttributes().get("username"));
+        if (frame.has(PlazaSnapshotCodec.POSITION)) {
+            position.setX(PlazaSnapshotCodec.dequantizePosition(frame.x()));
+            position.setY(PlazaSnapshotCodec.dequantizePosition(frame.y()));
+            position.setZ(PlazaSnapshotCodec.dequantizePosition(frame.z()));
+        } else if (previous != null) {
+            position.setX(previous.getX());
+            position.setY(previous.getY());
+            position.setZ(previous.getZ());
+        }
+        position.setRotationY(frame.has(PlazaSnapshotCodec.ROTATION)
+                ? PlazaSnapshotCodec.dequantizeRotation(frame.rotation())
+                : previous != null ? previous.getRotationY() : null);
+        position.setAnimation(frame.has(PlazaSnapshotCodec.ANIMATION)
+                ? PlazaSnapshotCodec.Animation.ofCode(frame.animation()).getClientName()
+                : previous != null ? previous.getAnimation() : null);
+        position.setModelPath(frame.has(PlazaSnapshotCodec.MODEL)
+                ? emptyToNull(frame.modelPath())
+                : previous != null ? previous.getModelPath() : null);
+        position.setCurrentRoomId(frame.has(PlazaSnapshotCodec.ROOM)
+                ? emptyToNull(frame.roomId())
+                : previous != null ? previous.getCurrentRoomId() : null);
+        position.setIsChangingAvatar(frame.changingAvatar());
+        position.setTimestamp(System.currentTimeMillis());
+
+        session.getAttributes().put(LAST_POSITION, position);
+        worldStateService.update(position);
+        chatChannelService.updateSpace(userId, position.getCurrentRoomId());
+        plazaTickService.submit(position);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        inboundRateLimitService.removeSession(session.getId());
+        String userId = (String) session.getAttributes().get("userId");
+        if (userId != null) {
+            movementSessionRegistry.unregister(userId, session);
+            log.info("Binary movement session closed: userId={}, status={}", userId, status);
+        }
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
@@ -1,11 +1,21 @@
 package com.community.controller;
 
+import com.community.dto.ChatHistoryDto;
 import com.community.dto.ChatMessageDto;
 import com.community.dto.PlayerJoinDto;
 import com.community.dto.PlayerPositionDto;
+import com.community.dto.PositionSnapshotDto;
 import com.community.dto.RoomDto;
 import com.community.service.ActiveUserService;
-import com.community.service.MessageService;
+import com.community.service.ChatChannelService;
+import com.community.service.OnlineCountPublisher;
+import com.community.service.PlazaChatPersistenceService;
+import com.community.service.PlazaInterestService;
+import com.community.service.PlazaSnapshotService;
+import com.community.service.PlazaTickService;
+import com.community.service.PresenceDeltaPublisher;
+import com.community.service.RecentChatService;
+import com.community.service.WorldStateService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -14,6 +24,8 @@ import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Controller;
 
+import java.util.List;
+
 @Controller
 @RequiredArgsConstructor
 @Slf4j
@@ -21,16 +33,26 @@ public class MultiplayerController {
 
     private final ActiveUserService activeUserService;
     private final SimpMessageSendingOperations messagingTemplate;
-    private final MessageService messageService;
+    private final PlazaChatPersistenceService plazaChatPersistenceService;
+    private final PlazaTickService plazaTickService;
+    private final PlazaSnapshotService plazaSnapshotService;
+    private final PlazaInterestService plazaInterestService;
+    private final WorldStateService worldStateService;
+    private final OnlineCountPublisher onlineCountPublisher;
+    private final PresenceDeltaPublisher presenceDeltaPublisher;
+    private final RecentChatService recentChatService;
+    private final ChatChannelService chatChannelService;
 
     /**
      * 플레이어 입장
      * Client -> /app/player.join
-     * Server -> /topic/players (broadcast to all)
+     * Server -> /topic/players.batch, /topic/players (plaza.presence-delta.window-ms마다 모아서)
+     *           /topic/snapshots/{userId} (이미 접속 중인 플레이어들의 현재 상태, 한 번)
+     *           /topic/chat-history/{userId} (최근 광장 채팅, 한 번)
+     *           /topic/online-count (plaza.online-count.interval-ms마다 모아서)
      */
     @MessageMapping("/player.join")
-    @SendTo("/topic/players")
-    public PlayerJoinDto playerJoin(PlayerJoinDto joinDto, SimpMessageHeaderAccessor headerAccessor) {
+    public void playerJoin(PlayerJoinDto joinDto, SimpMessageHeaderAccessor headerAccessor) {
         String userId = joinDto.getUserId();
         String sessionId = headerAccessor.getSessionId();
 
@@ -45,64 +67,106 @@ public class MultiplayerController {
             errorDto.setAction("duplicate");
             errorDto.setTimestamp(System.currentTimeMillis());
 
-            return errorDto; // 중복 로그인 알림 브로드캐스트
+            presenceDeltaPublisher.publish(errorDto); // 중복 로그인 알림 브로드캐스트
+            return;
         }
 
         // 사용자 등록
         boolean added = activeUserService.addUser(userId, sessionId);
         if (!added) {
             log.error("Failed to add user {} to active users", userId);
-            return null;
+            return;
         }
 
         // Add username in websocket session
         headerAccessor.getSessionAttributes().put("username", joinDto.getUsername());
         headerAccessor.getSessionAttributes().put("userId", userId);
 
+        // 광장 채팅 구독 (공간이 바뀌면 서버가 옮김)
+        chatChannelService.join(userId, sessionId);
+
+        // 위치 스냅샷 포맷 등록 (compact 기본, json 선택 가능)
+        joinDto.setSnapshotFormat(plazaSnapshotService.register(userId, joinDto.getSnapshotFormat()));
+
         joinDto.setAction("join");
         joinDto.setTimestamp(System.currentTimeMillis());
 
-        log.info("User {} joined. Current online count: {}", userId, activeUserService.getActiveUserCount());
+        sendWorldSnapshot(joinDto);
+        sendChatHistory(userId);
 
-        // 온라인 인원 수 브로드캐스트
-        messagingTemplate.convertAndSend("/topic/online-count",
-                activeUserService.getActiveUserCount());
+        log.info("User {} joined", userId);
 
-        return joinDto;
+        // 온라인 인원 수 브로드캐스트 (다음 주기에 바뀐 경우만)
+        onlineCountPublisher.markChanged();
+
+        presenceDeltaPublisher.publish(joinDto);
     }
 
     /**
      * 플레이어 위치 업데이트
      * Client -> /app/player.position
-     * Server -> /topic/positions (broadcast to all)
+     * Server -> /topic/snapshots/{userId} (다음 서버 틱에 관심 반경 안의 플레이어에게만)
      */
     @MessageMapping("/player.position")
-    @SendTo("/topic/positions")
-    public PlayerPositionDto updatePosition(PlayerPositionDto positionDto) {
+    public void updatePosition(PlayerPositionDto positionDto) {
         positionDto.setTimestamp(System.currentTimeMillis());
-        return positionDto;
+        plazaSnapshotService.acknowledge(positionDto.getUserId(), positionDto.getAckTick());
+        worldStateService.update(positionDto);
+        chatChannelService.updateSpace(positionDto.getUserId(), positionDto.getCurrentRoomId());
+        plazaTickService.submit(positionDto);
     }
 
     /**
-     * 전체 채팅 메시지
-     * Client -> /app/chat.message
-     * Server -> /topic/chat (broadcast to all)
+     * 입장한 플레이어에게 현재 월드 상태를 스냅샷 하나로 전송
+     * 관심 영역 관리 중에는 입장 위치를 알 때만 보낸다 (모르면 첫 위치 업데이트 후 틱에서 관심 영역 전체를 받음)
+     */
+    private void sendWorldSnapshot(PlayerJoinDto joinDto) {
+        if (plazaInterestService.isEnabled() && (joinDto.getX() == null || joinDto.getZ() == null)) {
+            return;
+        }
+        List<PlayerPositionDto> players = worldStateService.snapshot(joinDto.getUserId(),
+                other -> plazaInterestService.isInterested(joinDto.getX(), joinDto.getZ(), other));
+        if (players.isEmpty()) {
+            return;
+        }
+        // tick 0: 틱 스냅샷과 구분 (compact delta baseline에 영향 없음)
+        messagingTemplate.convertAndSend("/topic/snapshots/" + joinDto.getUserId(),
+                new PositionSnapshotDto(0L, players, System.currentTimeMillis()));
+    }
+
+    /**
+     * 입장한 플레이어에게 최근 광장 채팅을 한 번에 전송 (DB 조회 없음)
+     */
+    private void sendChatHistory(String userId) {
+        List<ChatMessageDto> history = recentChatService.getPlazaHistory();
+        if (history.isEmpty()) {
+            return;
+        }
+        messagingTemplate.convertAndSend("/topic/chat-history/" + userId,
+                new ChatHistoryDto(RecentChatService.PLAZA_CHANNEL, history, System.currentTimeMillis()));
+    }
+
+    /**
+     * 채팅 메시지 (보낸 사람이 있는 공간에만)
+     * Client -> /app/chat.message (channel: "local"이면 주변 채팅)
+     * Server -> /topic/chat (광장), /topic/chat/room/{roomId} (개인 방), /topic/chat/local/{userId} (주변)
+     *           구독은 서버가 관리 ({@link ChatChannelService})
      */
     @MessageMapping("/chat.message")
-    @SendTo("/topic/chat")
-    public ChatMessageDto sendChatMessage(ChatMessageDto chatDto) {
+    public void sendChatMessage(ChatMessageDto chatDto) {
         chatDto.setTimestamp(System.currentTimeMillis());
+        String channel = chatChannelService.publish(chatDto);
+        if (!ChatChannelService.PLAZA.equals(channel)) {
+            return; // 개인 방/주변 채팅은 저장하지 않음 (방 ID가 messages.room_id에 맞지 않음)
+        }
+        recentChatService.addPlaza(chatDto);
 
-        // 광장 메시지를 데이터베이스에 저장
+        // 광장 메시지 저장은 대기열에 넣고 바로 반환 (백그라운드에서 batch로 저장)
         try {
-            Long senderId = Long.parseLong(chatDto.getUserId());
-            messageService.savePlazaMessage(senderId, chatDto.getMessage());
-            log.info("광장 메시지 저장 완료: userId={}, message={}", senderId, chatDto.getMessage());
-        } catch (Exception e) {
-            log.error("광장 메시지 저장 실패: {}", e.getMessage(), e);
+            plazaChatPersistenceService.submit(Long.parseLong(chatDto.getUserId()), chatDto.getMessage());
+        } catch (NumberFormatException e) {
+            log.error("광장 메시지 저장 실패: 잘못된 userId={}", chatDto.getUserId());
         }
-
-        return chatDto;
     }
 
     /**
@@ -0,0 +1,16 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryDto {
+    private String channel;     // "plaza" 또는 미니게임 방 ID
+    private List<?> messages;   // 최근 메시지 (오래된 것부터, 실시간 채팅과 같은 형식)
+    private Long timestamp;
+}
@@ -12,4 +12,10 @@ public class ChatMessageDto {
     private String username;
     private String message;
     private Long timestamp;
+    private String channel;   // "plaza"(기본), "room"(개인 방), "local"(주변 채팅) - 보낼 때 local만 지정, 나머지는 서버가 정함
+    private String roomId;    // room 채널의 방 ID
+
+    public ChatMessageDto(String userId, String username, String message, Long timestamp) {
+        this(userId, username, message, timestamp, null, null);
+    }
 }
@@ -0,0 +1,20 @@
+package com.community.dto;
+
+import lombok.Data;
+
+/**
+ * 시계 맞추기 (NTP 방식) 요청/응답
+ * 요청: userId, clientSendTs(t0), 직전 응답의 clientSendTs와 그 응답을 받은 클라이언트 시각(t3)
+ * 응답: clientSendTs(t0), serverReceiveTs(t1), serverSendTs(t2), 현재 추정치
+ */
+@Data
+public class ClockSyncDto {
+    private String userId;
+    private Long clientSendTs;        // t0 (클라이언트 시계)
+    private Long serverReceiveTs;     // t1 (서버 시계)
+    private Long serverSendTs;        // t2 (서버 시계)
+    private Long lastClientSendTs;    // 직전 교환의 t0
+    private Long lastClientReceiveTs; // 직전 교환의 t3 (클라이언트 시계)
+    private Long offsetMs;            // 서버 시계 - 클라이언트 시계 (추정)
+    private Long rttMs;               // 왕복 지연 (추정)
+}
@@ -12,5 +12,7 @@ public class GameEventDto {
     private String targetId; // Added for convenience to pass just ID
     private Integer position; // For omok game (board position)
     private String payload; // optional
+    private String winnerId; // gameEnd (오목 승자, 무승부면 null)
     private Long timestamp;
+    private Long sequence; // 판 기록 번호 (기록되는 이벤트만, 1부터)
 }
@@ -0,0 +1,20 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameSessionSyncDto {
+    private String roomId;
+    private String gameName;
+    private Long snapshotSequence;      // 스냅샷에 반영된 마지막 이벤트 번호 (0이면 시작 상태)
+    private Map<String, Object> snapshot; // 게임별 상태 (에임: targets/scores, 오목: board/moveCount/..., 반응속도: active/winner)
+    private List<GameEventDto> events;  // 스냅샷 이후 이벤트 (번호 순, 방 이벤트와 같은 형식)
+    private Long timestamp;
+}
@@ -0,0 +1,21 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDto {
+    private String gameName;
+    private String scope;                     // global | daily | friends
+    private String period;                    // global 또는 daily 날짜 (yyyy-MM-dd)
+    private int totalPlayers;                 // 이 순위표의 전체 인원
+    private int offset;
+    private List<LeaderboardEntryDto> entries; // 순위 순
+    private LeaderboardEntryDto me;            // 요청한 사람 (점수가 없으면 null)
+    private Long timestamp;
+}
@@ -0,0 +1,15 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private int rank; // 1부터 (friends는 친구들 사이 순위)
+    private String userId;
+    private String userName;
+    private long score;
+}
@@ -0,0 +1,12 @@
+package com.community.dto;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardRequest {
+    private String userId;
+    private String gameName;
+    private String scope;   // global(기본) | daily | friends
+    private Integer offset; // 0부터
+    private Integer limit;
+}
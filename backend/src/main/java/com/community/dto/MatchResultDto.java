@@ -0,0 +1,18 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchResultDto {
+    private String ticketId;
+    private String gameName;
+    private String status;     // queued, matched, cancelled, timeout, rejected
+    private String roomId;     // matched일 때
+    private MinigameRoomDto room; // matched일 때 들어간 방 (전체 정보)
+    private Long waitedMs;
+    private Long timestamp;
+}
@@ -0,0 +1,17 @@
+package com.community.dto;
+
+import lombok.Data;
+
+@Data
+public class MatchTicketRequest {
+    private String userId;
+    private String username;
+    private int level;
+    private String selectedProfile;
+    private String selectedOutline;
+    private String gameName;          // 에임 맞추기, Reaction Race, 오목
+    private Integer levelBand;        // 있으면 내 레벨 ± levelBand인 사람끼리만 매칭
+    private Double gpsLng;
+    private Double gpsLat;
+    private Double maxDistanceMeters; // 있으면 (GPS 위치가 있을 때) 이 거리 안의 사람/방만
+}
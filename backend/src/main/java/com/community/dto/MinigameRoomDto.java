@@ -1,8 +1,8 @@
 package com.community.dto;
 
 import lombok.Data;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Data
 public class MinigameRoomDto {
@@ -15,8 +15,9 @@ public class MinigameRoomDto {
     private int maxPlayers;
     private boolean isLocked;
     private boolean isPlaying;
-    private List<MinigamePlayerDto> players = new ArrayList<>();
-    private List<MinigamePlayerDto> spectators = new ArrayList<>();
+    // 방 스레드만 바꾸고 방 목록 조회/전송은 다른 스레드에서 읽으므로, 읽는 중에 바뀌어도 안전한 목록을 쓴다
+    private List<MinigamePlayerDto> players = new CopyOnWriteArrayList<>();
+    private List<MinigamePlayerDto> spectators = new CopyOnWriteArrayList<>();
     private String action; // create, join, leave, update, delete
     private Long timestamp;
     
@@ -0,0 +1,41 @@
+package com.community.dto;
+
+import lombok.Data;
+
+/**
+ * 로비 방 목록에 보이는 방 요약 (참가자/관전자 목록 없음)
+ * 참가자 목록은 방 안에 있는 사람에게만 /topic/minigame/room/{roomId}로 보낸다.
+ */
+@Data
+public class MinigameRoomSummaryDto {
+    private String roomId;
+    private String roomName;
+    private String gameName;
+    private String hostId;
+    private String hostName;
+    private int currentPlayers;
+    private int maxPlayers;
+    private int spectatorCount;
+    private boolean isLocked;
+    private boolean isPlaying;
+    private Double gpsLng;
+    private Double gpsLat;
+    private Long version; // 이 요약이 마지막으로 바뀐 방 목록 번호 (클라이언트는 더 작은 번호의 요약을 버림)
+
+    public static MinigameRoomSummaryDto from(MinigameRoomDto room) {
+        MinigameRoomSummaryDto summary = new MinigameRoomSummaryDto();
+        summary.setRoomId(room.getRoomId());
+        summary.setRoomName(room.getRoomName());
+        summary.setGameName(room.getGameName());
+        summary.setHostId(room.getHostId());
+        summary.setHostName(room.getHostName());
+        summary.setCurrentPlayers(room.getCurrentPlayers());
+        summary.setMaxPlayers(room.getMaxPlayers());
+        summary.setSpectatorCount(room.getSpectators() == null ? 0 : room.getSpectators().size());
+        summary.setLocked(room.isLocked());
+        summary.setPlaying(room.isPlaying());
+        summary.setGpsLng(room.getGpsLng());
+        summary.setGpsLat(room.getGpsLat());
+        return summary;
+    }
+}
@@ -0,0 +1,13 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRoomDto {
+    private MinigameRoomSummaryDto room;
+    private double distanceMeters; // 요청 위치에서의 거리
+}
@@ -0,0 +1,21 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRoomsDto {
+    private Double lng;
+    private Double lat;
+    private Double radiusMeters;    // null이면 가까운 순 검색
+    private int page;
+    private int size;
+    private boolean hasMore;        // 다음 페이지가 있는지
+    private List<NearbyRoomDto> rooms; // 가까운 순
+    private Long timestamp;
+}
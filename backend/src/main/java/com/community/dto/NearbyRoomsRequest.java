@@ -0,0 +1,13 @@
+package com.community.dto;
+
+import lombok.Data;
+
+@Data
+public class NearbyRoomsRequest {
+    private String userId;
+    private Double lng;
+    private Double lat;
+    private Double radiusMeters; // 없으면 가까운 순으로 page/size만큼
+    private Integer page;        // 0부터
+    private Integer size;
+}
@@ -0,0 +1,16 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerInterestDto {
+    private String userId;               // 시야에 들어오거나 나간 플레이어 ID
+    private String username;             // 플레이어 이름
+    private String action;               // "enter" or "leave"
+    private PlayerPositionDto position;  // enter일 때 마지막 위치 (leave면 null)
+    private Long timestamp;
+}
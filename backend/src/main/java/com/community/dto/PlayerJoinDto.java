@@ -12,4 +12,7 @@ public class PlayerJoinDto {
     private String username;
     private String action;  // "join" or "leave"
     private Long timestamp;
+    private String snapshotFormat; // 위치 스냅샷 포맷: "compact"(기본) or "json"
+    private Double x;             // 입장 위치 (선택, 관심 영역 안의 플레이어만 입장 스냅샷으로 받음)
+    private Double z;
 }
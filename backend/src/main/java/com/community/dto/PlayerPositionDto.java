@@ -19,4 +19,5 @@ public class PlayerPositionDto {
     private Boolean isChangingAvatar; // 아바타 변경 중 여부
     private String currentRoomId; // 현재 있는 방 ID (null이면 메인 맵)
     private Long timestamp;       // 타임스탬프
+    private Long ackTick;         // 클라이언트가 마지막으로 받은 compact 스냅샷 tick (delta baseline)
 }
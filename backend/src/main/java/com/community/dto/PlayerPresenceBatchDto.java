@@ -0,0 +1,16 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerPresenceBatchDto {
+    private Long sequence;              // 배치 번호 (서버마다 1부터 증가)
+    private List<PlayerJoinDto> events; // 묶음 구간 안의 입장/퇴장/중복 로그인 이벤트 (기존 /topic/players 형식 그대로)
+    private Long timestamp;
+}
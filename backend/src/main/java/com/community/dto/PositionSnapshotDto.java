@@ -0,0 +1,16 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionSnapshotDto {
+    private Long tick;                       // 서버 틱 번호
+    private List<PlayerPositionDto> players; // 이번 틱에 움직인 플레이어들의 최신 위치
+    private Long timestamp;
+}
@@ -0,0 +1,16 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDirectoryDeltaDto {
+    private Long sequence;                 // 방 목록 변경 번호 (1부터 1씩 증가)
+    private String action;                 // add, update, remove
+    private String roomId;
+    private MinigameRoomSummaryDto room;   // remove일 때는 null
+    private Long timestamp;
+}
@@ -0,0 +1,21 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDirectorySnapshotDto {
+    private Long sequence;                     // 이 페이지를 만든 시점의 방 목록 번호
+    private Long afterCursor;                  // 요청한 커서 (없으면 첫 페이지)
+    private Long nextCursor;                   // 다음 페이지 요청에 쓸 커서 (이 페이지 마지막 방의 생성 번호)
+    private boolean hasMore;
+    private int size;
+    private int totalRooms;
+    private List<MinigameRoomSummaryDto> rooms; // 생성 순
+    private Long timestamp;
+}
@@ -0,0 +1,17 @@
+package com.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDirectorySyncDto {
+    private Long sinceSequence;              // 클라이언트가 마지막으로 적용한 번호
+    private Long sequence;                   // 현재 방 목록 번호
+    private List<RoomDirectoryDeltaDto> deltas; // sinceSequence 이후 변경 (번호 순)
+    private Long timestamp;
+}
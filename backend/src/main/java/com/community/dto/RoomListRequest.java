@@ -0,0 +1,11 @@
+package com.community.dto;
+
+import lombok.Data;
+
+@Data
+public class RoomListRequest {
+    private String userId;
+    private Long afterCursor;    // 스냅샷 다음 페이지 커서 (없으면 첫 페이지)
+    private Integer size;        // 없으면 minigame.room-directory.page-size
+    private Long sinceSequence;  // 다시 맞추기 요청에서 마지막으로 적용한 번호
+}
@@ -0,0 +1,48 @@
+package com.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 미니게임 순위표 스냅샷 (게임/기간/사용자당 한 행)
+ * 순위표는 메모리에서 관리하고, 바뀐 점수만 주기적으로 묶어서 저장한다 (서버가 다시 시작할 때 불러옴).
+ */
+@Entity
+@Table(
+    name = "minigame_leaderboard",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"game_name", "period_key", "user_id"}),
+    indexes = @Index(name = "idx_minigame_leaderboard_period", columnList = "period_key")
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MinigameLeaderboardScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "game_name", nullable = false, length = 50)
+    private String gameName;
+
+    // global 또는 일간 날짜 (yyyy-MM-dd)
+    @Column(name = "period_key", nullable = false, length = 20)
+    private String periodKey;
+
+    @Column(name = "user_id", nullable = false, length = 100)
+    private String userId;
+
+    @Column(name = "user_name", length = 100)
+    private String userName;
+
+    @Column(nullable = false)
+    private Long score;
+
+    // 이 점수에 도달한 시각 (epoch ms, 같은 점수끼리의 순서)
+    @Column(name = "reached_at", nullable = false)
+    private Long reachedAt;
+}
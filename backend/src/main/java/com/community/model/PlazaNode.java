@@ -0,0 +1,31 @@
+package com.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 실행 중인 백엔드 노드 (heartbeat가 끊기면 다른 노드가 이 노드의 접속자를 정리한다)
+ */
+@Entity
+@Table(name = "plaza_nodes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlazaNode {
+
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
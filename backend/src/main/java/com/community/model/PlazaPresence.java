@@ -0,0 +1,34 @@
+package com.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 접속 중인 사용자 (전체 노드 공유, 사용자당 한 행)
+ */
+@Entity
+@Table(name = "plaza_presence", indexes = @Index(name = "idx_plaza_presence_node", columnList = "node_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlazaPresence {
+
+    @Id
+    @Column(name = "user_id", length = 100)
+    private String userId;
+
+    @Column(name = "session_id", nullable = false, length = 100)
+    private String sessionId;
+
+    @Column(name = "node_id", nullable = false, length = 100)
+    private String nodeId;
+
+    @Column(name = "connected_at", nullable = false)
+    private LocalDateTime connectedAt;
+}
@@ -21,6 +21,10 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     @Query("SELECT f FROM Friendship f WHERE (f.requester.id = :userId OR f.addressee.id = :userId) AND f.status = :status")
     List<Friendship> findFriendsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") FriendshipStatus status);
 
+    // 친구 사용자 ID만 조회 (친구 순위표용, 사용자 엔티티를 읽지 않음)
+    @Query("SELECT CASE WHEN f.requester.id = :userId THEN f.addressee.id ELSE f.requester.id END FROM Friendship f WHERE (f.requester.id = :userId OR f.addressee.id = :userId) AND f.status = :status")
+    List<Long> findFriendIds(@Param("userId") Long userId, @Param("status") FriendshipStatus status);
+
     // 받은 친구 요청 조회
     List<Friendship> findByAddresseeIdAndStatus(Long addresseeId, FriendshipStatus status);
 
@@ -32,6 +32,10 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE m.messageType = 'PLAZA' AND m.createdAt > :since AND m.isDeleted = false ORDER BY m.createdAt ASC")
     List<Message> findRecentPlazaMessages(@Param("since") LocalDateTime since);
 
+    // 광장 최근 메시지 (송신자 포함, 최근순) - 채팅 기록 버퍼 초기화용
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.messageType = 'PLAZA' AND m.isDeleted = false ORDER BY m.createdAt DESC")
+    List<Message> findLatestPlazaMessagesWithSender(Pageable pageable);
+
     // 사용자의 읽지 않은 DM 개수 (deprecated - use countUnreadDMsFromFriend)
     @Query("SELECT COUNT(m) FROM Message m WHERE m.messageType = 'DM' AND m.receiver.id = :userId AND m.createdAt > :lastCheckTime AND m.isDeleted = false")
     Long countUnreadDMs(@Param("userId") Long userId, @Param("lastCheckTime") LocalDateTime lastCheckTime);
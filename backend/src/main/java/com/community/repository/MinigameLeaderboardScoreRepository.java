@@ -0,0 +1,25 @@
+package com.community.repository;
+
+import com.community.model.MinigameLeaderboardScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MinigameLeaderboardScoreRepository extends JpaRepository<MinigameLeaderboardScore, Long> {
+
+    // 시작할 때 불러올 순위표 (global + 보관 중인 일간)
+    List<MinigameLeaderboardScore> findByPeriodKeyIn(Collection<String> periodKeys);
+
+    // 보관 기간이 지난 일간 순위표 삭제 (날짜 키는 yyyy-MM-dd라 문자열 비교로 순서가 맞음)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MinigameLeaderboardScore s WHERE s.periodKey <> :globalKey AND s.periodKey < :oldestKey")
+    int deleteDailyBefore(@Param("globalKey") String globalKey, @Param("oldestKey") String oldestKey);
+}
@@ -0,0 +1,27 @@
+package com.community.repository;
+
+import com.community.model.PlazaNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PlazaNodeRepository extends JpaRepository<PlazaNode, String> {
+
+    // heartbeat 갱신 (0이면 다른 노드가 이 노드를 죽은 것으로 보고 지운 상태)
+    @Transactional
+    @Modifying
+    @Query("UPDATE PlazaNode n SET n.heartbeatAt = :now WHERE n.nodeId = :nodeId")
+    int updateHeartbeat(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    // heartbeat가 끊긴 노드 삭제
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PlazaNode n WHERE n.heartbeatAt < :cutoff")
+    int deleteStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,41 @@
+package com.community.repository;
+
+import com.community.model.PlazaPresence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PlazaPresenceRepository extends JpaRepository<PlazaPresence, String> {
+
+    // 접속 등록 (save()는 있으면 덮어쓰므로 INSERT로만, 이미 있으면 DataIntegrityViolationException)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO plaza_presence (user_id, session_id, node_id, connected_at) " +
+            "VALUES (:userId, :sessionId, :nodeId, :connectedAt)", nativeQuery = true)
+    int insert(@Param("userId") String userId, @Param("sessionId") String sessionId,
+               @Param("nodeId") String nodeId, @Param("connectedAt") LocalDateTime connectedAt);
+
+    // 이 노드의 해당 세션만 삭제
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PlazaPresence p WHERE p.userId = :userId AND p.sessionId = :sessionId AND p.nodeId = :nodeId")
+    int deleteSession(@Param("userId") String userId, @Param("sessionId") String sessionId,
+                      @Param("nodeId") String nodeId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PlazaPresence p WHERE p.nodeId = :nodeId")
+    int deleteByNode(@Param("nodeId") String nodeId);
+
+    // 등록된 노드가 없는 접속자 삭제 (죽은 노드의 세션)
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PlazaPresence p WHERE p.nodeId NOT IN (SELECT n.nodeId FROM PlazaNode n)")
+    int deleteOrphaned();
+}
@@ -0,0 +1,62 @@
+package com.community.security;
+
+import com.community.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * 바이너리 이동 WebSocket 핸드셰이크 인증
+ * 브라우저 WebSocket API는 헤더를 붙일 수 없으므로 JWT를 ?token= 쿼리 파라미터로 받는다.
+ * 인증되면 세션 속성에 userId, username(닉네임)을 넣는다 (STOMP 세션과 같은 키).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst("token");
+        if (token == null || token.isBlank()) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        try {
+            String username = jwtTokenProvider.extractUsername(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (!jwtTokenProvider.validateToken(token, userDetails) || !(userDetails instanceof User user)) {
+                response.setStatusCode(HttpStatus.UNAUTHORIZED);
+                return false;
+            }
+            attributes.put("userId", String.valueOf(user.getId()));
+            attributes.put("username", user.getNickname());
+            return true;
+        } catch (Exception e) {
+            log.warn("WebSocket 핸드셰이크 인증 실패: {}", e.getMessage());
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
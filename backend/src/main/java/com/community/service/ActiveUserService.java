@@ -1,5 +1,6 @@
 package com.community.service;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -8,25 +9,49 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * 활성 사용자 세션 관리 서비스
  * WebSocket 연결 중인 사용자들을 추적하여 중복 로그인 방지 및 온라인 인원 수 관리
+ *
+ * 전체 접속자(중복 로그인, 인원 수)는 {@link PresenceStore}에 두고,
+ * 이 서버에 연결된 세션은 메모리에도 두어 위치 업데이트처럼 자주 확인하는 곳은 저장소를 거치지 않는다.
  */
 @Service
+@RequiredArgsConstructor
 public class ActiveUserService {
 
-    // userId -> sessionId 매핑
+    private final PresenceStore presenceStore;
+
+    // 이 서버에 연결된 userId -> sessionId 매핑
     private final Map<String, String> activeUsers = new ConcurrentHashMap<>();
 
     // sessionId -> userId 매핑 (역참조용)
     private final Map<String, String> sessionToUser = new ConcurrentHashMap<>();
 
     /**
-     * 사용자가 이미 접속 중인지 확인
+     * 사용자가 이미 접속 중인지 확인 (어느 서버든)
      * @param userId 사용자 ID
      * @return 접속 중이면 true, 아니면 false
      */
     public boolean isUserActive(String userId) {
+        return activeUsers.containsKey(userId) || presenceStore.contains(userId);
+    }
+
+    /**
+     * 사용자가 이 서버에 접속 중인지 확인 (위치 업데이트, 틱 등 이 서버의 세션만 다루는 곳에서 사용)
+     * @param userId 사용자 ID
+     * @return 이 서버에 접속 중이면 true
+     */
+    public boolean isConnectedHere(String userId) {
         return activeUsers.containsKey(userId);
     }
 
+    /**
+     * 사용자가 이 서버에 연결된 세션 ID
+     * @param userId 사용자 ID
+     * @return 이 서버에 접속 중이 아니면 null
+     */
+    public String getSessionIdHere(String userId) {
+        return activeUsers.get(userId);
+    }
+
     /**
      * 사용자 세션 등록 (접속)
      * @param userId 사용자 ID
@@ -34,7 +59,7 @@ public class ActiveUserService {
      * @return 성공적으로 등록되면 true, 이미 접속 중이면 false
      */
     public boolean addUser(String userId, String sessionId) {
-        if (isUserActive(userId)) {
+        if (activeUsers.containsKey(userId) || !presenceStore.add(userId, sessionId)) {
             return false; // 이미 접속 중
         }
 
@@ -51,13 +76,15 @@ public class ActiveUserService {
     public String removeUserBySession(String sessionId) {
         String userId = sessionToUser.remove(sessionId);
         if (userId != null) {
-            activeUsers.remove(userId);
+            activeUsers.remove(userId, sessionId);
+            presenceStore.remove(userId, sessionId);
         }
         return userId;
     }
 
     /**
      * 사용자 ID로 세션 제거
+     * 다른 서버의 세션이면 전체 접속자에서만 빠지고, 연결은 그 서버에서 끊길 때 정리된다.
      * @param userId 사용자 ID
      * @return 제거된 세션 ID (없으면 null)
      */
@@ -66,11 +93,12 @@ public class ActiveUserService {
         if (sessionId != null) {
             sessionToUser.remove(sessionId);
         }
-        return sessionId;
+        String removed = presenceStore.removeUser(userId);
+        return sessionId != null ? sessionId : removed;
     }
 
     /**
-     * 세션 ID로 사용자 ID 조회
+     * 세션 ID로 사용자 ID 조회 (이 서버의 세션)
      * @param sessionId WebSocket 세션 ID
      * @return 사용자 ID (없으면 null)
      */
@@ -79,18 +107,18 @@ public class ActiveUserService {
     }
 
     /**
-     * 현재 접속 중인 사용자 수
+     * 현재 접속 중인 사용자 수 (전체 서버)
      * @return 온라인 인원 수
      */
     public int getActiveUserCount() {
-        return activeUsers.size();
+        return presenceStore.count();
     }
 
     /**
-     * 모든 활성 사용자 정보 조회 (디버깅용)
+     * 모든 활성 사용자 정보 조회 (디버깅용, 전체 서버)
      * @return 활성 사용자 맵
      */
     public Map<String, String> getAllActiveUsers() {
-        return new ConcurrentHashMap<>(activeUsers);
+        return presenceStore.findAll();
     }
 }
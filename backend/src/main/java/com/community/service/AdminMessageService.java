@@ -19,6 +19,7 @@ import java.time.LocalDateTime;
 public class AdminMessageService {
 
     private final MessageRepository messageRepository;
+    private final RecentChatService recentChatService;
 
     /**
      * 전체 채팅 로그 조회 (페이지네이션)
@@ -64,6 +65,10 @@ public class AdminMessageService {
                 .orElseThrow(() -> new RuntimeException("메시지를 찾을 수 없습니다."));
         message.setIsDeleted(true);
         messageRepository.save(message);
+        // 입장 시 보내는 최근 광장 채팅에서도 제외
+        if (message.getMessageType() == Message.MessageType.PLAZA) {
+            recentChatService.removePlaza(message.getSender().getId(), message.getContent());
+        }
         log.info("메시지 삭제 (소프트): messageId={}", messageId);
     }
 
@@ -0,0 +1,183 @@
+package com.community.service;
+
+import com.community.dto.ChatMessageDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 공간별 채팅 채널
+ * 모든 채팅을 /topic/chat 하나로 보내지 않고, 보낸 사람이 있는 공간(광장 / 개인 방)의 사람에게만 보낸다.
+ * 구독은 서버가 관리한다: 플레이어가 공간을 옮기면(위치 업데이트의 currentRoomId) 서버가 그 세션의
+ * 구독을 브로커에서 바꾸므로, 브로커 fan-out은 전체 접속자 수가 아니라 공간 인원 수만큼만 일어난다.
+ *
+ * 채널:
+ * - plaza: /topic/chat (방에 없는 플레이어, 기존 목적지 그대로)
+ * - room: /topic/chat/room/{roomId}
+ * - local: 보낸 사람 주변 plaza.chat.local-radius 안의 같은 공간 플레이어 (/topic/chat/local/{userId})
+ *   받는 사람은 광장 공간 그리드(PlazaInterestService)에서 반경을 덮는 셀만 찾는다.
+ *
+ * 서버가 만든 구독의 ID는 "chat-"로 시작한다 (클라이언트는 직접 구독하지 않고 이 ID로 받는다).
+ * 클라이언트가 room/local 채널을 직접 SUBSCRIBE하면 ChatSubscriptionGuardInterceptor가 막는다.
+ * 공간마다 다른 구독 ID를 쓰므로 broker 채널이 비동기여도 구독 해제/구독 순서가 바뀌어 문제 되지 않는다.
+ */
+@Service
+@Slf4j
+public class ChatChannelService {
+
+    public static final String PLAZA = "plaza";
+    public static final String ROOM = "room";
+    public static final String LOCAL = "local";
+
+    private static final String PLAZA_DESTINATION = "/topic/chat";
+    public static final String ROOM_DESTINATION_PREFIX = "/topic/chat/room/";
+    public static final String LOCAL_DESTINATION_PREFIX = "/topic/chat/local/";
+    private static final String SUBSCRIPTION_PREFIX = "chat-";
+    private static final String LOCAL_SUBSCRIPTION_ID = SUBSCRIPTION_PREFIX + LOCAL;
+
+    private final MessageChannel brokerChannel;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final PlazaInterestService plazaInterestService;
+    private final double localRadius;
+
+    // userId -> 현재 공간 (이 서버에 접속 중인 플레이어)
+    private final Map<String, Space> spaces = new ConcurrentHashMap<>();
+
+    /**
+     * 플레이어가 있는 공간 (roomId가 null이면 광장)
+     */
+    private record Space(String sessionId, String roomId) {
+
+        String destination() {
+            return roomId == null ? PLAZA_DESTINATION : ROOM_DESTINATION_PREFIX + roomId;
+        }
+
+        String subscriptionId() {
+            return roomId == null ? SUBSCRIPTION_PREFIX + PLAZA : SUBSCRIPTION_PREFIX + ROOM + ":" + roomId;
+        }
+    }
+
+    public ChatChannelService(@Qualifier("brokerChannel") MessageChannel brokerChannel,
+                              SimpMessageSendingOperations messagingTemplate,
+                              ObjectMapper objectMapper,
+                              PlazaInterestService plazaInterestService,
+                              @Value("${plaza.chat.local-radius:20}") double localRadius) {
+        this.brokerChannel = brokerChannel;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.plazaInterestService = plazaInterestService;
+        this.localRadius = localRadius;
+    }
+
+    /**
+     * 입장한 플레이어의 세션을 광장 채팅과 자기 주변 채팅에 구독
+     */
+    public void join(String userId, String sessionId) {
+        Space space = new Space(sessionId, null);
+        spaces.put(userId, space);
+        subscribe(sessionId, space.subscriptionId(), space.destination());
+        subscribe(sessionId, LOCAL_SUBSCRIPTION_ID, LOCAL_DESTINATION_PREFIX + userId);
+    }
+
+    /**
+     * 위치 업데이트마다 호출 - 공간이 바뀌었을 때만 구독을 옮긴다
+     * @param roomId 현재 방 ID (null이면 광장)
+     */
+    public void updateSpace(String userId, String roomId) {
+        Space current = spaces.get(userId);
+        if (current == null || Objects.equals(current.roomId(), roomId)) {
+            return;
+        }
+        // 같은 사용자의 업데이트가 동시에 와도 replace에 성공한 한 번만 구독을 옮긴다 (맵 잠금 밖에서 전송)
+        Space next = new Space(current.sessionId(), roomId);
+        if (!spaces.replace(userId, current, next)) {
+            return;
+        }
+        unsubscribe(current.sessionId(), current.subscriptionId());
+        subscribe(next.sessionId(), next.subscriptionId(), next.destination());
+        log.debug("Chat space of {} changed: {} -> {}", userId, current.destination(), next.destination());
+    }
+
+    /**
+     * 플레이어 제거 (접속 종료 시, 구독은 브로커가 세션과 함께 정리)
+     */
+    public void leave(String userId) {
+        if (userId != null) {
+            spaces.remove(userId);
+        }
+    }
+
+    /**
+     * 채팅 전송 (보낸 사람의 공간 기준으로 채널을 정하고 channel/roomId를 채운다)
+     * @return 전송한 채널 (PLAZA, ROOM, LOCAL)
+     */
+    public String publish(ChatMessageDto chat) {
+        Space space = spaces.get(chat.getUserId());
+        String roomId = space != null ? space.roomId() : null;
+
+        if (LOCAL.equals(chat.getChannel()) && publishLocal(chat, roomId)) {
+            return LOCAL;
+        }
+
+        chat.setChannel(roomId == null ? PLAZA : ROOM);
+        chat.setRoomId(roomId);
+        messagingTemplate.convertAndSend(roomId == null ? PLAZA_DESTINATION : ROOM_DESTINATION_PREFIX + roomId, chat);
+        return chat.getChannel();
+    }
+
+    // 주변 채팅: 같은 공간에서 반경 안에 있는 플레이어(본인 포함)에게 한 번 직렬화해서 전송
+    private boolean publishLocal(ChatMessageDto chat, String roomId) {
+        chat.setChannel(LOCAL);
+        chat.setRoomId(roomId);
+        Message<byte[]> message = serialize(chat);
+        boolean located = plazaInterestService.forEachNearby(chat.getUserId(), localRadius,
+                other -> messagingTemplate.send(LOCAL_DESTINATION_PREFIX + other, message));
+        if (!located) {
+            return false; // 위치를 모르면 공간 채팅으로 보냄
+        }
+        messagingTemplate.send(LOCAL_DESTINATION_PREFIX + chat.getUserId(), message);
+        return true;
+    }
+
+    // broker에 세션 구독을 직접 등록 (simple broker, relay 모두 broker 채널로 받은 SUBSCRIBE를 처리)
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        brokerChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        brokerChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private Message<byte[]> serialize(Object payload) {
+        try {
+            return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(payload))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize chat message", e);
+        }
+    }
+}
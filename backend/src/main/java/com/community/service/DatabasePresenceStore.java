@@ -0,0 +1,181 @@
+package com.community.service;
+
+import com.community.model.PlazaNode;
+import com.community.model.PlazaPresence;
+import com.community.repository.PlazaNodeRepository;
+import com.community.repository.PlazaPresenceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 공유 DB 접속자 저장소 (서버 여러 대용)
+ * 모든 노드가 같은 plaza_presence 테이블을 보므로 중복 로그인 확인과 온라인 인원 수가 전체 기준이 된다.
+ * 로컬에서는 h2 프로필(내장 DB)로 그대로 실행할 수 있다.
+ *
+ * 노드 관리:
+ * - 노드마다 plaza_nodes에 한 행을 두고 heartbeat-interval-ms마다 heartbeat_at을 갱신
+ * - heartbeat가 node-timeout-ms 넘게 끊긴 노드는 다른 노드가 지우고, 그 노드의 접속자도 함께 지운다
+ * - 죽은 것으로 처리됐던 노드가 살아나면 자기 노드와 접속자를 다시 등록
+ * (노드 시계를 기준으로 하므로 노드 간 시계 차이는 node-timeout-ms보다 충분히 작아야 한다)
+ */
+@Service
+@ConditionalOnProperty(name = "plaza.presence.store", havingValue = "database")
+@Slf4j
+public class DatabasePresenceStore implements PresenceStore {
+
+    private final PlazaPresenceRepository presenceRepository;
+    private final PlazaNodeRepository nodeRepository;
+    private final String nodeId;
+    private final long heartbeatIntervalMs;
+    private final long nodeTimeoutMs;
+
+    // 이 노드가 등록한 접속자 (userId -> sessionId), 노드가 지워졌다 살아났을 때 다시 등록하기 위해
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "presence-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DatabasePresenceStore(PlazaPresenceRepository presenceRepository,
+                                 PlazaNodeRepository nodeRepository,
+                                 @Value("${plaza.presence.node-id:}") String nodeId,
+                                 @Value("${plaza.presence.heartbeat-interval-ms:5000}") long heartbeatIntervalMs,
+                                 @Value("${plaza.presence.node-timeout-ms:30000}") long nodeTimeoutMs) {
+        if (heartbeatIntervalMs <= 0 || nodeTimeoutMs <= heartbeatIntervalMs) {
+            throw new IllegalArgumentException(
+                    "plaza.presence.node-timeout-ms must be greater than heartbeat-interval-ms (> 0)");
+        }
+        this.presenceRepository = presenceRepository;
+        this.nodeRepository = nodeRepository;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        // 같은 node-id로 재시작했으면 이전 프로세스의 접속자는 이미 끊긴 세션
+        int stale = presenceRepository.deleteByNode(nodeId);
+        registerNode();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+        log.info("Presence node {} registered (heartbeat {}ms, timeout {}ms, removed {} stale sessions)",
+                nodeId, heartbeatIntervalMs, nodeTimeoutMs, stale);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            presenceRepository.deleteByNode(nodeId);
+            nodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            // 종료 중 DB를 못 쓰면 다른 노드가 timeout 후 정리한다
+            log.warn("Failed to unregister presence node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean add(String userId, String sessionId) {
+        try {
+            presenceRepository.insert(userId, sessionId, nodeId, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        localSessions.put(userId, sessionId);
+        return true;
+    }
+
+    @Override
+    public void remove(String userId, String sessionId) {
+        localSessions.remove(userId, sessionId);
+        presenceRepository.deleteSession(userId, sessionId, nodeId);
+    }
+
+    @Override
+    public String removeUser(String userId) {
+        Optional<PlazaPresence> presence = presenceRepository.findById(userId);
+        if (presence.isEmpty()) {
+            return null;
+        }
+        localSessions.remove(userId);
+        presenceRepository.deleteById(userId);
+        return presence.get().getSessionId();
+    }
+
+    @Override
+    public boolean contains(String userId) {
+        return presenceRepository.existsById(userId);
+    }
+
+    @Override
+    public int count() {
+        return (int) presenceRepository.count();
+    }
+
+    @Override
+    public Map<String, String> findAll() {
+        Map<String, String> result = new HashMap<>();
+        for (PlazaPresence presence : presenceRepository.findAll()) {
+            result.put(presence.getUserId(), presence.getSessionId());
+        }
+        return result;
+    }
+
+    private void heartbeat() {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (nodeRepository.updateHeartbeat(nodeId, now) == 0) {
+                log.warn("Presence node {} was removed as dead, registering again", nodeId);
+                registerNode();
+                restoreSessions();
+            }
+
+            int deadNodes = nodeRepository.deleteStale(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(nodeTimeoutMs)));
+            int orphaned = presenceRepository.deleteOrphaned();
+            if (deadNodes > 0 || orphaned > 0) {
+                log.info("Removed {} dead presence nodes and {} of their sessions", deadNodes, orphaned);
+            }
+        } catch (Exception e) {
+            log.error("Presence heartbeat failed for node {}", nodeId, e);
+        }
+    }
+
+    private void registerNode() {
+        LocalDateTime now = LocalDateTime.now();
+        nodeRepository.save(PlazaNode.builder()
+                .nodeId(nodeId)
+                .startedAt(now)
+                .heartbeatAt(now)
+                .build());
+    }
+
+    // 죽은 노드로 처리되며 지워진 이 노드의 접속자를 다시 등록 (그 사이 다른 노드에서 접속한 사용자는 그대로 둔다)
+    private void restoreSessions() {
+        localSessions.forEach((userId, sessionId) -> {
+            try {
+                presenceRepository.insert(userId, sessionId, nodeId, LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                log.warn("User {} reconnected on another node while node {} was considered dead", userId, nodeId);
+            }
+        });
+    }
+}
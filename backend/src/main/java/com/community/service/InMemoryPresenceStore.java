@@ -0,0 +1,63 @@
+package com.community.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM 메모리 접속자 저장소 (기본값, 서버 한 대용)
+ */
+@Service
+@ConditionalOnProperty(name = "plaza.presence.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPresenceStore implements PresenceStore {
+
+    // userId -> sessionId
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+
+    // 접속자 수 (ConcurrentHashMap.size()는 경합 중 셀을 모두 더하므로 따로 센다)
+    private final LongAdder online = new LongAdder();
+
+    @Override
+    public boolean add(String userId, String sessionId) {
+        if (sessions.putIfAbsent(userId, sessionId) != null) {
+            return false;
+        }
+        online.increment();
+        return true;
+    }
+
+    @Override
+    public void remove(String userId, String sessionId) {
+        if (sessions.remove(userId, sessionId)) {
+            online.decrement();
+        }
+    }
+
+    @Override
+    public String removeUser(String userId) {
+        String removed = sessions.remove(userId);
+        if (removed != null) {
+            online.decrement();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(String userId) {
+        return sessions.containsKey(userId);
+    }
+
+    @Override
+    public int count() {
+        return online.intValue();
+    }
+
+    @Override
+    public Map<String, String> findAll() {
+        return new HashMap<>(sessions);
+    }
+}
@@ -0,0 +1,133 @@
+package com.community.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클라이언트 → 서버 메시지 속도 제한 (세션 x 목적지 종류별 토큰 버킷)
+ * 변조된 클라이언트가 위치/채팅을 폭주시켜 브로커 스레드 풀을 점유하는 것을 막는다.
+ * 초과한 메시지는 처리하지 않고 버리며, 버린 수는 websocket.inbound.dropped 지표로 남긴다.
+ */
+@Service
+@Slf4j
+public class InboundRateLimitService {
+
+    /**
+     * 목적지 종류
+     */
+    public enum Category {
+        POSITION("position"),
+        CHAT("chat"),
+        DEFAULT("default");
+
+        private final String tag;
+
+        Category(String tag) {
+            this.tag = tag;
+        }
+
+        public static Category of(String destination) {
+            if (destination == null) {
+                return DEFAULT;
+            }
+            return switch (destination) {
+                case "/app/player.position" -> POSITION;
+                case "/app/chat.message", "/app/minigame.room.chat" -> CHAT;
+                default -> DEFAULT;
+            };
+        }
+    }
+
+    private record Limit(double perSecond, double burst) {
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(double burst) {
+            this.tokens = burst;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(Limit limit) {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.burst(), tokens + (now - lastRefillNanos) * limit.perSecond() / 1_000_000_000.0);
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Category, Limit> limits = new EnumMap<>(Category.class);
+    private final Map<Category, Counter> droppedCounters = new EnumMap<>(Category.class);
+
+    // sessionId -> 목적지 종류별 버킷
+    private final Map<String, TokenBucket[]> buckets = new ConcurrentHashMap<>();
+
+    public InboundRateLimitService(MeterRegistry meterRegistry,
+                                   @Value("${websocket.rate-limit.enabled:true}") boolean enabled,
+                                   @Value("${websocket.rate-limit.position.per-second:20}") double positionPerSecond,
+                                   @Value("${websocket.rate-limit.position.burst:30}") double positionBurst,
+                                   @Value("${websocket.rate-limit.chat.per-second:2}") double chatPerSecond,
+                                   @Value("${websocket.rate-limit.chat.burst:5}") double chatBurst,
+                                   @Value("${websocket.rate-limit.default.per-second:20}") double defaultPerSecond,
+                                   @Value("${websocket.rate-limit.default.burst:40}") double defaultBurst) {
+        this.enabled = enabled;
+        limits.put(Category.POSITION, new Limit(positionPerSecond, positionBurst));
+        limits.put(Category.CHAT, new Limit(chatPerSecond, chatBurst));
+        limits.put(Category.DEFAULT, new Limit(defaultPerSecond, defaultBurst));
+        for (Category category : Category.values()) {
+            droppedCounters.put(category, Counter.builder("websocket.inbound.dropped")
+                    .description("속도 제한으로 버린 클라이언트 메시지 수")
+                    .tag("category", category.tag)
+                    .register(meterRegistry));
+        }
+        log.info("WebSocket inbound rate limit: enabled={}, limits={}", enabled, limits);
+    }
+
+    /**
+     * 메시지 하나를 처리해도 되는지 확인
+     * @return 제한을 넘었으면 false (호출자가 메시지를 버림)
+     */
+    public boolean tryAcquire(String sessionId, Category category) {
+        if (!enabled || sessionId == null) {
+            return true;
+        }
+        TokenBucket[] sessionBuckets = buckets.computeIfAbsent(sessionId, id -> newBuckets());
+        if (sessionBuckets[category.ordinal()].tryAcquire(limits.get(category))) {
+            return true;
+        }
+        droppedCounters.get(category).increment();
+        return false;
+    }
+
+    /**
+     * 세션 종료 시 버킷 정리
+     */
+    public void removeSession(String sessionId) {
+        if (sessionId != null) {
+            buckets.remove(sessionId);
+        }
+    }
+
+    private TokenBucket[] newBuckets() {
+        Category[] categories = Category.values();
+        TokenBucket[] result = new TokenBucket[categories.length];
+        for (Category category : categories) {
+            result[category.ordinal()] = new TokenBucket(limits.get(category).burst());
+        }
+        return result;
+    }
+}
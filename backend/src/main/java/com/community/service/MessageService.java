@@ -125,12 +125,13 @@ public class MessageService {
     }
 
     /**
-     * 광장 메시지 저장
+     * 광장 메시지 저장 (한 건, 바로 저장)
+     * 실시간 광장 채팅은 {@link PlazaChatPersistenceService}가 모아서 저장한다.
      */
     @Transactional
     public Message savePlazaMessage(Long senderId, String content) {
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("송신자를 찾을 수 없습니다."));
+        // 송신자는 외래 키로만 쓰므로 조회하지 않고 참조만 만든다 (없는 사용자면 INSERT에서 실패)
+        User sender = userRepository.getReferenceById(senderId);
 
         Message message = Message.builder()
                 .sender(sender)
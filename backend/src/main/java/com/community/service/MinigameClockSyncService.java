@@ -0,0 +1,225 @@
+package com.community.service;
+
+import com.community.dto.ClockSyncDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 미니게임 접속자별 시계 차이/지연 추정 (NTP 방식)
+ * 클라이언트가 주기적으로 ping(t0)을 보내면 서버가 받은 시각(t1)과 보낸 시각(t2)을 붙여 돌려주고,
+ * 클라이언트는 다음 ping에 그 응답을 받은 시각(t3)을 함께 보낸다. 서버는 교환 하나마다
+ * rtt = (t3 - t0) - (t2 - t1), offset = ((t1 - t0) + (t2 - t3)) / 2 를 계산한다.
+ *
+ * - 시계 차이: 최근 sample-window개 중 rtt가 가장 작은 교환의 offset (지연이 튄 교환은 믿지 않음)
+ * - 지연: rtt의 지수 이동 평균, 편도 지연 = rtt / 2 (max-compensation-ms까지)
+ * - 판정 시각({@link #effectiveTime}): 클라이언트가 누른 시각을 서버 시계로 옮긴 뒤 편도 지연만큼 앞당긴 값.
+ *   서버가 이벤트를 보낸 시각과 비교하면 지연과 상관없이 "보고 나서 누르기까지 걸린 시간"이 된다.
+ *   클라이언트 시각은 [받은 시각 - 편도 지연 - clock-slack-ms, 받은 시각] 안으로 자른다.
+ * - 앞당기는 한도: 편도 지연은 클라이언트가 알려준 시각(t3)으로만 재므로 지연을 부풀리면 더 앞당겨 받을 수 있다.
+ *   그래서 받은 시각에서 앞당기는 전체 양을 max-backdate-ms로 묶고, 서버가 이벤트를 보낸 시각 + min-reaction-ms보다
+ *   이른 결과는 그 시각으로 올리되 "바닥에 걸림"으로 표시한다. 바닥에 걸린 입력은 걸리지 않은 입력에 항상 진다.
+ * - 추정치는 ping을 보낸 STOMP 연결별로 두고 판정도 입력이 온 연결의 것만 쓴다 (다른 연결이 남의 추정치를 바꿀 수 없음).
+ *   추정치가 없는 연결은 보정하지 않는다 (받은 시각 그대로).
+ *
+ * Client -> /app/minigame.clock.sync {userId, clientSendTs, lastClientSendTs?, lastClientReceiveTs?}
+ * Server -> /topic/minigame/clock/{userId} {clientSendTs, serverReceiveTs, serverSendTs, offsetMs, rttMs}
+ *
+ * 지표: minigame.clock.rtt, minigame.clock.clamped
+ */
+@Service
+@Slf4j
+public class MinigameClockSyncService {
+
+    private static final String CLOCK_TOPIC = "/topic/minigame/clock/";
+    private static final double RTT_SMOOTHING = 0.25;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final int sampleWindow;
+    private final long maxCompensationMs;
+    private final long clockSlackMs;
+    private final long minReactionMs;
+    private final long maxBackdateMs;
+
+    // sessionId -> 시계 상태 (연결이 끊기면 지움)
+    private final Map<String, ClockState> clocks = new ConcurrentHashMap<>();
+
+    private final DistributionSummary rttSummary;
+    private final Counter clamped;
+
+    public MinigameClockSyncService(SimpMessageSendingOperations messagingTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${minigame.latency.sample-window:8}") int sampleWindow,
+                                    @Value("${minigame.latency.max-compensation-ms:250}") long maxCompensationMs,
+                                    @Value("${minigame.latency.clock-slack-ms:50}") long clockSlackMs,
+                                    @Value("${minigame.latency.min-reaction-ms:100}") long minReactionMs,
+                                    @Value("${minigame.latency.max-backdate-ms:150}") long maxBackdateMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.sampleWindow = Math.max(1, sampleWindow);
+        this.maxCompensationMs = Math.max(0, maxCompensationMs);
+        this.clockSlackMs = Math.max(0, clockSlackMs);
+        this.minReactionMs = Math.max(0, minReactionMs);
+        this.maxBackdateMs = Math.max(0, maxBackdateMs);
+        this.rttSummary = DistributionSummary.builder("minigame.clock.rtt")
+                .description("시계 맞추기로 잰 왕복 지연 (ms)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.clamped = Counter.builder("minigame.clock.clamped")
+                .description("허용 범위를 벗어나 잘라낸 클라이언트 입력 시각 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 판정 시각 (floored: 서버가 이벤트를 보낸 시각 + min-reaction-ms로 끌어올린 값이면 true)
+     */
+    public record EffectiveTime(long at, boolean floored) {
+    }
+
+    // 한 연결의 시계 상태 (ping은 그 연결에서, 판정은 방 스레드에서 읽으므로 자신으로 잠금)
+    private static final class ClockState {
+        final long[] offsets;
+        final long[] rtts;
+        int samples = 0;
+        int next = 0;
+        double smoothedRtt = -1;
+        long offset = 0;
+
+        // 응답을 보냈지만 아직 t3를 받지 못한 교환
+        long pendingClientSend = Long.MIN_VALUE;
+        long pendingServerReceive;
+        long pendingServerSend;
+
+        ClockState(int window) {
+            this.offsets = new long[window];
+            this.rtts = new long[window];
+        }
+
+        void addSample(long rtt, long sampleOffset) {
+            offsets[next] = sampleOffset;
+            rtts[next] = rtt;
+            next = (next + 1) % offsets.length;
+            samples = Math.min(samples + 1, offsets.length);
+
+            int best = 0;
+            for (int i = 1; i < samples; i++) {
+                if (rtts[i] < rtts[best]) {
+                    best = i;
+                }
+            }
+            offset = offsets[best];
+            smoothedRtt = smoothedRtt < 0 ? rtt : smoothedRtt + RTT_SMOOTHING * (rtt - smoothedRtt);
+        }
+
+        boolean ready() {
+            return samples > 0;
+        }
+    }
+
+    /**
+     * ping 처리: 직전 교환을 마무리해 추정치를 갱신하고 이번 교환의 응답을 보냄
+     */
+    public void handlePing(ClockSyncDto ping, String sessionId) {
+        long receivedAt = System.currentTimeMillis();
+        if (ping == null || sessionId == null || ping.getUserId() == null || ping.getClientSendTs() == null) {
+            return;
+        }
+        String userId = ping.getUserId();
+        ClockState state = clocks.computeIfAbsent(sessionId, id -> new ClockState(sampleWindow));
+
+        ClockSyncDto pong = new ClockSyncDto();
+        pong.setUserId(userId);
+        pong.setClientSendTs(ping.getClientSendTs());
+        pong.setServerReceiveTs(receivedAt);
+
+        synchronized (state) {
+            Long lastSend = ping.getLastClientSendTs();
+            Long lastReceive = ping.getLastClientReceiveTs();
+            if (lastSend != null && lastReceive != null && lastSend == state.pendingClientSend) {
+                long t0 = state.pendingClientSend;
+                long t1 = state.pendingServerReceive;
+                long t2 = state.pendingServerSend;
+                long rtt = (lastReceive - t0) - (t2 - t1);
+                if (rtt >= 0) {
+                    state.addSample(rtt, ((t1 - t0) + (t2 - lastReceive)) / 2);
+                    rttSummary.record(rtt);
+                }
+                state.pendingClientSend = Long.MIN_VALUE;
+            }
+
+            if (state.ready()) {
+                pong.setOffsetMs(state.offset);
+                pong.setRttMs(Math.round(state.smoothedRtt));
+            }
+            long sentAt = System.currentTimeMillis();
+            pong.setServerSendTs(sentAt);
+            state.pendingClientSend = ping.getClientSendTs();
+            state.pendingServerReceive = receivedAt;
+            state.pendingServerSend = sentAt;
+        }
+
+        messagingTemplate.convertAndSend(CLOCK_TOPIC + userId, pong);
+    }
+
+    /**
+     * 판정에 쓸 서버 시각: 클라이언트가 누른 시각(서버 시계 기준)에서 편도 지연을 뺀 값
+     * 받은 시각보다 max-backdate-ms 넘게 이를 수 없고, 추정치가 없으면 받은 시각 그대로
+     * @param sessionId 입력이 온 연결 (그 연결에서 잰 추정치만 씀)
+     * @param eventSentAt 서버가 표적/GO를 보낸 시각 (결과는 이 시각 + min-reaction-ms보다 이르지 않음)
+     */
+    public EffectiveTime effectiveTime(String sessionId, long clientTs, long receivedAt, long eventSentAt) {
+        ClockState state = sessionId == null ? null : clocks.get(sessionId);
+        if (state == null) {
+            return new EffectiveTime(receivedAt, false);
+        }
+        long offset;
+        long oneWay;
+        synchronized (state) {
+            if (!state.ready()) {
+                return new EffectiveTime(receivedAt, false);
+            }
+            offset = state.offset;
+            oneWay = Math.min(Math.round(state.smoothedRtt / 2), maxCompensationMs);
+        }
+
+        long pressedAt = clientTs + offset;
+        long earliest = receivedAt - oneWay - clockSlackMs;
+        boolean outOfRange = pressedAt > receivedAt || pressedAt < earliest;
+        pressedAt = Math.max(earliest, Math.min(receivedAt, pressedAt));
+
+        // 지연을 부풀려도 받은 시각에서 max-backdate-ms보다 더 앞당길 수는 없음
+        long effective = pressedAt - oneWay;
+        if (effective < receivedAt - maxBackdateMs) {
+            effective = receivedAt - maxBackdateMs;
+            outOfRange = true;
+        }
+
+        // 이벤트를 보내기도 전(또는 사람이 반응할 수 없을 만큼 직후)에 누른 것으로는 만들 수 없음
+        long floor = Math.min(eventSentAt + minReactionMs, receivedAt);
+        boolean floored = effective < floor;
+        if (floored) {
+            effective = floor;
+            outOfRange = true;
+        }
+        if (outOfRange) {
+            clamped.increment();
+        }
+        return new EffectiveTime(effective, floored);
+    }
+
+    /**
+     * 연결이 끊기면 그 연결로 잰 추정치를 지움
+     */
+    public void removeSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        clocks.remove(sessionId);
+    }
+}
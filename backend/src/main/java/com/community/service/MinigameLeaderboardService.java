@@ -0,0 +1,402 @@
+package com.community.service;
+
+import com.community.dto.LeaderboardDto;
+import com.community.dto.LeaderboardEntryDto;
+import com.community.model.Friendship.FriendshipStatus;
+import com.community.model.MinigameLeaderboardScore;
+import com.community.repository.FriendshipRepository;
+import com.community.repository.MinigameLeaderboardScoreRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 미니게임 순위표 (게임별 전체 / 일간 / 친구)
+ * 순위표는 메모리의 {@link RankedScoreList}(순위를 O(log n)에 구하는 skip list)에 두고,
+ * 점수 반영과 저장은 백그라운드 스레드 하나가 한다.
+ *
+ * - 점수 반영: 게임 쪽은 크기가 정해진 대기열에 넣기만 하고 바로 돌아간다 (방 스레드가 순위표를 기다리지 않음).
+ *   apply-interval-ms마다 대기열을 꺼내 전체/오늘 순위표에 더하고, 가득 차면 버린다
+ * - 저장: snapshot-interval-ms마다 그 사이 바뀐 점수만 JDBC batch로 저장 (UPDATE 후 없는 행만 INSERT).
+ *   실패하면 다음 주기에 다시 저장하고, 시작할 때 전체 + 보관 중인 일간 순위표를 불러온다
+ * - 일간 순위표는 minigame.leaderboard.zone 기준 날짜별로 daily-retention-days일 보관
+ * - 친구 순위: 전체 순위표에서 친구와 나의 점수만 골라 다시 순위를 매김 (친구 ID만 DB에서 조회)
+ *
+ * 지표: minigame.leaderboard.queue, minigame.leaderboard.players,
+ *       minigame.leaderboard.snapshot(저장 시간), minigame.leaderboard.dropped(reason=overflow|error)
+ */
+@Service
+@Slf4j
+public class MinigameLeaderboardService {
+
+    public static final String GLOBAL = "global";
+    public static final String DAILY = "daily";
+    public static final String FRIENDS = "friends";
+
+    private static final String UPDATE_SQL = "UPDATE minigame_leaderboard SET user_name = ?, score = ?, reached_at = ? "
+            + "WHERE game_name = ? AND period_key = ? AND user_id = ?";
+    private static final String INSERT_SQL = "INSERT INTO minigame_leaderboard "
+            + "(game_name, period_key, user_id, user_name, score, reached_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private record ScoreEvent(String gameName, String userId, String userName, long points, long at) {
+    }
+
+    private record BoardKey(String gameName, String periodKey) {
+    }
+
+    private record DirtyScore(BoardKey board, String userId) {
+    }
+
+    private record Row(String gameName, String periodKey, String userId, String userName, long score, long reachedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MinigameLeaderboardScoreRepository scoreRepository;
+    private final FriendshipRepository friendshipRepository;
+    private final BlockingQueue<ScoreEvent> queue;
+    private final ZoneId zone;
+    private final int dailyRetentionDays;
+    private final long applyIntervalMs;
+    private final long snapshotIntervalMs;
+    private final int snapshotBatchSize;
+
+    @Value("${minigame.leaderboard.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${minigame.leaderboard.max-page-size:100}")
+    private int maxPageSize;
+
+    // 게임/기간 -> 순위표 (순위표마다 자신으로 잠금: 쓰기는 백그라운드 스레드 하나, 읽기는 요청 스레드)
+    private final Map<BoardKey, RankedScoreList> boards = new ConcurrentHashMap<>();
+
+    // 저장하지 않은 점수 (백그라운드 스레드에서만 사용)
+    private final Set<DirtyScore> dirty = new LinkedHashSet<>();
+
+    private final Timer snapshotTimer;
+    private final Counter droppedOverflow;
+    private final Counter droppedError;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "minigame-leaderboard");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MinigameLeaderboardService(JdbcTemplate jdbcTemplate,
+                                      MinigameLeaderboardScoreRepository scoreRepository,
+                                      FriendshipRepository friendshipRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${minigame.leaderboard.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${minigame.leaderboard.apply-interval-ms:100}") long applyIntervalMs,
+                                      @Value("${minigame.leaderboard.snapshot-interval-ms:30000}") long snapshotIntervalMs,
+                                      @Value("${minigame.leaderboard.snapshot-batch-size:500}") int snapshotBatchSize,
+                                      @Value("${minigame.leaderboard.daily-retention-days:7}") int dailyRetentionDays,
+                                      @Value("${minigame.leaderboard.zone:Asia/Seoul}") String zone) {
+        if (queueCapacity <= 0 || applyIntervalMs <= 0 || snapshotIntervalMs <= 0 || snapshotBatchSize <= 0
+                || dailyRetentionDays <= 0) {
+            throw new IllegalArgumentException("minigame.leaderboard queue-capacity, apply-interval-ms, "
+                    + "snapshot-interval-ms, snapshot-batch-size and daily-retention-days must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoreRepository = scoreRepository;
+        this.friendshipRepository = friendshipRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.applyIntervalMs = applyIntervalMs;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.snapshotBatchSize = snapshotBatchSize;
+        this.dailyRetentionDays = dailyRetentionDays;
+        this.zone = ZoneId.of(zone);
+
+        Gauge.builder("minigame.leaderboard.queue", queue, BlockingQueue::size)
+                .description("순위표 반영을 기다리는 점수 수")
+                .register(meterRegistry);
+        Gauge.builder("minigame.leaderboard.players", boards, MinigameLeaderboardService::globalPlayers)
+                .description("전체 순위표에 있는 사람 수 (게임 합계)")
+                .register(meterRegistry);
+        this.snapshotTimer = Timer.builder("minigame.leaderboard.snapshot")
+                .description("바뀐 순위표 점수를 저장하는 데 걸린 시간")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("minigame.leaderboard.dropped")
+                .description("순위표에 반영하지 못하고 버린 점수 수")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.droppedError = Counter.builder("minigame.leaderboard.dropped")
+                .description("순위표에 반영하지 못하고 버린 점수 수")
+                .tag("reason", "error")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        load();
+        scheduler.scheduleWithFixedDelay(this::apply, applyIntervalMs, applyIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMs, snapshotIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // 종료 전에 남은 점수 반영 후 저장
+        apply();
+        snapshot();
+    }
+
+    /**
+     * 점수 반영 요청 (대기열에 넣기만 하고 바로 반환)
+     * @return 대기열에 넣었으면 true, 가득 차서 버렸으면 false
+     */
+    public boolean record(String gameName, String userId, String userName, long points) {
+        if (gameName == null || userId == null || points == 0) {
+            return false;
+        }
+        if (queue.offer(new ScoreEvent(gameName, userId, userName, points, System.currentTimeMillis()))) {
+            return true;
+        }
+        droppedOverflow.increment();
+        log.warn("Leaderboard queue full, dropping {} points for user {} in {}", points, userId, gameName);
+        return false;
+    }
+
+    /**
+     * 순위표 한 페이지 (scope: global | daily | friends, 없으면 global)
+     */
+    public LeaderboardDto leaderboard(String gameName, String scope, String userId, Integer offset, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        int from = offset == null || offset < 0 ? 0 : offset;
+
+        if (FRIENDS.equals(scope)) {
+            return friendsLeaderboard(gameName, userId, from, pageSize);
+        }
+        String periodKey = DAILY.equals(scope) ? today() : GLOBAL;
+        RankedScoreList board = boards.get(new BoardKey(gameName, periodKey));
+
+        List<LeaderboardEntryDto> entries = new ArrayList<>();
+        LeaderboardEntryDto me = null;
+        int total = 0;
+        if (board != null) {
+            synchronized (board) {
+                total = board.size();
+                for (RankedScoreList.Entry entry : board.range(from, pageSize)) {
+                    entries.add(toDto(entry.rank(), entry));
+                }
+                RankedScoreList.Entry mine = userId == null ? null : board.get(userId);
+                if (mine != null) {
+                    me = toDto(mine.rank(), mine);
+                }
+            }
+        }
+        return new LeaderboardDto(gameName, DAILY.equals(scope) ? DAILY : GLOBAL, periodKey, total, from, entries, me,
+                System.currentTimeMillis());
+    }
+
+    // 친구 + 나의 전체 순위표 점수를 순위 순으로 (친구 수만큼만 조회)
+    private LeaderboardDto friendsLeaderboard(String gameName, String userId, int from, int pageSize) {
+        Set<String> members = new HashSet<>();
+        if (userId != null) {
+            members.add(userId);
+            try {
+                for (Long friendId : friendshipRepository.findFriendIds(Long.parseLong(userId),
+                        FriendshipStatus.ACCEPTED)) {
+                    members.add(friendId.toString());
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Friends leaderboard for non-numeric user id {}", userId);
+            }
+        }
+
+        List<RankedScoreList.Entry> scored = new ArrayList<>();
+        RankedScoreList board = boards.get(new BoardKey(gameName, GLOBAL));
+        if (board != null) {
+            synchronized (board) {
+                for (String member : members) {
+                    RankedScoreList.Entry entry = board.get(member);
+                    if (entry != null) {
+                        scored.add(entry);
+                    }
+                }
+            }
+        }
+        scored.sort(Comparator.comparingInt(RankedScoreList.Entry::rank));
+
+        List<LeaderboardEntryDto> entries = new ArrayList<>();
+        LeaderboardEntryDto me = null;
+        for (int i = 0; i < scored.size(); i++) {
+            LeaderboardEntryDto dto = toDto(i + 1, scored.get(i));
+            if (i >= from && entries.size() < pageSize) {
+                entries.add(dto);
+            }
+            if (dto.getUserId().equals(userId)) {
+                me = dto;
+            }
+        }
+        return new LeaderboardDto(gameName, FRIENDS, GLOBAL, scored.size(), from, entries, me,
+                System.currentTimeMillis());
+    }
+
+    private static LeaderboardEntryDto toDto(int rank, RankedScoreList.Entry entry) {
+        return new LeaderboardEntryDto(rank, entry.userId(), entry.userName(), entry.score());
+    }
+
+    // ===== 백그라운드 스레드 =====
+
+    private void apply() {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        List<ScoreEvent> batch = new ArrayList<>();
+        int applied = 0;
+        try {
+            queue.drainTo(batch);
+            for (ScoreEvent event : batch) {
+                String day = Instant.ofEpochMilli(event.at()).atZone(zone).toLocalDate().toString();
+                add(new BoardKey(event.gameName(), GLOBAL), event);
+                add(new BoardKey(event.gameName(), day), event);
+                applied++;
+            }
+        } catch (Exception e) {
+            droppedError.increment(batch.size() - applied);
+            log.error("Leaderboard apply failed", e);
+        }
+    }
+
+    private void add(BoardKey key, ScoreEvent event) {
+        RankedScoreList board = boards.computeIfAbsent(key, k -> new RankedScoreList());
+        synchronized (board) {
+            board.add(event.userId(), event.userName(), event.points(), event.at());
+        }
+        dirty.add(new DirtyScore(key, event.userId()));
+    }
+
+    private void snapshot() {
+        long started = System.nanoTime();
+        try {
+            evictExpiredDays();
+            if (dirty.isEmpty()) {
+                return;
+            }
+
+            List<Row> rows = new ArrayList<>(dirty.size());
+            for (DirtyScore score : dirty) {
+                RankedScoreList board = boards.get(score.board());
+                if (board == null) {
+                    continue; // 보관 기간이 지나 지운 일간 순위표
+                }
+                RankedScoreList.Entry entry;
+                synchronized (board) {
+                    entry = board.get(score.userId());
+                }
+                if (entry != null) {
+                    rows.add(new Row(score.board().gameName(), score.board().periodKey(), entry.userId(),
+                            entry.userName(), entry.score(), entry.updatedAt()));
+                }
+            }
+            dirty.clear();
+
+            for (int i = 0; i < rows.size(); i += snapshotBatchSize) {
+                List<Row> batch = rows.subList(i, Math.min(rows.size(), i + snapshotBatchSize));
+                try {
+                    write(batch);
+                } catch (Exception e) {
+                    // 다음 주기에 다시 저장
+                    for (Row row : batch) {
+                        dirty.add(new DirtyScore(new BoardKey(row.gameName(), row.periodKey()), row.userId()));
+                    }
+                    log.warn("Leaderboard snapshot of {} scores failed, retrying next cycle: {}", batch.size(),
+                            e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Leaderboard snapshot failed", e);
+        } finally {
+            snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 있는 행은 UPDATE, 없는 행(갱신 0건)만 모아서 INSERT
+    private void write(List<Row> batch) {
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, batch.stream()
+                .map(row -> new Object[]{row.userName(), row.score(), row.reachedAt(),
+                        row.gameName(), row.periodKey(), row.userId()})
+                .toList());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] == 0) {
+                Row row = batch.get(i);
+                inserts.add(new Object[]{row.gameName(), row.periodKey(), row.userId(), row.userName(),
+                        row.score(), row.reachedAt()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    // 보관 기간이 지난 일간 순위표를 메모리와 DB에서 지움
+    private void evictExpiredDays() {
+        String oldest = LocalDate.now(zone).minusDays(dailyRetentionDays - 1L).toString();
+        if (boards.keySet().removeIf(key -> !GLOBAL.equals(key.periodKey()) && key.periodKey().compareTo(oldest) < 0)) {
+            int deleted = scoreRepository.deleteDailyBefore(GLOBAL, oldest);
+            log.info("Evicted daily leaderboards before {} ({} rows)", oldest, deleted);
+        }
+    }
+
+    private void load() {
+        List<String> periods = new ArrayList<>();
+        periods.add(GLOBAL);
+        LocalDate today = LocalDate.now(zone);
+        for (int i = 0; i < dailyRetentionDays; i++) {
+            periods.add(today.minusDays(i).toString());
+        }
+        // 못 불러온 채로 시작하면 저장할 때 DB 점수를 덮어쓰므로 실패하면 시작하지 않는다
+        List<MinigameLeaderboardScore> saved = scoreRepository.findByPeriodKeyIn(periods);
+        for (MinigameLeaderboardScore score : saved) {
+            RankedScoreList board = boards.computeIfAbsent(
+                    new BoardKey(score.getGameName(), score.getPeriodKey()), k -> new RankedScoreList());
+            synchronized (board) {
+                board.set(score.getUserId(), score.getUserName(), score.getScore(), score.getReachedAt());
+            }
+        }
+        log.info("Loaded {} leaderboard scores across {} boards", saved.size(), boards.size());
+    }
+
+    private String today() {
+        return LocalDate.now(zone).toString();
+    }
+
+    private static double globalPlayers(Map<BoardKey, RankedScoreList> boards) {
+        int players = 0;
+        for (Map.Entry<BoardKey, RankedScoreList> entry : boards.entrySet()) {
+            if (GLOBAL.equals(entry.getKey().periodKey())) {
+                RankedScoreList board = entry.getValue();
+                synchronized (board) {
+                    players += board.size();
+                }
+            }
+        }
+        return players;
+    }
+}
@@ -0,0 +1,450 @@
+package com.community.service;
+
+import com.community.dto.MatchResultDto;
+import com.community.dto.MatchTicketRequest;
+import com.community.dto.MinigamePlayerDto;
+import com.community.dto.MinigameRoomDto;
+import com.community.dto.MinigameRoomSummaryDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 미니게임 빠른 매칭
+ * 방 목록을 보고 직접 고르는 대신 게임 종류별 대기열에 표를 넣으면, minigame.matchmaking.tick-ms마다
+ * 모인 표를 한꺼번에 빈자리가 있는 방에 넣거나 새 방을 만든다. 몇 개 안 보이는 방에 사람이 몰리지 않는다.
+ *
+ * - 표 추가/취소는 게임 종류별 잠금 없는 큐와 표 상태 CAS로만 한다 (요청 스레드가 서로 기다리지 않음)
+ * - 매칭은 게임 종류마다 따로 예약한 작업이 자기 스레드에서 한다. 방에 넣는 일은 그 방 스레드({@link MinigameRoomExecutor})에서
+ *   빈자리를 다시 확인한 뒤 하고 끝날 때까지 기다리므로, 방 스레드 하나가 바빠도 그 게임 종류의 매칭만 늦어진다
+ *   (직접 입장한 사람과 자리가 겹치지 않음)
+ * - 선택 조건: 레벨 범위(내 레벨 ± levelBand), GPS 거리(maxDistanceMeters). 두 표는 서로의 조건을 모두 만족해야 묶인다
+ * - 같이 묶을 사람이 없으면 solo-room-after-ms 뒤에 혼자 방을 만들어 다음 표들이 채우게 한다
+ *
+ * Server -> /topic/minigame/match/{userId} (queued, matched(방 전체 정보), cancelled, timeout, rejected)
+ *
+ * 지표: minigame.matchmaking.queue(tag: game, 대기 중인 표 수), minigame.matchmaking.wait(tag: game, 매칭까지 걸린 시간),
+ *       minigame.matchmaking.rooms(tag: game, result=created|filled)
+ */
+@Service
+@Slf4j
+public class MinigameMatchmakingService {
+
+    private static final int QUEUED = 0;
+    private static final int MATCHED = 1;
+    private static final int CANCELLED = 2;
+    private static final int EXPIRED = 3;
+
+    // 게임 종류별 방 인원 (최소 인원이 모이면 방을 만들고 최대 인원까지 채운다)
+    private record GameRule(int minPlayers, int maxPlayers) {
+    }
+
+    private static final Map<String, GameRule> RULES = Map.of(
+            "에임 맞추기", new GameRule(2, 4),
+            "Reaction Race", new GameRule(2, 4),
+            "오목", new GameRule(2, 2));
+
+    private static final class Ticket {
+        private final String ticketId = UUID.randomUUID().toString();
+        private final MatchTicketRequest request;
+        private final String sessionId;
+        private final long enqueuedNanos = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Ticket(MatchTicketRequest request, String sessionId) {
+            this.request = request;
+            this.sessionId = sessionId;
+        }
+
+        private long waitedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedNanos);
+        }
+    }
+
+    // 게임 종류별 대기열 상태
+    private final class GameQueue {
+        private final String gameName;
+        private final GameRule rule;
+        private final Queue<Ticket> incoming = new ConcurrentLinkedQueue<>(); // 요청 스레드가 넣음
+        private final List<Ticket> waiting = new ArrayList<>();               // 이 게임의 매칭 작업만 사용 (들어온 순)
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Timer waitTime;
+        private final Counter createdRooms;
+        private final Counter filledSeats;
+
+        private GameQueue(String gameName, GameRule rule) {
+            this.gameName = gameName;
+            this.rule = rule;
+            Gauge.builder("minigame.matchmaking.queue", depth, AtomicInteger::get)
+                    .description("매칭 대기 중인 표 수")
+                    .tag("game", gameName)
+                    .register(meterRegistry);
+            this.waitTime = Timer.builder("minigame.matchmaking.wait")
+                    .description("매칭 대기열에 들어가서 방에 들어가기까지 걸린 시간")
+                    .tag("game", gameName)
+                    .register(meterRegistry);
+            this.createdRooms = Counter.builder("minigame.matchmaking.rooms")
+                    .description("매칭으로 만든 방 / 채운 자리 수")
+                    .tag("game", gameName)
+                    .tag("result", "created")
+                    .register(meterRegistry);
+            this.filledSeats = Counter.builder("minigame.matchmaking.rooms")
+                    .description("매칭으로 만든 방 / 채운 자리 수")
+                    .tag("game", gameName)
+                    .tag("result", "filled")
+                    .register(meterRegistry);
+        }
+    }
+
+    private final MinigameRoomService roomService;
+    private final MinigameRoomExecutor roomExecutor;
+    private final MinigameRoomDirectory roomDirectory;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final long tickMs;
+    private final long ticketTimeoutMs;
+    private final long soloRoomAfterMs;
+    private final int maxBatch;
+
+    private final Map<String, GameQueue> queues = new LinkedHashMap<>();
+
+    // userId -> 대기 중인 표 (한 사람당 하나)
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    // 게임 종류마다 스레드 하나 (한 게임의 매칭이 방 스레드를 기다려도 다른 게임은 계속 매칭)
+    private final ScheduledExecutorService scheduler;
+
+    public MinigameMatchmakingService(MinigameRoomService roomService,
+                                      MinigameRoomExecutor roomExecutor,
+                                      MinigameRoomDirectory roomDirectory,
+                                      SimpMessageSendingOperations messagingTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${minigame.matchmaking.tick-ms:250}") long tickMs,
+                                      @Value("${minigame.matchmaking.ticket-timeout-ms:60000}") long ticketTimeoutMs,
+                                      @Value("${minigame.matchmaking.solo-room-after-ms:5000}") long soloRoomAfterMs,
+                                      @Value("${minigame.matchmaking.max-batch:500}") int maxBatch) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("minigame.matchmaking.tick-ms must be positive: " + tickMs);
+        }
+        this.roomService = roomService;
+        this.roomExecutor = roomExecutor;
+        this.roomDirectory = roomDirectory;
+        this.messagingTemplate = messagingTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tickMs = tickMs;
+        this.ticketTimeoutMs = ticketTimeoutMs;
+        this.soloRoomAfterMs = soloRoomAfterMs;
+        this.maxBatch = Math.max(1, maxBatch);
+
+        RULES.keySet().stream().sorted().forEach(game -> queues.put(game, new GameQueue(game, RULES.get(game))));
+
+        AtomicInteger threads = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "minigame-matchmaking-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.scheduler = Executors.newScheduledThreadPool(queues.size(), threadFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 같은 작업은 겹쳐 실행되지 않으므로 게임별 waiting 목록은 그 작업만 만짐
+        for (GameQueue queue : queues.values()) {
+            scheduler.scheduleWithFixedDelay(() -> tick(queue), tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 매칭 대기열에 표 넣기 (이미 대기 중이면 이전 표는 취소)
+     */
+    public void enqueue(MatchTicketRequest request, String sessionId) {
+        if (request == null || request.getUserId() == null) {
+            return;
+        }
+        GameQueue queue = queues.get(request.getGameName());
+        if (queue == null) {
+            notify(request.getUserId(), new MatchResultDto(null, request.getGameName(), "rejected", null, null, 0L,
+                    System.currentTimeMillis()));
+            return;
+        }
+
+        Ticket ticket = new Ticket(request, sessionId);
+        Ticket previous = tickets.put(request.getUserId(), ticket);
+        if (previous != null) {
+            finish(previous, CANCELLED);
+        }
+        queue.depth.incrementAndGet();
+        queue.incoming.add(ticket);
+        notify(request.getUserId(), new MatchResultDto(ticket.ticketId, queue.gameName, "queued", null, null, 0L,
+                System.currentTimeMillis()));
+    }
+
+    /**
+     * 대기 중인 표 취소
+     */
+    public void cancel(String userId) {
+        if (userId == null) {
+            return;
+        }
+        Ticket ticket = tickets.remove(userId);
+        if (ticket != null && finish(ticket, CANCELLED)) {
+            notify(userId, result(ticket, "cancelled", null));
+        }
+    }
+
+    /**
+     * 연결이 끊긴 세션의 표 취소
+     */
+    public void cancelSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        tickets.values().forEach(ticket -> {
+            if (sessionId.equals(ticket.sessionId) && tickets.remove(ticket.request.getUserId(), ticket)) {
+                finish(ticket, CANCELLED);
+            }
+        });
+    }
+
+    // 대기 중인 표를 끝냄 (한 번만 성공, 대기 수에서 뺌)
+    private boolean finish(Ticket ticket, int state) {
+        if (!ticket.state.compareAndSet(QUEUED, state)) {
+            return false;
+        }
+        queues.get(ticket.request.getGameName()).depth.decrementAndGet();
+        return true;
+    }
+
+    // 방에 넣지 못했을 때 다시 대기 상태로
+    private void unclaim(Ticket ticket) {
+        if (ticket.state.compareAndSet(MATCHED, QUEUED)) {
+            queues.get(ticket.request.getGameName()).depth.incrementAndGet();
+        }
+    }
+
+    private void tick(GameQueue queue) {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        try {
+            match(queue);
+        } catch (Exception e) {
+            log.error("Matchmaking tick failed for {}", queue.gameName, e);
+        }
+    }
+
+    private void match(GameQueue queue) {
+        Ticket next;
+        while ((next = queue.incoming.poll()) != null) {
+            queue.waiting.add(next);
+        }
+        queue.waiting.removeIf(ticket -> ticket.state.get() != QUEUED);
+        expire(queue);
+        if (queue.waiting.isEmpty()) {
+            return;
+        }
+
+        // 한 tick에 보는 표 수를 제한 (나머지는 다음 tick에, 오래 기다린 표부터)
+        List<Ticket> batch = new ArrayList<>(queue.waiting.subList(0, Math.min(queue.waiting.size(), maxBatch)));
+        fillOpenRooms(queue, batch);
+        batch.removeIf(ticket -> ticket.state.get() != QUEUED);
+        formRooms(queue, batch);
+        queue.waiting.removeIf(ticket -> ticket.state.get() != QUEUED);
+    }
+
+    private void expire(GameQueue queue) {
+        for (Ticket ticket : queue.waiting) {
+            if (ticket.waitedMs() >= ticketTimeoutMs && finish(ticket, EXPIRED)) {
+                tickets.remove(ticket.request.getUserId(), ticket);
+                notify(ticket.request.getUserId(), result(ticket, "timeout", null));
+            }
+        }
+    }
+
+    // 1) 빈자리가 있는 방부터 채움 (사람이 많은 방 먼저)
+    private void fillOpenRooms(GameQueue queue, List<Ticket> batch) {
+        List<MinigameRoomSummaryDto> openRooms = roomDirectory.openRooms(queue.gameName);
+        openRooms.sort(Comparator.comparingInt(MinigameRoomSummaryDto::getCurrentPlayers).reversed());
+
+        for (MinigameRoomSummaryDto summary : openRooms) {
+            MinigameRoomDto room = roomService.getRoom(summary.getRoomId());
+            if (room == null) {
+                continue;
+            }
+            int seats = room.getMaxPlayers() - room.getCurrentPlayers();
+            for (Ticket ticket : batch) {
+                if (seats <= 0) {
+                    break;
+                }
+                MinigameRoomDto joined;
+                if (ticket.state.get() == QUEUED && fits(ticket, room)
+                        && (joined = join(queue, room.getRoomId(), ticket)) != null) {
+                    notify(ticket.request.getUserId(), result(ticket, "matched", joined));
+                    queue.filledSeats.increment();
+                    seats--;
+                }
+            }
+        }
+    }
+
+    // 2) 남은 표끼리 묶어 새 방 (오래 기다린 표를 기준으로 조건이 맞는 표를 최대 인원까지)
+    private void formRooms(GameQueue queue, List<Ticket> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Ticket anchor = batch.get(i);
+            if (anchor.state.get() != QUEUED) {
+                continue;
+            }
+            List<Ticket> group = new ArrayList<>(queue.rule.maxPlayers());
+            group.add(anchor);
+            for (int j = i + 1; j < batch.size() && group.size() < queue.rule.maxPlayers(); j++) {
+                Ticket candidate = batch.get(j);
+                if (candidate.state.get() == QUEUED && group.stream().allMatch(member -> compatible(member, candidate))) {
+                    group.add(candidate);
+                }
+            }
+            if (group.size() >= queue.rule.minPlayers() || anchor.waitedMs() >= soloRoomAfterMs) {
+                createRoom(queue, group);
+            }
+        }
+    }
+
+    private void createRoom(GameQueue queue, List<Ticket> group) {
+        Ticket host = group.get(0);
+        if (!host.state.compareAndSet(QUEUED, MATCHED)) {
+            return;
+        }
+        queue.depth.decrementAndGet();
+        MatchTicketRequest request = host.request;
+        MinigameRoomDto room = roomService.createRoom("빠른 매칭 - " + queue.gameName, queue.gameName,
+                request.getUserId(), request.getUsername(), queue.rule.maxPlayers(), false, request.getLevel(),
+                request.getSelectedProfile(), request.getSelectedOutline(), request.getGpsLng(), request.getGpsLat());
+        tickets.remove(request.getUserId(), host);
+        queue.createdRooms.increment();
+        queue.waitTime.record(host.waitedMs(), TimeUnit.MILLISECONDS);
+
+        List<Ticket> matched = new ArrayList<>(group.size());
+        matched.add(host);
+        for (Ticket ticket : group.subList(1, group.size())) {
+            if (join(queue, room.getRoomId(), ticket) != null) {
+                matched.add(ticket);
+            }
+        }
+        // 모두 들어간 뒤에 알림 (먼저 알림을 받은 사람이 방 구독 전에 나머지 입장을 놓치지 않도록)
+        MinigameRoomDto finalRoom = roomExecutor.call(room.getRoomId(), () -> roomService.getRoom(room.getRoomId()));
+        for (Ticket ticket : matched) {
+            notify(ticket.request.getUserId(), result(ticket, "matched", finalRoom != null ? finalRoom : room));
+        }
+        log.info("매칭 방 생성: {} ({}, {}명)", room.getRoomId(), queue.gameName, matched.size());
+    }
+
+    /**
+     * 방 스레드에서 빈자리를 다시 확인하고 넣음 (자리가 없으면 표는 다시 대기, null)
+     * 이미 있는 방을 채울 때만 바로 알리고, 새로 만든 방은 {@link #createRoom}이 모두 넣은 뒤 알린다.
+     */
+    private MinigameRoomDto join(GameQueue queue, String roomId, Ticket ticket) {
+        MinigameRoomDto joined = roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = roomService.getRoom(roomId);
+            if (room == null || room.isPlaying() || room.isLocked() || room.getCurrentPlayers() >= room.getMaxPlayers()) {
+                return null;
+            }
+            if (!ticket.state.compareAndSet(QUEUED, MATCHED)) {
+                return null;
+            }
+            queue.depth.decrementAndGet();
+
+            MatchTicketRequest request = ticket.request;
+            MinigamePlayerDto player = new MinigamePlayerDto();
+            player.setUserId(request.getUserId());
+            player.setUsername(request.getUsername());
+            player.setLevel(request.getLevel());
+            player.setHost(false);
+            player.setReady(false);
+            player.setSelectedProfile(request.getSelectedProfile());
+            player.setSelectedOutline(request.getSelectedOutline());
+
+            MinigameRoomDto result = roomService.joinRoom(roomId, player);
+            if (result == null) {
+                unclaim(ticket);
+                return null;
+            }
+            result.setAction("join");
+            result.setTimestamp(System.currentTimeMillis());
+            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId, result);
+            return result;
+        });
+        if (joined == null) {
+            return null;
+        }
+        tickets.remove(ticket.request.getUserId(), ticket);
+        queue.waitTime.record(ticket.waitedMs(), TimeUnit.MILLISECONDS);
+        return joined;
+    }
+
+    // 방 조건: 방 위치가 거리 조건 안에 있고, 방 참가자 모두가 레벨 범위 안에 있음
+    private static boolean fits(Ticket ticket, MinigameRoomDto room) {
+        if (!withinDistance(ticket, room.getGpsLat(), room.getGpsLng())) {
+            return false;
+        }
+        return room.getPlayers().stream().allMatch(player -> withinLevel(ticket, player.getLevel()));
+    }
+
+    private static boolean compatible(Ticket a, Ticket b) {
+        return withinLevel(a, b.request.getLevel()) && withinLevel(b, a.request.getLevel())
+                && withinDistance(a, b.request.getGpsLat(), b.request.getGpsLng())
+                && withinDistance(b, a.request.getGpsLat(), a.request.getGpsLng());
+    }
+
+    private static boolean withinLevel(Ticket ticket, int level) {
+        Integer band = ticket.request.getLevelBand();
+        return band == null || Math.abs(level - ticket.request.getLevel()) <= band;
+    }
+
+    // 거리 조건이 있으면 상대 위치도 있어야 함
+    private static boolean withinDistance(Ticket ticket, Double lat, Double lng) {
+        MatchTicketRequest request = ticket.request;
+        if (request.getMaxDistanceMeters() == null || request.getGpsLat() == null || request.getGpsLng() == null) {
+            return true;
+        }
+        if (lat == null || lng == null) {
+            return false;
+        }
+        return MinigameRoomGeoIndex.distanceMeters(request.getGpsLat(), request.getGpsLng(), lat, lng)
+                <= request.getMaxDistanceMeters();
+    }
+
+    private static MatchResultDto result(Ticket ticket, String status, MinigameRoomDto room) {
+        return new MatchResultDto(ticket.ticketId, ticket.request.getGameName(), status,
+                room == null ? null : room.getRoomId(), room, ticket.waitedMs(), System.currentTimeMillis());
+    }
+
+    private void notify(String userId, MatchResultDto result) {
+        messagingTemplate.convertAndSend("/topic/minigame/match/" + userId, result);
+    }
+}
@@ -0,0 +1,278 @@
+package com.community.service;
+
+import com.community.dto.MinigameRoomDto;
+import com.community.dto.MinigameRoomSummaryDto;
+import com.community.dto.NearbyRoomDto;
+import com.community.dto.NearbyRoomsDto;
+import com.community.dto.RoomDirectoryDeltaDto;
+import com.community.dto.RoomDirectorySnapshotDto;
+import com.community.dto.RoomDirectorySyncDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 로비 방 목록 (번호가 붙은 변경 기록)
+ * 방이 바뀔 때마다 전체 방 목록 대신 그 방의 요약만 add/update/remove 변경으로 보낸다.
+ * 클라이언트는 처음에 페이지 단위 스냅샷을 받고, 이후에는 변경만 적용한다.
+ * 스냅샷 페이지는 방이 만들어진 순서(생성 번호) 기준 커서로 나눈다. 페이지를 받는 사이에 앞쪽 방이 지워져도
+ * 다음 페이지가 밀리지 않으므로 빠지는 방이 없다 (그 사이 변경은 클라이언트가 모아 두었다가 적용).
+ *
+ * - 변경마다 1씩 증가하는 번호를 붙인다. 번호가 건너뛰면 클라이언트가 마지막 번호로 다시 맞추기를 요청한다
+ * - 최근 history-size개의 변경을 보관해 그 안이면 빠진 변경만, 너무 오래됐으면 스냅샷 첫 페이지를 보낸다
+ * - 요약이 그대로인 변경(준비 상태 등)은 로비에 보내지 않는다
+ * - GPS 위치가 있는 방은 {@link MinigameRoomGeoIndex}에도 반영해 근처 방 검색에 쓴다
+ * - 번호 붙이기와 기록은 잠금 안에서, 전송은 잠금 밖에서 한다. 변경은 번호 순서대로 보낼 대기열에 넣고,
+ *   대기열을 비우는 스레드는 한 번에 하나뿐이라 다른 방 스레드는 전송을 기다리지 않고 돌아간다
+ *
+ * Server -> /topic/minigame/rooms.delta (변경, 전체)
+ *           /topic/minigame/rooms-list/{userId} (스냅샷 페이지, 요청한 사람에게만)
+ *           /topic/minigame/rooms-sync/{userId} (빠진 변경, 요청한 사람에게만)
+ *
+ * 지표: minigame.room.directory.deltas, minigame.room.directory.resyncs(tag: result=deltas|snapshot)
+ */
+@Service
+@Slf4j
+public class MinigameRoomDirectory {
+
+    public static final String DELTA_TOPIC = "/topic/minigame/rooms.delta";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final MinigameRoomGeoIndex geoIndex;
+    private final int historySize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    @Value("${minigame.room-directory.max-radius-meters:50000}")
+    private double maxRadiusMeters;
+
+    @Value("${minigame.room-directory.max-nearby-results:1000}")
+    private int maxNearbyResults;
+
+    @Value("${minigame.room-directory.nearest-initial-radius-meters:1000}")
+    private double nearestInitialRadiusMeters;
+
+    // 아래 상태는 모두 this로 잠근다 (전송은 잠금 밖, outgoing 대기열 순서 = 번호 순서)
+    private final Map<String, MinigameRoomSummaryDto> summaries = new LinkedHashMap<>();
+    private final ArrayDeque<RoomDirectoryDeltaDto> history = new ArrayDeque<>();
+    // 생성 번호(add 변경 번호) -> roomId, roomId -> 생성 번호 (스냅샷 페이지 커서)
+    private final TreeMap<Long, String> creationOrder = new TreeMap<>();
+    private final Map<String, Long> creationSequence = new HashMap<>();
+    private long sequence = 0;
+
+    // 보낼 변경 (잠금 안에서 번호 순서대로 넣고, sending을 잡은 스레드 하나가 잠금 밖에서 꺼내 보냄)
+    private final Queue<RoomDirectoryDeltaDto> outgoing = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private final Counter deltas;
+    private final Counter resyncDeltas;
+    private final Counter resyncSnapshots;
+
+    public MinigameRoomDirectory(SimpMessageSendingOperations messagingTemplate,
+                                 MinigameRoomGeoIndex geoIndex,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${minigame.room-directory.history-size:1000}") int historySize,
+                                 @Value("${minigame.room-directory.page-size:50}") int defaultPageSize,
+                                 @Value("${minigame.room-directory.max-page-size:200}") int maxPageSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.geoIndex = geoIndex;
+        this.historySize = Math.max(1, historySize);
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.defaultPageSize = Math.min(Math.max(1, defaultPageSize), this.maxPageSize);
+
+        this.deltas = Counter.builder("minigame.room.directory.deltas")
+                .description("로비에 보낸 방 목록 변경 수")
+                .register(meterRegistry);
+        this.resyncDeltas = Counter.builder("minigame.room.directory.resyncs")
+                .description("방 목록 다시 맞추기 요청 수")
+                .tag("result", "deltas")
+                .register(meterRegistry);
+        this.resyncSnapshots = Counter.builder("minigame.room.directory.resyncs")
+                .description("방 목록 다시 맞추기 요청 수")
+                .tag("result", "snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 방 생성/변경 반영 (요약이 바뀌었을 때만 변경을 보냄)
+     */
+    public void publish(MinigameRoomDto room) {
+        MinigameRoomSummaryDto summary = MinigameRoomSummaryDto.from(room);
+        synchronized (this) {
+            MinigameRoomSummaryDto previous = summaries.get(room.getRoomId());
+            if (previous != null) {
+                summary.setVersion(previous.getVersion());
+                if (summary.equals(previous)) {
+                    return;
+                }
+            }
+
+            summary.setVersion(++sequence);
+            summaries.put(room.getRoomId(), summary);
+            if (previous == null) {
+                creationOrder.put(sequence, room.getRoomId());
+                creationSequence.put(room.getRoomId(), sequence);
+            }
+            geoIndex.put(summary);
+            record(new RoomDirectoryDeltaDto(sequence, previous == null ? "add" : "update", room.getRoomId(),
+                    summary, System.currentTimeMillis()));
+        }
+        flush();
+    }
+
+    /**
+     * 방 삭제 반영
+     */
+    public void remove(String roomId) {
+        synchronized (this) {
+            if (summaries.remove(roomId) == null) {
+                return;
+            }
+            Long created = creationSequence.remove(roomId);
+            if (created != null) {
+                creationOrder.remove(created);
+            }
+            geoIndex.remove(roomId);
+            record(new RoomDirectoryDeltaDto(++sequence, "remove", roomId, null, System.currentTimeMillis()));
+        }
+        flush();
+    }
+
+    /**
+     * 스냅샷 한 페이지 (afterCursor 다음에 만들어진 방부터 size개, afterCursor가 없으면 첫 페이지)
+     * 다음 페이지는 응답의 nextCursor로 요청한다.
+     */
+    public synchronized RoomDirectorySnapshotDto snapshot(Long afterCursor, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        long after = afterCursor == null || afterCursor < 0 ? 0 : afterCursor;
+
+        List<MinigameRoomSummaryDto> rooms = new ArrayList<>(pageSize);
+        Long nextCursor = afterCursor;
+        for (Map.Entry<Long, String> entry : creationOrder.tailMap(after, false).entrySet()) {
+            if (rooms.size() >= pageSize) {
+                break;
+            }
+            rooms.add(summaries.get(entry.getValue()));
+            nextCursor = entry.getKey();
+        }
+        boolean hasMore = nextCursor != null && creationOrder.higherKey(nextCursor) != null;
+        return new RoomDirectorySnapshotDto(sequence, afterCursor, nextCursor, hasMore, pageSize, summaries.size(),
+                rooms, System.currentTimeMillis());
+    }
+
+    /**
+     * sinceSequence 이후 변경 (보관 기록보다 오래됐으면 null, 스냅샷부터 다시 받아야 함)
+     */
+    public synchronized RoomDirectorySyncDto since(long sinceSequence) {
+        if (sinceSequence > sequence) {
+            // 서버가 다시 시작돼 번호가 처음부터 다시 시작한 경우
+            resyncSnapshots.increment();
+            return null;
+        }
+        List<RoomDirectoryDeltaDto> missing = new ArrayList<>();
+        if (sinceSequence < sequence) {
+            RoomDirectoryDeltaDto oldest = history.peekFirst();
+            if (oldest == null || oldest.getSequence() > sinceSequence + 1) {
+                resyncSnapshots.increment();
+                return null;
+            }
+            for (RoomDirectoryDeltaDto delta : history) {
+                if (delta.getSequence() > sinceSequence) {
+                    missing.add(delta);
+                }
+            }
+        }
+        resyncDeltas.increment();
+        return new RoomDirectorySyncDto(sinceSequence, sequence, missing, System.currentTimeMillis());
+    }
+
+    /**
+     * 빈자리가 있고 대기 중이며 잠기지 않은 방 (빠른 매칭용, 생성 순)
+     */
+    public synchronized List<MinigameRoomSummaryDto> openRooms(String gameName) {
+        List<MinigameRoomSummaryDto> open = new ArrayList<>();
+        for (MinigameRoomSummaryDto summary : summaries.values()) {
+            if (summary.getGameName() != null && summary.getGameName().equals(gameName) && !summary.isPlaying()
+                    && !summary.isLocked() && summary.getCurrentPlayers() < summary.getMaxPlayers()) {
+                open.add(summary);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * 근처 방 한 페이지 (radiusMeters가 있으면 반경 안, 없으면 가까운 순)
+     * 위치 색인은 따로 동시 접근을 지원하므로 방 목록 잠금 없이 검색한다.
+     */
+    public NearbyRoomsDto nearby(double lat, double lng, Double radiusMeters, Integer page, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        int pageIndex = page == null || page < 0 ? 0 : page;
+        int from = (int) Math.min((long) pageIndex * pageSize, maxNearbyResults);
+        // 다음 페이지가 있는지 알기 위해 하나 더 찾는다
+        int limit = Math.min(from + pageSize + 1, maxNearbyResults + 1);
+
+        Double radius = radiusMeters == null ? null : Math.min(Math.max(0, radiusMeters), maxRadiusMeters);
+        List<NearbyRoomDto> found = radius != null
+                ? geoIndex.withinRadius(lat, lng, radius)
+                : geoIndex.nearest(lat, lng, limit, nearestInitialRadiusMeters);
+        if (found.size() > limit) {
+            found = found.subList(0, limit);
+        }
+
+        int to = Math.min(from + pageSize, Math.min(found.size(), maxNearbyResults));
+        List<NearbyRoomDto> rooms = from < to ? new ArrayList<>(found.subList(from, to)) : new ArrayList<>();
+        boolean hasMore = found.size() > to && to < maxNearbyResults;
+        return new NearbyRoomsDto(lng, lat, radius, pageIndex, pageSize, hasMore, rooms, System.currentTimeMillis());
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public synchronized int size() {
+        return summaries.size();
+    }
+
+    // 변경 기록 + 전송 대기열에 넣기 (잠금 안)
+    private void record(RoomDirectoryDeltaDto delta) {
+        history.addLast(delta);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        outgoing.add(delta);
+    }
+
+    // 전송 대기열 비우기 (잠금 밖, 이미 다른 스레드가 보내는 중이면 그 스레드가 이어서 보냄)
+    private void flush() {
+        while (!outgoing.isEmpty() && sending.compareAndSet(false, true)) {
+            try {
+                RoomDirectoryDeltaDto delta;
+                while ((delta = outgoing.poll()) != null) {
+                    deltas.increment();
+                    try {
+                        messagingTemplate.convertAndSend(DELTA_TOPIC, delta);
+                    } catch (Exception e) {
+                        log.warn("방 목록 변경 #{} 전송 실패: {}", delta.getSequence(), e.getMessage());
+                    }
+                    log.debug("방 목록 변경 #{}: {} {}", delta.getSequence(), delta.getAction(), delta.getRoomId());
+                }
+            } finally {
+                sending.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.community.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 미니게임 방별 직렬 실행기
+ * 방 하나의 명령(입장, 나가기, 준비, 역할 전환, 게임 이벤트, 타이머)은 항상 같은 스레드에서 도착 순서대로 처리한다.
+ * 서비스 전체를 잠그지 않으므로 한 방의 처리가 다른 방을 막지 않고, 방 상태는 한 스레드만 바꾼다.
+ *
+ * 방마다 스레드를 만들지 않고 roomId 해시로 고른 단일 스레드 실행기(stripe)를 여러 방이 나눠 쓴다.
+ * stripe 수(minigame.room-executor.stripes, 0이면 CPU 코어 수)만큼 방을 동시에 처리한다.
+ *
+ * 주의: 방 작업 안에서 다른 방의 {@link #call}을 기다리면 안 된다 (두 stripe가 서로 기다릴 수 있음).
+ */
+@Component
+@Slf4j
+public class MinigameRoomExecutor {
+
+    private final ThreadPoolExecutor[] stripes;
+
+    // 현재 스레드가 맡은 stripe 번호 (stripe 스레드가 아니면 null)
+    private final ThreadLocal<Integer> currentStripe = new ThreadLocal<>();
+
+    public MinigameRoomExecutor(MeterRegistry meterRegistry,
+                                @Value("${minigame.room-executor.stripes:0}") int stripeCount) {
+        if (stripeCount < 0) {
+            throw new IllegalArgumentException("minigame.room-executor.stripes must not be negative: " + stripeCount);
+        }
+        int count = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors();
+        this.stripes = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(() -> {
+                    currentStripe.set(index);
+                    r.run();
+                }, "minigame-room-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        Gauge.builder("minigame.room.executor.queue", this, MinigameRoomExecutor::queued)
+                .description("처리를 기다리는 미니게임 방 명령 수")
+                .register(meterRegistry);
+        log.info("Minigame room executor started: {} stripes", count);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdownNow();
+        }
+    }
+
+    /**
+     * 방 명령을 순서대로 실행하도록 넣고 바로 반환
+     */
+    public void execute(String roomId, Runnable task) {
+        stripes[stripeOf(roomId)].execute(() -> {
+            // 예외가 나도 같은 stripe의 다음 명령은 계속 처리한다
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Minigame room task failed: roomId={}", roomId, e);
+            }
+        });
+    }
+
+    /**
+     * 방 명령을 실행하고 결과를 기다림 (이미 그 방의 스레드라면 바로 실행)
+     */
+    public <T> T call(String roomId, Supplier<T> task) {
+        int stripe = stripeOf(roomId);
+        if (Integer.valueOf(stripe).equals(currentStripe.get())) {
+            return task.get();
+        }
+        Future<T> future = stripes[stripe].submit(task::get);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room " + roomId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Minigame room task failed: " + roomId, e.getCause());
+        }
+    }
+
+    public void run(String roomId, Runnable task) {
+        call(roomId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private int stripeOf(String roomId) {
+        return Math.floorMod(Objects.hashCode(roomId), stripes.length);
+    }
+
+    private int queued() {
+        int total = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            total += stripe.getQueue().size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,193 @@
+package com.community.service;
+
+import com.community.dto.MinigameRoomSummaryDto;
+import com.community.dto.NearbyRoomDto;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * GPS 위치가 있는 미니게임 방의 위치 색인 (정수 geohash)
+ * 위도/경도를 각 26비트로 나눠 번갈아 끼운 52비트 geohash를 키로 정렬해 둔다.
+ * geohash는 앞자리가 같으면 같은 칸이므로, 어떤 크기의 칸이든 정렬된 키의 연속 구간 하나가 된다.
+ *
+ * - 반경 검색: 칸 한 변이 반경 이상이 되는 단계를 골라 중심 칸과 주변 8칸(최대 9구간)만 훑고 실제 거리로 거른다
+ * - 가까운 순 k개: 반경 검색을 반경을 두 배씩 늘리며 k개가 모일 때까지 반복
+ * - 방 목록({@link MinigameRoomDirectory})이 방 생성/변경/삭제 때 갱신한다
+ *
+ * 방 수와 상관없이 검색은 근처 칸에 있는 방만 본다 (전체 방을 복사하거나 훑지 않음).
+ * 갱신과 검색은 서로 다른 스레드에서 동시에 해도 된다.
+ */
+@Service
+public class MinigameRoomGeoIndex {
+
+    static final int BITS = 26; // 좌표 한 축의 비트 수 (적도 기준 약 0.6m)
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double MAX_RADIUS_METERS = Math.PI * EARTH_RADIUS_METERS; // 지구 반대편까지
+
+    private record Key(long hash, String roomId) {
+    }
+
+    private static final Comparator<Key> KEY_ORDER =
+            Comparator.comparingLong(Key::hash).thenComparing(Key::roomId);
+
+    // geohash 순으로 정렬된 방 (같은 위치의 방은 roomId 순)
+    private final ConcurrentSkipListMap<Key, MinigameRoomSummaryDto> byHash = new ConcurrentSkipListMap<>(KEY_ORDER);
+
+    // roomId -> 지금 색인에 들어 있는 키 (위치가 바뀌면 이전 키를 지우기 위해)
+    private final Map<String, Key> keys = new ConcurrentHashMap<>();
+
+    /**
+     * 방 위치 등록/갱신 (GPS 위치가 없는 방은 색인에서 뺌)
+     */
+    public void put(MinigameRoomSummaryDto room) {
+        if (room.getGpsLat() == null || room.getGpsLng() == null) {
+            remove(room.getRoomId());
+            return;
+        }
+        Key key = new Key(encode(room.getGpsLat(), room.getGpsLng()), room.getRoomId());
+        byHash.put(key, room);
+        Key previous = keys.put(room.getRoomId(), key);
+        if (previous != null && previous.hash() != key.hash()) {
+            byHash.remove(previous);
+        }
+    }
+
+    public void remove(String roomId) {
+        Key key = keys.remove(roomId);
+        if (key != null) {
+            byHash.remove(key);
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * 반경 안의 방 (가까운 순, 같은 거리면 roomId 순)
+     */
+    public List<NearbyRoomDto> withinRadius(double lat, double lng, double radiusMeters) {
+        List<NearbyRoomDto> result = new ArrayList<>();
+        double radius = Math.min(radiusMeters, MAX_RADIUS_METERS);
+        if (radius < 0 || keys.isEmpty()) {
+            return result;
+        }
+
+        for (long[] range : coveringRanges(lat, lng, radius)) {
+            for (Map.Entry<Key, MinigameRoomSummaryDto> entry
+                    : byHash.subMap(new Key(range[0], ""), true, new Key(range[1], ""), false).entrySet()) {
+                MinigameRoomSummaryDto room = entry.getValue();
+                double distance = distanceMeters(lat, lng, room.getGpsLat(), room.getGpsLng());
+                if (distance <= radius) {
+                    result.add(new NearbyRoomDto(room, distance));
+                }
+            }
+        }
+        result.sort(NEAREST_FIRST);
+        return result;
+    }
+
+    /**
+     * 가장 가까운 방 k개 (가까운 순)
+     */
+    public List<NearbyRoomDto> nearest(double lat, double lng, int k, double initialRadiusMeters) {
+        if (k <= 0 || keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        double radius = Math.max(1, initialRadiusMeters);
+        while (true) {
+            List<NearbyRoomDto> found = withinRadius(lat, lng, radius);
+            // 반경 안에 k개가 있으면 그 밖의 방은 모두 더 멀다
+            if (found.size() >= k || radius >= MAX_RADIUS_METERS) {
+                return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+            }
+            radius *= 2;
+        }
+    }
+
+    private static final Comparator<NearbyRoomDto> NEAREST_FIRST =
+            Comparator.comparingDouble(NearbyRoomDto::getDistanceMeters)
+                    .thenComparing(nearby -> nearby.getRoom().getRoomId());
+
+    /**
+     * 원을 덮는 geohash 구간들 [시작, 끝) (중심 칸 + 주변 8칸, 겹치는 칸은 한 번만)
+     */
+    static List<long[]> coveringRanges(double lat, double lng, double radiusMeters) {
+        int step = stepFor(lat, radiusMeters);
+        int shift = BITS - step;
+        long cells = 1L << step;
+        long latCell = quantize(lat, -90, 180) >>> shift;
+        long lngCell = quantize(lng, -180, 360) >>> shift;
+
+        Set<Long> seen = new HashSet<>();
+        List<long[]> ranges = new ArrayList<>(9);
+        for (long dLat = -1; dLat <= 1; dLat++) {
+            long neighborLat = latCell + dLat;
+            if (neighborLat < 0 || neighborLat >= cells) {
+                continue; // 극 너머는 없음
+            }
+            for (long dLng = -1; dLng <= 1; dLng++) {
+                long neighborLng = Math.floorMod(lngCell + dLng, cells); // 날짜 변경선은 이어짐
+                long prefix = interleave(neighborLat, neighborLng, step);
+                if (seen.add(prefix)) {
+                    ranges.add(new long[]{prefix << (2 * shift), (prefix + 1) << (2 * shift)});
+                }
+            }
+        }
+        return ranges;
+    }
+
+    // 원의 위도/경도 폭보다 칸 높이/폭이 크거나 같은 가장 잘게 나눈 단계 (0이면 지구 전체가 한 칸)
+    static int stepFor(double lat, double radiusMeters) {
+        if (radiusMeters <= 0) {
+            return BITS;
+        }
+        double angle = radiusMeters / EARTH_RADIUS_METERS;
+        double latSpan = Math.toDegrees(angle);
+        double lngSpan;
+        if (Math.abs(lat) + latSpan >= 90 || Math.sin(angle) >= Math.cos(Math.toRadians(lat))) {
+            lngSpan = 180; // 극을 포함하면 모든 경도
+        } else {
+            lngSpan = Math.toDegrees(Math.asin(Math.sin(angle) / Math.cos(Math.toRadians(lat))));
+        }
+        double steps = Math.min(Math.log(180 / latSpan), Math.log(360 / lngSpan)) / Math.log(2);
+        return (int) Math.max(0, Math.min(BITS, Math.floor(steps)));
+    }
+
+    static long encode(double lat, double lng) {
+        return interleave(quantize(lat, -90, 180), quantize(lng, -180, 360), BITS);
+    }
+
+    private static long quantize(double value, double min, double range) {
+        long max = (1L << BITS) - 1;
+        long cell = (long) Math.floor((value - min) / range * (1L << BITS));
+        return Math.max(0, Math.min(max, cell));
+    }
+
+    // 위쪽 비트부터 경도, 위도 순으로 번갈아 끼움 (앞 2s비트 = s단계 칸)
+    private static long interleave(long latBits, long lngBits, int bits) {
+        long hash = 0;
+        for (int i = bits - 1; i >= 0; i--) {
+            hash = (hash << 2) | (((lngBits >>> i) & 1) << 1) | ((latBits >>> i) & 1);
+        }
+        return hash;
+    }
+
+    static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -2,21 +2,28 @@ package com.community.service;
 
 import com.community.dto.MinigamePlayerDto;
 import com.community.dto.MinigameRoomDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 
 import com.community.dto.GameEventDto;
 import com.community.dto.GameTargetDto;
-import com.community.dto.GameScoreDto;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * 미니게임 방 / 게임 세션 관리
+ * 방 상태를 바꾸는 메서드는 모두 {@link MinigameRoomExecutor}의 그 방 스레드에서 실행된다
+ * (다른 스레드에서 부르면 방 스레드에 넘기고 결과를 기다림). 타이머({@link MinigameTimerService})도
+ * 방 스레드에서 실행되므로 같은 방의 명령은 잠금 없이 순서대로 처리되고, 다른 방끼리는 서로 기다리지 않는다.
+ */
 @Service
 @Slf4j
 public class MinigameRoomService {
@@ -26,18 +33,84 @@ public class MinigameRoomService {
     @Autowired
     private SimpMessageSendingOperations messagingTemplate;
 
+    @Autowired
+    private MinigameRoomExecutor roomExecutor;
+
+    @Autowired
+    private MinigameTimerService timerService;
+
+    @Autowired
+    private MinigameRoomDirectory roomDirectory;
+
+    @Autowired
+    private MinigameClockSyncService clockSync;
+
+    @Autowired
+    private MinigameLeaderboardService leaderboardService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 판 기록 스냅샷 간격 / 최대 이벤트 수 / 판이 끝날 때 전체 기록을 minigame.replay 로거에 남길지
+    @Value("${minigame.session-log.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    @Value("${minigame.session-log.max-events:2000}")
+    private int maxLogEvents;
+
+    @Value("${minigame.session-log.dump-on-end:false}")
+    private boolean dumpLogOnEnd;
+
+    // 지연 보정: 경쟁하는 입력을 모아 판정하기까지 기다리는 시간 (에임 표적 / 반응 속도)
+    @Value("${minigame.latency.hit-grace-ms:80}")
+    private long hitGraceMs;
+
+    @Value("${minigame.latency.reaction-grace-ms:200}")
+    private long reactionGraceMs;
+
+    private static final Logger replayLog = LoggerFactory.getLogger("minigame.replay");
+
     // Game sessions per room
     private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
     private final Random random = new Random();
 
     // Reaction round state
     private final Map<String, Boolean> reactionActive = new ConcurrentHashMap<>();
     private final Map<String, String> reactionWinner = new ConcurrentHashMap<>();
+    private final Map<String, MinigameTimerService.RoomTimeout> reactionTimers = new ConcurrentHashMap<>();
+    private final Map<String, ReactionRound> reactionRounds = new ConcurrentHashMap<>();
+
+    // 판정 대기 중인 입력 (effectiveTime: 지연 보정한 서버 시각, floored: 최소 반응 시간으로 끌어올린 입력,
+    // receivedAt: 서버가 받은 시각)
+    private record TimedHit(String playerId, String playerName, long effectiveTime, boolean floored,
+            long receivedAt) {
+
+        TimedHit(String playerId, String playerName, MinigameClockSyncService.EffectiveTime time, long receivedAt) {
+            this(playerId, playerName, time.at(), time.floored(), receivedAt);
+        }
+    }
+
+    // 끌어올린 입력은 그렇지 않은 입력에 항상 짐
+    private static final Comparator<TimedHit> EARLIEST_HIT = Comparator.comparing(TimedHit::floored)
+            .thenComparingLong(TimedHit::effectiveTime).thenComparingLong(TimedHit::receivedAt);
+
+    // GO를 보낸 뒤의 반응 속도 라운드 (방 스레드에서만 사용)
+    private static class ReactionRound {
+        final long goAt;
+        final List<TimedHit> hits = new ArrayList<>();
+        MinigameTimerService.RoomTimeout decision;
+
+        ReactionRound(long goAt) {
+            this.goAt = goAt;
+        }
+    }
 
     // Omok game state
     private final Map<String, OmokGameSession> omokSessions = new ConcurrentHashMap<>();
 
+    // roomId -> 진행 중(또는 방금 끝난) 판의 이벤트 기록
+    private final Map<String, MinigameSessionLog> sessionLogs = new ConcurrentHashMap<>();
+
     /**
      * 방 생성
      */
@@ -70,6 +143,7 @@ public class MinigameRoomService {
 
         room.getPlayers().add(host);
         rooms.put(roomId, room);
+        roomDirectory.publish(room);
 
         log.info("방 생성: {} (ID: {}, GPS: {}, {})", roomName, roomId, gpsLng, gpsLat);
         return room;
@@ -93,237 +167,261 @@ public class MinigameRoomService {
      * 방 입장 (참가자 또는 관전자로)
      */
     public MinigameRoomDto joinRoom(String roomId, MinigamePlayerDto player) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            log.error("방을 찾을 수 없습니다: {}", roomId);
-            return null;
-        }
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                log.error("방을 찾을 수 없습니다: {}", roomId);
+                return null;
+            }
 
-        // 이미 플레이어로 있는지 확인
-        boolean alreadyPlayer = room.getPlayers().stream().anyMatch(p -> p.getUserId().equals(player.getUserId()));
-        // 이미 관전자로 있는지 확인
-        boolean alreadySpectator = room.getSpectators().stream().anyMatch(p -> p.getUserId().equals(player.getUserId()));
+            // 이미 플레이어로 있는지 확인
+            boolean alreadyPlayer = room.getPlayers().stream().anyMatch(p -> p.getUserId().equals(player.getUserId()));
+            // 이미 관전자로 있는지 확인
+            boolean alreadySpectator = room.getSpectators().stream().anyMatch(p -> p.getUserId().equals(player.getUserId()));
 
-        if (alreadyPlayer || alreadySpectator) {
-            log.info("플레이어 {}는 이미 방에 있습니다: {}", player.getUsername(), roomId);
-            return room;
-        }
+            if (alreadyPlayer || alreadySpectator) {
+                log.info("플레이어 {}는 이미 방에 있습니다: {}", player.getUsername(), roomId);
+                return room;
+            }
 
-        log.info("방 상태 before join - roomId: {}, currentPlayers: {}, maxPlayers: {}, players: {}",
-                roomId, room.getCurrentPlayers(), room.getMaxPlayers(),
-                room.getPlayers().stream().map(p -> p.getUserId()).toList());
+            log.info("방 상태 before join - roomId: {}, currentPlayers: {}, maxPlayers: {}, players: {}",
+                    roomId, room.getCurrentPlayers(), room.getMaxPlayers(),
+                    room.getPlayers().stream().map(p -> p.getUserId()).toList());
 
-        // 참가 인원이 가득 찬 경우 관전자로 입장
-        if (room.getCurrentPlayers() >= room.getMaxPlayers()) {
-            room.getSpectators().add(player);
-            log.info("플레이어 {} 관전자로 입장: {} (관전자 수: {})",
-                    player.getUsername(), roomId, room.getSpectators().size());
-        } else {
-            // 참가자로 입장
-            room.getPlayers().add(player);
-            room.setCurrentPlayers(room.getCurrentPlayers() + 1);
-            log.info("플레이어 {} 참가자로 입장: {} (현재 {}/{})",
-                    player.getUsername(), roomId, room.getCurrentPlayers(), room.getMaxPlayers());
-        }
+            // 참가 인원이 가득 찬 경우 관전자로 입장
+            if (room.getCurrentPlayers() >= room.getMaxPlayers()) {
+                room.getSpectators().add(player);
+                log.info("플레이어 {} 관전자로 입장: {} (관전자 수: {})",
+                        player.getUsername(), roomId, room.getSpectators().size());
+            } else {
+                // 참가자로 입장
+                room.getPlayers().add(player);
+                room.setCurrentPlayers(room.getCurrentPlayers() + 1);
+                log.info("플레이어 {} 참가자로 입장: {} (현재 {}/{})",
+                        player.getUsername(), roomId, room.getCurrentPlayers(), room.getMaxPlayers());
+            }
 
-        return room;
+            roomDirectory.publish(room);
+            return room;
+        });
     }
 
     /**
      * 방 나가기
      */
     public MinigameRoomDto leaveRoom(String roomId, String userId) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            return null;
-        }
-
-        // 참가자 목록에서 제거
-        boolean wasPlayer = room.getPlayers().removeIf(p -> p.getUserId().equals(userId));
-        // 관전자 목록에서 제거
-        boolean wasSpectator = room.getSpectators().removeIf(p -> p.getUserId().equals(userId));
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
 
-        if (wasPlayer) {
-            room.setCurrentPlayers(room.getPlayers().size());
-            log.info("참가자 {} 방 나가기: {} (현재 {}/{})", userId, roomId, room.getCurrentPlayers(), room.getMaxPlayers());
+            // 참가자 목록에서 제거
+            boolean wasPlayer = room.getPlayers().removeIf(p -> p.getUserId().equals(userId));
+            // 관전자 목록에서 제거
+            boolean wasSpectator = room.getSpectators().removeIf(p -> p.getUserId().equals(userId));
 
-            // 게임 중에 참가자가 나가서 인원이 부족한 경우
-            if (room.isPlaying() && "오목".equals(room.getGameName()) && room.getPlayers().size() < 2) {
-                log.info("오목 게임 중 인원 부족으로 게임 종료: roomId={}", roomId);
-                room.setPlaying(false);
+            if (wasPlayer) {
+                room.setCurrentPlayers(room.getPlayers().size());
+                log.info("참가자 {} 방 나가기: {} (현재 {}/{})", userId, roomId, room.getCurrentPlayers(), room.getMaxPlayers());
+
+                // 게임 중에 참가자가 나가서 인원이 부족한 경우
+                if (room.isPlaying() && "오목".equals(room.getGameName()) && room.getPlayers().size() < 2) {
+                    log.info("오목 게임 중 인원 부족으로 게임 종료: roomId={}", roomId);
+                    room.setPlaying(false);
+
+                    // 모든 플레이어의 준비 상태 초기화
+                    for (MinigamePlayerDto player : room.getPlayers()) {
+                        if (!player.isHost()) {
+                            player.setReady(false);
+                        }
+                    }
 
-                // 모든 플레이어의 준비 상태 초기화
-                for (MinigamePlayerDto player : room.getPlayers()) {
-                    if (!player.isHost()) {
-                        player.setReady(false);
+                    // 오목 타이머 중지
+                    OmokGameSession omokSession = omokSessions.remove(roomId);
+                    if (omokSession != null && omokSession.timerFuture != null) {
+                        omokSession.timerFuture.cancel();
                     }
-                }
 
-                // 오목 타이머 중지
-                OmokGameSession omokSession = omokSessions.remove(roomId);
-                if (omokSession != null && omokSession.timerFuture != null) {
-                    omokSession.timerFuture.cancel(false);
+                    // 게임 종료 이벤트 브로드캐스트
+                    GameEventDto gameEndEvt = new GameEventDto();
+                    gameEndEvt.setRoomId(roomId);
+                    gameEndEvt.setType("gameEndByPlayerLeave");
+                    gameEndEvt.setPayload("insufficient_players");
+                    gameEndEvt.setTimestamp(System.currentTimeMillis());
+                    publishGameEvent(roomId, gameEndEvt);
+                    log.info("게임 종료 이벤트 전송: roomId={}, type=gameEndByPlayerLeave", roomId);
+                    closeSessionLog(roomId);
+
+                    // 방 상태 업데이트 브로드캐스트
+                    room.setAction("gameEndByPlayerLeave");
+                    room.setTimestamp(System.currentTimeMillis());
+                    messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId, room);
+                    log.info("방 업데이트 전송: roomId={}, action=gameEndByPlayerLeave, playing={}", roomId, room.isPlaying());
                 }
+            } else if (wasSpectator) {
+                log.info("관전자 {} 방 나가기: {} (관전자 수: {})", userId, roomId, room.getSpectators().size());
+            }
 
-                // 게임 종료 이벤트 브로드캐스트
-                GameEventDto gameEndEvt = new GameEventDto();
-                gameEndEvt.setRoomId(roomId);
-                gameEndEvt.setType("gameEndByPlayerLeave");
-                gameEndEvt.setPayload("insufficient_players");
-                gameEndEvt.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", gameEndEvt);
-                log.info("게임 종료 이벤트 전송: roomId={}, type=gameEndByPlayerLeave", roomId);
-
-                // 방 상태 업데이트 브로드캐스트
-                room.setAction("gameEndByPlayerLeave");
-                room.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId, room);
-                log.info("방 업데이트 전송: roomId={}, action=gameEndByPlayerLeave, playing={}", roomId, room.isPlaying());
-            }
-        } else if (wasSpectator) {
-            log.info("관전자 {} 방 나가기: {} (관전자 수: {})", userId, roomId, room.getSpectators().size());
-        }
-
-        // 방장이 나갔을 때
-        if (room.getHostId().equals(userId)) {
-            if (room.getPlayers().isEmpty()) {
-                // 방 삭제
-                rooms.remove(roomId);
-                log.info("방 삭제: {}", roomId);
-                return null;
-            } else {
-                // 다음 사람을 방장으로 지정
-                MinigamePlayerDto newHost = room.getPlayers().get(0);
-                newHost.setHost(true);
-                room.setHostId(newHost.getUserId());
-                room.setHostName(newHost.getUsername());
-                log.info("새로운 방장: {}", newHost.getUsername());
+            // 방장이 나갔을 때
+            if (room.getHostId().equals(userId)) {
+                if (room.getPlayers().isEmpty()) {
+                    // 방 삭제 (남은 타이머와 게임 상태도 함께 정리)
+                    rooms.remove(roomId);
+                    timerService.cancelRoom(roomId);
+                    sessions.remove(roomId);
+                    omokSessions.remove(roomId);
+                    reactionActive.remove(roomId);
+                    reactionWinner.remove(roomId);
+                    reactionTimers.remove(roomId);
+                    reactionRounds.remove(roomId);
+                    closeSessionLog(roomId);
+                    roomDirectory.remove(roomId);
+                    log.info("방 삭제: {}", roomId);
+                    return null;
+                } else {
+                    // 다음 사람을 방장으로 지정
+                    MinigamePlayerDto newHost = room.getPlayers().get(0);
+                    newHost.setHost(true);
+                    room.setHostId(newHost.getUserId());
+                    room.setHostName(newHost.getUsername());
+                    log.info("새로운 방장: {}", newHost.getUsername());
+                }
             }
-        }
 
-        return room;
+            roomDirectory.publish(room);
+            return room;
+        });
     }
 
     /**
      * 방 설정 변경
      */
     public MinigameRoomDto updateRoomSettings(String roomId, String gameName, int maxPlayers) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            return null;
-        }
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
 
-        room.setGameName(gameName);
+            room.setGameName(gameName);
+
+            // 최대 인원 수를 줄였을 때 초과 인원을 관전자로 이동
+            if (maxPlayers < room.getMaxPlayers()) {
+                int currentPlayers = room.getPlayers().size();
+                if (currentPlayers > maxPlayers) {
+                    // 초과된 플레이어 수 계산
+                    int excessPlayers = currentPlayers - maxPlayers;
+
+                    // 뒤에서부터 플레이어를 관전자로 이동 (방장 제외)
+                    List<MinigamePlayerDto> playersToMove = new ArrayList<>();
+                    for (int i = room.getPlayers().size() - 1; i >= 0 && playersToMove.size() < excessPlayers; i--) {
+                        MinigamePlayerDto player = room.getPlayers().get(i);
+                        // 방장이 아닌 경우에만 이동
+                        if (!player.isHost()) {
+                            playersToMove.add(player);
+                        }
+                    }
 
-        // 최대 인원 수를 줄였을 때 초과 인원을 관전자로 이동
-        if (maxPlayers < room.getMaxPlayers()) {
-            int currentPlayers = room.getPlayers().size();
-            if (currentPlayers > maxPlayers) {
-                // 초과된 플레이어 수 계산
-                int excessPlayers = currentPlayers - maxPlayers;
-
-                // 뒤에서부터 플레이어를 관전자로 이동 (방장 제외)
-                List<MinigamePlayerDto> playersToMove = new ArrayList<>();
-                for (int i = room.getPlayers().size() - 1; i >= 0 && playersToMove.size() < excessPlayers; i--) {
-                    MinigamePlayerDto player = room.getPlayers().get(i);
-                    // 방장이 아닌 경우에만 이동
-                    if (!player.isHost()) {
-                        playersToMove.add(player);
+                    // 관전자로 이동
+                    for (MinigamePlayerDto player : playersToMove) {
+                        room.getPlayers().remove(player);
+                        player.setReady(false); // 준비 상태 초기화
+                        room.getSpectators().add(player);
+                        log.info("플레이어 {}를 관전자로 이동: roomId={}", player.getUsername(), roomId);
                     }
-                }
 
-                // 관전자로 이동
-                for (MinigamePlayerDto player : playersToMove) {
-                    room.getPlayers().remove(player);
-                    player.setReady(false); // 준비 상태 초기화
-                    room.getSpectators().add(player);
-                    log.info("플레이어 {}를 관전자로 이동: roomId={}", player.getUsername(), roomId);
+                    // 현재 플레이어 수 업데이트
+                    room.setCurrentPlayers(room.getPlayers().size());
                 }
-
-                // 현재 플레이어 수 업데이트
-                room.setCurrentPlayers(room.getPlayers().size());
             }
-        }
 
-        room.setMaxPlayers(maxPlayers);
+            room.setMaxPlayers(maxPlayers);
+            roomDirectory.publish(room);
 
-        log.info("방 설정 변경: {} - 게임: {}, 최대 인원: {}", roomId, gameName, maxPlayers);
-        return room;
+            log.info("방 설정 변경: {} - 게임: {}, 최대 인원: {}", roomId, gameName, maxPlayers);
+            return room;
+        });
     }
 
     /**
      * 준비 상태 변경
      */
     public MinigameRoomDto toggleReady(String roomId, String userId) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            return null;
-        }
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
 
-        room.getPlayers().stream()
-                .filter(p -> p.getUserId().equals(userId))
-                .findFirst()
-                .ifPresent(p -> p.setReady(!p.isReady()));
+            room.getPlayers().stream()
+                    .filter(p -> p.getUserId().equals(userId))
+                    .findFirst()
+                    .ifPresent(p -> p.setReady(!p.isReady()));
 
-        return room;
+            return room;
+        });
     }
 
     /**
      * 참가자 <-> 관전자 역할 전환
      */
     public MinigameRoomDto switchRole(String roomId, String userId) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            log.warn("방을 찾을 수 없음: {}", roomId);
-            return null;
-        }
-
-        // 현재 참가자인지 확인
-        MinigamePlayerDto player = room.getPlayers().stream()
-                .filter(p -> p.getUserId().equals(userId))
-                .findFirst()
-                .orElse(null);
-
-        if (player != null) {
-            // 참가자 -> 관전자
-            boolean isHost = player.isHost();
-
-            room.getPlayers().remove(player);
-            room.setCurrentPlayers(room.getPlayers().size());
-
-            // 관전자 리스트에 추가 (ready 상태 초기화, 방장 상태는 유지)
-            player.setReady(false);
-            // 방장인 경우 방장 상태 유지 (host 필드 그대로 유지)
-            room.getSpectators().add(player);
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                log.warn("방을 찾을 수 없음: {}", roomId);
+                return null;
+            }
 
-            log.info("참가자 -> 관전자: userId={}, roomId={}, isHost={}", userId, roomId, isHost);
-        } else {
-            // 관전자인지 확인
-            MinigamePlayerDto spectator = room.getSpectators().stream()
-                    .filter(s -> s.getUserId().equals(userId))
+            // 현재 참가자인지 확인
+            MinigamePlayerDto player = room.getPlayers().stream()
+                    .filter(p -> p.getUserId().equals(userId))
                     .findFirst()
                     .orElse(null);
 
-            if (spectator != null) {
-                // 관전자 -> 참가자
-                // 방이 가득 찬 경우 전환 불가
-                if (room.getCurrentPlayers() >= room.getMaxPlayers()) {
-                    log.warn("방이 가득 참. 참가자로 전환 불가: userId={}, roomId={}", userId, roomId);
-                    return null;
-                }
+            if (player != null) {
+                // 참가자 -> 관전자
+                boolean isHost = player.isHost();
 
-                room.getSpectators().remove(spectator);
-                room.getPlayers().add(spectator);
+                room.getPlayers().remove(player);
                 room.setCurrentPlayers(room.getPlayers().size());
 
-                log.info("관전자 -> 참가자: userId={}, roomId={}", userId, roomId);
+                // 관전자 리스트에 추가 (ready 상태 초기화, 방장 상태는 유지)
+                player.setReady(false);
+                // 방장인 경우 방장 상태 유지 (host 필드 그대로 유지)
+                room.getSpectators().add(player);
+
+                log.info("참가자 -> 관전자: userId={}, roomId={}, isHost={}", userId, roomId, isHost);
             } else {
-                log.warn("유저를 찾을 수 없음: userId={}, roomId={}", userId, roomId);
-                return null;
+                // 관전자인지 확인
+                MinigamePlayerDto spectator = room.getSpectators().stream()
+                        .filter(s -> s.getUserId().equals(userId))
+                        .findFirst()
+                        .orElse(null);
+
+                if (spectator != null) {
+                    // 관전자 -> 참가자
+                    // 방이 가득 찬 경우 전환 불가
+                    if (room.getCurrentPlayers() >= room.getMaxPlayers()) {
+                        log.warn("방이 가득 참. 참가자로 전환 불가: userId={}, roomId={}", userId, roomId);
+                        return null;
+                    }
+
+                    room.getSpectators().remove(spectator);
+                    room.getPlayers().add(spectator);
+                    room.setCurrentPlayers(room.getPlayers().size());
+
+                    log.info("관전자 -> 참가자: userId={}, roomId={}", userId, roomId);
+                } else {
+                    log.warn("유저를 찾을 수 없음: userId={}, roomId={}", userId, roomId);
+                    return null;
+                }
             }
-        }
 
-        return room;
+            roomDirectory.publish(room);
+            return room;
+        });
     }
 
     // Inner class to hold session state
@@ -331,7 +429,9 @@ public class MinigameRoomService {
         private final String roomId;
         Map<String, GameTargetDto> activeTargets = new ConcurrentHashMap<>();
         Map<String, Integer> scores = new ConcurrentHashMap<>();
-        java.util.concurrent.ScheduledFuture<?> future;
+        // targetId -> 판정 대기 중인 명중 (첫 명중 후 hit-grace-ms 동안 모음)
+        Map<String, List<TimedHit>> pendingHits = new HashMap<>();
+        MinigameTimerService.RoomTimeout future;
         private int remainingSeconds = 0;
 
         public GameSession(String roomId) {
@@ -361,86 +461,52 @@ public class MinigameRoomService {
      * 게임 시작
      */
     public MinigameRoomDto startGame(String roomId) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            return null;
-        }
-
-        room.setPlaying(true);
-        log.info("게임 시작: {}", roomId);
-
-        // Initialize game session
-        GameSession session = new GameSession(roomId);
-        sessions.put(roomId, session);
-
-        // Broadcast gameStart event
-        GameEventDto startEvent = new GameEventDto();
-        startEvent.setRoomId(roomId);
-        startEvent.setType("gameStart");
-        startEvent.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", startEvent);
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
 
-        // [Serial Logic] Start by spawning the FIRST target immediately
-        if ("에임 맞추기".equals(room.getGameName())) {
-            // Add slight delay to ensure clients are ready to receive spawn event
-            new Thread(() -> {
-                try {
-                    Thread.sleep(500);
-                    spawnTarget(roomId);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }).start();
-        } else if ("Reaction Race".equals(room.getGameName())) {
-            // Reaction Race logic
-            startReactionRound(roomId);
-        }
+            room.setPlaying(true);
+            roomDirectory.publish(room);
+            log.info("게임 시작: {}", roomId);
+
+            // Initialize game session
+            GameSession session = new GameSession(roomId);
+            sessions.put(roomId, session);
+            openSessionLog(roomId, room.getGameName());
+
+            // Broadcast gameStart event
+            GameEventDto startEvent = new GameEventDto();
+            startEvent.setRoomId(roomId);
+            startEvent.setType("gameStart");
+            startEvent.setTimestamp(System.currentTimeMillis());
+            publishGameEvent(roomId, startEvent);
+
+            // [Serial Logic] Start by spawning the FIRST target immediately
+            if ("에임 맞추기".equals(room.getGameName())) {
+                // Add slight delay to ensure clients are ready to receive spawn event
+                session.future = timerService.schedule(roomId, 500, () -> spawnTarget(roomId));
+            } else if ("Reaction Race".equals(room.getGameName())) {
+                // Reaction Race logic
+                startReactionRound(roomId);
+            }
 
-        return room;
+            return room;
+        });
     }
 
+    /**
+     * 재접속/새로고침한 사람에게 현재 판 상태 전송 (마지막 스냅샷 + 그 뒤 이벤트)
+     * Server -> /topic/minigame/state/{userId} (요청한 사람에게만)
+     */
     public void sendGameState(String roomId, String userId) {
-        GameSession session = sessions.get(roomId);
-        if (session == null)
-            return;
-
-        // 1. Send active targets
-        for (GameTargetDto target : session.activeTargets.values()) {
-            GameEventDto evt = new GameEventDto();
-            evt.setRoomId(roomId);
-            evt.setType("spawnTarget");
-            evt.setTarget(target);
-            evt.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", evt);
-            // Note: Broadcasting to room is fine, but ideally we should send to specific
-            // user
-            // using separate destination like /topic/minigame/room/{roomId}/game/{userId}
-            // or just rely on client filtering. But for now broadcasting "state" again to
-            // everyone is messy.
-            // Let's assume the frontend will dedup or we send to user specific channel if
-            // possible.
-            // Wait, standard STOMP pattern for user specific is /user/queue/... or specific
-            // topic.
-            // The user is subscribed to /topic/minigame/room/{roomId}/game.
-            // If I broadcast, everyone gets it again.
-            // Better: use convertAndSendToUser if we had user sessions set up affecting
-            // destinations,
-            // or just create a specific temporary topic.
-            // However, typical simple approach: Just broadcast. Frontend "spawnTarget"
-            // usually just updates map.
-            // Idempotent: yes.
-        }
-
-        // 2. Send current scores
-        for (Map.Entry<String, Integer> entry : session.scores.entrySet()) {
-            GameEventDto scoreEvt = new GameEventDto();
-            scoreEvt.setRoomId(roomId);
-            scoreEvt.setType("scoreUpdate");
-            scoreEvt.setPlayerId(entry.getKey());
-            scoreEvt.setPayload(String.valueOf(entry.getValue()));
-            scoreEvt.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", scoreEvt);
-        }
+        roomExecutor.run(roomId, () -> {
+            MinigameSessionLog sessionLog = sessionLogs.get(roomId);
+            if (sessionLog == null)
+                return;
+            messagingTemplate.convertAndSend("/topic/minigame/state/" + userId, sessionLog.sync());
+        });
     }
 
     private void spawnTarget(String roomId) {
@@ -467,15 +533,15 @@ public class MinigameRoomService {
         evt.setTarget(target);
         evt.setTimestamp(System.currentTimeMillis());
 
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", evt);
+        publishGameEvent(roomId, evt);
     }
 
     private void endGameSession(String roomId) {
         GameSession session = sessions.remove(roomId);
         if (session == null)
             return;
-        if (session.future != null && !session.future.isCancelled()) {
-            session.future.cancel(false);
+        if (session.future != null) {
+            session.future.cancel();
         }
 
         // Broadcast final scores
@@ -485,7 +551,7 @@ public class MinigameRoomService {
         evt.setType("gameEnd");
         evt.setPayload(scores.toString());
         evt.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", evt);
+        publishGameEvent(roomId, evt);
 
         // reset room playing flag and ready states
         MinigameRoomDto room = rooms.get(roomId);
@@ -499,6 +565,7 @@ public class MinigameRoomService {
                     }
                 }
             }
+            roomDirectory.publish(room);
             // 방 상태 업데이트를 모든 클라이언트에 브로드캐스트
             room.setAction("gameEnd");
             room.setTimestamp(System.currentTimeMillis());
@@ -507,54 +574,84 @@ public class MinigameRoomService {
     }
 
     public MinigameRoomDto endGameAndResetReady(String roomId) {
-        MinigameRoomDto room = rooms.get(roomId);
-        if (room == null) {
-            return null;
-        }
+        return roomExecutor.call(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null) {
+                return null;
+            }
 
-        room.setPlaying(false);
+            room.setPlaying(false);
 
-        // 모든 플레이어의 준비 상태 초기화 (방장 제외)
-        if (room.getPlayers() != null) {
-            for (MinigamePlayerDto player : room.getPlayers()) {
-                if (!player.isHost()) {
-                    player.setReady(false);
+            // 모든 플레이어의 준비 상태 초기화 (방장 제외)
+            if (room.getPlayers() != null) {
+                for (MinigamePlayerDto player : room.getPlayers()) {
+                    if (!player.isHost()) {
+                        player.setReady(false);
+                    }
                 }
             }
-        }
 
-        log.info("게임 종료 및 준비 상태 초기화: {}", roomId);
-        return room;
+            closeSessionLog(roomId);
+            roomDirectory.publish(room);
+            log.info("게임 종료 및 준비 상태 초기화: {}", roomId);
+            return room;
+        });
     }
 
-    public synchronized GameScoreDto handleHit(String roomId, String playerId, String playerName, String targetId,
-            long clientTs) {
-        log.info("handleHit called: room={}, player={}, target={}", roomId, playerId, targetId);
+    /**
+     * 에임 표적 명중 (첫 명중 후 hit-grace-ms 동안 같은 표적의 명중을 모아 지연 보정한 시각이 가장 이른 사람에게 점수)
+     * receivedAt은 서버가 메시지를 받은 시각 (방 스레드 대기 전), sessionId는 입력이 온 연결 (지연 추정치 조회용)
+     */
+    public void handleHit(String roomId, String playerId, String playerName, String targetId,
+            long clientTs, long receivedAt, String sessionId) {
+        roomExecutor.run(roomId, () -> {
+            log.info("handleHit called: room={}, player={}, target={}", roomId, playerId, targetId);
+
+            GameSession session = sessions.get(roomId);
+            if (session == null) {
+                log.warn("Session not found for roomId: {}", roomId);
+                return;
+            }
 
-        GameSession session = sessions.get(roomId);
-        GameScoreDto result = new GameScoreDto();
-        result.setPlayerId(playerId);
-        result.setScore(0);
+            if (targetId == null || !session.activeTargets.containsKey(targetId)) {
+                log.warn("Target not found in session activeTargets. ID: {}", targetId);
+                log.info("Current active targets: {}", session.activeTargets.keySet());
+                return; // already taken or expired
+            }
 
+            List<TimedHit> hits = session.pendingHits.get(targetId);
+            if (hits == null) {
+                hits = new ArrayList<>();
+                session.pendingHits.put(targetId, hits);
+                timerService.schedule(roomId, hitGraceMs, () -> awardTarget(roomId, targetId));
+            } else if (hits.stream().anyMatch(hit -> hit.playerId().equals(playerId))) {
+                return;
+            }
+            long spawnedAt = session.activeTargets.get(targetId).getCreatedAt();
+            hits.add(new TimedHit(playerId, playerName,
+                    clockSync.effectiveTime(sessionId, clientTs, receivedAt, spawnedAt), receivedAt));
+        });
+    }
+
+    // 모은 명중 중 가장 이른 사람에게 표적 점수를 주고 다음 표적 생성 (방 스레드)
+    private void awardTarget(String roomId, String targetId) {
+        GameSession session = sessions.get(roomId);
         if (session == null) {
-            log.warn("Session not found for roomId: {}", roomId);
-            return result;
+            return;
         }
-
-        GameTargetDto target = session.activeTargets.get(targetId);
-        if (target == null) {
-            log.warn("Target not found in session activeTargets. ID: {}", targetId);
-            log.info("Current active targets: {}", session.activeTargets.keySet());
-            return result; // already taken or expired
+        List<TimedHit> hits = session.pendingHits.remove(targetId);
+        GameTargetDto target = session.activeTargets.remove(targetId);
+        if (hits == null || hits.isEmpty() || target == null) {
+            return;
         }
 
-        log.info("Target HIT! Removing target: {}", targetId);
+        TimedHit winner = Collections.min(hits, EARLIEST_HIT);
+        String playerId = winner.playerId();
+        log.info("Target HIT! target={}, winner={} ({} competing hits)", targetId, playerId, hits.size());
 
-        // hit successful
-        session.activeTargets.remove(targetId);
         int newScore = session.scores.getOrDefault(playerId, 0) + 1;
         session.scores.put(playerId, newScore);
-        result.setScore(newScore);
+        recordLeaderboard(roomId, playerId, winner.playerName());
 
         log.info("New score for player {}: {}", playerId, newScore);
 
@@ -563,10 +660,10 @@ public class MinigameRoomService {
         scoreEvt.setRoomId(roomId);
         scoreEvt.setType("scoreUpdate");
         scoreEvt.setPlayerId(playerId);
-        scoreEvt.setPlayerName(playerName);
+        scoreEvt.setPlayerName(winner.playerName());
         scoreEvt.setPayload(String.valueOf(newScore));
         scoreEvt.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", scoreEvt);
+        publishGameEvent(roomId, scoreEvt);
 
         // broadcast target removed
         GameEventDto removed = new GameEventDto();
@@ -574,7 +671,16 @@ public class MinigameRoomService {
         removed.setType("targetRemoved");
         removed.setTarget(target);
         removed.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", removed);
+        publishGameEvent(roomId, removed);
+
+        // send back an acknowledgement to the winner
+        GameEventDto ack = new GameEventDto();
+        ack.setRoomId(roomId);
+        ack.setType("hitAck");
+        ack.setPlayerId(playerId);
+        ack.setPayload(String.valueOf(newScore));
+        ack.setTimestamp(System.currentTimeMillis());
+        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", ack);
 
         // Check Win Condition
         if (newScore >= WINNING_SCORE) {
@@ -585,8 +691,6 @@ public class MinigameRoomService {
             log.info("Spawning next target...");
             spawnTarget(roomId);
         }
-
-        return result;
     }
 
     // --- Reaction Race (MVP) ---
@@ -595,204 +699,382 @@ public class MinigameRoomService {
     }
 
     public void startReactionRound(String roomId, boolean immediate) {
-        // send prepare
-        GameEventDto prepare = new GameEventDto();
-        prepare.setRoomId(roomId);
-        prepare.setType("reactionPrepare");
-        prepare.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", prepare);
-        log.info("reactionPrepare sent for room {} (immediate={})", roomId, immediate);
-
-        reactionActive.put(roomId, false);
-        reactionWinner.remove(roomId);
-
-        if (immediate) {
-            // send GO immediately for testing
-            reactionActive.put(roomId, true);
-            GameEventDto goImmediate = new GameEventDto();
-            goImmediate.setRoomId(roomId);
-            goImmediate.setType("reactionGo");
-            goImmediate.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", goImmediate);
-            log.info("reactionGo (immediate) sent for room {}", roomId);
-
-            // schedule end
-            scheduler.schedule(() -> {
-                reactionActive.remove(roomId);
-                String winner = reactionWinner.get(roomId);
-                GameEventDto end = new GameEventDto();
-                end.setRoomId(roomId);
-                end.setType("reactionEnd");
-                end.setPayload(winner == null ? "" : winner);
-                end.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", end);
-                log.info("reactionEnd sent for room {} (immediate)", roomId);
-            }, 3000, TimeUnit.MILLISECONDS);
+        roomExecutor.run(roomId, () -> {
+            // send prepare
+            GameEventDto prepare = new GameEventDto();
+            prepare.setRoomId(roomId);
+            prepare.setType("reactionPrepare");
+            prepare.setTimestamp(System.currentTimeMillis());
+            publishGameEvent(roomId, prepare);
+            log.info("reactionPrepare sent for room {} (immediate={})", roomId, immediate);
+
+            reactionActive.put(roomId, false);
+            reactionWinner.remove(roomId);
+            ReactionRound previousRound = reactionRounds.remove(roomId);
+            if (previousRound != null && previousRound.decision != null) {
+                previousRound.decision.cancel();
+            }
+
+            // 이전 라운드의 GO/END 타이머가 새 라운드에 끼어들지 않도록 취소
+            MinigameTimerService.RoomTimeout previous = reactionTimers.remove(roomId);
+            if (previous != null) {
+                previous.cancel();
+            }
+
+            if (immediate) {
+                // send GO immediately for testing
+                sendReactionGo(roomId);
+                return;
+            }
+
+            // random delay then send GO
+            int delayMs = 800 + random.nextInt(1800); // 800..2600ms
+            log.info("Scheduling reactionGo for room {} in {}ms", roomId, delayMs);
+
+            reactionTimers.put(roomId, timerService.schedule(roomId, delayMs, () -> sendReactionGo(roomId)));
+        });
+    }
+
+    // GO 전송 후 3초 뒤 라운드 종료 예약 (방 스레드)
+    private void sendReactionGo(String roomId) {
+        reactionActive.put(roomId, true);
+        long goAt = System.currentTimeMillis();
+        reactionRounds.put(roomId, new ReactionRound(goAt));
+        GameEventDto go = new GameEventDto();
+        go.setRoomId(roomId);
+        go.setType("reactionGo");
+        go.setTimestamp(goAt);
+        publishGameEvent(roomId, go);
+        log.info("reactionGo sent for room {}", roomId);
+
+        // set timeout to end reaction round
+        reactionTimers.put(roomId, timerService.schedule(roomId, 3000, () -> {
+            // 판정 대기 중인 입력이 있으면 먼저 판정
+            decideReaction(roomId);
+            reactionActive.remove(roomId);
+            reactionRounds.remove(roomId);
+            String winner = reactionWinner.get(roomId);
+            GameEventDto end = new GameEventDto();
+            end.setRoomId(roomId);
+            end.setType("reactionEnd");
+            end.setPayload(winner == null ? "" : winner);
+            end.setTimestamp(System.currentTimeMillis());
+            publishGameEvent(roomId, end);
+            log.info("reactionEnd sent for room {}", roomId);
+        })); // 3s to respond
+    }
+
+    /**
+     * 반응 속도 입력 (첫 입력 후 reaction-grace-ms 동안 모아 지연 보정한 반응 시간이 가장 짧은 사람이 승리)
+     * receivedAt은 서버가 메시지를 받은 시각 (방 스레드 대기 전), sessionId는 입력이 온 연결 (지연 추정치 조회용)
+     */
+    public void handleReactionHit(String roomId, String playerId, String playerName, long clientTs,
+            long receivedAt, String sessionId) {
+        roomExecutor.run(roomId, () -> {
+            Boolean active = reactionActive.get(roomId);
+            if (active == null || !active)
+                return;
+            if (reactionWinner.get(roomId) != null)
+                return; // already have winner
+            ReactionRound round = reactionRounds.get(roomId);
+            if (round == null || round.hits.stream().anyMatch(hit -> hit.playerId().equals(playerId)))
+                return;
+
+            round.hits.add(new TimedHit(playerId, playerName,
+                    clockSync.effectiveTime(sessionId, clientTs, receivedAt, round.goAt), receivedAt));
+            if (round.decision == null) {
+                round.decision = timerService.schedule(roomId, reactionGraceMs, () -> decideReaction(roomId));
+            }
+        });
+    }
 
+    // 모은 입력 중 반응 시간이 가장 짧은 사람을 승자로 알림 (방 스레드, payload = 반응 시간 ms)
+    private void decideReaction(String roomId) {
+        ReactionRound round = reactionRounds.get(roomId);
+        if (round == null || round.hits.isEmpty() || reactionWinner.get(roomId) != null) {
             return;
         }
+        if (round.decision != null) {
+            round.decision.cancel();
+        }
 
-        // random delay then send GO
-        int delayMs = 800 + random.nextInt(1800); // 800..2600ms
-        log.info("Scheduling reactionGo for room {} in {}ms", roomId, delayMs);
-
-        scheduler.schedule(() -> {
-            reactionActive.put(roomId, true);
-            GameEventDto go = new GameEventDto();
-            go.setRoomId(roomId);
-            go.setType("reactionGo");
-            go.setTimestamp(System.currentTimeMillis());
-            messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", go);
-            log.info("reactionGo sent for room {}", roomId);
-
-            // set timeout to end reaction round
-            scheduler.schedule(() -> {
-                reactionActive.remove(roomId);
-                String winner = reactionWinner.get(roomId);
-                GameEventDto end = new GameEventDto();
-                end.setRoomId(roomId);
-                end.setType("reactionEnd");
-                end.setPayload(winner == null ? "" : winner);
-                end.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", end);
-                log.info("reactionEnd sent for room {}", roomId);
-            }, 3000, TimeUnit.MILLISECONDS); // 3s to respond
-
-        }, delayMs, TimeUnit.MILLISECONDS);
-    }
-
-    public synchronized String handleReactionHit(String roomId, String playerId, String playerName, long clientTs) {
-        Boolean active = reactionActive.get(roomId);
-        if (active == null || !active)
-            return null;
-        if (reactionWinner.get(roomId) != null)
-            return null; // already have winner
-
-        reactionWinner.put(roomId, playerName != null ? playerName : playerId);
+        TimedHit first = Collections.min(round.hits, EARLIEST_HIT);
+        reactionWinner.put(roomId, first.playerName() != null ? first.playerName() : first.playerId());
         reactionActive.remove(roomId);
+        recordLeaderboard(roomId, first.playerId(), first.playerName());
 
         GameEventDto res = new GameEventDto();
         res.setRoomId(roomId);
         res.setType("reactionResult");
-        res.setPlayerId(playerId);
-        res.setPlayerName(playerName);
+        res.setPlayerId(first.playerId());
+        res.setPlayerName(first.playerName());
+        res.setPayload(String.valueOf(Math.max(0, first.effectiveTime() - round.goAt)));
         res.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", res);
+        publishGameEvent(roomId, res);
+        log.info("reactionResult for room {}: {} ({} competing hits)", roomId, first.playerId(), round.hits.size());
+    }
 
-        return playerName != null ? playerName : playerId;
+    // 순위표에 1점 반영 (대기열에 넣기만 함)
+    private void recordLeaderboard(String roomId, String playerId, String playerName) {
+        MinigameRoomDto room = rooms.get(roomId);
+        if (room != null) {
+            leaderboardService.record(room.getGameName(), playerId, playerName, 1);
+        }
     }
 
-    // ===== 오목 타이머 관련 메서드 =====
+    // ===== 판 기록 =====
 
-    public void initOmokGame(String roomId) {
-        OmokGameSession session = new OmokGameSession(roomId);
-        session.board = new int[225]; // 15x15 board
-        Arrays.fill(session.board, 0);
-        session.moveCount = 0;
-        omokSessions.put(roomId, session);
-        log.info("오목 게임 초기화: roomId={}", roomId);
+    // 방 게임 이벤트 전송 (진행 중인 판이 있으면 기록에 남기고 간격마다 스냅샷)
+    private void publishGameEvent(String roomId, GameEventDto event) {
+        MinigameSessionLog sessionLog = sessionLogs.get(roomId);
+        if (sessionLog != null) {
+            sessionLog.append(event);
+            if (sessionLog.snapshotDue(snapshotInterval)) {
+                sessionLog.snapshot(snapshotState(roomId));
+            }
+        }
+        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", event);
     }
 
-    public void startOmokTimer(String roomId) {
-        OmokGameSession session = omokSessions.get(roomId);
-        if (session == null) {
-            log.warn("오목 세션을 찾을 수 없음: roomId={}", roomId);
+    private void openSessionLog(String roomId, String gameName) {
+        MinigameSessionLog previous = sessionLogs.put(roomId, new MinigameSessionLog(roomId, gameName, maxLogEvents));
+        if (previous != null) {
+            dumpSessionLog(previous);
+        }
+    }
+
+    private void closeSessionLog(String roomId) {
+        MinigameSessionLog sessionLog = sessionLogs.remove(roomId);
+        if (sessionLog != null) {
+            dumpSessionLog(sessionLog);
+        }
+    }
+
+    // 끝난 판의 전체 기록을 JSON 한 줄로 남김 (같은 순서로 재생해서 디버깅)
+    private void dumpSessionLog(MinigameSessionLog sessionLog) {
+        if (!dumpLogOnEnd || !replayLog.isInfoEnabled()) {
             return;
         }
+        try {
+            Map<String, Object> dump = new LinkedHashMap<>();
+            dump.put("roomId", sessionLog.getRoomId());
+            dump.put("gameName", sessionLog.getGameName());
+            dump.put("firstSequence", sessionLog.getFirstSequence());
+            dump.put("events", sessionLog.events());
+            replayLog.info(objectMapper.writeValueAsString(dump));
+        } catch (JsonProcessingException e) {
+            log.warn("판 기록 저장 실패: roomId={}", sessionLog.getRoomId(), e);
+        }
+    }
+
+    // 지금 방의 게임 상태 (스냅샷, 게임마다 있는 값만)
+    private Map<String, Object> snapshotState(String roomId) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        MinigameRoomDto room = rooms.get(roomId);
+        state.put("playing", room != null && room.isPlaying());
+
+        GameSession session = sessions.get(roomId);
+        if (session != null) {
+            state.put("targets", new ArrayList<>(session.activeTargets.values()));
+            state.put("scores", new HashMap<>(session.scores));
+        }
 
-        // 기존 타이머 취소
-        if (session.timerFuture != null && !session.timerFuture.isCancelled()) {
-            session.timerFuture.cancel(false);
+        OmokGameSession omok = omokSessions.get(roomId);
+        if (omok != null) {
+            OmokEngine engine = omok.engine;
+            state.put("board", engine.board());
+            state.put("moveCount", engine.getMoveCount());
+            state.put("blackPlayerId", engine.getBlackPlayerId());
+            state.put("whitePlayerId", engine.getWhitePlayerId());
+            state.put("currentPlayerId", engine.currentPlayerId());
+            state.put("remainingSeconds", omok.remainingSeconds);
+            state.put("winnerId", engine.getWinnerId());
+            state.put("finished", engine.isFinished());
         }
 
-        session.remainingSeconds = 15;
-
-        // 매 1초마다 타이머 업데이트 브로드캐스트
-        session.timerFuture = scheduler.scheduleAtFixedRate(() -> {
-            try {
-                OmokGameSession s = omokSessions.get(roomId);
-                if (s == null)
-                    return;
-
-                s.remainingSeconds--;
-
-                // 타이머 업데이트 브로드캐스트
-                GameEventDto timerEvt = new GameEventDto();
-                timerEvt.setRoomId(roomId);
-                timerEvt.setType("omokTimer");
-                timerEvt.setPayload(String.valueOf(s.remainingSeconds));
-                timerEvt.setTimestamp(System.currentTimeMillis());
-                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", timerEvt);
-
-                // 시간 초과 시 랜덤 위치에 돌 놓기
-                if (s.remainingSeconds <= 0) {
-                    handleOmokTimeout(roomId);
-                    if (s.timerFuture != null) {
-                        s.timerFuture.cancel(false);
-                    }
-                }
-            } catch (Exception e) {
-                log.error("오목 타이머 에러: roomId={}", roomId, e);
+        if (reactionActive.containsKey(roomId) || reactionWinner.containsKey(roomId)) {
+            state.put("reactionActive", Boolean.TRUE.equals(reactionActive.get(roomId)));
+            state.put("reactionWinner", reactionWinner.get(roomId));
+        }
+        return state;
+    }
+
+    // ===== 오목 =====
+
+    public void initOmokGame(String roomId) {
+        roomExecutor.run(roomId, () -> {
+            MinigameRoomDto room = rooms.get(roomId);
+            if (room == null || room.getPlayers().size() < 2) {
+                log.warn("오목 게임을 시작할 수 없음 (참가자 부족): roomId={}", roomId);
+                return;
             }
-        }, 1, 1, TimeUnit.SECONDS);
 
-        log.info("오목 타이머 시작: roomId={}", roomId);
+            // 흑/백은 시작할 때의 참가자 순서로 고정 (클라이언트 표시와 같음)
+            OmokGameSession session = new OmokGameSession(roomId);
+            session.engine = new OmokEngine(room.getPlayers().get(0).getUserId(), room.getPlayers().get(1).getUserId());
+            OmokGameSession previous = omokSessions.put(roomId, session);
+            // 다시하기로 새로 시작할 때 이전 판의 턴 타이머가 남지 않도록
+            if (previous != null && previous.timerFuture != null) {
+                previous.timerFuture.cancel();
+            }
+            // 첫 판은 startGame이 연 기록을 이어 쓰고, 다시하기면 새 기록 (빈 판을 첫 스냅샷으로)
+            if (previous != null || !sessionLogs.containsKey(roomId)) {
+                openSessionLog(roomId, room.getGameName());
+            }
+            sessionLogs.get(roomId).snapshot(snapshotState(roomId));
+            log.info("오목 게임 초기화: roomId={}", roomId);
+        });
     }
 
-    private void handleOmokTimeout(String roomId) {
-        OmokGameSession session = omokSessions.get(roomId);
-        MinigameRoomDto room = rooms.get(roomId);
-        if (session == null || room == null || room.getPlayers() == null || room.getPlayers().size() < 2) {
+    /**
+     * 오목 수 처리 (서버 판정)
+     * 받아들인 수는 omokMove로 알리고, 승리/무승부면 게임을 끝내고, 아니면 다음 턴 타이머를 시작한다.
+     * 차례가 아니거나 이미 둔 칸 등 잘못된 수는 판에 반영하지 않고 omokMoveRejected로 알린다.
+     */
+    public OmokEngine.MoveResult handleOmokMove(String roomId, String playerId, Integer position) {
+        return roomExecutor.call(roomId, () -> {
+            OmokGameSession session = omokSessions.get(roomId);
+            if (session == null) {
+                log.warn("오목 세션을 찾을 수 없음: roomId={}", roomId);
+                return OmokEngine.MoveResult.GAME_OVER;
+            }
+
+            OmokEngine.MoveResult result = session.engine.play(playerId, position == null ? -1 : position);
+            if (!result.accepted()) {
+                log.info("오목 수 거부: roomId={}, playerId={}, position={}, result={}", roomId, playerId, position, result);
+                GameEventDto rejected = new GameEventDto();
+                rejected.setRoomId(roomId);
+                rejected.setType("omokMoveRejected");
+                rejected.setPlayerId(playerId);
+                rejected.setPosition(position);
+                rejected.setPayload(result.name());
+                rejected.setTimestamp(System.currentTimeMillis());
+                // 판에 반영되지 않은 수이므로 기록하지 않음
+                messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", rejected);
+                return result;
+            }
+
+            broadcastOmokMove(roomId, playerId, position, null);
+            afterOmokMove(roomId, session, result);
+            return result;
+        });
+    }
+
+    // 받아들인 수 다음 처리: 끝났으면 결과 전송, 아니면 다음 턴 타이머
+    private void afterOmokMove(String roomId, OmokGameSession session, OmokEngine.MoveResult result) {
+        if (result == OmokEngine.MoveResult.OK) {
+            startOmokTimer(roomId);
             return;
         }
 
-        // 현재 턴 플레이어 찾기
-        int currentPlayerIndex = session.moveCount % room.getPlayers().size();
-        MinigamePlayerDto currentPlayer = room.getPlayers().get(currentPlayerIndex);
+        if (session.timerFuture != null) {
+            session.timerFuture.cancel();
+        }
+        log.info("오목 게임 종료: roomId={}, result={}, winner={}", roomId, result, session.engine.getWinnerId());
+
+        GameEventDto gameEnd = new GameEventDto();
+        gameEnd.setRoomId(roomId);
+        gameEnd.setType("gameEnd");
+        gameEnd.setWinnerId(session.engine.getWinnerId()); // 무승부면 null
+        gameEnd.setPayload(result.name());
+        gameEnd.setTimestamp(System.currentTimeMillis());
+        publishGameEvent(roomId, gameEnd);
+    }
+
+    private void broadcastOmokMove(String roomId, String playerId, int position, String payload) {
+        GameEventDto moveEvt = new GameEventDto();
+        moveEvt.setRoomId(roomId);
+        moveEvt.setType("omokMove");
+        moveEvt.setPlayerId(playerId);
+        moveEvt.setPosition(position);
+        moveEvt.setPayload(payload);
+        moveEvt.setTimestamp(System.currentTimeMillis());
+        publishGameEvent(roomId, moveEvt);
+    }
 
-        // 빈 위치 찾기
-        List<Integer> emptyPositions = new ArrayList<>();
-        for (int i = 0; i < session.board.length; i++) {
-            if (session.board[i] == 0) {
-                emptyPositions.add(i);
+    public void startOmokTimer(String roomId) {
+        roomExecutor.run(roomId, () -> {
+            OmokGameSession session = omokSessions.get(roomId);
+            if (session == null) {
+                log.warn("오목 세션을 찾을 수 없음: roomId={}", roomId);
+                return;
             }
+
+            // 기존 타이머 취소
+            if (session.timerFuture != null) {
+                session.timerFuture.cancel();
+            }
+            if (session.engine.isFinished()) {
+                return;
+            }
+
+            session.remainingSeconds = 15;
+
+            // 매 1초마다 타이머 업데이트 브로드캐스트 (취소된 이전 턴 타이머는 실행되지 않음)
+            session.timerFuture = timerService.scheduleAtFixedRate(roomId, 1000, 1000, () -> {
+                try {
+                    OmokGameSession s = omokSessions.get(roomId);
+                    if (s == null)
+                        return;
+
+                    s.remainingSeconds--;
+
+                    // 타이머 업데이트 브로드캐스트 (매초 이벤트는 기록하지 않고 남은 시간은 스냅샷에 넣음)
+                    GameEventDto timerEvt = new GameEventDto();
+                    timerEvt.setRoomId(roomId);
+                    timerEvt.setType("omokTimer");
+                    timerEvt.setPayload(String.valueOf(s.remainingSeconds));
+                    timerEvt.setTimestamp(System.currentTimeMillis());
+                    messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", timerEvt);
+
+                    // 시간 초과 시 랜덤 위치에 돌 놓기
+                    if (s.remainingSeconds <= 0) {
+                        // 이 턴의 타이머를 먼저 멈춤 (handleOmokTimeout이 다음 턴 타이머를 새로 시작)
+                        if (s.timerFuture != null) {
+                            s.timerFuture.cancel();
+                        }
+                        handleOmokTimeout(roomId);
+                    }
+                } catch (Exception e) {
+                    log.error("오목 타이머 에러: roomId={}", roomId, e);
+                }
+            });
+
+            log.info("오목 타이머 시작: roomId={}", roomId);
+        });
+    }
+
+    private void handleOmokTimeout(String roomId) {
+        OmokGameSession session = omokSessions.get(roomId);
+        if (session == null || session.engine.isFinished()) {
+            return;
         }
 
-        if (emptyPositions.isEmpty()) {
+        // 현재 턴 플레이어의 돌을 랜덤 빈 위치에 배치
+        String currentPlayerId = session.engine.currentPlayerId();
+        int randomPosition = session.engine.randomEmptyCell(random);
+        if (randomPosition < 0) {
             log.warn("오목판에 빈 공간이 없음: roomId={}", roomId);
             return;
         }
-
-        // 랜덤 위치 선택
-        int randomPosition = emptyPositions.get(random.nextInt(emptyPositions.size()));
-        int playerSymbol = currentPlayerIndex == 0 ? 1 : 2;
-        session.board[randomPosition] = playerSymbol;
-        session.moveCount++;
+        OmokEngine.MoveResult result = session.engine.play(currentPlayerId, randomPosition);
 
         log.info("오목 타임아웃 - 자동 배치: roomId={}, playerId={}, position={}", roomId,
-                currentPlayer.getUserId(), randomPosition);
+                currentPlayerId, randomPosition);
 
-        // 자동 배치 이벤트 브로드캐스트
-        GameEventDto autoMoveEvt = new GameEventDto();
-        autoMoveEvt.setRoomId(roomId);
-        autoMoveEvt.setType("omokMove");
-        autoMoveEvt.setPlayerId(currentPlayer.getUserId());
-        autoMoveEvt.setPosition(randomPosition);
-        autoMoveEvt.setPayload("timeout"); // 타임아웃으로 인한 자동 배치 표시
-        autoMoveEvt.setTimestamp(System.currentTimeMillis());
-        messagingTemplate.convertAndSend("/topic/minigame/room/" + roomId + "/game", autoMoveEvt);
+        // 자동 배치 이벤트 브로드캐스트 (타임아웃으로 인한 자동 배치 표시)
+        broadcastOmokMove(roomId, currentPlayerId, randomPosition, "timeout");
 
-        // 다음 턴 타이머 시작
-        startOmokTimer(roomId);
+        // 다음 턴 타이머 시작 (자동 배치로 끝났으면 결과 전송)
+        afterOmokMove(roomId, session, result);
     }
 
     // 오목 게임 세션 클래스
     private static class OmokGameSession {
         private final String roomId;
-        int[] board; // 15x15 = 225 cells
-        int moveCount = 0;
+        OmokEngine engine; // 판 상태와 승리 판정
         int remainingSeconds = 15;
-        java.util.concurrent.ScheduledFuture<?> timerFuture;
+        MinigameTimerService.RoomTimeout timerFuture;
         Set<String> rematchRequests = new HashSet<>(); // 다시하기 요청한 플레이어 ID
 
         public OmokGameSession(String roomId) {
@@ -805,25 +1087,27 @@ public class MinigameRoomService {
      * @return 모든 플레이어가 동의했으면 true
      */
     public boolean addOmokRematchRequest(String roomId, String playerId) {
-        OmokGameSession session = omokSessions.get(roomId);
-        MinigameRoomDto room = rooms.get(roomId);
+        return roomExecutor.call(roomId, () -> {
+            OmokGameSession session = omokSessions.get(roomId);
+            MinigameRoomDto room = rooms.get(roomId);
 
-        if (session == null || room == null) {
-            return false;
-        }
+            if (session == null || room == null) {
+                return false;
+            }
 
-        // 다시하기 요청 추가
-        session.rematchRequests.add(playerId);
-        log.info("오목 다시하기 요청 추가: roomId={}, playerId={}, 현재 요청 수={}/{}",
-                 roomId, playerId, session.rematchRequests.size(), room.getPlayers().size());
+            // 다시하기 요청 추가
+            session.rematchRequests.add(playerId);
+            log.info("오목 다시하기 요청 추가: roomId={}, playerId={}, 현재 요청 수={}/{}",
+                     roomId, playerId, session.rematchRequests.size(), room.getPlayers().size());
 
-        // 모든 플레이어가 동의했는지 확인
-        if (session.rematchRequests.size() >= room.getPlayers().size()) {
-            // 요청 초기화
-            session.rematchRequests.clear();
-            return true;
-        }
+            // 모든 플레이어가 동의했는지 확인
+            if (session.rematchRequests.size() >= room.getPlayers().size()) {
+                // 요청 초기화
+                session.rematchRequests.clear();
+                return true;
+            }
 
-        return false;
+            return false;
+        });
     }
 }
@@ -0,0 +1,109 @@
+package com.community.service;
+
+import com.community.dto.GameEventDto;
+import com.community.dto.GameSessionSyncDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 미니게임 한 판의 이벤트 기록 (추가만 함)
+ * 방에 보낸 게임 이벤트에 1부터 번호를 붙여 쌓고, 일정 간격으로 그 시점의 게임 상태(스냅샷)를 남긴다.
+ * 재접속한 사람에게는 마지막 스냅샷과 그 뒤의 이벤트만 보내면 현재 상태가 된다.
+ *
+ * - 이벤트는 클라이언트가 여러 번 적용해도 같은 결과가 되는 형식이다 (점수는 절대값, 타겟은 ID 기준)
+ *   스냅샷은 이벤트를 보내는 중간에 찍힐 수 있으므로 뒤따르는 이벤트가 이미 스냅샷에 반영돼 있어도 된다
+ * - maxEvents를 넘으면 마지막 스냅샷 이전 이벤트를 버린다 (다시 맞추기에는 스냅샷 이후만 필요)
+ * - 판이 끝날 때 전체 기록을 남겨 두면 같은 순서로 다시 재생해 볼 수 있다 ({@link #events()})
+ *
+ * 스레드 안전하지 않다 (방 스레드에서만 사용).
+ */
+public class MinigameSessionLog {
+
+    private final String roomId;
+    private final String gameName;
+    private final int maxEvents;
+
+    private final List<GameEventDto> events = new ArrayList<>();
+    private long firstSequence = 1; // events.get(0)의 번호
+    private long sequence = 0;      // 마지막 이벤트 번호
+
+    private long snapshotSequence = 0;
+    private Map<String, Object> snapshot = Map.of();
+
+    public MinigameSessionLog(String roomId, String gameName, int maxEvents) {
+        this.roomId = roomId;
+        this.gameName = gameName;
+        this.maxEvents = maxEvents;
+    }
+
+    /**
+     * 이벤트 추가 (event.sequence를 채움)
+     */
+    public GameEventDto append(GameEventDto event) {
+        event.setSequence(++sequence);
+        events.add(event);
+        if (events.size() > maxEvents) {
+            compact();
+        }
+        return event;
+    }
+
+    /**
+     * 마지막 스냅샷 뒤로 interval개 이상 쌓였는지
+     */
+    public boolean snapshotDue(int interval) {
+        return sequence - snapshotSequence >= interval;
+    }
+
+    /**
+     * 현재 번호 시점의 상태 저장
+     */
+    public void snapshot(Map<String, Object> state) {
+        this.snapshot = state;
+        this.snapshotSequence = sequence;
+    }
+
+    /**
+     * 재접속용: 마지막 스냅샷 + 그 뒤 이벤트
+     */
+    public GameSessionSyncDto sync() {
+        int from = (int) (snapshotSequence + 1 - firstSequence);
+        return new GameSessionSyncDto(roomId, gameName, snapshotSequence, snapshot,
+                new ArrayList<>(events.subList(Math.max(0, from), events.size())), System.currentTimeMillis());
+    }
+
+    /**
+     * 남아 있는 전체 이벤트 (재생/디버깅용)
+     */
+    public List<GameEventDto> events() {
+        return new ArrayList<>(events);
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public String getGameName() {
+        return gameName;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getFirstSequence() {
+        return firstSequence;
+    }
+
+    // 스냅샷 이전 이벤트 버림 (스냅샷이 오래됐으면 아무것도 버리지 못할 수 있음)
+    private void compact() {
+        int removable = (int) (snapshotSequence + 1 - firstSequence);
+        if (removable <= 0) {
+            return;
+        }
+        events.subList(0, removable).clear();
+        firstSequence += removable;
+    }
+}
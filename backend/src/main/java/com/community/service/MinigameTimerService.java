@@ -0,0 +1,289 @@
+package com.community.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 미니게임 방 타이머 (hashed timing wheel)
+ * 오목 턴 타이머, 반응속도 GO/END, 에임 게임 첫 타겟 등 모든 방 타이머를 스레드 하나가 도는 바퀴에 넣는다.
+ * 타이머마다 ScheduledFuture나 스레드를 만들지 않고, minigame.timer.tick-ms마다 칸 하나의 만료된 타이머만 꺼낸다.
+ *
+ * - 정밀도는 tick 단위 (기본 10ms): 게임 타이머(0.5 ~ 15초)에는 충분하다
+ * - 만료된 작업은 바퀴 스레드가 아니라 {@link MinigameRoomExecutor}의 그 방 스레드에서 실행한다
+ * - 타이머는 방 단위로 관리하고, 방이 삭제되면 {@link #cancelRoom}으로 남은 타이머를 모두 취소한다
+ * - 방 스레드에서 취소하면 이미 만료되어 대기열에 들어간 작업도 실행되지 않는다
+ *
+ * 지표: minigame.timer.pending(대기 중인 타이머 수), minigame.timer.lag(예정 시각보다 늦게 실행된 시간)
+ */
+@Service
+@Slf4j
+public class MinigameTimerService {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    // 한 tick에 바퀴로 옮기는 새 타이머 최대 수 (나머지는 다음 tick에)
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final MinigameRoomExecutor roomExecutor;
+    private final long tickNanos;
+    private final List<List<RoomTimeout>> wheel;
+    private final int mask;
+
+    // 새로 등록된 타이머 (바퀴 스레드가 다음 tick에 칸에 넣음)
+    private final Queue<RoomTimeout> incoming = new ConcurrentLinkedQueue<>();
+
+    // roomId -> 그 방이 가진 대기 중 타이머
+    private final Map<String, Set<RoomTimeout>> roomTimeouts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer lag;
+
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /**
+     * 등록된 방 타이머 (취소용 핸들)
+     */
+    public final class RoomTimeout {
+
+        private final String roomId;
+        private final Runnable task;
+        private final long periodNanos; // 0이면 한 번만 실행
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // 바퀴 스레드에서만 사용 (deadline은 startTime 기준 nanos)
+        private long deadline;
+        private long remainingRounds;
+
+        private RoomTimeout(String roomId, Runnable task, long deadline, long periodNanos) {
+            this.roomId = roomId;
+            this.task = task;
+            this.deadline = deadline;
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * 취소 (이미 실행됐거나 취소된 타이머면 false)
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            release(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+    }
+
+    public MinigameTimerService(MinigameRoomExecutor roomExecutor,
+                                MeterRegistry meterRegistry,
+                                @Value("${minigame.timer.tick-ms:10}") long tickMs,
+                                @Value("${minigame.timer.wheel-size:512}") int wheelSize) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("minigame.timer tick-ms and wheel-size must be positive");
+        }
+        this.roomExecutor = roomExecutor;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+
+        // 칸 수는 2의 거듭제곱으로 올림 (tick & mask로 칸을 고름)
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+
+        Gauge.builder("minigame.timer.pending", pending, AtomicInteger::get)
+                .description("대기 중인 미니게임 방 타이머 수")
+                .register(meterRegistry);
+        this.lag = Timer.builder("minigame.timer.lag")
+                .description("미니게임 방 타이머가 예정 시각보다 늦게 실행된 시간")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::run, "minigame-timer");
+        this.worker.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.start();
+        log.info("Minigame timer wheel started: {} slots x {}ms", wheel.size(),
+                TimeUnit.NANOSECONDS.toMillis(tickNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(worker);
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * delayMs 뒤에 그 방 스레드에서 한 번 실행
+     */
+    public RoomTimeout schedule(String roomId, long delayMs, Runnable task) {
+        return add(roomId, task, delayMs, 0);
+    }
+
+    /**
+     * initialDelayMs 뒤부터 periodMs마다 그 방 스레드에서 실행 (취소할 때까지)
+     */
+    public RoomTimeout scheduleAtFixedRate(String roomId, long initialDelayMs, long periodMs, Runnable task) {
+        if (periodMs <= 0) {
+            throw new IllegalArgumentException("periodMs must be positive: " + periodMs);
+        }
+        return add(roomId, task, initialDelayMs, TimeUnit.MILLISECONDS.toNanos(periodMs));
+    }
+
+    /**
+     * 방의 대기 중인 타이머를 모두 취소 (방 삭제 시)
+     */
+    public void cancelRoom(String roomId) {
+        Set<RoomTimeout> timeouts = roomTimeouts.remove(roomId);
+        if (timeouts == null) {
+            return;
+        }
+        int cancelled = 0;
+        for (RoomTimeout timeout : timeouts) {
+            if (timeout.cancel()) {
+                cancelled++;
+            }
+        }
+        log.debug("Cancelled {} timers of room {}", cancelled, roomId);
+    }
+
+    private RoomTimeout add(String roomId, Runnable task, long delayMs, long periodNanos) {
+        long deadline = System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        RoomTimeout timeout = new RoomTimeout(roomId, task, deadline, periodNanos);
+        roomTimeouts.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(timeout);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    // 대기 중이 아니게 된 타이머를 방 목록과 개수에서 뺀다 (취소 또는 한 번짜리 실행, 한 번만 불림)
+    private void release(RoomTimeout timeout) {
+        pending.decrementAndGet();
+        roomTimeouts.computeIfPresent(timeout.roomId, (id, timeouts) -> {
+            timeouts.remove(timeout);
+            return timeouts.isEmpty() ? null : timeouts;
+        });
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            long now;
+            while (running && (now = System.nanoTime() - startTime) < tickDeadline) {
+                LockSupport.parkNanos(tickDeadline - now);
+            }
+            if (!running) {
+                break;
+            }
+            // 예외가 밖으로 나가면 바퀴가 멈추므로 여기서 모두 잡는다
+            try {
+                transferIncoming(tick);
+                expire(tick);
+            } catch (Exception e) {
+                log.error("Minigame timer tick failed", e);
+            }
+            tick++;
+        }
+    }
+
+    private void transferIncoming(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            RoomTimeout timeout = incoming.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() == PENDING) {
+                place(timeout, tick);
+            }
+        }
+    }
+
+    // 이미 지난 타이머는 이번 tick(minTick)에 실행되도록 넣는다
+    private void place(RoomTimeout timeout, long minTick) {
+        long calculated = timeout.deadline / tickNanos;
+        long ticks = Math.max(calculated, minTick);
+        timeout.remainingRounds = (ticks - minTick) / wheel.size();
+        wheel.get((int) (ticks & mask)).add(timeout);
+    }
+
+    private void expire(long tick) {
+        List<RoomTimeout> slot = wheel.get((int) (tick & mask));
+        List<RoomTimeout> periodic = null;
+        Iterator<RoomTimeout> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            RoomTimeout timeout = iterator.next();
+            if (timeout.state.get() != PENDING) {
+                iterator.remove();
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else {
+                iterator.remove();
+                dispatch(timeout, timeout.deadline);
+                if (timeout.periodNanos > 0) {
+                    timeout.deadline += timeout.periodNanos;
+                    if (periodic == null) {
+                        periodic = new ArrayList<>();
+                    }
+                    periodic.add(timeout);
+                }
+            }
+        }
+        if (periodic != null) {
+            // 다음 실행은 이번 칸을 다 돈 뒤이므로 다음 tick부터 넣는다
+            for (RoomTimeout timeout : periodic) {
+                place(timeout, tick + 1);
+            }
+        }
+    }
+
+    // 만료된 타이머를 방 스레드로 넘김 (방 스레드에서 실행 직전에 취소 여부를 다시 확인)
+    private void dispatch(RoomTimeout timeout, long deadline) {
+        roomExecutor.execute(timeout.roomId, () -> {
+            if (timeout.periodNanos > 0) {
+                if (timeout.state.get() != PENDING) {
+                    return;
+                }
+            } else if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                release(timeout);
+            } else {
+                return;
+            }
+            lag.record(Math.max(0, System.nanoTime() - startTime - deadline), TimeUnit.NANOSECONDS);
+            timeout.task.run();
+        });
+    }
+}
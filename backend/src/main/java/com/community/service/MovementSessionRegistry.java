@@ -0,0 +1,170 @@
+package com.community.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 바이너리 이동 WebSocket(/ws-move) 세션 관리
+ * 광장 스냅샷은 이 세션이 있으면 바이너리로, 없으면 STOMP(/topic/snapshots/{userId})로 전송된다.
+ *
+ * 틱 스레드는 세션마다 가장 최근 프레임 하나만 맡겨 두고 바로 돌아간다. 소켓 쓰기는 전송 스레드
+ * (plaza.binary.writer-threads개)가 세션마다 한 번에 하나씩 하므로, 멈춘 TCP 상대가 있어도 틱은 막히지 않는다.
+ * 아직 쓰지 못한 프레임 위에 새 프레임이 오면 이전 것은 버린다 (클라이언트 ack 기준으로 다음 delta가 다시 맞춰진다).
+ * 쓰기 하나는 컨테이너(Tomcat) blocking send 제한 시간을 send-time-limit-ms로 줄여, 멈춘 상대가 전송 스레드를
+ * 오래 붙잡지 못하게 하고 시간이 지나면 세션을 닫는다 (이후 스냅샷은 STOMP로).
+ */
+@Service
+@Slf4j
+public class MovementSessionRegistry {
+
+    // Tomcat이 쓰기 하나를 기다리는 최대 시간 (세션 user property, ms)
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    // userId -> 바이너리 세션
+    private final Map<String, Outbound> sessions = new ConcurrentHashMap<>();
+
+    private final long sendTimeLimitMs;
+    private final ExecutorService writers;
+
+    public MovementSessionRegistry(@Value("${plaza.binary.send-time-limit-ms:1000}") long sendTimeLimitMs,
+                                   @Value("${plaza.binary.writer-threads:4}") int writerThreads) {
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(Math.max(1, writerThreads), r -> {
+            Thread thread = new Thread(r, "plaza-binary-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 세션 하나의 송신 상태: 아직 쓰지 않은 최신 프레임 + 전송 스레드에 맡겼는지
+    private static final class Outbound {
+        final String userId;
+        final WebSocketSession session;
+        final AtomicReference<byte[]> latest = new AtomicReference<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Outbound(String userId, WebSocketSession session) {
+            this.userId = userId;
+            this.session = session;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        writers.shutdownNow();
+    }
+
+    /**
+     * 세션 등록 (같은 사용자의 기존 세션은 닫는다)
+     */
+    public void register(String userId, WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            jakarta.websocket.Session container = nativeSession.getNativeSession(jakarta.websocket.Session.class);
+            if (container != null) {
+                container.getUserProperties().put(BLOCKING_SEND_TIMEOUT, sendTimeLimitMs);
+            }
+        }
+        Outbound previous = sessions.put(userId, new Outbound(userId, session));
+        if (previous != null && !previous.session.getId().equals(session.getId())) {
+            closeQuietly(previous.session, CloseStatus.POLICY_VIOLATION.withReason("Replaced by new session"));
+        }
+    }
+
+    /**
+     * 세션 제거 (이미 새 세션으로 교체된 경우에는 유지)
+     */
+    public void unregister(String userId, WebSocketSession session) {
+        sessions.computeIfPresent(userId,
+                (id, current) -> current.session.getId().equals(session.getId()) ? null : current);
+    }
+
+    /**
+     * STOMP 연결이 끊기면 바이너리 세션도 닫는다
+     */
+    public void close(String userId) {
+        Outbound outbound = sessions.remove(userId);
+        if (outbound != null) {
+            closeQuietly(outbound.session, CloseStatus.NORMAL);
+        }
+    }
+
+    public boolean isConnected(String userId) {
+        Outbound outbound = sessions.get(userId);
+        return outbound != null && outbound.session.isOpen();
+    }
+
+    /**
+     * 바이너리 프레임 전송 (전송 스레드에 맡기고 바로 반환)
+     * @return 바이너리 세션이 없으면 false (호출자가 STOMP로 대신 전송)
+     */
+    public boolean send(String userId, byte[] frame) {
+        Outbound outbound = sessions.get(userId);
+        if (outbound == null || !outbound.session.isOpen()) {
+            return false;
+        }
+        outbound.latest.set(frame); // 아직 안 나간 이전 프레임은 버림
+        if (outbound.scheduled.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(outbound));
+            } catch (RejectedExecutionException e) {
+                outbound.scheduled.set(false);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 전송 스레드: 더 쓸 프레임이 없을 때까지 최신 프레임을 씀 (세션마다 한 스레드만 들어옴)
+    private void drain(Outbound outbound) {
+        while (true) {
+            byte[] frame = outbound.latest.getAndSet(null);
+            if (frame == null) {
+                outbound.scheduled.set(false);
+                // 내려놓는 사이에 새 프레임이 들어왔으면 다시 맡음
+                if (outbound.latest.get() == null || !outbound.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                outbound.session.sendMessage(new BinaryMessage(frame));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to send binary snapshot to {}: {}", outbound.userId, e.getMessage());
+                sessions.remove(outbound.userId, outbound);
+                closeQuietly(outbound.session, CloseStatus.SESSION_NOT_RELIABLE);
+                outbound.latest.set(null);
+                outbound.scheduled.set(false);
+                return;
+            }
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Failed to close binary session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+}
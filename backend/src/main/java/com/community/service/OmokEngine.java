@@ -0,0 +1,175 @@
+package com.community.service;
+
+import java.util.Random;
+
+/**
+ * 오목 한 판 (15x15, 서버 판정)
+ * 차례, 빈 칸, 판 범위를 검사하고 돌을 둘 때마다 다섯 개 이상 연속(장목 포함, 클라이언트 판정과 동일)을 확인한다.
+ *
+ * 승리 판정은 줄 단위 비트마스크로 한다: 플레이어마다 가로 15줄, 세로 15줄, 대각선 29줄, 반대 대각선 29줄을
+ * int 하나(칸당 1비트)로 두고, 돌을 두면 그 돌이 지나는 4줄의 비트만 켠 뒤
+ * m & m>>1 & m>>2 & m>>3 & m>>4 가 0이 아닌지로 확인한다. 판 크기와 상관없이 수마다 고정된 연산만 한다.
+ *
+ * 스레드 안전하지 않다 (방 스레드에서만 사용).
+ */
+public class OmokEngine {
+
+    public static final int SIZE = 15;
+    public static final int CELLS = SIZE * SIZE;
+
+    private static final int LINES = SIZE * 2 - 1; // 대각선 줄 수
+
+    public static final int EMPTY = 0;
+    public static final int BLACK = 1; // 첫 번째 플레이어 (클라이언트 표시와 같은 값)
+    public static final int WHITE = 2;
+
+    public enum MoveResult {
+        OK,
+        WIN,
+        DRAW,
+        NOT_YOUR_TURN,
+        OCCUPIED,
+        OUT_OF_RANGE,
+        NOT_A_PLAYER,
+        GAME_OVER;
+
+        public boolean accepted() {
+            return this == OK || this == WIN || this == DRAW;
+        }
+    }
+
+    private final String[] playerIds;
+    private final byte[] cells = new byte[CELLS];
+
+    // [플레이어][줄] 비트마스크 (비트 위치는 열 번호, 세로줄만 행 번호)
+    private final int[][] rows = new int[2][SIZE];
+    private final int[][] columns = new int[2][SIZE];
+    private final int[][] diagonals = new int[2][LINES];     // 행 - 열 + 14
+    private final int[][] antiDiagonals = new int[2][LINES]; // 행 + 열
+
+    private int moveCount = 0;
+    private String winnerId;
+    private boolean finished = false;
+
+    public OmokEngine(String blackPlayerId, String whitePlayerId) {
+        if (blackPlayerId == null || whitePlayerId == null || blackPlayerId.equals(whitePlayerId)) {
+            throw new IllegalArgumentException("Omok needs two different players");
+        }
+        this.playerIds = new String[]{blackPlayerId, whitePlayerId};
+    }
+
+    /**
+     * 돌 두기 (검사 후 받아들인 수만 판에 반영)
+     */
+    public MoveResult play(String playerId, int position) {
+        if (finished) {
+            return MoveResult.GAME_OVER;
+        }
+        int player = indexOf(playerId);
+        if (player < 0) {
+            return MoveResult.NOT_A_PLAYER;
+        }
+        if (player != moveCount % 2) {
+            return MoveResult.NOT_YOUR_TURN;
+        }
+        if (position < 0 || position >= CELLS) {
+            return MoveResult.OUT_OF_RANGE;
+        }
+        if (cells[position] != EMPTY) {
+            return MoveResult.OCCUPIED;
+        }
+
+        cells[position] = (byte) (player + 1);
+        moveCount++;
+
+        if (placeAndCheckFive(player, position / SIZE, position % SIZE)) {
+            finished = true;
+            winnerId = playerId;
+            return MoveResult.WIN;
+        }
+        if (moveCount == CELLS) {
+            finished = true;
+            return MoveResult.DRAW;
+        }
+        return MoveResult.OK;
+    }
+
+    private boolean placeAndCheckFive(int player, int row, int column) {
+        int rowBits = rows[player][row] |= 1 << column;
+        int columnBits = columns[player][column] |= 1 << row;
+        int diagonalBits = diagonals[player][row - column + SIZE - 1] |= 1 << column;
+        int antiDiagonalBits = antiDiagonals[player][row + column] |= 1 << column;
+        return hasFive(rowBits) || hasFive(columnBits) || hasFive(diagonalBits) || hasFive(antiDiagonalBits);
+    }
+
+    static boolean hasFive(int line) {
+        return (line & line >>> 1 & line >>> 2 & line >>> 3 & line >>> 4) != 0;
+    }
+
+    /**
+     * 빈 칸 하나를 무작위로 고름 (시간 초과 자동 배치용, 빈 칸이 없으면 -1)
+     */
+    public int randomEmptyCell(Random random) {
+        int empty = CELLS - moveCount;
+        if (empty <= 0) {
+            return -1;
+        }
+        int skip = random.nextInt(empty);
+        for (int i = 0; i < CELLS; i++) {
+            if (cells[i] == EMPTY && skip-- == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int cell(int position) {
+        return cells[position];
+    }
+
+    /**
+     * 현재 판 (0 빈 칸, 1 흑, 2 백)
+     */
+    public int[] board() {
+        int[] board = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            board[i] = cells[i];
+        }
+        return board;
+    }
+
+    public String getBlackPlayerId() {
+        return playerIds[0];
+    }
+
+    public String getWhitePlayerId() {
+        return playerIds[1];
+    }
+
+    public String currentPlayerId() {
+        return playerIds[moveCount % 2];
+    }
+
+    public boolean isPlayer(String playerId) {
+        return indexOf(playerId) >= 0;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public String getWinnerId() {
+        return winnerId;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private int indexOf(String playerId) {
+        if (playerIds[0].equals(playerId)) {
+            return 0;
+        }
+        return playerIds[1].equals(playerId) ? 1 : -1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.community.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 온라인 인원 수 브로드캐스트 (/topic/online-count)
+ * 입장/퇴장마다 바로 보내지 않고 변경 표시만 해 두었다가,
+ * plaza.online-count.interval-ms마다 한 번 인원 수를 읽어 지난번과 다를 때만 전송한다.
+ * 배포 직후처럼 N명이 한꺼번에 다시 접속해도 N x N개가 아니라 주기당 최대 한 번만 나간다.
+ */
+@Service
+@Slf4j
+public class OnlineCountPublisher {
+
+    private static final String DESTINATION = "/topic/online-count";
+
+    private final ActiveUserService activeUserService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final long intervalMs;
+
+    private final AtomicBoolean changed = new AtomicBoolean(false);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "online-count");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 마지막으로 보낸 값 (스케줄러 스레드에서만 사용)
+    private int lastPublished = -1;
+
+    public OnlineCountPublisher(ActiveUserService activeUserService,
+                                SimpMessageSendingOperations messagingTemplate,
+                                @Value("${plaza.online-count.interval-ms:1000}") long intervalMs) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("plaza.online-count.interval-ms must be positive: " + intervalMs);
+        }
+        this.activeUserService = activeUserService;
+        this.messagingTemplate = messagingTemplate;
+        this.intervalMs = intervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::publishIfChanged, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 인원 수가 바뀌었을 수 있음을 표시 (다음 주기에 전송)
+     */
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    private void publishIfChanged() {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        try {
+            if (!changed.getAndSet(false)) {
+                return;
+            }
+            int count = activeUserService.getActiveUserCount();
+            if (count == lastPublished) {
+                return;
+            }
+            lastPublished = count;
+            messagingTemplate.convertAndSend(DESTINATION, count);
+            log.debug("Online count published: {}", count);
+        } catch (Exception e) {
+            log.error("Failed to publish online count", e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.community.service;
+
+import com.community.model.Message.MessageType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 광장 채팅 비동기 저장
+ * 채팅은 바로 브로드캐스트하고, 저장은 크기가 정해진 메모리 대기열에 넣어 STOMP 수신 스레드가 DB를 기다리지 않게 한다.
+ * 백그라운드 스레드가 flush-interval-ms마다 대기열을 batch-size씩 꺼내 JDBC batch INSERT로 저장한다.
+ *
+ * - 송신자는 sender_id 값으로만 참조하므로 메시지마다 사용자를 조회하지 않는다
+ *   (messages.id가 IDENTITY라 Hibernate는 INSERT를 묶지 못하므로 JdbcTemplate로 직접 쓴다)
+ * - 대기열이 가득 차면 저장을 포기하고 버린다 (브로드캐스트는 이미 됨)
+ * - batch가 실패하면 한 줄씩 다시 시도하고, 그래도 실패한 메시지(예: 없는 사용자)만 버린다
+ *
+ * 지표: plaza.chat.persist.queue(대기 수), plaza.chat.persist.flush(batch 저장 시간),
+ *       plaza.chat.persist.saved, plaza.chat.persist.dropped(reason=overflow|error)
+ */
+@Service
+@Slf4j
+public class PlazaChatPersistenceService {
+
+    private static final String INSERT_SQL = "INSERT INTO messages "
+            + "(sender_id, message_type, content, created_at, is_deleted, is_read) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private record PendingMessage(Long senderId, String content, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<PendingMessage> queue;
+
+    private final Timer flushTimer;
+    private final Counter saved;
+    private final Counter droppedOverflow;
+    private final Counter droppedError;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "plaza-chat-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PlazaChatPersistenceService(JdbcTemplate jdbcTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${plaza.chat.persistence.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${plaza.chat.persistence.batch-size:200}") int batchSize,
+                                       @Value("${plaza.chat.persistence.flush-interval-ms:500}") long flushIntervalMs) {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushIntervalMs <= 0) {
+            throw new IllegalArgumentException(
+                    "plaza.chat.persistence queue-capacity, batch-size and flush-interval-ms must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("plaza.chat.persist.queue", queue, BlockingQueue::size)
+                .description("저장을 기다리는 광장 채팅 수")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("plaza.chat.persist.flush")
+                .description("광장 채팅 batch 하나를 저장하는 데 걸린 시간")
+                .register(meterRegistry);
+        this.saved = Counter.builder("plaza.chat.persist.saved")
+                .description("저장한 광장 채팅 수")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("plaza.chat.persist.dropped")
+                .description("저장하지 못하고 버린 광장 채팅 수")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        this.droppedError = Counter.builder("plaza.chat.persist.dropped")
+                .description("저장하지 못하고 버린 광장 채팅 수")
+                .tag("reason", "error")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // 종료 전에 남은 메시지 저장
+        flush();
+    }
+
+    /**
+     * 광장 채팅 저장 요청 (대기열에 넣기만 하고 바로 반환)
+     * @return 대기열에 넣었으면 true, 가득 차서 버렸으면 false
+     */
+    public boolean submit(Long senderId, String content) {
+        if (queue.offer(new PendingMessage(senderId, content, LocalDateTime.now()))) {
+            return true;
+        }
+        droppedOverflow.increment();
+        log.warn("Plaza chat persistence queue full, dropping message from user {}", senderId);
+        return false;
+    }
+
+    private synchronized void flush() {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        try {
+            List<PendingMessage> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } catch (Exception e) {
+            log.error("Plaza chat flush failed", e);
+        }
+    }
+
+    private void write(List<PendingMessage> batch) {
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), PlazaChatPersistenceService::bind);
+            saved.increment(batch.size());
+        } catch (Exception e) {
+            log.warn("Plaza chat batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingMessage message : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, message));
+                    saved.increment();
+                } catch (Exception rowError) {
+                    droppedError.increment();
+                    log.error("Dropping plaza chat from user {}: {}", message.senderId(), rowError.getMessage());
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, PendingMessage message) throws SQLException {
+        ps.setLong(1, message.senderId());
+        ps.setString(2, MessageType.PLAZA.name());
+        ps.setString(3, message.content());
+        ps.setTimestamp(4, Timestamp.valueOf(message.createdAt()));
+        ps.setBoolean(5, false);
+        ps.setBoolean(6, false);
+    }
+}
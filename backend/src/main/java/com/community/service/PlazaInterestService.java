@@ -0,0 +1,238 @@
+package com.community.service;
+
+import com.community.dto.PlayerInterestDto;
+import com.community.dto.PlayerPositionDto;
+import com.community.dto.PositionSnapshotDto;
+import com.community.service.PlazaSpatialGrid.Cell;
+import com.community.service.PlazaSpatialGrid.Move;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 광장 관심 영역(AOI) 관리 서비스
+ * 위치 업데이트를 전체 브로드캐스트하지 않고, 같은 방 안에서 관심 반경 내(3x3 셀)에 있는
+ * 플레이어에게만 전달한다. 셀 경계를 넘으면 새로 보이게 된 / 안 보이게 된 플레이어에게
+ * enter / leave 이벤트를 보낸다.
+ *
+ * 그리드는 PlazaTickService의 틱 스레드에서만 변경된다.
+ *
+ * 스냅샷: /topic/snapshots/{userId} (비활성화 시 /topic/snapshots 전체 브로드캐스트)
+ * 이벤트: /topic/interest/{userId}
+ */
+@Service
+@Slf4j
+public class PlazaInterestService {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final PlazaSnapshotService plazaSnapshotService;
+    private final boolean enabled;
+    private final PlazaSpatialGrid grid;
+
+    public PlazaInterestService(SimpMessageSendingOperations messagingTemplate,
+                                ObjectMapper objectMapper,
+                                PlazaSnapshotService plazaSnapshotService,
+                                @Value("${plaza.interest.enabled:true}") boolean enabled,
+                                @Value("${plaza.interest.radius:50}") double radius) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.plazaSnapshotService = plazaSnapshotService;
+        this.enabled = enabled;
+        // 셀 크기 = 관심 반경 → 반경 안의 플레이어는 항상 3x3 이웃 셀 안에 있다
+        this.grid = new PlazaSpatialGrid(radius);
+        log.info("Plaza interest management: enabled={}, radius={}", enabled, radius);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 한 틱 동안 모인 위치 업데이트를 반영하고 관심 영역별 스냅샷 전송
+     * JSON 스냅샷은 관심 영역(수신자 셀의 3x3 이웃)마다 한 번만 직렬화해서 그 셀의 모든 플레이어에게 보내고,
+     * compact 클라이언트에게는 관심 영역 전체 상태를 기준으로 클라이언트별 delta를 보낸다.
+     * 관심 영역 관리가 비활성화된 경우에는 JSON 전체 브로드캐스트만 지원한다.
+     */
+    public void applyTick(long tick, Collection<PlayerPositionDto> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        if (!enabled) {
+            send("/topic/snapshots", serialize(new PositionSnapshotDto(tick, new ArrayList<>(updates), now)));
+            return;
+        }
+
+        // 1. 그리드 갱신 + 셀별 변경분 모으기
+        Map<Cell, List<PlayerPositionDto>> dirtyCells = new HashMap<>();
+        for (PlayerPositionDto position : updates) {
+            Move move = grid.update(position);
+            plazaSnapshotService.updateState(position);
+            if (move.crossedCell()) {
+                handleCellChange(position, move, now);
+            }
+            dirtyCells.computeIfAbsent(move.current(), c -> new ArrayList<>()).add(position);
+        }
+
+        // 2. 변경분을 받아야 하는 셀 = 변경된 셀들의 3x3 이웃
+        Map<Cell, List<PlayerPositionDto>> regions = new HashMap<>();
+        for (Map.Entry<Cell, List<PlayerPositionDto>> dirty : dirtyCells.entrySet()) {
+            Cell center = dirty.getKey();
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    Cell cell = new Cell(center.roomId(), center.cx() + dx, center.cz() + dz);
+                    regions.computeIfAbsent(cell, c -> new ArrayList<>()).addAll(dirty.getValue());
+                }
+            }
+        }
+
+        // 3. 영역별 스냅샷 한 번 직렬화 → 셀 안의 플레이어에게 전송 (자기 위치는 클라이언트가 무시)
+        List<String> compactRecipients = new ArrayList<>();
+        for (Map.Entry<Cell, List<PlayerPositionDto>> region : regions.entrySet()) {
+            Message<byte[]> snapshot = null;
+            for (String recipient : grid.getMembers(region.getKey())) {
+                if (plazaSnapshotService.isCompact(recipient)) {
+                    compactRecipients.add(recipient);
+                    continue;
+                }
+                if (snapshot == null) {
+                    snapshot = serialize(new PositionSnapshotDto(tick, region.getValue(), now));
+                }
+                send("/topic/snapshots/" + recipient, snapshot);
+            }
+        }
+
+        // 4. compact 클라이언트: 관심 영역 안의 전체 상태 기준 delta
+        List<String> visible = new ArrayList<>();
+        for (String recipient : compactRecipients) {
+            Cell cell = grid.getCell(recipient);
+            if (cell == null) {
+                continue;
+            }
+            visible.clear();
+            grid.forEachNeighbor(cell, other -> {
+                if (!other.equals(recipient)) {
+                    visible.add(other);
+                }
+            });
+            plazaSnapshotService.publish(tick, recipient, visible);
+        }
+    }
+
+    /**
+     * (x, z) 위치의 메인 맵 플레이어에게 other가 보이는지 (관심 영역 관리가 꺼져 있으면 항상 true)
+     */
+    public boolean isInterested(Double x, Double z, PlayerPositionDto other) {
+        if (!enabled) {
+            return true;
+        }
+        Cell cell = grid.cellOf(null, x, z);
+        return cell.isNeighborOf(grid.cellOf(other.getCurrentRoomId(), other.getX(), other.getZ()));
+    }
+
+    /**
+     * userId 주변 radius 안에 있는 같은 방 플레이어(본인 제외)에 대해 action 실행 (주변 채팅용)
+     * @return 그리드에 userId의 위치가 없으면(관심 영역 관리가 꺼져 있거나 아직 첫 틱 전) false
+     */
+    public boolean forEachNearby(String userId, double radius, Consumer<String> action) {
+        PlayerPositionDto center = enabled ? grid.getPosition(userId) : null;
+        if (center == null || center.getX() == null || center.getZ() == null) {
+            return false;
+        }
+        grid.forEachWithin(center.getCurrentRoomId(), center.getX(), center.getZ(), radius, other -> {
+            if (!other.getUserId().equals(userId)) {
+                action.accept(other.getUserId());
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 플레이어 제거 (접속 종료 시)
+     * 퇴장 자체는 /topic/players 로 알리므로 주변 플레이어에게 따로 leave를 보내지 않는다
+     */
+    public void removePlayer(String userId) {
+        if (userId != null) {
+            grid.remove(userId);
+            plazaSnapshotService.removePlayer(userId);
+        }
+    }
+
+    /**
+     * 관심 영역 안의 플레이어 수 (디버깅용)
+     */
+    public int getTrackedPlayerCount() {
+        return grid.size();
+    }
+
+    private void handleCellChange(PlayerPositionDto position, Move move, long now) {
+        String userId = position.getUserId();
+
+        // 새로 보이게 된 플레이어: 서로에게 enter
+        grid.forEachNeighbor(move.current(), cell -> !cell.isNeighborOf(move.previous()), other -> {
+            if (other.equals(userId)) {
+                return;
+            }
+            messagingTemplate.convertAndSend("/topic/interest/" + other, enter(position, now));
+            PlayerPositionDto otherPosition = grid.getPosition(other);
+            if (otherPosition != null) {
+                messagingTemplate.convertAndSend("/topic/interest/" + userId, enter(otherPosition, now));
+            }
+        });
+
+        // 더 이상 보이지 않는 플레이어: 서로에게 leave
+        if (move.previous() != null) {
+            grid.forEachNeighbor(move.previous(), cell -> !cell.isNeighborOf(move.current()), other -> {
+                if (other.equals(userId)) {
+                    return;
+                }
+                messagingTemplate.convertAndSend("/topic/interest/" + other,
+                        leave(userId, position.getUsername(), now));
+                PlayerPositionDto otherPosition = grid.getPosition(other);
+                messagingTemplate.convertAndSend("/topic/interest/" + userId,
+                        leave(other, otherPosition != null ? otherPosition.getUsername() : null, now));
+            });
+        }
+
+        log.debug("Player {} moved cell {} -> {}", userId, move.previous(), move.current());
+    }
+
+    // 같은 페이로드를 여러 목적지로 보낼 때 수신자마다 Jackson 직렬화를 반복하지 않도록 미리 직렬화
+    private Message<byte[]> serialize(Object payload) {
+        try {
+            return MessageBuilder.withPayload(objectMapper.writeValueAsBytes(payload))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize plaza snapshot", e);
+        }
+    }
+
+    private void send(String destination, Message<byte[]> message) {
+        messagingTemplate.send(destination, message);
+    }
+
+    private static PlayerInterestDto enter(PlayerPositionDto position, long now) {
+        return new PlayerInterestDto(position.getUserId(), position.getUsername(), "enter", position, now);
+    }
+
+    private static PlayerInterestDto leave(String userId, String username, long now) {
+        return new PlayerInterestDto(userId, username, "leave", null, now);
+    }
+}
@@ -0,0 +1,467 @@
+package com.community.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+/**
+ * 광장 위치 스냅샷 압축 포맷 (compact)
+ *
+ * 프레임 구조 (정수는 모두 varint, 부호 있는 값은 zigzag varint):
+ * <pre>
+ *   u8      frame type (FRAME_SNAPSHOT)
+ *   varint  tick
+ *   varint  baseline tick (0이면 전체 스냅샷)
+ *   varint  모델 정의 개수, 반복: varint modelId, string modelPath
+ *   varint  엔티티 개수, 반복:
+ *           varint handle
+ *           u8     필드 마스크 (SPAWN, DESPAWN, POSITION, ROTATION, ANIMATION, MODEL, CHANGING_AVATAR, ROOM)
+ *           SPAWN      → string userId, string username (+ 모든 필드, 위치는 절대값)
+ *           POSITION   → zigzag x, y, z (1/64 단위, SPAWN이 아니면 baseline 대비 차이)
+ *           ROTATION   → u8 (2π / 256 단위)
+ *           ANIMATION  → u8 Animation 코드
+ *           MODEL      → varint modelId (0이면 기본 모델)
+ *           ROOM       → string currentRoomId (빈 문자열이면 메인 맵)
+ *           CHANGING_AVATAR 비트는 값 자체 (isChangingAvatar)
+ * </pre>
+ * baseline(클라이언트가 마지막으로 확인한 스냅샷)과 달라지지 않은 필드와 엔티티는 생략된다.
+ *
+ * 바이너리 이동 엔드포인트(/ws-move)에서 클라이언트가 보내는 이동 프레임:
+ * <pre>
+ *   u8      frame type (FRAME_MOVE)
+ *   varint  ack tick (마지막으로 디코딩한 스냅샷, 0이면 없음)
+ *   u8      필드 마스크 (POSITION, ROTATION, ANIMATION, MODEL, CHANGING_AVATAR, ROOM)
+ *   POSITION   → zigzag x, y, z (1/64 단위 절대값)
+ *   ROTATION   → u8
+ *   ANIMATION  → u8
+ *   MODEL      → string modelPath (바뀌었을 때만)
+ *   ROOM       → string currentRoomId (바뀌었을 때만)
+ * </pre>
+ */
+public final class PlazaSnapshotCodec {
+
+    public static final int FRAME_SNAPSHOT = 1;
+    public static final int FRAME_MOVE = 2;
+
+    public static final int SPAWN = 0x01;
+    public static final int DESPAWN = 0x02;
+    public static final int POSITION = 0x04;
+    public static final int ROTATION = 0x08;
+    public static final int ANIMATION = 0x10;
+    public static final int MODEL = 0x20;
+    public static final int CHANGING_AVATAR = 0x40;
+    public static final int ROOM = 0x80;
+
+    // 위치 양자화 단위: 1/64 (약 1.6cm)
+    public static final double POSITION_SCALE = 64.0;
+    // 회전 양자화: 한 바퀴를 256 단계로 (약 1.4도)
+    public static final int ROTATION_STEPS = 256;
+
+    private PlazaSnapshotCodec() {
+    }
+
+    /**
+     * 애니메이션 코드 (클라이언트와 동일한 순서를 유지해야 함)
+     */
+    public enum Animation {
+        IDLE("idle"),
+        WALK("walk"),
+        RUN("run"),
+        JUMP("jump");
+
+        private final String clientName;
+
+        Animation(String clientName) {
+            this.clientName = clientName;
+        }
+
+        public String getClientName() {
+            return clientName;
+        }
+
+        public static Animation of(String name) {
+            if (name == null) {
+                return IDLE;
+            }
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "walk" -> WALK;
+                case "run" -> RUN;
+                case "jump" -> JUMP;
+                default -> IDLE;
+            };
+        }
+
+        public static Animation ofCode(int code) {
+            Animation[] values = values();
+            return code >= 0 && code < values.length ? values[code] : IDLE;
+        }
+    }
+
+    /**
+     * 양자화된 플레이어 상태
+     * @param generation 같은 handle이 다른 플레이어에게 재사용됐는지 구분하는 값
+     * @param roomId 메인 맵이면 빈 문자열
+     */
+    public record EntityState(int handle, int generation, String userId, String username,
+                              int x, int y, int z, int rotation, int animation, int model,
+                              boolean changingAvatar, String roomId) {
+
+        boolean samePosition(EntityState other) {
+            return x == other.x && y == other.y && z == other.z;
+        }
+    }
+
+    public static int quantizePosition(Double value) {
+        return value == null ? 0 : (int) Math.round(value * POSITION_SCALE);
+    }
+
+    public static double dequantizePosition(int value) {
+        return value / POSITION_SCALE;
+    }
+
+    public static int quantizeRotation(Double radians) {
+        if (radians == null) {
+            return 0;
+        }
+        return (int) Math.round(radians / (2 * Math.PI) * ROTATION_STEPS) & (ROTATION_STEPS - 1);
+    }
+
+    public static double dequantizeRotation(int value) {
+        double radians = value * (2 * Math.PI) / ROTATION_STEPS;
+        return radians > Math.PI ? radians - 2 * Math.PI : radians;
+    }
+
+    /**
+     * baseline 대비 delta 프레임 인코딩
+     * @param baseline baseline 시점에 클라이언트가 알고 있던 엔티티 (전체 스냅샷이면 빈 맵)
+     * @param models 이번 프레임에 함께 보낼 모델 정의 (modelId -> modelPath)
+     * @return 보낼 내용이 없으면 null
+     */
+    public static byte[] encode(long tick, long baselineTick, Map<Integer, String> models,
+                                Collection<EntityState> current, Map<Integer, EntityState> baseline) {
+        Writer out = new Writer(32 + current.size() * 8);
+        out.writeByte(FRAME_SNAPSHOT);
+        out.writeVarLong(tick);
+        out.writeVarLong(baselineTick);
+
+        out.writeVarInt(models.size());
+        for (Map.Entry<Integer, String> model : models.entrySet()) {
+            out.writeVarInt(model.getKey());
+            out.writeString(model.getValue());
+        }
+
+        // 엔티티 개수는 다 쓰고 나서 알 수 있으므로 엔티티 부분은 따로 쓴 뒤 붙인다
+        Writer entities = new Writer(current.size() * 8);
+        int count = 0;
+        int seen = 0;
+        for (EntityState state : current) {
+            EntityState base = baseline.get(state.handle());
+            if (base != null) {
+                seen++;
+            }
+            if (writeEntity(entities, state, base)) {
+                count++;
+            }
+        }
+        if (seen < baseline.size()) {
+            Map<Integer, Boolean> visible = new HashMap<>(current.size() * 2);
+            for (EntityState state : current) {
+                visible.put(state.handle(), Boolean.TRUE);
+            }
+            for (Integer handle : baseline.keySet()) {
+                if (!visible.containsKey(handle)) {
+                    entities.writeVarInt(handle);
+                    entities.writeByte(DESPAWN);
+                    count++;
+                }
+            }
+        }
+
+        if (count == 0 && models.isEmpty()) {
+            return null;
+        }
+        out.writeVarInt(count);
+        out.writeBytes(entities);
+        return out.toByteArray();
+    }
+
+    private static boolean writeEntity(Writer out, EntityState state, EntityState base) {
+        int mask;
+        if (base == null || base.generation() != state.generation()) {
+            mask = SPAWN | POSITION | ROTATION | ANIMATION | MODEL | ROOM;
+            base = null;
+        } else {
+            mask = 0;
+            if (!state.samePosition(base)) {
+                mask |= POSITION;
+            }
+            if (state.rotation() != base.rotation()) {
+                mask |= ROTATION;
+            }
+            if (state.animation() != base.animation()) {
+                mask |= ANIMATION;
+            }
+            if (state.model() != base.model()) {
+                mask |= MODEL;
+            }
+            if (!state.roomId().equals(base.roomId())) {
+                mask |= ROOM;
+            }
+            if (mask == 0 && state.changingAvatar() == base.changingAvatar()) {
+                return false; // 변경 없음 → 생략
+            }
+        }
+        if (state.changingAvatar()) {
+            mask |= CHANGING_AVATAR;
+        }
+
+        out.writeVarInt(state.handle());
+        out.writeByte(mask);
+        if ((mask & SPAWN) != 0) {
+            out.writeString(state.userId());
+            out.writeString(state.username());
+        }
+        if ((mask & POSITION) != 0) {
+            out.writeZigZag(state.x() - (base != null ? base.x() : 0));
+            out.writeZigZag(state.y() - (base != null ? base.y() : 0));
+            out.writeZigZag(state.z() - (base != null ? base.z() : 0));
+        }
+        if ((mask & ROTATION) != 0) {
+            out.writeByte(state.rotation());
+        }
+        if ((mask & ANIMATION) != 0) {
+            out.writeByte(state.animation());
+        }
+        if ((mask & MODEL) != 0) {
+            out.writeVarInt(state.model());
+        }
+        if ((mask & ROOM) != 0) {
+            out.writeString(state.roomId());
+        }
+        return true;
+    }
+
+    /**
+     * 디코딩 결과
+     * @param state baseline에 이번 프레임을 적용한 전체 상태
+     * @param changed 이번 프레임에서 변경된 handle 목록 (DESPAWN 제외)
+     */
+    public record Decoded(long tick, long baselineTick, Map<Integer, String> models,
+                          Map<Integer, EntityState> state, List<Integer> changed) {
+    }
+
+    /**
+     * 프레임 디코딩 (클라이언트 구현과 동일한 규칙, 벤치마크/검증용)
+     * @param baselines tick -> 해당 시점 전체 상태
+     */
+    public static Decoded decode(byte[] frame, LongFunction<Map<Integer, EntityState>> baselines) {
+        Reader in = new Reader(frame);
+        int type = in.readByte();
+        if (type != FRAME_SNAPSHOT) {
+            throw new IllegalArgumentException("Unknown plaza frame type: " + type);
+        }
+        long tick = in.readVarLong();
+        long baselineTick = in.readVarLong();
+
+        Map<Integer, String> models = new LinkedHashMap<>();
+        int modelCount = in.readVarInt();
+        for (int i = 0; i < modelCount; i++) {
+            models.put(in.readVarInt(), in.readString());
+        }
+
+        Map<Integer, EntityState> base = baselineTick == 0 ? Map.of() : baselines.apply(baselineTick);
+        if (base == null) {
+            throw new IllegalStateException("Missing baseline " + baselineTick);
+        }
+        Map<Integer, EntityState> state = new HashMap<>(base);
+        List<Integer> changed = new ArrayList<>();
+
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int handle = in.readVarInt();
+            int mask = in.readByte();
+            if ((mask & DESPAWN) != 0) {
+                state.remove(handle);
+                continue;
+            }
+            EntityState prev = (mask & SPAWN) != 0 ? null : state.get(handle);
+            if (prev == null && (mask & SPAWN) == 0) {
+                throw new IllegalStateException("Delta for unknown handle " + handle);
+            }
+            String userId = (mask & SPAWN) != 0 ? in.readString() : prev.userId();
+            String username = (mask & SPAWN) != 0 ? in.readString() : prev.username();
+            int x = prev != null ? prev.x() : 0;
+            int y = prev != null ? prev.y() : 0;
+            int z = prev != null ? prev.z() : 0;
+            if ((mask & POSITION) != 0) {
+                x += in.readZigZag();
+                y += in.readZigZag();
+                z += in.readZigZag();
+            }
+            int rotation = (mask & ROTATION) != 0 ? in.readByte() : prev.rotation();
+            int animation = (mask & ANIMATION) != 0 ? in.readByte() : prev.animation();
+            int model = (mask & MODEL) != 0 ? in.readVarInt() : prev.model();
+            String roomId = (mask & ROOM) != 0 ? in.readString() : prev.roomId();
+            int generation = prev != null ? prev.generation() : 0;
+
+            state.put(handle, new EntityState(handle, generation, userId, username, x, y, z,
+                    rotation, animation, model, (mask & CHANGING_AVATAR) != 0, roomId));
+            changed.add(handle);
+        }
+        return new Decoded(tick, baselineTick, models, state, changed);
+    }
+
+    /**
+     * 클라이언트 이동 프레임
+     * @param mask 이번 프레임에 포함된 필드 (포함되지 않은 필드는 이전 값을 유지)
+     */
+    public record MoveFrame(long ackTick, int mask, int x, int y, int z, int rotation, int animation,
+                            String modelPath, String roomId) {
+
+        public boolean has(int field) {
+            return (mask & field) != 0;
+        }
+
+        public boolean changingAvatar() {
+            return has(CHANGING_AVATAR);
+        }
+    }
+
+    /**
+     * 클라이언트 이동 프레임 디코딩
+     * @throws IllegalArgumentException 잘못된 프레임
+     */
+    public static MoveFrame decodeMove(byte[] frame) {
+        try {
+            Reader in = new Reader(frame);
+            int type = in.readByte();
+            if (type != FRAME_MOVE) {
+                throw new IllegalArgumentException("Unknown plaza frame type: " + type);
+            }
+            long ackTick = in.readVarLong();
+            int mask = in.readByte();
+            int x = 0;
+            int y = 0;
+            int z = 0;
+            if ((mask & POSITION) != 0) {
+                x = in.readZigZag();
+                y = in.readZigZag();
+                z = in.readZigZag();
+            }
+            int rotation = (mask & ROTATION) != 0 ? in.readByte() : 0;
+            int animation = (mask & ANIMATION) != 0 ? in.readByte() : 0;
+            String modelPath = (mask & MODEL) != 0 ? in.readString() : null;
+            String roomId = (mask & ROOM) != 0 ? in.readString() : null;
+            return new MoveFrame(ackTick, mask, x, y, z, rotation, animation, modelPath, roomId);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated plaza move frame", e);
+        }
+    }
+
+    /**
+     * 가변 길이 바이트 버퍼 (ByteArrayOutputStream보다 가볍게)
+     */
+    static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buf[size++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeZigZag(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeString(String value) {
+            byte[] bytes = Objects.requireNonNullElse(value, "").getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeBytes(Writer other) {
+            ensure(other.size);
+            System.arraycopy(other.buf, 0, buf, size, other.size);
+            size += other.size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+
+    static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            return buf[pos++] & 0xFF;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        int readZigZag() {
+            int raw = readVarInt();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            int length = readVarInt();
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import com.community.service.PlazaSnapshotCodec.EntityState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 광장 압축 스냅샷(compact) 관리 서비스
+ * - userId 대신 짧은 숫자 handle, 위치/회전 양자화, 애니메이션/모델은 작은 id로 전송
+ * - 클라이언트가 마지막으로 확인(ack)한 스냅샷을 baseline으로 바뀐 필드만 전송
+ * - modelPath 문자열은 클라이언트마다 처음 한 번만 전송
+ *   modelId는 지금 그 모델을 쓰는 플레이어 수를 세어 아무도 안 쓰면 지우고, 지운 id는 다시 쓰지 않는다
+ *   (클라이언트가 기억한 id의 뜻이 바뀌지 않도록). 등록된 모델이 plaza.snapshot.max-models개면 새 모델은 기본 모델(0)
+ *
+ * 클라이언트는 /app/player.join 의 snapshotFormat 으로 "json"을 선택할 수 있다 (기본값: plaza.snapshot.format).
+ * ack는 /app/player.position 의 ackTick 으로 함께 보낸다.
+ * 바이너리 이동 WebSocket(/ws-move)이 연결된 클라이언트에는 같은 프레임을 Base64 없이 그 연결로 보낸다.
+ * 상태 변경(updateState, publish, removePlayer)은 PlazaTickService의 틱 스레드에서만 호출된다.
+ */
+@Service
+@Slf4j
+public class PlazaSnapshotService {
+
+    public static final String FORMAT_COMPACT = "compact";
+    public static final String FORMAT_JSON = "json";
+
+    // 클라이언트별로 기억하는 최근 전송 스냅샷 수 (이보다 오래된 ack면 전체 스냅샷 전송)
+    private static final int HISTORY = 32;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final MovementSessionRegistry movementSessionRegistry;
+    private final String defaultFormat;
+
+    // userId -> compact 클라이언트 상태 (JSON 클라이언트는 없음)
+    private final Map<String, ClientView> views = new ConcurrentHashMap<>();
+
+    // userId -> 현재 양자화 상태
+    private final Map<String, EntityState> states = new HashMap<>();
+
+    // userId -> handle, handle 재사용 관리
+    private final Map<String, Integer> handles = new HashMap<>();
+    private final ArrayDeque<Integer> freeHandles = new ArrayDeque<>();
+    private final Map<Integer, Integer> generations = new HashMap<>();
+    private int nextHandle = 1;
+
+    // modelPath -> modelId (0은 기본 모델), modelId -> 쓰는 플레이어 수
+    private final Map<String, Integer> modelIds = new HashMap<>();
+    private final Map<Integer, String> modelPaths = new HashMap<>();
+    private final Map<Integer, Integer> modelRefs = new HashMap<>();
+    private final int maxModels;
+    private int nextModelId = 1;
+
+    public PlazaSnapshotService(SimpMessageSendingOperations messagingTemplate,
+                                MovementSessionRegistry movementSessionRegistry,
+                                @Value("${plaza.snapshot.format:compact}") String defaultFormat,
+                                @Value("${plaza.snapshot.max-models:1024}") int maxModels) {
+        this.messagingTemplate = messagingTemplate;
+        this.maxModels = Math.max(0, maxModels);
+        this.movementSessionRegistry = movementSessionRegistry;
+        this.defaultFormat = FORMAT_JSON.equalsIgnoreCase(defaultFormat) ? FORMAT_JSON : FORMAT_COMPACT;
+        log.info("Plaza snapshot default format: {}", this.defaultFormat);
+    }
+
+    // 클라이언트에 보낸 스냅샷 하나 (handle -> 보낸 상태, 그때까지 알려준 모델 id)
+    private record HistorySlot(long tick, Map<Integer, EntityState> sent, Set<Integer> knownModels) {
+    }
+
+    private static final class ClientView {
+        final AtomicLong ackedTick = new AtomicLong();
+        final HistorySlot[] history = new HistorySlot[HISTORY];
+
+        HistorySlot slotOf(long tick) {
+            HistorySlot slot = history[(int) (tick % HISTORY)];
+            return tick > 0 && slot != null && slot.tick() == tick ? slot : null;
+        }
+    }
+
+    /**
+     * 입장 시 스냅샷 포맷 등록
+     * @param format "compact" 또는 "json" (null이면 기본값)
+     * @return 실제 적용된 포맷
+     */
+    public String register(String userId, String format) {
+        String resolved = format == null ? defaultFormat
+                : FORMAT_JSON.equalsIgnoreCase(format) ? FORMAT_JSON : FORMAT_COMPACT;
+        if (FORMAT_COMPACT.equals(resolved)) {
+            views.put(userId, new ClientView());
+        } else {
+            views.remove(userId);
+        }
+        return resolved;
+    }
+
+    public boolean isCompact(String userId) {
+        return views.containsKey(userId);
+    }
+
+    /**
+     * 클라이언트가 받은 스냅샷 확인 (baseline 갱신)
+     */
+    public void acknowledge(String userId, Long tick) {
+        if (userId == null || tick == null) {
+            return;
+        }
+        ClientView view = views.get(userId);
+        if (view != null) {
+            view.ackedTick.accumulateAndGet(tick, Math::max);
+        }
+    }
+
+    /**
+     * 위치 업데이트를 양자화 상태에 반영
+     */
+    public void updateState(PlayerPositionDto position) {
+        String userId = position.getUserId();
+        Integer handle = handles.get(userId);
+        if (handle == null) {
+            handle = freeHandles.isEmpty() ? nextHandle++ : freeHandles.poll();
+            handles.put(userId, handle);
+            generations.merge(handle, 1, Integer::sum);
+        }
+        EntityState previous = states.get(userId);
+        int model = previous != null && Objects.equals(modelPaths.get(previous.model()), position.getModelPath())
+                ? previous.model() : acquireModel(position.getModelPath());
+        if (previous != null && previous.model() != model) {
+            releaseModel(previous.model());
+        }
+        states.put(userId, new EntityState(handle, generations.get(handle),
+                userId,
+                Objects.requireNonNullElse(position.getUsername(), ""),
+                PlazaSnapshotCodec.quantizePosition(position.getX()),
+                PlazaSnapshotCodec.quantizePosition(position.getY()),
+                PlazaSnapshotCodec.quantizePosition(position.getZ()),
+                PlazaSnapshotCodec.quantizeRotation(position.getRotationY()),
+                PlazaSnapshotCodec.Animation.of(position.getAnimation()).ordinal(),
+                model,
+                Boolean.TRUE.equals(position.getIsChangingAvatar()),
+                Objects.requireNonNullElse(position.getCurrentRoomId(), "")));
+    }
+
+    /**
+     * recipient에게 보이는 플레이어들의 delta 스냅샷 전송
+     * @param visible recipient 관심 영역 안의 userId (recipient 자신 제외)
+     */
+    public void publish(long tick, String recipient, Collection<String> visible) {
+        ClientView view = views.get(recipient);
+        if (view == null) {
+            return;
+        }
+
+        List<EntityState> current = new ArrayList<>(visible.size());
+        for (String userId : visible) {
+            EntityState state = states.get(userId);
+            if (state != null) {
+                current.add(state);
+            }
+        }
+
+        // baseline = 클라이언트가 마지막으로 확인한 스냅샷 (기록에 없으면 전체 스냅샷)
+        long baselineTick = view.ackedTick.get();
+        HistorySlot baseSlot = view.slotOf(baselineTick);
+        Map<Integer, EntityState> baseline = baseSlot != null ? baseSlot.sent() : Map.of();
+        Set<Integer> known = baseSlot != null ? baseSlot.knownModels() : Set.of();
+        if (baseSlot == null) {
+            baselineTick = 0;
+        }
+
+        // 클라이언트가 아직 모르는 모델 정의
+        Map<Integer, String> newModels = new LinkedHashMap<>();
+        for (EntityState state : current) {
+            if (state.model() != 0 && !known.contains(state.model())) {
+                newModels.putIfAbsent(state.model(), modelPaths.get(state.model()));
+            }
+        }
+
+        byte[] frame = PlazaSnapshotCodec.encode(tick, baselineTick, newModels, current, baseline);
+        if (frame == null) {
+            return; // baseline 이후 바뀐 것이 없음
+        }
+
+        Map<Integer, EntityState> sent = new HashMap<>(current.size() * 2);
+        for (EntityState state : current) {
+            sent.put(state.handle(), state);
+        }
+        Set<Integer> knownAfter = known;
+        if (!newModels.isEmpty()) {
+            knownAfter = new HashSet<>(known);
+            knownAfter.addAll(newModels.keySet());
+            knownAfter.retainAll(modelPaths.keySet()); // 지운 모델 id는 다시 나오지 않음
+        }
+
+        view.history[(int) (tick % HISTORY)] = new HistorySlot(tick, sent, knownAfter);
+
+        if (movementSessionRegistry.send(recipient, frame)) {
+            return;
+        }
+
+        // SockJS는 텍스트 프레임만 지원하므로 STOMP로는 Base64로 감싸서 보낸다
+        byte[] text = Base64.getEncoder().encode(frame);
+        messagingTemplate.send("/topic/snapshots/" + recipient, MessageBuilder.withPayload(text)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN)
+                .build());
+    }
+
+    /**
+     * 플레이어 제거 (접속 종료 시)
+     */
+    public void removePlayer(String userId) {
+        views.remove(userId);
+        EntityState state = states.remove(userId);
+        if (state != null) {
+            releaseModel(state.model());
+        }
+        Integer handle = handles.remove(userId);
+        if (handle != null) {
+            freeHandles.add(handle);
+        }
+    }
+
+    // 모델 사용 등록 (처음 보는 경로면 새 id, 한도를 넘으면 기본 모델)
+    private int acquireModel(String modelPath) {
+        if (modelPath == null || modelPath.isEmpty()) {
+            return 0;
+        }
+        Integer id = modelIds.get(modelPath);
+        if (id == null) {
+            if (modelIds.size() >= maxModels) {
+                log.debug("Model table full ({}), using default model for {}", maxModels, modelPath);
+                return 0;
+            }
+            id = nextModelId++;
+            modelIds.put(modelPath, id);
+            modelPaths.put(id, modelPath);
+        }
+        modelRefs.merge(id, 1, Integer::sum);
+        return id;
+    }
+
+    private void releaseModel(int id) {
+        if (id == 0) {
+            return;
+        }
+        Integer refs = modelRefs.merge(id, -1, Integer::sum);
+        if (refs != null && refs <= 0) {
+            modelRefs.remove(id);
+            modelIds.remove(modelPaths.remove(id));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 광장 공간 그리드
+ * 방 ID(currentRoomId)와 x/z 좌표로 플레이어를 셀에 나누어 담고,
+ * 주변 3x3 셀에 있는 플레이어만 빠르게 찾을 수 있게 해준다.
+ * 셀 크기를 관심 반경(AOI) 이상으로 잡으면 반경 안의 플레이어는 항상 주변 셀에 포함된다.
+ */
+public class PlazaSpatialGrid {
+
+    private final double cellSize;
+
+    // 셀 -> 셀 안의 userId 집합
+    private final Map<Cell, Set<String>> cells = new ConcurrentHashMap<>();
+
+    // userId -> 현재 셀 및 마지막 위치
+    private final Map<String, Member> members = new ConcurrentHashMap<>();
+
+    public PlazaSpatialGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * 셀 좌표 (방 ID가 다르면 좌표가 같아도 다른 셀)
+     */
+    public record Cell(String roomId, int cx, int cz) {
+
+        /**
+         * 두 셀이 서로의 3x3 이웃 안에 있는지 확인
+         */
+        public boolean isNeighborOf(Cell other) {
+            return other != null
+                    && roomId.equals(other.roomId)
+                    && Math.abs(cx - other.cx) <= 1
+                    && Math.abs(cz - other.cz) <= 1;
+        }
+    }
+
+    /**
+     * 셀 이동 결과
+     * @param previous 이동 전 셀 (처음 등록이면 null)
+     * @param current 이동 후 셀
+     */
+    public record Move(Cell previous, Cell current) {
+
+        public boolean crossedCell() {
+            return !current.equals(previous);
+        }
+    }
+
+    private static final class Member {
+        volatile Cell cell;
+        volatile PlayerPositionDto position;
+    }
+
+    /**
+     * 플레이어 위치 갱신
+     * @return 이동 전/후 셀
+     */
+    public Move update(PlayerPositionDto position) {
+        String userId = position.getUserId();
+        Cell next = cellOf(position.getCurrentRoomId(), position.getX(), position.getZ());
+
+        Member member = members.computeIfAbsent(userId, id -> new Member());
+        Cell previous;
+        synchronized (member) {
+            previous = member.cell;
+            member.position = position;
+            if (!next.equals(previous)) {
+                if (previous != null) {
+                    removeFromCell(previous, userId);
+                }
+                addToCell(next, userId);
+                member.cell = next;
+            }
+        }
+        return new Move(previous, next);
+    }
+
+    /**
+     * 플레이어 제거 (접속 종료)
+     * @return 제거 직전 셀 (없으면 null)
+     */
+    public Cell remove(String userId) {
+        Member member = members.remove(userId);
+        if (member == null) {
+            return null;
+        }
+        synchronized (member) {
+            if (member.cell != null) {
+                removeFromCell(member.cell, userId);
+            }
+            return member.cell;
+        }
+    }
+
+    /**
+     * 셀의 3x3 이웃에 있는 모든 플레이어에 대해 action 실행
+     */
+    public void forEachNeighbor(Cell center, Consumer<String> action) {
+        forEachNeighbor(center, cell -> true, action);
+    }
+
+    /**
+     * 셀의 3x3 이웃 중 cellFilter를 통과한 셀에 있는 플레이어에 대해 action 실행
+     * (셀 경계를 넘었을 때 새로 보이게 된 / 안 보이게 된 플레이어 계산용)
+     */
+    public void forEachNeighbor(Cell center, Predicate<Cell> cellFilter, Consumer<String> action) {
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                Cell cell = new Cell(center.roomId(), center.cx() + dx, center.cz() + dz);
+                if (!cellFilter.test(cell)) {
+                    continue;
+                }
+                Set<String> users = cells.get(cell);
+                if (users != null) {
+                    users.forEach(action);
+                }
+            }
+        }
+    }
+
+    /**
+     * (x, z)에서 radius 안에 있는 같은 방 플레이어에 대해 action 실행
+     * 반경을 덮는 셀만 훑고, 셀 안의 플레이어는 마지막 위치로 거리를 확인한다.
+     */
+    public void forEachWithin(String roomId, double x, double z, double radius, Consumer<PlayerPositionDto> action) {
+        Cell min = cellOf(roomId, x - radius, z - radius);
+        Cell max = cellOf(roomId, x + radius, z + radius);
+        double radiusSquared = radius * radius;
+        for (int cx = min.cx(); cx <= max.cx(); cx++) {
+            for (int cz = min.cz(); cz <= max.cz(); cz++) {
+                Set<String> users = cells.get(new Cell(min.roomId(), cx, cz));
+                if (users == null) {
+                    continue;
+                }
+                for (String userId : users) {
+                    PlayerPositionDto position = getPosition(userId);
+                    if (position == null) {
+                        continue;
+                    }
+                    double dx = valueOrZero(position.getX()) - x;
+                    double dz = valueOrZero(position.getZ()) - z;
+                    if (dx * dx + dz * dz <= radiusSquared) {
+                        action.accept(position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 셀 안에 있는 플레이어 ID 목록 (없으면 빈 집합)
+     */
+    public Set<String> getMembers(Cell cell) {
+        Set<String> users = cells.get(cell);
+        return users != null ? users : Set.of();
+    }
+
+    /**
+     * 플레이어의 마지막 위치 조회
+     */
+    public PlayerPositionDto getPosition(String userId) {
+        Member member = members.get(userId);
+        return member != null ? member.position : null;
+    }
+
+    /**
+     * 플레이어의 현재 셀 조회
+     */
+    public Cell getCell(String userId) {
+        Member member = members.get(userId);
+        return member != null ? member.cell : null;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public Cell cellOf(String roomId, Double x, Double z) {
+        return new Cell(Objects.requireNonNullElse(roomId, ""),
+                (int) Math.floor(valueOrZero(x) / cellSize),
+                (int) Math.floor(valueOrZero(z) / cellSize));
+    }
+
+    // compute로 추가/삭제를 원자적으로 처리해야 비어서 지워진 셀 집합에 추가되는 일이 없다
+    private void addToCell(Cell cell, String userId) {
+        cells.compute(cell, (c, users) -> {
+            Set<String> result = users != null ? users : ConcurrentHashMap.newKeySet();
+            result.add(userId);
+            return result;
+        });
+    }
+
+    private void removeFromCell(Cell cell, String userId) {
+        cells.computeIfPresent(cell, (c, users) -> {
+            users.remove(userId);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0.0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 광장 서버 틱
+ * 클라이언트가 보내는 위치 업데이트를 바로 내보내지 않고 userId별 최신 값만 보관했다가,
+ * 고정 주기(plaza.tick.rate-hz)마다 한 번에 모아서 관심 영역별 스냅샷으로 전송한다.
+ * 클라이언트 전송 빈도와 상관없이 나가는 프레임 수가 틱 수 x 관심 영역 수로 제한된다.
+ */
+@Service
+@Slf4j
+public class PlazaTickService {
+
+    private final PlazaInterestService plazaInterestService;
+    private final ActiveUserService activeUserService;
+    private final int rateHz;
+
+    // userId -> 이번 틱의 최신 위치 (같은 틱에 여러 번 오면 마지막 값만 남음)
+    private final Map<String, PlayerPositionDto> pending = new ConcurrentHashMap<>();
+
+    // 이번 틱에 제거할 플레이어 (그리드 변경은 틱 스레드에서만 한다)
+    private final Queue<Departure> departed = new ConcurrentLinkedQueue<>();
+
+    // 접속 종료 (sessionId: 끊긴 연결, 그 사이 같은 userId가 다른 연결로 다시 들어왔으면 무시)
+    private record Departure(String userId, String sessionId) {
+    }
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "plaza-tick");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long tick = 0;
+
+    public PlazaTickService(PlazaInterestService plazaInterestService,
+                            ActiveUserService activeUserService,
+                            @Value("${plaza.tick.rate-hz:15}") int rateHz) {
+        if (rateHz <= 0) {
+            throw new IllegalArgumentException("plaza.tick.rate-hz must be positive: " + rateHz);
+        }
+        this.plazaInterestService = plazaInterestService;
+        this.activeUserService = activeUserService;
+        this.rateHz = rateHz;
+    }
+
+    @PostConstruct
+    public void start() {
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / rateHz;
+        scheduler.scheduleAtFixedRate(this::runTick, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+        log.info("Plaza tick started: {} Hz", rateHz);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 위치 업데이트 접수 (다음 틱에 전송)
+     */
+    public void submit(PlayerPositionDto position) {
+        if (position.getUserId() == null) {
+            return;
+        }
+        pending.put(position.getUserId(), position);
+    }
+
+    /**
+     * 플레이어 제거 예약 (접속 종료 시)
+     * @param sessionId 끊긴 연결 (틱이 오기 전에 다시 입장했으면 새 연결의 등록은 지우지 않음)
+     */
+    public void removePlayer(String userId, String sessionId) {
+        if (userId == null) {
+            return;
+        }
+        pending.remove(userId);
+        departed.add(new Departure(userId, sessionId));
+    }
+
+    public int getRateHz() {
+        return rateHz;
+    }
+
+    private void runTick() {
+        // 예외가 밖으로 나가면 scheduleAtFixedRate가 멈추므로 여기서 모두 잡는다
+        try {
+            tick++;
+
+            // 나간 플레이어를 먼저 지운다 (같은 틱 안에 나갔다 다시 들어온 경우 새 입장의 위치가 뒤에 반영되도록)
+            Departure departure;
+            while ((departure = departed.poll()) != null) {
+                String current = activeUserService.getSessionIdHere(departure.userId());
+                if (current != null && !current.equals(departure.sessionId())) {
+                    continue; // 이미 다른 연결로 다시 입장함
+                }
+                plazaInterestService.removePlayer(departure.userId());
+            }
+
+            List<PlayerPositionDto> updates = new ArrayList<>(pending.size());
+            Iterator<String> it = pending.keySet().iterator();
+            while (it.hasNext()) {
+                String userId = it.next();
+                PlayerPositionDto position = pending.remove(userId);
+                // 입장(/app/player.join)하지 않았거나 이미 나간 사용자의 늦은 업데이트는 버린다
+                if (position != null && activeUserService.isConnectedHere(userId)) {
+                    updates.add(position);
+                }
+            }
+            plazaInterestService.applyTick(tick, updates);
+        } catch (Exception e) {
+            log.error("Plaza tick {} failed", tick, e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.community.service;
+
+import com.community.dto.PlayerJoinDto;
+import com.community.dto.PlayerPresenceBatchDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 플레이어 입장/퇴장 이벤트 묶음 전송
+ * 이벤트를 바로 브로드캐스트하지 않고 plaza.presence-delta.window-ms 동안 모았다가 한 프레임으로 보낸다.
+ * 서버 재시작 직후 수백 명이 몇 초 안에 다시 접속해도 구간당 프레임 하나만 나간다.
+ *
+ * 같은 구간 안의 같은 사용자 이벤트는 구간의 첫 동작과 마지막 이벤트로 합친다.
+ * - 입장으로 시작해 퇴장으로 끝남: 모두 버림 (다른 클라이언트는 그 사용자를 본 적이 없음)
+ * - 퇴장으로 시작해 입장으로 끝남 (재접속): 마지막 입장만 남김
+ * - 그 외: 마지막 이벤트만 남김 (퇴장 -> 입장 -> 퇴장은 퇴장)
+ * 중복 로그인 알림(duplicate)은 합치지 않고 그대로 전달한다.
+ *
+ * 전송 위치:
+ * - /topic/players.batch : {@link PlayerPresenceBatchDto} 한 프레임
+ * - /topic/players : 기존 클라이언트용 이벤트 하나씩 (plaza.presence-delta.legacy-events, 합친 뒤 남은 이벤트만)
+ */
+@Service
+@Slf4j
+public class PresenceDeltaPublisher {
+
+    private static final String BATCH_DESTINATION = "/topic/players.batch";
+    private static final String LEGACY_DESTINATION = "/topic/players";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final long windowMs;
+    private final boolean legacyEvents;
+
+    // 이번 구간 사용자 하나의 이벤트: 구간의 첫 동작(join/leave)과 마지막 이벤트
+    private record PendingPresence(String firstAction, PlayerJoinDto last) {
+    }
+
+    // userId -> 이번 구간의 이벤트 (마지막 이벤트 도착 순서 유지)
+    private final Map<String, PendingPresence> pending = new LinkedHashMap<>();
+
+    // 합치지 않는 이벤트 (중복 로그인 알림)
+    private final List<PlayerJoinDto> passThrough = new ArrayList<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "presence-delta");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 배치 번호 (스케줄러 스레드에서만 사용)
+    private long sequence = 0;
+
+    public PresenceDeltaPublisher(SimpMessageSendingOperations messagingTemplate,
+                                  @Value("${plaza.presence-delta.window-ms:100}") long windowMs,
+                                  @Value("${plaza.presence-delta.legacy-events:true}") boolean legacyEvents) {
+        if (windowMs <= 0) {
+            throw new IllegalArgumentException("plaza.presence-delta.window-ms must be positive: " + windowMs);
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.windowMs = windowMs;
+        this.legacyEvents = legacyEvents;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flush, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        log.info("Presence delta publisher started: window {}ms, legacy events {}", windowMs, legacyEvents);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 입장/퇴장/중복 로그인 이벤트 접수 (다음 구간 끝에 전송)
+     */
+    public void publish(PlayerJoinDto event) {
+        String action = event.getAction();
+        synchronized (this) {
+            if (event.getUserId() == null || (!"join".equals(action) && !"leave".equals(action))) {
+                passThrough.add(event);
+                return;
+            }
+            PendingPresence previous = pending.remove(event.getUserId());
+            String firstAction = previous != null ? previous.firstAction() : action;
+            if ("join".equals(firstAction) && "leave".equals(action)) {
+                return; // 구간 안에서 입장했다가 퇴장: 아무도 몰라도 됨
+            }
+            pending.put(event.getUserId(), new PendingPresence(firstAction, event));
+        }
+    }
+
+    private void flush() {
+        // 예외가 밖으로 나가면 스케줄이 멈추므로 여기서 모두 잡는다
+        try {
+            List<PlayerJoinDto> events;
+            synchronized (this) {
+                if (pending.isEmpty() && passThrough.isEmpty()) {
+                    return;
+                }
+                events = new ArrayList<>(pending.size() + passThrough.size());
+                for (PendingPresence presence : pending.values()) {
+                    events.add(presence.last());
+                }
+                events.addAll(passThrough);
+                pending.clear();
+                passThrough.clear();
+            }
+
+            messagingTemplate.convertAndSend(BATCH_DESTINATION,
+                    new PlayerPresenceBatchDto(++sequence, events, System.currentTimeMillis()));
+            if (legacyEvents) {
+                for (PlayerJoinDto event : events) {
+                    messagingTemplate.convertAndSend(LEGACY_DESTINATION, event);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish presence delta", e);
+        }
+    }
+}
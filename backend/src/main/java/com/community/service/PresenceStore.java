@@ -0,0 +1,43 @@
+package com.community.service;
+
+import java.util.Map;
+
+/**
+ * 접속 중인 사용자 저장소 (전체 노드 기준)
+ * 사용자 한 명은 전체에서 세션 하나만 가진다 (중복 로그인 방지).
+ *
+ * 구현 선택: plaza.presence.store
+ * - memory (기본): 이 JVM 안에서만 유지, 서버 한 대일 때
+ * - database: 공유 DB 테이블, 서버 여러 대일 때 (노드 heartbeat와 죽은 노드 세션 정리 포함)
+ */
+public interface PresenceStore {
+
+    /**
+     * 사용자 세션 등록 (다른 세션이 이미 있으면 실패, 확인과 등록이 한 번에 이루어진다)
+     * @return 등록했으면 true, 이미 접속 중이면 false
+     */
+    boolean add(String userId, String sessionId);
+
+    /**
+     * 사용자 세션 제거 (그 사이 같은 사용자가 다른 세션으로 들어왔으면 건드리지 않음)
+     */
+    void remove(String userId, String sessionId);
+
+    /**
+     * 사용자 세션 제거 (어느 노드의 세션이든)
+     * @return 제거된 세션 ID (없으면 null)
+     */
+    String removeUser(String userId);
+
+    boolean contains(String userId);
+
+    /**
+     * 접속자 수 (인원 수 브로드캐스트 주기마다 호출되므로 가벼워야 한다)
+     */
+    int count();
+
+    /**
+     * userId -> sessionId 전체 (디버깅용)
+     */
+    Map<String, String> findAll();
+}
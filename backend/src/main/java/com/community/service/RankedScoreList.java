@@ -0,0 +1,224 @@
+package com.community.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 순위표 하나 (사용자별 점수, 순위 순으로 정렬된 skip list)
+ * 각 링크에 건너뛰는 노드 수(span)를 함께 두어, 정렬과 함께 순위 계산/순위로 찾기도 O(log n)에 한다.
+ * 점수 변경은 노드를 뺐다가 새 위치에 다시 넣는다.
+ *
+ * 순서: 점수가 높은 순 -> 그 점수에 먼저 도달한 순 -> userId 순 (같은 순위 없음)
+ * 순위는 1부터.
+ *
+ * 스레드 안전하지 않다 (순위표 서비스가 잠금으로 감싸서 사용).
+ */
+public class RankedScoreList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_UP = 0.25;
+
+    public record Entry(int rank, String userId, String userName, long score, long updatedAt) {
+    }
+
+    private static final class Node {
+        final String userId;
+        String userName;
+        long score;
+        long updatedAt;
+        final Node[] next;
+        final int[] span;
+
+        Node(String userId, String userName, long score, long updatedAt, int level) {
+            this.userId = userId;
+            this.userName = userName;
+            this.score = score;
+            this.updatedAt = updatedAt;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(null, null, 0, 0, MAX_LEVEL);
+    private final Map<String, Node> byUser = new HashMap<>();
+    private int level = 1;
+
+    /**
+     * 점수 더하기 (처음이면 delta점으로 등록), 바뀐 점수를 반환
+     */
+    public long add(String userId, String userName, long delta, long updatedAt) {
+        Node node = byUser.get(userId);
+        long score = node == null ? delta : node.score + delta;
+        set(userId, userName != null ? userName : node != null ? node.userName : null, score, updatedAt);
+        return score;
+    }
+
+    /**
+     * 점수 지정 (저장된 순위표를 불러올 때)
+     */
+    public void set(String userId, String userName, long score, long updatedAt) {
+        Node node = byUser.get(userId);
+        if (node != null) {
+            unlink(node);
+        }
+        insert(userId, userName, score, updatedAt);
+    }
+
+    public boolean remove(String userId) {
+        Node node = byUser.get(userId);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public int size() {
+        return byUser.size();
+    }
+
+    public Entry get(String userId) {
+        Node node = byUser.get(userId);
+        return node == null ? null : entry(rank(node), node);
+    }
+
+    /**
+     * 순위 (1부터, 없으면 0)
+     */
+    public int rank(String userId) {
+        Node node = byUser.get(userId);
+        return node == null ? 0 : rank(node);
+    }
+
+    /**
+     * offset번째(0부터)부터 limit명
+     */
+    public List<Entry> range(int offset, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        if (offset < 0 || limit <= 0 || offset >= size()) {
+            return entries;
+        }
+        int rank = offset + 1;
+        for (Node node = byRank(rank); node != null && entries.size() < limit; node = node.next[0]) {
+            entries.add(entry(rank++, node));
+        }
+        return entries;
+    }
+
+    private static Entry entry(int rank, Node node) {
+        return new Entry(rank, node.userId, node.userName, node.score, node.updatedAt);
+    }
+
+    // node가 (score, updatedAt, userId)보다 앞 순위인지
+    private static boolean precedes(Node node, long score, long updatedAt, String userId) {
+        if (node.score != score) {
+            return node.score > score;
+        }
+        if (node.updatedAt != updatedAt) {
+            return node.updatedAt < updatedAt;
+        }
+        return node.userId.compareTo(userId) < 0;
+    }
+
+    private void insert(String userId, String userName, long score, long updatedAt) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] passed = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            passed[i] = i == level - 1 ? 0 : passed[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], score, updatedAt, userId)) {
+                passed[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                passed[i] = 0;
+                update[i] = head;
+                head.span[i] = byUser.size();
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(userId, userName, score, updatedAt, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (passed[0] - passed[i]);
+            update[i].span[i] = passed[0] - passed[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        byUser.put(userId, node);
+    }
+
+    private void unlink(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && precedes(x.next[i], node.score, node.updatedAt, node.userId)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        byUser.remove(node.userId);
+    }
+
+    private int rank(Node node) {
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == node
+                    || precedes(x.next[i], node.score, node.updatedAt, node.userId))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    private Node byRank(int rank) {
+        int passed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && passed + x.span[i] <= rank) {
+                passed += x.span[i];
+                x = x.next[i];
+            }
+            if (passed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextDouble() < LEVEL_UP) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
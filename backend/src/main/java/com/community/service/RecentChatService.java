@@ -0,0 +1,104 @@
+package com.community.service;
+
+import com.community.dto.ChatMessageDto;
+import com.community.dto.MinigameChatDto;
+import com.community.model.Message;
+import com.community.repository.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 최근 채팅 기록 (메모리)
+ * 광장 채팅과 미니게임 방 채팅의 최근 N개를 {@link RecentMessageRing}에 두고,
+ * 새로 들어온 사람에게 DB를 거치지 않고 한 번에 보낸다.
+ *
+ * - 광장: 시작할 때 DB에서 최근 plaza.chat.history.size개를 읽어 채우고, 이후에는 보낼 때마다 추가
+ * - 미니게임 방: 저장하지 않는 채팅이므로 메모리에만 두고, 방이 삭제되면 함께 지운다
+ */
+@Service
+@Slf4j
+public class RecentChatService {
+
+    public static final String PLAZA_CHANNEL = "plaza";
+
+    private final MessageRepository messageRepository;
+    private final int plazaSize;
+    private final int roomSize;
+
+    private final RecentMessageRing<ChatMessageDto> plaza;
+
+    // roomId -> 방 채팅 기록
+    private final Map<String, RecentMessageRing<MinigameChatDto>> rooms = new ConcurrentHashMap<>();
+
+    public RecentChatService(MessageRepository messageRepository,
+                             @Value("${plaza.chat.history.size:50}") int plazaSize,
+                             @Value("${plaza.chat.history.room-size:30}") int roomSize) {
+        this.messageRepository = messageRepository;
+        this.plazaSize = plazaSize;
+        this.roomSize = roomSize;
+        this.plaza = new RecentMessageRing<>(plazaSize);
+    }
+
+    @PostConstruct
+    public void loadPlazaHistory() {
+        // STOMP 연결을 받기 전에 채우므로 새 메시지보다 먼저 들어간다
+        try {
+            List<Message> latest = messageRepository.findLatestPlazaMessagesWithSender(PageRequest.of(0, plazaSize));
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                plaza.add(toChatMessage(latest.get(i)));
+            }
+            log.info("Loaded {} recent plaza messages", latest.size());
+        } catch (Exception e) {
+            // 기록이 없어도 채팅은 동작한다
+            log.error("Failed to load recent plaza messages", e);
+        }
+    }
+
+    public void addPlaza(ChatMessageDto message) {
+        plaza.add(message);
+    }
+
+    public List<ChatMessageDto> getPlazaHistory() {
+        return plaza.snapshot();
+    }
+
+    /**
+     * 관리자가 삭제한 광장 메시지를 기록에서도 지움 (비동기 저장이라 기록에는 메시지 ID가 없으므로 송신자와 내용으로 찾는다)
+     */
+    public void removePlaza(Long senderId, String content) {
+        String userId = String.valueOf(senderId);
+        plaza.removeIf(message -> userId.equals(message.getUserId()) && Objects.equals(content, message.getMessage()));
+    }
+
+    public void addRoom(MinigameChatDto message) {
+        rooms.computeIfAbsent(message.getRoomId(), id -> new RecentMessageRing<>(roomSize)).add(message);
+    }
+
+    public List<MinigameChatDto> getRoomHistory(String roomId) {
+        RecentMessageRing<MinigameChatDto> ring = rooms.get(roomId);
+        return ring != null ? ring.snapshot() : List.of();
+    }
+
+    public void removeRoom(String roomId) {
+        rooms.remove(roomId);
+    }
+
+    private static ChatMessageDto toChatMessage(Message message) {
+        return new ChatMessageDto(
+                String.valueOf(message.getSender().getId()),
+                message.getSender().getUsername(),
+                message.getContent(),
+                message.getCreatedAt() != null
+                        ? message.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : null);
+    }
+}
@@ -0,0 +1,82 @@
+package com.community.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * 최근 메시지 N개를 보관하는 고정 크기 링 버퍼 (lock 없음)
+ * 쓰는 쪽은 번호 하나를 받아 그 칸에 더 오래된 번호가 있을 때만 덮어쓰고, 읽는 쪽은 칸에 적힌 번호로 아직 안 쓰였거나 덮어쓰인 칸을 걸러낸다.
+ * 여러 스레드가 동시에 추가/조회해도 되며, 조회 결과는 번호 순서(오래된 것부터)이다.
+ */
+public class RecentMessageRing<T> {
+
+    private record Slot<T>(long sequence, T message) {
+    }
+
+    private final int capacity;
+    private final AtomicReferenceArray<Slot<T>> slots;
+
+    // 다음에 쓸 번호 (지금까지 추가된 메시지 수)
+    private final AtomicLong next = new AtomicLong();
+
+    public RecentMessageRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(T message) {
+        long sequence = next.getAndIncrement();
+        int index = (int) (sequence % capacity);
+        Slot<T> slot = new Slot<>(sequence, message);
+        // 늦게 끝난 쓰기가 더 새로운 번호(sequence + capacity 이상)가 이미 쓴 칸을 덮지 않도록 CAS로 바꿈
+        while (true) {
+            Slot<T> current = slots.get(index);
+            if (current != null && current.sequence() > sequence) {
+                return; // 이미 밀려난 메시지
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 보관 중인 메시지 (오래된 것부터, 최대 capacity개)
+     * 조회 중에 추가된 메시지는 빠질 수 있다.
+     */
+    public List<T> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        List<T> result = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Slot<T> slot = slots.get((int) (sequence % capacity));
+            // 아직 안 쓰였거나(번호만 받은 상태) 그 사이 새 메시지로 덮어쓰였으면 건너뜀
+            if (slot != null && slot.sequence() == sequence && slot.message() != null) {
+                result.add(slot.message());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 조건에 맞는 메시지를 지움 (관리자 삭제 등, 칸은 비운 채로 남는다)
+     * @return 지운 메시지 수
+     */
+    public int removeIf(Predicate<T> filter) {
+        int removed = 0;
+        for (int i = 0; i < capacity; i++) {
+            Slot<T> slot = slots.get(i);
+            if (slot != null && slot.message() != null && filter.test(slot.message())
+                    && slots.compareAndSet(i, slot, new Slot<>(slot.sequence(), null))) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,205 @@
+package com.community.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMP 세션별 송신 대기열 관리 (느린 클라이언트 대응)
+ * 대기열 = clientOutboundChannel에 들어왔지만 아직 소켓에 쓰이지 않은 메시지 수
+ *
+ * - 위치 스냅샷: 최신 것만 유지 (이전 스냅샷이 아직 세션에 넘어가지 않았으면 새 스냅샷은 버리거나 오래된 것을 건너뜀)
+ * - 채팅/게임 이벤트: websocket.backpressure.max-queued 까지 쌓고, 넘으면 세션을 끊는다
+ */
+@Service
+@Slf4j
+public class WebSocketBackpressureService {
+
+    private final int maxQueued;
+
+    // sessionId -> 송신 상태
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+
+    private final DistributionSummary queueDepth;
+    private final Counter droppedSnapshots;
+    private final Counter slowConsumerDisconnects;
+
+    public WebSocketBackpressureService(MeterRegistry meterRegistry,
+                                        @Value("${websocket.backpressure.max-queued:256}") int maxQueued) {
+        this.maxQueued = maxQueued;
+        this.queueDepth = DistributionSummary.builder("websocket.outbound.session.queue")
+                .description("메시지를 넣을 때 세션의 송신 대기 메시지 수")
+                .register(meterRegistry);
+        this.droppedSnapshots = Counter.builder("websocket.outbound.snapshots.dropped")
+                .description("더 새로운 스냅샷이 있어 버린 위치 스냅샷 수")
+                .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("websocket.outbound.slow.disconnects")
+                .description("송신 대기열 초과로 끊은 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.session.queue.max", sessions, WebSocketBackpressureService::maxDepth)
+                .description("세션 송신 대기 메시지 수의 현재 최댓값")
+                .register(meterRegistry);
+    }
+
+    private static final class SessionState {
+        final WebSocketSession session;
+        final AtomicInteger queued = new AtomicInteger();
+        // 마지막으로 들어온 스냅샷 번호 (이보다 오래된 스냅샷은 보내지 않음)
+        final AtomicLong latestSnapshot = new AtomicLong();
+        // 통과시켰지만 아직 세션에 넘기지 못한 스냅샷 수
+        final AtomicInteger snapshotsInFlight = new AtomicInteger();
+
+        SessionState(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * 소켓 쓰기가 끝날 때 대기열을 줄이는 세션 래퍼
+     * SubProtocolWebSocketHandler가 이 세션을 다시 ConcurrentWebSocketSessionDecorator로 감싸므로 쓰기는 한 번에 하나씩 들어온다.
+     */
+    private final class TrackingSession extends WebSocketSessionDecorator {
+
+        TrackingSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                // STOMP heartbeat("\n")는 clientOutboundChannel을 거치지만 접수할 때 세지 않으므로 여기서도 빼지 않는다
+                // (OutboundBackpressureInterceptor가 HEARTBEAT 메시지를 건너뜀)
+                if (message.getPayloadLength() > 1) {
+                    SessionState state = sessions.get(getId());
+                    if (state != null) {
+                        decrement(state.queued);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 연결 시 세션 등록
+     * @return 송신 추적용으로 감싼 세션
+     */
+    public WebSocketSession track(WebSocketSession session) {
+        WebSocketSession tracking = new TrackingSession(session);
+        sessions.put(session.getId(), new SessionState(tracking));
+        return tracking;
+    }
+
+    public void untrack(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /**
+     * 채팅/게임 이벤트 등 일반 메시지 접수
+     * @return 대기열이 넘쳐서 세션을 끊었으면 false (메시지는 버림)
+     */
+    public boolean offer(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null) {
+            return true;
+        }
+        int depth = state.queued.incrementAndGet();
+        queueDepth.record(depth);
+        if (depth <= maxQueued) {
+            return true;
+        }
+        decrement(state.queued);
+        if (sessions.remove(sessionId, state)) {
+            slowConsumerDisconnects.increment();
+            log.warn("Slow WebSocket consumer disconnected: session={}, queued={}", sessionId, depth);
+            try {
+                state.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException e) {
+                log.debug("Failed to close slow session {}: {}", sessionId, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 위치 스냅샷 접수
+     * @return 스냅샷 번호 (송신 직전 {@link #isLatestSnapshot}로 확인), 추적하지 않는 세션이면 0
+     */
+    public long offerSnapshot(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null) {
+            return 0;
+        }
+        queueDepth.record(state.queued.incrementAndGet());
+        return state.latestSnapshot.incrementAndGet();
+    }
+
+    /**
+     * 송신 직전 확인: 더 새로운 스냅샷이 들어왔거나 앞선 스냅샷이 아직 세션에 넘어가지 않았으면 버린다
+     * (compact 스냅샷은 클라이언트가 ack한 baseline 기준이라 중간 것을 건너뛰어도 다음 것으로 맞춰지고,
+     * JSON 스냅샷은 움직인 플레이어의 최신 위치라 다음 틱 스냅샷이 대신한다)
+     */
+    public boolean isLatestSnapshot(String sessionId, long sequence) {
+        SessionState state = sessions.get(sessionId);
+        if (state == null || sequence == 0) {
+            return true;
+        }
+        if (sequence == state.latestSnapshot.get() && state.snapshotsInFlight.compareAndSet(0, 1)) {
+            return true;
+        }
+        decrement(state.queued);
+        droppedSnapshots.increment();
+        return false;
+    }
+
+    /**
+     * 통과시킨 스냅샷의 처리가 끝났을 때 호출
+     * @param delivered 세션에 넘겼으면 true (대기열은 소켓에 쓸 때 줄어듦), 실패했으면 false (여기서 줄임)
+     */
+    public void snapshotHandled(String sessionId, boolean delivered) {
+        SessionState state = sessions.get(sessionId);
+        if (state != null) {
+            decrement(state.snapshotsInFlight);
+            if (!delivered) {
+                decrement(state.queued);
+            }
+        }
+    }
+
+    /**
+     * 일반 메시지를 세션에 넘기지 못했을 때 호출 (소켓 쓰기가 일어나지 않으므로 직접 정리)
+     */
+    public void sendFailed(String sessionId) {
+        SessionState state = sessions.get(sessionId);
+        if (state != null) {
+            decrement(state.queued);
+        }
+    }
+
+    private static void decrement(AtomicInteger counter) {
+        counter.updateAndGet(value -> value > 0 ? value - 1 : 0);
+    }
+
+    private static double maxDepth(Map<String, SessionState> sessions) {
+        int max = 0;
+        for (SessionState state : sessions.values()) {
+            max = Math.max(max, state.queued.get());
+        }
+        return max;
+    }
+}
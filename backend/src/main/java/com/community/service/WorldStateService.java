@@ -0,0 +1,138 @@
+package com.community.service;
+
+import com.community.dto.PlayerPositionDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 광장 월드 상태 (서버 기준 플레이어 상태)
+ * 접속 중인 플레이어마다 마지막 위치/회전/애니메이션/아바타를 보관한다.
+ * 플레이어당 항목 하나를 만들어 두고 업데이트마다 값만 덮어쓰므로 위치 업데이트 시 새 객체를 만들지 않는다.
+ *
+ * 새로 입장한 플레이어는 다른 플레이어가 움직일 때까지 기다리지 않고 이 상태로 한 번에 받는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorldStateService {
+
+    private final ActiveUserService activeUserService;
+
+    // userId -> 플레이어 상태
+    private final Map<String, PlayerState> players = new ConcurrentHashMap<>();
+
+    /**
+     * 플레이어 한 명의 상태 (항목 단위로 동기화, 같은 사용자의 업데이트끼리만 경합)
+     */
+    private static final class PlayerState {
+        private final String userId;
+        private String username;
+        private double x;
+        private double y;
+        private double z;
+        private double rotationY;
+        private String animation;
+        private String modelPath;
+        private boolean changingAvatar;
+        private String currentRoomId;
+        private long timestamp;
+
+        PlayerState(String userId) {
+            this.userId = userId;
+        }
+
+        synchronized void update(PlayerPositionDto position) {
+            username = position.getUsername();
+            x = valueOf(position.getX());
+            y = valueOf(position.getY());
+            z = valueOf(position.getZ());
+            rotationY = valueOf(position.getRotationY());
+            animation = position.getAnimation();
+            modelPath = position.getModelPath();
+            changingAvatar = Boolean.TRUE.equals(position.getIsChangingAvatar());
+            currentRoomId = position.getCurrentRoomId();
+            timestamp = position.getTimestamp() != null ? position.getTimestamp() : System.currentTimeMillis();
+        }
+
+        synchronized PlayerPositionDto toDto() {
+            PlayerPositionDto dto = new PlayerPositionDto();
+            dto.setUserId(userId);
+            dto.setUsername(username);
+            dto.setX(x);
+            dto.setY(y);
+            dto.setZ(z);
+            dto.setRotationY(rotationY);
+            dto.setAnimation(animation);
+            dto.setModelPath(modelPath);
+            dto.setIsChangingAvatar(changingAvatar);
+            dto.setCurrentRoomId(currentRoomId);
+            dto.setTimestamp(timestamp);
+            return dto;
+        }
+
+        private static double valueOf(Double value) {
+            return value != null ? value : 0.0;
+        }
+    }
+
+    /**
+     * 위치 업데이트 반영 (입장하지 않은 사용자의 업데이트는 무시)
+     */
+    public void update(PlayerPositionDto position) {
+        String userId = position.getUserId();
+        if (userId == null || !activeUserService.isConnectedHere(userId)) {
+            return;
+        }
+        players.computeIfAbsent(userId, PlayerState::new).update(position);
+
+        // 업데이트 도중 접속이 끊겼으면 남은 항목 정리
+        if (!activeUserService.isConnectedHere(userId)) {
+            players.remove(userId);
+        }
+    }
+
+    /**
+     * 플레이어 제거 (접속 종료 시)
+     */
+    public void remove(String userId) {
+        if (userId != null) {
+            players.remove(userId);
+        }
+    }
+
+    /**
+     * 플레이어 한 명의 마지막 상태
+     * @return 위치를 보낸 적이 없으면 null
+     */
+    public PlayerPositionDto get(String userId) {
+        PlayerState state = players.get(userId);
+        return state != null ? state.toDto() : null;
+    }
+
+    /**
+     * 조건에 맞는 플레이어들의 현재 상태
+     * @param excludeUserId 제외할 플레이어 (보통 요청한 본인)
+     */
+    public List<PlayerPositionDto> snapshot(String excludeUserId, Predicate<PlayerPositionDto> filter) {
+        List<PlayerPositionDto> result = new ArrayList<>(players.size());
+        for (PlayerState state : players.values()) {
+            if (state.userId.equals(excludeUserId)) {
+                continue;
+            }
+            PlayerPositionDto dto = state.toDto();
+            if (filter.test(dto)) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return players.size();
+    }
+}
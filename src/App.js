@@ -866,6 +866,15 @@ function App() {
       setPlayerLeaveEvent({ ...data, timestamp: Date.now() });
     });
 
+    // 관심 반경 밖으로 나간 플레이어는 화면에서만 제거 (퇴장 알림 없음)
+    multiplayerService.onPlayerOutOfRange((data) => {
+      setOtherPlayers((prev) => {
+        const updated = { ...prev };
+        delete updated[data.userId];
+        return updated;
+      });
+    });
+
     multiplayerService.onPositionUpdate((data) => {
       setOtherPlayers((prev) => ({
         ...prev,
@@ -96,12 +96,24 @@ export default function AimingGame({ roomId, isHost, userProfile, players = [],
       }
     };
 
+    // 판 상태 스냅샷 (이후 이벤트는 gameEvent로 이어서 들어옴)
+    const syncHandler = (sync) => {
+      if (!sync || sync.roomId !== roomId || !sync.snapshot) return;
+      const snapshotTargets = sync.snapshot.targets || [];
+      setTargets(Object.fromEntries(snapshotTargets.map(target => [target.id, target])));
+      setScores(prev => ({ ...prev, ...(sync.snapshot.scores || {}) }));
+    };
+
     minigameService.on('gameEvent', handler);
+    minigameService.on('gameSync', syncHandler);
 
     // Mount 시 현재 게임 상태 요청 (중간 입장/새로고침 대비)
     minigameService.requestGameState(roomId);
 
-    return () => minigameService.off('gameEvent', handler);
+    return () => {
+      minigameService.off('gameEvent', handler);
+      minigameService.off('gameSync', syncHandler);
+    };
   }, [roomId]);
 
   const handleTargetClick = (targetId) => {
@@ -7,6 +7,9 @@ import minigameService from '../../../services/minigameService';
 import AimingGame from './AimingGame';
 import OmokGame from './OmokGame';
 
+// 빠른 매칭을 지원하는 게임 (화면 이름 -> 서버 게임 이름)
+const QUICK_MATCH_GAMES = { '오목': '오목', '에임 맞추기': '에임 맞추기', '반응속도': 'Reaction Race' };
+
 function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lobby', initialRoomId = null, gpsLocation = null }) {
     const hasJoinedInitialRoom = useRef(false); // 초기 방 입장 여부 추적
     const [currentView, setCurrentView] = useState(initialMode === 'create' ? 'create' : 'lobby');
@@ -16,6 +19,7 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
     const [isLoadingFriends, setIsLoadingFriends] = useState(true);
     const [showFriendInviteModal, setShowFriendInviteModal] = useState(false);
     const [inviteNotification, setInviteNotification] = useState(null);
+    const [matchStatus, setMatchStatus] = useState(null); // 빠른 매칭 대기 중이면 queued 응답
     const [roomForm, setRoomForm] = useState({ roomName: '', gameType: '오목', maxPlayers: 2, isPrivate: false });
     const [pendingRoomId, setPendingRoomId] = useState(initialRoomId);
     const [showRoomSettingsModal, setShowRoomSettingsModal] = useState(false);
@@ -94,8 +98,8 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                 minigameService.requestRoomsList();
             });
         } else {
-            // 이미 연결되어 있으면 바로 방 목록 요청
-            minigameService.requestRoomsList();
+            // 이미 연결되어 있으면 서비스가 변경으로 최신 상태를 유지 중인 방 목록을 바로 사용
+            setRooms(minigameService.getRooms());
         }
 
         const onRoomsList = (roomsList) => {
@@ -138,36 +142,7 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                 return; // 팝업 확인 전까지 방 업데이트 보류
             }
 
-            // 방 목록 업데이트 (중복 방지 강화)
-            setRooms(prev => {
-                const existingIndex = prev.findIndex(r => r.roomId === roomData.roomId);
-
-                if (roomData.action === 'delete' || roomData.isDeleted) {
-                    // 방 삭제
-                    console.log('Removing room from list:', roomData.roomId);
-                    return prev.filter(r => r.roomId !== roomData.roomId);
-                } else if (existingIndex !== -1) {
-                    // 기존 방 업데이트 (create 액션이어도 이미 존재하면 업데이트만)
-                    console.log('Updating existing room:', roomData.roomId);
-                    const newRooms = [...prev];
-                    newRooms[existingIndex] = roomData;
-                    return newRooms;
-                } else if (roomData.action === 'create') {
-                    // 새로운 방 추가 (존재하지 않을 때만)
-                    console.log('Adding new room to list:', roomData.roomId);
-                    return [...prev, roomData];
-                } else {
-                    // action이 'create'가 아니고 방이 존재하지 않으면 추가하지 않음
-                    console.warn('Unknown room update without create action:', roomData);
-                    return prev;
-                }
-            });
-
-            // 현재 있는 방이 업데이트된 경우
-            if (currentRoom && roomData.roomId === currentRoom.roomId) {
-                setCurrentRoom(roomData);
-            }
-
+            // 방 목록은 roomsList(방 요약 변경)로 갱신되고, 여기로는 내가 만든 방의 전체 정보만 온다
             // 방을 생성한 본인인 경우 대기방으로 이동
             if (roomData.action === 'create' && String(roomData.hostId) === String(userProfile?.id)) {
                 minigameService.subscribeToRoom(roomData.roomId);
@@ -212,6 +187,15 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                 setRoomChatMessages(prev => [...prev, chatData]);
             }
         };
+        const onMatchResult = (result) => {
+            setMatchStatus(result.status === 'queued' ? result : null);
+            if (result.status === 'matched' && result.room) {
+                setCurrentRoom(result.room);
+                setCurrentView('waiting');
+            } else if (result.status === 'timeout') {
+                setInviteNotification({ type: 'error', message: '매칭할 상대를 찾지 못했습니다. 다시 시도해주세요.' });
+            }
+        };
         const onJoinResult = (result) => {
             console.log('joinResult received:', result);
 
@@ -235,12 +219,14 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
         minigameService.on('gameEvent', onGameEvent);
         minigameService.on('roomChat', onRoomChat);
         minigameService.on('joinResult', onJoinResult);
+        minigameService.on('matchResult', onMatchResult);
         return () => {
             minigameService.off('roomUpdate', onRoomUpdate);
             minigameService.off('roomJoin', onRoomJoin);
             minigameService.off('gameEvent', onGameEvent);
             minigameService.off('roomChat', onRoomChat);
             minigameService.off('joinResult', onJoinResult);
+            minigameService.off('matchResult', onMatchResult);
         };
     }, [currentRoom, userProfile]);
 
@@ -277,7 +263,7 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                 // WebSocket 재연결 성공 - 현재 방이 있으면 다시 구독
                 if (currentRoom?.roomId) {
                     minigameService.subscribeToRoom(currentRoom.roomId);
-                    minigameService.requestRoomsList(); // 방 목록도 다시 요청
+                    // 방 목록은 재연결 시 서비스가 스냅샷을 다시 받음
                 }
 
                 // 5초 후에 로딩 화면 숨김
@@ -334,6 +320,18 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
         setTimeout(() => setIsJoiningRoom(false), 1000);
     };
     const handleCreateRoom = () => setCurrentView('create');
+    const handleQuickMatch = () => {
+        if (matchStatus) {
+            minigameService.cancelMatch();
+            return;
+        }
+        minigameService.requestMatch(QUICK_MATCH_GAMES[roomForm.gameType] || '오목', {
+            level: userProfile?.level || 1,
+            selectedProfile: userProfile?.selectedProfile?.imagePath,
+            selectedOutline: userProfile?.selectedOutline?.imagePath,
+            gpsLocation
+        });
+    };
     const handleCancelCreateRoom = () => setCurrentView('lobby');
     const handleFormChange = (field, value) => {
         setRoomForm(prev => ({ ...prev, [field]: value, ...(field === 'gameType' && { maxPlayers: gameTypes.find(g => g.name === value)?.maxPlayers[0] || 2 }) }));
@@ -616,7 +614,7 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                                         <FaUsers />
                                         <span>{room.currentPlayers}/{room.maxPlayers}</span>
                                         <span className="spectator-count">
-                                            (관전 {room.spectators?.length || 0})
+                                            (관전 {room.spectatorCount || 0})
                                         </span>
                                     </div>
                                 </div>
@@ -645,7 +643,7 @@ function MinigameModal({ onClose, userProfile, onlinePlayers, initialMode = 'lob
                 <div className="minigame-sidebar">
                     <div className="sidebar-profile"><ProfileAvatar profileImage={userProfile?.selectedProfile} outlineImage={userProfile?.selectedOutline} size={100} /><div className="profile-username">{userProfile?.username || '게스트'}</div><div className="profile-level">Lv. {userProfile?.level || 1}</div></div>
                     {currentView !== 'waiting' ? (
-                        <div className="sidebar-nav-buttons"><button className={`nav-btn ${currentView === 'lobby' ? 'active' : ''}`} onClick={() => setCurrentView('lobby')}><FaDoorOpen /><span>로비</span></button><button className={`nav-btn ${currentView === 'create' ? 'active' : ''}`} onClick={handleCreateRoom}><FaPlus /><span>방 만들기</span></button></div>
+                        <div className="sidebar-nav-buttons"><button className={`nav-btn ${currentView === 'lobby' ? 'active' : ''}`} onClick={() => setCurrentView('lobby')}><FaDoorOpen /><span>로비</span></button><button className={`nav-btn ${currentView === 'create' ? 'active' : ''}`} onClick={handleCreateRoom}><FaPlus /><span>방 만들기</span></button><button className={`nav-btn ${matchStatus ? 'active' : ''}`} onClick={handleQuickMatch}><FaGamepad /><span>{matchStatus ? '매칭 취소' : '빠른 매칭'}</span></button></div>
                     ) : (
                         <div className="sidebar-nav-buttons"><button className="leave-room-btn" onClick={handleLeaveRoom}><FaTimes /><span>방 나가기</span></button></div>
                     )}
@@ -4,6 +4,15 @@ import './OmokGame.css';
 
 const BOARD_SIZE = 15;
 
+// 서버가 거부한 수의 이유 (omokMoveRejected payload)
+const MOVE_REJECT_MESSAGES = {
+  NOT_YOUR_TURN: '지금은 당신의 차례가 아닙니다',
+  OCCUPIED: '이미 돌이 놓인 자리입니다',
+  OUT_OF_RANGE: '판 밖의 자리입니다',
+  NOT_A_PLAYER: '이 게임의 플레이어가 아닙니다',
+  GAME_OVER: '이미 끝난 게임입니다'
+};
+
 const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
   const [board, setBoard] = useState(Array(BOARD_SIZE * BOARD_SIZE).fill(null));
   const [moveCount, setMoveCount] = useState(0); // 전체 이동 카운트 (턴의 근원)
@@ -12,6 +21,8 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
   const [timerSeconds, setTimerSeconds] = useState(15); // 턴 타이머
   const [rematchRequests, setRematchRequests] = useState(new Set()); // 다시하기 요청한 플레이어들
   const [waitingForRematch, setWaitingForRematch] = useState(false); // 상대방 응답 대기 중
+  const [pendingMove, setPendingMove] = useState(false); // 보낸 수의 서버 응답 대기 중 (그동안 다시 두지 않음)
+  const [moveError, setMoveError] = useState(null); // 서버가 거부한 수의 이유
   const processedMovesRef = React.useRef(new Set()); // 중복 처리 방지
   const gameStartedRef = React.useRef(false); // 게임 시작 여부
 
@@ -79,26 +90,30 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
           }
           processedMovesRef.current.add(moveKey);
 
-          // 오목 움직임 처리
+          // 서버가 받아들인 수만 판에 반영 (승패는 서버의 gameEnd로만 결정)
           setBoard(prevBoard => {
             const newBoard = [...prevBoard];
             const playerIndex = players.findIndex(p => p.userId === evt.playerId);
-            const playerSymbol = playerIndex === 0 ? 1 : 2;
-            newBoard[evt.position] = playerSymbol;
-
-            const row = Math.floor(evt.position / BOARD_SIZE);
-            const col = evt.position % BOARD_SIZE;
-
-            if (checkWin(newBoard, row, col, playerSymbol)) {
-              setGameStatus('ended');
-              setWinner(evt.playerId);
-            }
-
+            newBoard[evt.position] = playerIndex === 0 ? 1 : 2;
             return newBoard;
           });
 
           // moveCount 증가 (모든 클라이언트가 동기화)
           setMoveCount(prev => prev + 1);
+          setPendingMove(false);
+          setMoveError(null);
+          break;
+        }
+
+        case 'omokMoveRejected': {
+          // 내가 둔 수가 거부됨 - 이유를 보여주고 다시 둘 수 있게 함
+          if (!userProfile || String(evt.playerId) !== String(userProfile.id)) break;
+          setPendingMove(false);
+          setMoveError(MOVE_REJECT_MESSAGES[evt.payload] || '둘 수 없는 자리입니다');
+          // 차례/판이 어긋났을 수 있으므로 서버 상태로 다시 맞춤
+          if (evt.payload === 'NOT_YOUR_TURN' || evt.payload === 'OCCUPIED') {
+            minigameService.requestGameState(roomId);
+          }
           break;
         }
 
@@ -123,6 +138,8 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
           setWinner(null);
           setRematchRequests(new Set());
           setWaitingForRematch(false);
+          setPendingMove(false);
+          setMoveError(null);
           processedMovesRef.current.clear();
           gameStartedRef.current = true;
           break;
@@ -131,6 +148,7 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
         case 'gameEnd':
           setGameStatus('ended');
           setWinner(evt.winnerId);
+          setPendingMove(false);
           break;
 
         default:
@@ -138,61 +156,37 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
       }
     };
 
-    minigameService.on('gameEvent', handler);
-
-    return () => minigameService.off('gameEvent', handler);
-  }, [roomId, players]);
-
-  // 인접한 5개 돌 확인 (오목 판정)
-  const checkWin = (newBoard, row, col, player) => {
-    const directions = [
-      [0, 1], // 가로
-      [1, 0], // 세로
-      [1, 1], // 대각선 \
-      [1, -1], // 대각선 /
-    ];
-
-    for (let [dx, dy] of directions) {
-      let count = 1;
-
-      // 양방향 확인
-      for (let i = 1; i < 5; i++) {
-        const nr = row + dx * i;
-        const nc = col + dy * i;
-        if (nr >= 0 && nr < BOARD_SIZE && nc >= 0 && nc < BOARD_SIZE) {
-          if (newBoard[nr * BOARD_SIZE + nc] === player) {
-            count++;
-          } else {
-            break;
-          }
-        } else {
-          break;
-        }
+    // 판 상태 스냅샷 (재접속/새로고침, 이후 수는 gameEvent로 이어서 들어옴)
+    const syncHandler = (sync) => {
+      if (!sync || sync.roomId !== roomId || !sync.snapshot || !sync.snapshot.board) return;
+      const snapshot = sync.snapshot;
+      setBoard(snapshot.board.map(cell => (cell === 0 ? null : cell)));
+      setMoveCount(snapshot.moveCount);
+      setTimerSeconds(snapshot.remainingSeconds);
+      setPendingMove(false);
+      processedMovesRef.current.clear();
+      if (snapshot.finished) {
+        setGameStatus('ended');
+        setWinner(snapshot.winnerId || null);
       }
+    };
 
-      for (let i = 1; i < 5; i++) {
-        const nr = row - dx * i;
-        const nc = col - dy * i;
-        if (nr >= 0 && nr < BOARD_SIZE && nc >= 0 && nc < BOARD_SIZE) {
-          if (newBoard[nr * BOARD_SIZE + nc] === player) {
-            count++;
-          } else {
-            break;
-          }
-        } else {
-          break;
-        }
-      }
+    minigameService.on('gameEvent', handler);
+    minigameService.on('gameSync', syncHandler);
 
-      if (count >= 5) {
-        return true;
-      }
-    }
-    return false;
-  };
+    return () => {
+      minigameService.off('gameEvent', handler);
+      minigameService.off('gameSync', syncHandler);
+    };
+  }, [roomId, players, userProfile]);
+
+  // Mount 시 현재 판 상태 요청 (중간 입장/새로고침 대비)
+  useEffect(() => {
+    minigameService.requestGameState(roomId);
+  }, [roomId]);
 
   const handleBoardClick = (index) => {
-    if (gameStatus !== 'playing') return;
+    if (gameStatus !== 'playing' || pendingMove) return;
 
     const myPlayerIndex = getMyPlayerIndex();
     const currentTurn = moveCount % players.length;
@@ -206,7 +200,9 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
       return;
     }
 
-    // 백엔드에 이벤트 전송. 백엔드가 진실의 근원(source of truth)
+    // 백엔드에 이벤트 전송. 백엔드가 진실의 근원(source of truth) - omokMove/omokMoveRejected가 올 때까지 잠금
+    setPendingMove(true);
+    setMoveError(null);
     minigameService.sendGameEvent(roomId, {
       type: 'omokMove',
       position: index,
@@ -254,6 +250,9 @@ const OmokGame = ({ roomId, isHost, userProfile, players = [], onGameEnd }) => {
             {isMyTurn ? '🎮 당신의 차례' : '⏳ 상대방 차례'}
           </div>
         )}
+        {gameStatus === 'playing' && moveError && (
+          <div className="omok-move-error">{moveError}</div>
+        )}
       </div>
 
       <div className="omok-game-content">
@@ -209,6 +209,8 @@ function MapGamePageNew({ onShowCreateRoom, onShowLobby }) {
     const unsubJoin = multiplayerService.onPlayerJoin(handlePlayerJoin);
     const unsubLeave = multiplayerService.onPlayerLeave(handlePlayerLeave);
     const unsubPosition = multiplayerService.onPositionUpdate(handlePositionUpdate);
+    // 관심 반경 밖으로 나간 플레이어는 퇴장과 동일하게 화면에서 제거
+    const unsubOutOfRange = multiplayerService.onPlayerOutOfRange(handlePlayerLeave);
 
     // 방 업데이트 콜백
     const handleRoomUpdate = (data) => {
@@ -288,6 +290,7 @@ function MapGamePageNew({ onShowCreateRoom, onShowLobby }) {
       unsubJoin?.();
       unsubLeave?.();
       unsubPosition?.();
+      unsubOutOfRange?.();
       unsubRoom?.();
       // 연결 해제는 하지 않음 (메인에서 관리)
     };
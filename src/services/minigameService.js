@@ -1,6 +1,11 @@
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 
+const ROOM_PAGE_SIZE = 50; // 방 목록 스냅샷 한 페이지 크기
+const CLOCK_SYNC_BURST = 5;             // 연결 직후 시계 맞추기 ping 수
+const CLOCK_SYNC_BURST_GAP_MS = 300;    // 연결 직후 ping 간격
+const CLOCK_SYNC_INTERVAL_MS = 15000;   // 이후 ping 간격
+
 class MinigameService {
   constructor() {
     this.client = null;
@@ -10,9 +15,24 @@ class MinigameService {
     this.currentRoomId = null;
     this.subscribedRooms = new Set(); // 구독한 방 ID 추적
 
+    // 로비 방 목록: 스냅샷을 한 번 받고 이후에는 서버가 보내는 변경(add/update/remove)만 적용
+    this.roomDirectory = new Map(); // roomId -> 방 요약 (참가자 목록 없음)
+    this.roomSequence = 0;          // 마지막으로 적용한 변경 번호
+    this.roomSnapshot = null;       // 스냅샷 페이지를 받는 중 { rooms, deltas(그 사이 받은 변경) }
+    this.roomSyncPending = false;
+
+    // 시계 맞추기: 서버가 응답 시각으로 시계 차이/지연을 추정해 명중/반응 판정을 보정함
+    this.clockTimers = [];
+    this.lastClockPong = null; // { clientSendTs, receivedAt } 다음 ping에 함께 보냄
+    this.clockOffset = 0;      // 서버 시계 - 내 시계 (서버 추정치)
+    this.rtt = null;
+
     // Event Listeners (Map<EventType, Set<Callback>>)
     this.listeners = {
       roomsList: new Set(),
+      nearbyRooms: new Set(), // 근처 방 검색 결과 (requestNearbyRooms 응답)
+      matchResult: new Set(), // 빠른 매칭 상태 (queued, matched, cancelled, timeout, rejected)
+      leaderboard: new Set(), // 순위표 (requestLeaderboard 응답)
       roomUpdate: new Set(),
       roomJoin: new Set(),
       roomLeave: new Set(),
@@ -20,6 +40,7 @@ class MinigameService {
       roomDelete: new Set(),
       gameInvite: new Set(),
       gameEvent: new Set(),
+      gameSync: new Set(), // 재접속 시 판 상태 스냅샷
       joinResult: new Set(),
       connectionStatus: new Set() // 연결 상태 변경 이벤트
     };
@@ -62,21 +83,41 @@ class MinigameService {
           this.connected = true;
           this.emit('connectionStatus', { connected: true }); // 연결 상태 전달
 
-          // 방 목록 업데이트 구독
-          this.client.subscribe('/topic/minigame/rooms', (message) => {
+          // 방 목록 변경 구독 (방 요약만, 번호 순)
+          this.client.subscribe('/topic/minigame/rooms.delta', (message) => {
+            this.handleRoomDelta(JSON.parse(message.body));
+          });
+
+          // 방 목록 스냅샷 페이지 (requestRoomsList 응답)
+          this.client.subscribe('/topic/minigame/rooms-list/' + this.userId, (message) => {
+            this.handleRoomsSnapshot(JSON.parse(message.body));
+          });
+
+          // 빠진 변경 (requestRoomsSync 응답)
+          this.client.subscribe('/topic/minigame/rooms-sync/' + this.userId, (message) => {
+            this.handleRoomsSync(JSON.parse(message.body));
+          });
+
+          // 근처 방 검색 결과
+          this.client.subscribe('/topic/minigame/rooms-nearby/' + this.userId, (message) => {
             const data = JSON.parse(message.body);
+            this.emit('nearbyRooms', data);
+          });
 
-            if (data.action === 'create' || data.action === 'update' || data.action === 'join' || data.action === 'leave') {
-              this.emit('roomUpdate', data);
-            } else if (data.action === 'delete') {
-              this.emit('roomDelete', data);
+          // 빠른 매칭 결과: 매칭되면 서버가 이미 방에 넣었으므로 방만 구독
+          this.client.subscribe('/topic/minigame/match/' + this.userId, (message) => {
+            const data = JSON.parse(message.body);
+            if (data.status === 'matched' && data.roomId) {
+              this.subscribeToRoom(data.roomId);
+              this.currentRoomId = data.roomId;
             }
+            this.emit('matchResult', data);
           });
 
-          // 방 목록 전체 구독
-          this.client.subscribe('/topic/minigame/rooms-list', (message) => {
+          // 내가 만든 방 (전체 방 정보, 대기방으로 이동)
+          this.client.subscribe('/topic/minigame/my-room/' + this.userId, (message) => {
             const data = JSON.parse(message.body);
-            this.emit('roomsList', data);
+            this.emit('roomUpdate', data);
           });
 
           // 개인 게임 초대 구독
@@ -91,8 +132,32 @@ class MinigameService {
             this.emit('joinResult', data);
           });
 
+          // 방 입장 시 최근 방 채팅 기록 (한 번)
+          this.client.subscribe('/topic/minigame/chat-history/' + this.userId, (message) => {
+            const history = JSON.parse(message.body);
+            (history.messages || []).forEach((data) => this.emit('roomChat', data));
+          });
+
+          // 판 상태 동기화 (requestGameState 응답): 스냅샷을 먼저 적용하고 그 뒤 이벤트를 순서대로 재생
+          this.client.subscribe('/topic/minigame/state/' + this.userId, (message) => {
+            const sync = JSON.parse(message.body);
+            this.emit('gameSync', sync);
+            (sync.events || []).forEach((evt) => this.emit('gameEvent', evt));
+          });
+
+          // 순위표 (requestLeaderboard 응답)
+          this.client.subscribe('/topic/minigame/leaderboard/' + this.userId, (message) => {
+            this.emit('leaderboard', JSON.parse(message.body));
+          });
+
+          // 시계 맞추기 응답
+          this.client.subscribe('/topic/minigame/clock/' + this.userId, (message) => {
+            this.handleClockPong(JSON.parse(message.body));
+          });
+
           // 초기 방 목록 요청
           this.requestRoomsList();
+          this.startClockSync();
 
           if (!settled) {
             settled = true;
@@ -107,6 +172,7 @@ class MinigameService {
         onWebSocketClose: () => {
           console.log('⚠️ Minigame WebSocket Closed');
           this.connected = false;
+          this.stopClockSync();
           this.emit('connectionStatus', { connected: false }); // 연결 상태 전달
         }
       });
@@ -124,21 +190,169 @@ class MinigameService {
       this.client.deactivate();
       this.connected = false;
       this.subscribedRooms.clear(); // 모든 구독 목록 초기화
+      this.roomSnapshot = null;
+      this.roomSyncPending = false;
+      this.stopClockSync();
       console.log('🔌 Minigame WebSocket Disconnected');
     }
   }
 
   /**
-   * 방 목록 요청
+   * 시계 맞추기 시작 (연결 직후 몇 번 연달아, 이후 주기적으로)
    */
-  requestRoomsList() {
+  startClockSync() {
+    this.stopClockSync();
+    for (let i = 0; i < CLOCK_SYNC_BURST; i++) {
+      this.clockTimers.push(setTimeout(() => this.sendClockPing(), i * CLOCK_SYNC_BURST_GAP_MS));
+    }
+    this.clockTimers.push(setInterval(() => this.sendClockPing(), CLOCK_SYNC_INTERVAL_MS));
+  }
+
+  stopClockSync() {
+    // clearTimeout/clearInterval은 서로의 id도 지움
+    this.clockTimers.forEach((id) => clearInterval(id));
+    this.clockTimers = [];
+    this.lastClockPong = null;
+  }
+
+  sendClockPing() {
+    if (!this.connected || !this.client) return;
+    const pong = this.lastClockPong;
+    this.client.publish({
+      destination: '/app/minigame.clock.sync',
+      body: JSON.stringify({
+        userId: this.userId,
+        clientSendTs: Date.now(),
+        lastClientSendTs: pong ? pong.clientSendTs : null,
+        lastClientReceiveTs: pong ? pong.receivedAt : null
+      })
+    });
+  }
+
+  handleClockPong(pong) {
+    this.lastClockPong = { clientSendTs: pong.clientSendTs, receivedAt: Date.now() };
+    if (pong.offsetMs != null) this.clockOffset = pong.offsetMs;
+    if (pong.rttMs != null) this.rtt = pong.rttMs;
+  }
+
+  /**
+   * 서버 시계 기준 현재 시각 (추정)
+   */
+  getServerTime() {
+    return Date.now() + this.clockOffset;
+  }
+
+  /**
+   * 방 목록 스냅샷 요청 (첫 페이지부터 nextCursor로 마지막 페이지까지 이어서 받음)
+   */
+  requestRoomsList(afterCursor = null) {
     if (this.connected && this.client) {
+      if (afterCursor == null) {
+        this.roomSnapshot = { rooms: new Map(), deltas: [] };
+      }
       this.client.publish({
-        destination: '/app/minigame.rooms.list'
+        destination: '/app/minigame.rooms.list',
+        body: JSON.stringify({ userId: this.userId, afterCursor, size: ROOM_PAGE_SIZE })
       });
     }
   }
 
+  /**
+   * 변경 번호가 건너뛰었을 때 빠진 변경 요청 (너무 오래됐으면 서버가 스냅샷을 보냄)
+   */
+  requestRoomsSync() {
+    if (!this.connected || !this.client || this.roomSyncPending) return;
+    this.roomSyncPending = true;
+    this.client.publish({
+      destination: '/app/minigame.rooms.sync',
+      body: JSON.stringify({ userId: this.userId, sinceSequence: this.roomSequence, size: ROOM_PAGE_SIZE })
+    });
+  }
+
+  /**
+   * 근처 방 검색 (radiusMeters가 없으면 반경 없이 가까운 순)
+   * gpsLocation: [lng, lat]
+   */
+  requestNearbyRooms(gpsLocation, { radiusMeters = null, page = 0, size = 20 } = {}) {
+    if (!this.connected || !this.client || !gpsLocation) return;
+    this.client.publish({
+      destination: '/app/minigame.rooms.nearby',
+      body: JSON.stringify({
+        userId: this.userId,
+        lng: gpsLocation[0],
+        lat: gpsLocation[1],
+        radiusMeters,
+        page,
+        size
+      })
+    });
+  }
+
+  /**
+   * 현재 방 목록 (요약)
+   */
+  getRooms() {
+    return Array.from(this.roomDirectory.values());
+  }
+
+  handleRoomsSnapshot(snapshot) {
+    if (!this.roomSnapshot || snapshot.afterCursor == null) {
+      this.roomSnapshot = { rooms: new Map(), deltas: this.roomSnapshot?.deltas || [] };
+    }
+    (snapshot.rooms || []).forEach((room) => this.roomSnapshot.rooms.set(room.roomId, room));
+
+    // 다음 페이지는 이 페이지 마지막 방 다음부터 (그 사이 지워진 방 때문에 밀리지 않음)
+    if (snapshot.hasMore) {
+      this.requestRoomsList(snapshot.nextCursor);
+      return;
+    }
+
+    // 마지막 페이지: 스냅샷으로 바꾸고 받는 동안 온 변경을 다시 적용 (version이 더 새로운 것만 반영됨)
+    const { rooms, deltas } = this.roomSnapshot;
+    this.roomSnapshot = null;
+    this.roomSyncPending = false;
+    this.roomDirectory = rooms;
+    this.roomSequence = snapshot.sequence;
+    deltas.forEach((delta) => this.applyRoomDelta(delta));
+    this.emit('roomsList', this.getRooms());
+  }
+
+  handleRoomDelta(delta) {
+    if (this.roomSnapshot) {
+      this.roomSnapshot.deltas.push(delta);
+      return;
+    }
+    this.applyRoomDelta(delta);
+    this.emit('roomsList', this.getRooms());
+  }
+
+  handleRoomsSync(sync) {
+    (sync.deltas || []).forEach((delta) => this.applyRoomDelta(delta));
+    this.roomSequence = Math.max(this.roomSequence, sync.sequence);
+    this.roomSyncPending = false;
+    this.emit('roomsList', this.getRooms());
+  }
+
+  applyRoomDelta(delta) {
+    const current = this.roomDirectory.get(delta.roomId);
+    if (!current || (current.version || 0) < delta.sequence) {
+      if (delta.action === 'remove') {
+        if (current) {
+          this.roomDirectory.delete(delta.roomId);
+          this.emit('roomDelete', { roomId: delta.roomId });
+        }
+      } else {
+        this.roomDirectory.set(delta.roomId, delta.room);
+      }
+    }
+
+    if (delta.sequence === this.roomSequence + 1) {
+      this.roomSequence = delta.sequence;
+    } else if (delta.sequence > this.roomSequence + 1) {
+      this.requestRoomsSync();
+    }
+  }
+
   /**
    * 방 생성
    */
@@ -199,6 +413,58 @@ class MinigameService {
 
   }
 
+  /**
+   * 빠른 매칭 대기열 등록
+   * options: { level, selectedProfile, selectedOutline, levelBand, gpsLocation: [lng, lat], maxDistanceMeters }
+   */
+  requestMatch(gameName, options = {}) {
+    if (!this.connected || !this.client) {
+      console.error('WebSocket not connected');
+      return;
+    }
+
+    const { level, selectedProfile, selectedOutline, levelBand = null, gpsLocation = null, maxDistanceMeters = null } = options;
+    const payload = {
+      userId: this.userId,
+      username: this.username,
+      level: level || 1,
+      selectedProfile: selectedProfile || null,
+      selectedOutline: selectedOutline || null,
+      gameName,
+      levelBand,
+      gpsLng: gpsLocation ? gpsLocation[0] : null,
+      gpsLat: gpsLocation ? gpsLocation[1] : null,
+      maxDistanceMeters
+    };
+
+    this.client.publish({
+      destination: '/app/minigame.match.join',
+      body: JSON.stringify(payload)
+    });
+  }
+
+  /**
+   * 순위표 요청 (scope: global | daily | friends)
+   */
+  requestLeaderboard(gameName, { scope = 'global', offset = 0, limit = 20 } = {}) {
+    if (!this.connected || !this.client) return;
+    this.client.publish({
+      destination: '/app/minigame.leaderboard',
+      body: JSON.stringify({ userId: this.userId, gameName, scope, offset, limit })
+    });
+  }
+
+  /**
+   * 빠른 매칭 취소
+   */
+  cancelMatch() {
+    if (!this.connected || !this.client) return;
+    this.client.publish({
+      destination: '/app/minigame.match.cancel',
+      body: JSON.stringify({ userId: this.userId })
+    });
+  }
+
   /**
    * 방 구독
    */
@@ -1,5 +1,6 @@
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
+import PlazaSnapshotDecoder, { encodeMove } from './plazaSnapshotDecoder';
 
 class MultiplayerService {
   constructor() {
@@ -8,6 +9,11 @@ class MultiplayerService {
     this.userId = null;
     this.username = null;
     this.isObserver = false; // Observer mode (view-only, no join broadcast)
+    this.snapshotDecoder = new PlazaSnapshotDecoder(); // compact 위치 스냅샷 디코더
+    this.moveSocket = null; // 이동 전용 바이너리 WebSocket (/ws-move), 없으면 STOMP로 전송
+    this.lastSentModelPath = undefined;
+    this.lastSentRoomId = undefined;
+    this.lastPosition = null; // 마지막으로 보낸 위치 (재접속 시 입장 스냅샷 범위 계산용)
 
     // Callbacks (배열로 변경하여 여러 리스너 지원)
     this.onPlayerJoinCallbacks = [];
@@ -19,6 +25,7 @@ class MultiplayerService {
     this.onFriendUpdateCallbacks = [];
     this.onDMMessageCallbacks = [];
     this.onRoomUpdateCallbacks = []; // 방 생성/삭제 콜백 추가
+    this.onPlayerOutOfRangeCallbacks = []; // 관심 반경 밖으로 나간 플레이어
   }
 
   connect(userId, username, isObserver = false) {
@@ -42,8 +49,10 @@ class MultiplayerService {
     this.userId = userId;
     this.username = username;
     this.isObserver = isObserver;
+    this.snapshotDecoder.reset();
 
     const wsUrl = process.env.REACT_APP_SOCKET_URL || 'http://localhost:8080';
+    this.wsUrl = wsUrl;
     const socket = new SockJS(`${wsUrl}/ws`);
 
     this.client = new Client({
@@ -56,17 +65,10 @@ class MultiplayerService {
         console.log('✅ WebSocket Connected');
         this.connected = true;
 
-        // Subscribe to player join/leave events
-        this.client.subscribe('/topic/players', (message) => {
-          const data = JSON.parse(message.body);
-
-          // Handle all actions including 'duplicate'
-          if (data.action === 'join' || data.action === 'duplicate') {
-            this.onPlayerJoinCallbacks.forEach(cb => cb?.(data));
-          } else if (data.action === 'leave') {
-            // Always handle leave events (observer will see all, player will filter in App.js)
-            this.onPlayerLeaveCallbacks.forEach(cb => cb?.(data));
-          }
+        // Subscribe to player join/leave events (서버가 짧은 구간마다 묶어서 한 프레임으로 전송)
+        this.client.subscribe('/topic/players.batch', (message) => {
+          const batch = JSON.parse(message.body);
+          (batch.events || []).forEach((data) => this.handlePlayerEvent(data));
         });
 
         // Subscribe to online count updates
@@ -75,20 +77,52 @@ class MultiplayerService {
           this.onOnlineCountUpdateCallbacks.forEach(cb => cb?.(count));
         });
 
-        // Subscribe to position updates
-        this.client.subscribe('/topic/positions', (message) => {
+        // Subscribe to position snapshots (서버 틱마다 움직인 플레이어들을 묶어서 전송)
+        const handleSnapshot = (message) => {
+          let players;
+          if (message.body.startsWith('{')) {
+            players = JSON.parse(message.body).players || [];
+          } else {
+            // compact 포맷 (Base64) - 받은 tick은 다음 위치 업데이트에 ack로 함께 전송
+            try {
+              players = this.snapshotDecoder.decode(message.body).players;
+            } catch (error) {
+              console.warn('Failed to decode plaza snapshot:', error.message);
+              return;
+            }
+          }
+          this.dispatchSnapshotPlayers(players);
+        };
+        // 관심 영역 비활성화 시 전체 브로드캐스트
+        this.client.subscribe('/topic/snapshots', handleSnapshot);
+        // 관심 반경 안의 플레이어 위치만 수신
+        this.client.subscribe('/topic/snapshots/' + this.userId, handleSnapshot);
+
+        // 관심 반경 진입/이탈 이벤트
+        this.client.subscribe('/topic/interest/' + this.userId, (message) => {
           const data = JSON.parse(message.body);
-
-          // In observer mode, show all position updates; in player mode, ignore own
-          if (this.isObserver || String(data.userId) !== String(this.userId)) {
-            this.onPositionUpdateCallbacks.forEach(cb => cb?.(data));
+          if (data.action === 'enter' && data.position) {
+            this.onPositionUpdateCallbacks.forEach(cb => cb?.(data.position));
+          } else if (data.action === 'leave') {
+            this.onPlayerOutOfRangeCallbacks.forEach(cb => cb?.(data));
           }
         });
 
-        // Subscribe to chat messages
-        this.client.subscribe('/topic/chat', (message) => {
-          const data = JSON.parse(message.body);
-          this.onChatMessageCallbacks.forEach(cb => cb?.(data));
+        // 채팅: 입장한 플레이어는 서버가 지금 있는 공간(광장/개인 방)과 주변 채팅을 구독해 준다 (onUnhandledMessage)
+        // 관전 모드는 입장하지 않으므로 광장 채팅을 직접 구독
+        if (this.isObserver) {
+          this.client.subscribe('/topic/chat', (message) => {
+            const data = JSON.parse(message.body);
+            this.onChatMessageCallbacks.forEach(cb => cb?.(data));
+          });
+        }
+
+        // 입장 시 최근 광장 채팅 기록 (한 번)
+        this.client.subscribe('/topic/chat-history/' + this.userId, (message) => {
+          const history = JSON.parse(message.body);
+          (history.messages || []).forEach((data) => {
+            this.onChatMessageCallbacks.forEach(cb => cb?.(data));
+          });
         });
 
         // Subscribe to friend updates (친구 요청, 수락 등)
@@ -115,6 +149,14 @@ class MultiplayerService {
           this.sendPlayerJoin();
         }
       },
+      // 서버가 관리하는 구독 (구독 ID가 'chat-'로 시작)
+      onUnhandledMessage: (message) => {
+        const subscription = message.headers.subscription || '';
+        if (subscription.startsWith('chat-')) {
+          const data = JSON.parse(message.body);
+          this.onChatMessageCallbacks.forEach(cb => cb?.(data));
+        }
+      },
       onStompError: (frame) => {
         console.error('❌ STOMP Error:', frame.headers['message']);
         console.error('Details:', frame.body);
@@ -122,6 +164,7 @@ class MultiplayerService {
       onWebSocketClose: () => {
         console.log('⚠️ WebSocket Closed');
         this.connected = false;
+        this.closeMoveSocket();
       }
     });
 
@@ -129,19 +172,90 @@ class MultiplayerService {
   }
 
   disconnect() {
+    this.closeMoveSocket();
     if (this.client) {
       this.client.deactivate();
       this.connected = false;
     }
   }
 
+  handlePlayerEvent(data) {
+    // Handle all actions including 'duplicate'
+    if (data.action === 'join' || data.action === 'duplicate') {
+      // 내 입장이 확인되면 이동 전용 바이너리 연결 시작
+      if (data.action === 'join' && !this.isObserver && String(data.userId) === String(this.userId)) {
+        this.openMoveSocket();
+      }
+      this.onPlayerJoinCallbacks.forEach(cb => cb?.(data));
+    } else if (data.action === 'leave') {
+      // Always handle leave events (observer will see all, player will filter in App.js)
+      this.onPlayerLeaveCallbacks.forEach(cb => cb?.(data));
+    }
+  }
+
+  dispatchSnapshotPlayers(players) {
+    players.forEach((data) => {
+      // In observer mode, show all position updates; in player mode, ignore own
+      if (this.isObserver || String(data.userId) !== String(this.userId)) {
+        this.onPositionUpdateCallbacks.forEach(cb => cb?.(data));
+      }
+    });
+  }
+
+  // 이동/스냅샷 전용 바이너리 WebSocket (STOMP 입장 후에만 서버가 받아줌)
+  // 연결이 안 되거나 끊기면 위치는 다시 STOMP로 보내고 스냅샷도 STOMP로 받는다
+  openMoveSocket() {
+    const token = localStorage.getItem('token');
+    if (!token || typeof WebSocket === 'undefined' || this.moveSocket) {
+      return;
+    }
+
+    const url = `${this.wsUrl.replace(/^http/, 'ws')}/ws-move?token=${encodeURIComponent(token)}`;
+    const socket = new WebSocket(url);
+    socket.binaryType = 'arraybuffer';
+    this.moveSocket = socket;
+
+    socket.onopen = () => {
+      console.log('✅ Binary movement socket connected');
+      // 새 연결에서는 모델/방 정보를 다시 보냄
+      this.lastSentModelPath = undefined;
+      this.lastSentRoomId = undefined;
+    };
+    socket.onmessage = (event) => {
+      if (!(event.data instanceof ArrayBuffer)) {
+        return;
+      }
+      try {
+        this.dispatchSnapshotPlayers(this.snapshotDecoder.decode(event.data).players);
+      } catch (error) {
+        console.warn('Failed to decode plaza snapshot:', error.message);
+      }
+    };
+    socket.onclose = () => {
+      if (this.moveSocket === socket) {
+        this.moveSocket = null;
+      }
+    };
+  }
+
+  closeMoveSocket() {
+    if (this.moveSocket) {
+      const socket = this.moveSocket;
+      this.moveSocket = null;
+      socket.close();
+    }
+  }
+
   sendPlayerJoin() {
     if (this.connected && this.client) {
       this.client.publish({
         destination: '/app/player.join',
         body: JSON.stringify({
           userId: this.userId,
-          username: this.username
+          username: this.username,
+          snapshotFormat: 'compact',
+          x: this.lastPosition ? this.lastPosition[0] : null,
+          z: this.lastPosition ? this.lastPosition[2] : null
         })
       });
     }
@@ -154,6 +268,8 @@ class MultiplayerService {
       return;
     }
     
+    this.lastPosition = position;
+
     try {
       // client.active 체크 (STOMP 클라이언트가 활성화되어 있는지)
       if (!this.client.active) {
@@ -161,6 +277,25 @@ class MultiplayerService {
         return;
       }
       
+      if (this.moveSocket && this.moveSocket.readyState === WebSocket.OPEN) {
+        const includeModel = modelPath !== this.lastSentModelPath;
+        const includeRoom = currentRoomId !== this.lastSentRoomId;
+        this.moveSocket.send(encodeMove({
+          ackTick: this.snapshotDecoder.lastTick,
+          position,
+          rotationY,
+          animation,
+          modelPath,
+          isChangingAvatar,
+          currentRoomId,
+          includeModel,
+          includeRoom
+        }));
+        this.lastSentModelPath = modelPath;
+        this.lastSentRoomId = currentRoomId;
+        return;
+      }
+
       this.client.publish({
         destination: '/app/player.position',
         body: JSON.stringify({
@@ -173,7 +308,8 @@ class MultiplayerService {
           animation: animation,
           modelPath: modelPath,
           isChangingAvatar: isChangingAvatar,
-          currentRoomId: currentRoomId
+          currentRoomId: currentRoomId,
+          ackTick: this.snapshotDecoder.lastTick || null
         })
       });
     } catch (error) {
@@ -185,14 +321,16 @@ class MultiplayerService {
     }
   }
 
-  sendChatMessage(message) {
+  // local = true 이면 주변 플레이어에게만 (주변 채팅), 아니면 지금 있는 공간(광장/개인 방) 전체
+  sendChatMessage(message, local = false) {
     if (this.connected && this.client) {
       this.client.publish({
         destination: '/app/chat.message',
         body: JSON.stringify({
           userId: this.userId,
           username: this.username,
-          message: message
+          message: message,
+          channel: local ? 'local' : undefined
         })
       });
     }
@@ -238,6 +376,15 @@ class MultiplayerService {
     }
   }
 
+  onPlayerOutOfRange(callback) {
+    if (callback) {
+      this.onPlayerOutOfRangeCallbacks.push(callback);
+      return () => {
+        this.onPlayerOutOfRangeCallbacks = this.onPlayerOutOfRangeCallbacks.filter(cb => cb !== callback);
+      };
+    }
+  }
+
   onChatMessage(callback) {
     if (callback) {
       this.onChatMessageCallbacks.push(callback);
@@ -0,0 +1,242 @@
+// 광장 compact 위치 스냅샷 디코더 / 이동 프레임 인코더
+// 포맷은 backend PlazaSnapshotCodec 과 동일하게 유지해야 함
+
+const FRAME_SNAPSHOT = 1;
+const FRAME_MOVE = 2;
+
+const SPAWN = 0x01;
+const DESPAWN = 0x02;
+const POSITION = 0x04;
+const ROTATION = 0x08;
+const ANIMATION = 0x10;
+const MODEL = 0x20;
+const CHANGING_AVATAR = 0x40;
+const ROOM = 0x80;
+
+const POSITION_SCALE = 64;
+const ROTATION_STEPS = 256;
+const ANIMATIONS = ['idle', 'walk', 'run', 'jump'];
+
+// 서버가 기억하는 스냅샷 수와 동일
+const HISTORY = 32;
+
+const textDecoder = new TextDecoder();
+const textEncoder = new TextEncoder();
+
+class FrameReader {
+  constructor(bytes) {
+    this.bytes = bytes;
+    this.pos = 0;
+  }
+
+  byte() {
+    return this.bytes[this.pos++];
+  }
+
+  varint() {
+    let result = 0;
+    let scale = 1;
+    let b;
+    do {
+      b = this.byte();
+      result += (b & 0x7f) * scale;
+      scale *= 128;
+    } while (b & 0x80);
+    return result;
+  }
+
+  zigzag() {
+    const raw = this.varint();
+    return raw % 2 === 0 ? raw / 2 : -(raw + 1) / 2;
+  }
+
+  string() {
+    const length = this.varint();
+    const value = textDecoder.decode(this.bytes.subarray(this.pos, this.pos + length));
+    this.pos += length;
+    return value;
+  }
+}
+
+const toBytes = (base64) => {
+  const binary = atob(base64);
+  const bytes = new Uint8Array(binary.length);
+  for (let i = 0; i < binary.length; i++) {
+    bytes[i] = binary.charCodeAt(i);
+  }
+  return bytes;
+};
+
+class FrameWriter {
+  constructor() {
+    this.bytes = [];
+  }
+
+  byte(value) {
+    this.bytes.push(value & 0xff);
+  }
+
+  varint(value) {
+    while (value >= 0x80) {
+      this.bytes.push((value % 128) | 0x80);
+      value = Math.floor(value / 128);
+    }
+    this.bytes.push(value);
+  }
+
+  zigzag(value) {
+    this.varint(value >= 0 ? value * 2 : -value * 2 - 1);
+  }
+
+  string(value) {
+    const encoded = textEncoder.encode(value || '');
+    this.varint(encoded.length);
+    encoded.forEach((b) => this.bytes.push(b));
+  }
+
+  toArrayBuffer() {
+    return new Uint8Array(this.bytes).buffer;
+  }
+}
+
+const quantizeRotation = (radians) =>
+  Math.round((radians / (2 * Math.PI)) * ROTATION_STEPS) & (ROTATION_STEPS - 1);
+
+const animationCode = (animation) => {
+  const index = ANIMATIONS.indexOf(String(animation || '').toLowerCase());
+  return index < 0 ? 0 : index;
+};
+
+/**
+ * 바이너리 이동 WebSocket(/ws-move)으로 보낼 이동 프레임 인코딩
+ * modelPath / currentRoomId 는 바뀌었을 때만 includeModel / includeRoom 으로 포함
+ */
+export const encodeMove = ({ ackTick, position, rotationY, animation, modelPath, isChangingAvatar,
+  currentRoomId, includeModel, includeRoom }) => {
+  const writer = new FrameWriter();
+  writer.byte(FRAME_MOVE);
+  writer.varint(ackTick || 0);
+
+  let mask = POSITION | ROTATION | ANIMATION;
+  if (includeModel) mask |= MODEL;
+  if (includeRoom) mask |= ROOM;
+  if (isChangingAvatar) mask |= CHANGING_AVATAR;
+  writer.byte(mask);
+
+  writer.zigzag(Math.round(position[0] * POSITION_SCALE));
+  writer.zigzag(Math.round(position[1] * POSITION_SCALE));
+  writer.zigzag(Math.round(position[2] * POSITION_SCALE));
+  writer.byte(quantizeRotation(rotationY || 0));
+  writer.byte(animationCode(animation));
+  if (includeModel) writer.string(modelPath);
+  if (includeRoom) writer.string(currentRoomId);
+  return writer.toArrayBuffer();
+};
+
+const dequantizeRotation = (value) => {
+  const radians = (value * 2 * Math.PI) / ROTATION_STEPS;
+  return radians > Math.PI ? radians - 2 * Math.PI : radians;
+};
+
+class PlazaSnapshotDecoder {
+  constructor() {
+    this.reset();
+  }
+
+  reset() {
+    this.history = new Map(); // tick -> Map(handle -> state)
+    this.models = new Map();  // modelId -> modelPath
+    this.lastTick = 0;
+  }
+
+  /**
+   * 프레임(STOMP로 받은 Base64 문자열 또는 /ws-move 로 받은 바이트)을 디코딩해서 바뀐 플레이어들의 위치 데이터(PlayerPositionDto 형태)를 반환
+   * @returns {{ tick: number, players: object[], removed: string[] }}
+   */
+  decode(frame) {
+    const bytes = typeof frame === 'string' ? toBytes(frame) : new Uint8Array(frame);
+    const reader = new FrameReader(bytes);
+    const type = reader.byte();
+    if (type !== FRAME_SNAPSHOT) {
+      throw new Error(`Unknown plaza frame type: ${type}`);
+    }
+
+    const tick = reader.varint();
+    const baselineTick = reader.varint();
+
+    const modelCount = reader.varint();
+    for (let i = 0; i < modelCount; i++) {
+      const id = reader.varint();
+      this.models.set(id, reader.string());
+    }
+
+    const baseline = baselineTick === 0 ? new Map() : this.history.get(baselineTick);
+    if (!baseline) {
+      throw new Error(`Missing baseline snapshot ${baselineTick}`);
+    }
+    const state = new Map(baseline);
+    const players = [];
+    const removed = [];
+
+    const count = reader.varint();
+    for (let i = 0; i < count; i++) {
+      const handle = reader.varint();
+      const mask = reader.byte();
+
+      if (mask & DESPAWN) {
+        const prev = state.get(handle);
+        if (prev) removed.push(prev.userId);
+        state.delete(handle);
+        continue;
+      }
+
+      const prev = (mask & SPAWN) ? null : state.get(handle);
+      const next = prev ? { ...prev } : { x: 0, y: 0, z: 0 };
+      if (mask & SPAWN) {
+        next.userId = reader.string();
+        next.username = reader.string();
+      }
+      if (mask & POSITION) {
+        next.x += reader.zigzag();
+        next.y += reader.zigzag();
+        next.z += reader.zigzag();
+      }
+      if (mask & ROTATION) next.rotation = reader.byte();
+      if (mask & ANIMATION) next.animation = reader.byte();
+      if (mask & MODEL) next.model = reader.varint();
+      if (mask & ROOM) next.roomId = reader.string();
+      next.changingAvatar = (mask & CHANGING_AVATAR) !== 0;
+
+      state.set(handle, next);
+      players.push(this.toPosition(next));
+    }
+
+    // 서버는 ack한 tick보다 오래된 baseline을 쓰지 않으므로 그 이전 기록은 버린다
+    this.history.set(tick, state);
+    for (const oldTick of this.history.keys()) {
+      if (oldTick < baselineTick || this.history.size > HISTORY) {
+        this.history.delete(oldTick);
+      }
+    }
+    this.lastTick = Math.max(this.lastTick, tick);
+
+    return { tick, players, removed };
+  }
+
+  toPosition(entity) {
+    return {
+      userId: entity.userId,
+      username: entity.username,
+      x: entity.x / POSITION_SCALE,
+      y: entity.y / POSITION_SCALE,
+      z: entity.z / POSITION_SCALE,
+      rotationY: dequantizeRotation(entity.rotation),
+      animation: ANIMATIONS[entity.animation] || 'idle',
+      modelPath: entity.model ? this.models.get(entity.model) : undefined,
+      isChangingAvatar: entity.changingAvatar,
+      currentRoomId: entity.roomId || null
+    };
+  }
+}
+
+export default PlazaSnapshotDecoder;